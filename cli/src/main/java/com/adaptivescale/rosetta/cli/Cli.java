@@ -3,26 +3,36 @@ package com.adaptivescale.rosetta.cli;
 import com.adaptivescale.rosetta.cli.model.Config;
 import com.adaptivescale.rosetta.cli.outputs.DbtSqlModelOutput;
 import com.adaptivescale.rosetta.cli.outputs.DbtYamlModelOutput;
+import com.adaptivescale.rosetta.cli.outputs.DiffOutput;
 import com.adaptivescale.rosetta.cli.outputs.StringOutput;
 import com.adaptivescale.rosetta.cli.outputs.YamlModelOutput;
 import com.adaptivescale.rosetta.common.models.Database;
+import com.adaptivescale.rosetta.common.models.Table;
+import com.adaptivescale.rosetta.common.models.TableStatistics;
 import com.adaptivescale.rosetta.common.DriverManagerDriverProvider;
 import com.adaptivescale.rosetta.common.models.dbt.DbtModel;
 import com.adaptivescale.rosetta.common.models.input.Connection;
 import com.adaptivescale.rosetta.ddl.DDL;
+import com.adaptivescale.rosetta.ddl.change.ChangeDependencyGraph;
+import com.adaptivescale.rosetta.ddl.executor.ConcurrentDDLExecutor;
 import com.adaptivescale.rosetta.ddl.executor.DDLExecutor;
+import com.adaptivescale.rosetta.ddl.ApplyOptions;
 import com.adaptivescale.rosetta.ddl.DDLFactory;
 import com.adaptivescale.rosetta.ddl.change.ChangeFinder;
 import com.adaptivescale.rosetta.ddl.change.ChangeHandler;
 import com.adaptivescale.rosetta.ddl.change.model.Change;
+import com.adaptivescale.rosetta.ddl.cost.ChangeCost;
+import com.adaptivescale.rosetta.ddl.cost.CostEstimator;
+import com.adaptivescale.rosetta.ddl.cost.CostLimit;
 import com.adaptivescale.rosetta.test.assertion.*;
 import com.adaptivescale.rosetta.test.assertion.AssertionSqlGenerator;
 import com.adaptivescale.rosetta.test.assertion.generator.AssertionSqlGeneratorFactory;
 import com.adaptivescale.rosetta.test.assertion.DefaultSqlExecution;
 import com.adaptivescale.rosetta.diff.DiffFactory;
-import com.adaptivescale.rosetta.diff.Diff;
+import com.adaptivescale.rosetta.diff.Difference;
 import com.adaptivescale.rosetta.translator.Translator;
 import com.adaptivescale.rosetta.translator.TranslatorFactory;
+import com.adataptivescale.rosetta.source.core.CatalogSession;
 import com.adataptivescale.rosetta.source.core.SourceGeneratorFactory;
 
 import com.adataptivescale.rosetta.source.dbt.DbtModelGenerator;
@@ -31,14 +41,18 @@ import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.output.CloseShieldOutputStream;
 import picocli.CommandLine;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.text.SimpleDateFormat;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.Callable;
 
@@ -75,7 +89,8 @@ class Cli implements Callable<Void> {
 
     @CommandLine.Command(name = "extract", description = "Extract schema chosen from connection config.", mixinStandardHelpOptions = true)
     private void extract(@CommandLine.Option(names = {"-s", "--source"}, required = true) String sourceName,
-                         @CommandLine.Option(names = {"-t", "--convert-to"}) String targetName
+                         @CommandLine.Option(names = {"-t", "--convert-to"}) String targetName,
+                         @CommandLine.Option(names = {"--derive-layout", "--derive-partitioning"}) boolean deriveLayout
     ) throws Exception {
         requireConfig(config);
         Connection source = getSourceConnection(sourceName);
@@ -99,7 +114,7 @@ class Cli implements Callable<Void> {
         FileUtils.deleteDirectory(targetWorkspace.toFile());
         Files.createDirectory(targetWorkspace);
 
-        generateTranslatedModels(source, sourceWorkspace, target, targetWorkspace);
+        generateTranslatedModels(source, sourceWorkspace, target, targetWorkspace, deriveLayout);
 
         log.info("Successfully written output database yaml ({}/model.yml).", targetWorkspace);
     }
@@ -107,7 +122,8 @@ class Cli implements Callable<Void> {
     @CommandLine.Command(name = "compile", description = "Generate DDL for target Database [bigquery, snowflake, …]", mixinStandardHelpOptions = true)
     private void compile(@CommandLine.Option(names = {"-s", "--source"}) String sourceName,
                          @CommandLine.Option(names = {"-t", "--target"}, required = true) String targetName,
-                         @CommandLine.Option(names = {"-d", "--with-drop"}) boolean dropIfExist
+                         @CommandLine.Option(names = {"-d", "--with-drop"}) boolean dropIfExist,
+                         @CommandLine.Option(names = {"--derive-layout", "--derive-partitioning"}) boolean deriveLayout
     ) throws Exception {
         requireConfig(config);
 
@@ -139,7 +155,8 @@ class Cli implements Callable<Void> {
             FileUtils.deleteDirectory(targetWorkspace.toFile());
             Files.createDirectory(targetWorkspace);
 
-            translatedModels = generateTranslatedModels(source, sourceWorkspace, target, targetWorkspace);
+            translatedModels = generateTranslatedModels(source, sourceWorkspace, target, targetWorkspace,
+                    deriveLayout);
         }
 
         String ddl = translatedModels.stream().map(stringDatabaseEntry -> {
@@ -159,31 +176,65 @@ class Cli implements Callable<Void> {
     @CommandLine.Command(name = "apply", description = "Get current model and compare with state of database," +
             " generate ddl for changes and apply to database. ", mixinStandardHelpOptions = true)
     private void apply(@CommandLine.Option(names = {"-s", "--source"}, required = true) String sourceName,
-                       @CommandLine.Option(names = {"-m", "--model"}, defaultValue = DEFAULT_MODEL_YAML) String model) throws Exception {
+                       @CommandLine.Option(names = {"-m", "--model"}, defaultValue = DEFAULT_MODEL_YAML) String model,
+                       @CommandLine.Option(names = {"--concurrency"}, defaultValue = "1",
+                               description = "Maximum number of connections applying independent changes at the same time." +
+                                       " Only used for targets without transactional DDL.") int concurrency,
+                       @CommandLine.Option(names = {"--online"},
+                               description = "Apply changes without blocking writes where the target supports it." +
+                                       " Changes that would block writes are refused.") boolean online,
+                       @CommandLine.Option(names = {"--allow-blocking"},
+                               description = "With --online, apply changes that would block writes with a warning" +
+                                       " instead of refusing them.") boolean allowBlocking,
+                       @CommandLine.Option(names = {"--lock-timeout"},
+                               description = "Milliseconds a statement may wait for a table lock before it is aborted" +
+                                       " and retried.") Integer lockTimeout,
+                       @CommandLine.Option(names = {"--lock-retries"}, defaultValue = "3",
+                               description = "How often statements aborted by --lock-timeout are retried.") int lockRetries,
+                       @CommandLine.Option(names = {"--statement-group-size"},
+                               defaultValue = "" + ApplyOptions.DEFAULT_STATEMENT_GROUP_SIZE,
+                               description = "Maximum number of statements sent in one round trip on targets" +
+                                       " supporting multi-statement scripts.") int statementGroupSize,
+                       @CommandLine.Option(names = {"--detect-renames"},
+                               description = "Rename tables and columns that have the same definition as exactly one" +
+                                       " dropped table or column instead of dropping and adding them.") boolean detectRenames,
+                       @CommandLine.Option(names = {"--max-cost"},
+                               description = "Refuse the changes if any is more expensive than this cost class" +
+                                       " (instant, in_place, rewrite) or if together they are estimated to take" +
+                                       " longer than this duration (e.g. 30s, 15m, 2h).") String maxCost) throws Exception {
         requireConfig(config);
-
-        Connection source = getSourceConnection(sourceName);
-        Path sourceWorkspace = Paths.get("./", sourceName);
-
-        if (!Files.isDirectory(sourceWorkspace)) {
-            throw new RuntimeException(String.format("Can not find directory: %s for source name: %s to find" +
-                    " models for translation", sourceWorkspace, sourceName));
+        CostLimit costLimit = parseCostLimit(maxCost);
+        if (concurrency < 1) {
+            throw new CommandLine.ParameterException(spec.commandLine(), "--concurrency must be at least 1");
         }
-
-        List<Database> databases = getDatabaseForModel(sourceWorkspace, model)
-                .map(AbstractMap.SimpleImmutableEntry::getValue)
-                .collect(Collectors.toList());
-
-        if (databases.size() != 1) {
-            throw new RuntimeException(String.format("For comparisons we need exactly one model. Found  %d models in" +
-                    " directory %s", databases.size(), sourceWorkspace));
+        if (lockTimeout != null && lockTimeout < 1) {
+            throw new CommandLine.ParameterException(spec.commandLine(), "--lock-timeout must be at least 1");
         }
+        if (lockRetries < 0) {
+            throw new CommandLine.ParameterException(spec.commandLine(), "--lock-retries must not be negative");
+        }
+        if (statementGroupSize < 1) {
+            throw new CommandLine.ParameterException(spec.commandLine(), "--statement-group-size must be at least 1");
+        }
+
+        Connection source = getSourceConnection(sourceName);
+        Path sourceWorkspace = getSourceWorkspace(sourceName);
 
-        Database expectedDatabase = databases.get(0);
+        Database expectedDatabase = getComparedModel(sourceWorkspace, model);
         Database actualDatabase = SourceGeneratorFactory.sourceGenerator(source).generate(source);
 
-        ChangeFinder changeFinder = DDLFactory.changeFinderForDatabaseType(source.getDbType());
-        List<Change<?>> changes = changeFinder.findChanges(expectedDatabase, actualDatabase);
+        ApplyOptions applyOptions = new ApplyOptions();
+        applyOptions.setOnline(online);
+        applyOptions.setAllowBlockingChanges(allowBlocking);
+        applyOptions.setLockTimeoutMillis(lockTimeout);
+        applyOptions.setLockTimeoutRetries(lockRetries);
+        applyOptions.setStatementGroupSize(statementGroupSize);
+        applyOptions.setDetectRenames(detectRenames);
+
+        ChangeFinder changeFinder = DDLFactory.changeFinderForDatabaseType(source.getDbType(), applyOptions);
+        ChangeHandler handler = DDLFactory.changeHandler(source.getDbType(), applyOptions);
+        // redundant changes are removed before anything is decided on them
+        List<Change<?>> changes = handler.orderChanges(changeFinder.findChanges(expectedDatabase, actualDatabase));
 
         if (changes.size() == 0) {
             log.info("No changes detected. Command aborted");
@@ -196,36 +247,112 @@ class Cli implements Callable<Void> {
             return;
         }
 
-        ChangeHandler handler = DDLFactory.changeHandler(source.getDbType());
+        if (costLimit != null) {
+            CostEstimator costEstimator = new CostEstimator(DDLFactory.costModelForDatabaseType(source.getDbType()), actualDatabase);
+            List<String> violations = costLimit.violations(costEstimator.estimate(changes));
+            if (!violations.isEmpty()) {
+                log.info("Not going to perform the changes because they exceed the maximum cost of {}:", maxCost);
+                violations.forEach(violation -> log.info("  {}", violation));
+                return;
+            }
+        }
+
         String ddl = handler.createDDLForChanges(changes);
 
-        Path snapshotsPath = sourceWorkspace.resolve("snapshots");
         Path applyHistory = sourceWorkspace.resolve("apply");
 
-        if (!Files.exists(snapshotsPath)) {
-            Files.createDirectories(snapshotsPath);
-        }
-
         if (!Files.exists(applyHistory)) {
             Files.createDirectories(applyHistory);
         }
 
         String timeStamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
-        String snapshotModelName = String.format("model-%s.yaml", timeStamp);
         String ddlHistoryName = String.format("ddl-%s.sql", timeStamp);
 
-        YamlModelOutput yamlOutputModel = new YamlModelOutput(snapshotModelName, snapshotsPath);
-        yamlOutputModel.write(actualDatabase);
+        SnapshotStore snapshotStore = SnapshotStore.open(sourceWorkspace.resolve("snapshots"));
+        snapshotStore.put(timeStamp, actualDatabase, applyHistory.getFileName().resolve(ddlHistoryName).toString());
 
         StringOutput stringOutput = new StringOutput(ddlHistoryName, applyHistory);
         stringOutput.write(ddl);
 
-        DDLExecutor executor = DDLFactory.executor(source, new DriverManagerDriverProvider());
-        executor.execute(ddl);
+        DDLExecutor executor = DDLFactory.executor(source, new DriverManagerDriverProvider(), applyOptions);
+        if (concurrency > 1 && executor instanceof ConcurrentDDLExecutor) {
+            // createDDLForChanges has already put the changes in a valid serial order
+            ((ConcurrentDDLExecutor) executor).execute(ChangeDependencyGraph.fromOrderedChanges(changes), handler, concurrency);
+        } else {
+            if (concurrency > 1) {
+                log.info("Concurrent apply is not supported for {}, applying changes serially.", source.getDbType());
+            }
+            executor.execute(ddl);
+        }
 
         log.info("Successfully written ddl ({}).", stringOutput.getFilePath());
     }
 
+    @CommandLine.Command(name = "plan", description = "Get current model and compare with state of database," +
+            " print the changes apply would make with their estimated cost, most expensive first.", mixinStandardHelpOptions = true)
+    private void plan(@CommandLine.Option(names = {"-s", "--source"}, required = true) String sourceName,
+                      @CommandLine.Option(names = {"-m", "--model"}, defaultValue = DEFAULT_MODEL_YAML) String model,
+                      @CommandLine.Option(names = {"--detect-renames"},
+                              description = "Rename tables and columns that have the same definition as exactly one" +
+                                      " dropped table or column instead of dropping and adding them.") boolean detectRenames,
+                      @CommandLine.Option(names = {"--max-cost"},
+                              description = "Report whether apply --max-cost with this limit would apply the changes.")
+                              String maxCost) throws Exception {
+        requireConfig(config);
+        CostLimit costLimit = parseCostLimit(maxCost);
+
+        Connection source = getSourceConnection(sourceName);
+        Path sourceWorkspace = getSourceWorkspace(sourceName);
+
+        Database expectedDatabase = getComparedModel(sourceWorkspace, model);
+        Database actualDatabase = SourceGeneratorFactory.sourceGenerator(source).generate(source);
+
+        ApplyOptions applyOptions = new ApplyOptions();
+        applyOptions.setDetectRenames(detectRenames);
+        ChangeFinder changeFinder = DDLFactory.changeFinderForDatabaseType(source.getDbType(), applyOptions);
+        List<Change<?>> changes = changeFinder.findChanges(expectedDatabase, actualDatabase);
+
+        if (changes.size() == 0) {
+            System.out.println("There are no changes");
+            return;
+        }
+
+        ChangeHandler handler = DDLFactory.changeHandler(source.getDbType());
+        CostEstimator costEstimator = new CostEstimator(DDLFactory.costModelForDatabaseType(source.getDbType()), actualDatabase);
+        List<ChangeCost> costs = costEstimator.rank(handler.orderChanges(changes));
+
+        System.out.printf("%d changes, most expensive first:%n", costs.size());
+        for (int i = 0; i < costs.size(); i++) {
+            ChangeCost cost = costs.get(i);
+            String duration = cost.getEstimatedDuration().map(CostLimit::format).orElse("unknown");
+            String size = cost.getStatistics().map(TableStatistics::describe).filter(text -> !text.isEmpty())
+                    .map(text -> " (" + text + ")").orElse("");
+            System.out.printf("%3d. %-8s %-10s %s%s%n", i + 1, cost.getCostClass(), duration, cost.describe(), size);
+
+            String ddl = handler.createDDLForChanges(new ArrayList<>(List.of(cost.getChange())));
+            if (!ddl.isBlank()) {
+                System.out.println("     " + ddl.trim().replace("\r", "\n     "));
+            }
+        }
+
+        Duration total = costs.stream().map(cost -> cost.getEstimatedDuration().orElse(Duration.ZERO))
+                .reduce(Duration.ZERO, Duration::plus);
+        boolean unknown = costs.stream().anyMatch(cost -> cost.getEstimatedDuration().isEmpty());
+        System.out.printf("Estimated duration: %s%s%n", CostLimit.format(total), unknown ? " and changes of unknown duration" : "");
+        if (expectedDatabase.getSafeMode() && changes.stream().anyMatch(change -> change.getStatus() == Change.Status.DROP)) {
+            System.out.println("Safe mode is enabled, apply refuses the DROP operations.");
+        }
+        if (costLimit != null) {
+            List<String> violations = costLimit.violations(costs);
+            if (violations.isEmpty()) {
+                System.out.printf("Within the maximum cost of %s.%n", maxCost);
+            } else {
+                System.out.printf("Exceeds the maximum cost of %s:%n", maxCost);
+                violations.forEach(violation -> System.out.println("  " + violation));
+            }
+        }
+    }
+
     @CommandLine.Command(name = "test", description = "Run tests written on columns", mixinStandardHelpOptions = true)
     private void test(@CommandLine.Option(names = {"-s", "--source"}) String sourceName) throws Exception {
         requireConfig(config);
@@ -234,12 +361,7 @@ class Cli implements Callable<Void> {
         if (source.isEmpty()) {
             throw new RuntimeException("Can not find source with name: " + sourceName + " configured in config.");
         }
-        Path sourceWorkspace = Paths.get("./", sourceName);
-
-        if (!Files.isDirectory(sourceWorkspace)) {
-            throw new RuntimeException(String.format("Can not find directory: %s for source name: %s to find" +
-                    " models for translation", sourceWorkspace, sourceName));
-        }
+        Path sourceWorkspace = getSourceWorkspace(sourceName);
 
         List<Database> collect = getDatabases(sourceWorkspace)
             .map(AbstractMap.SimpleImmutableEntry::getValue)
@@ -305,39 +427,135 @@ class Cli implements Callable<Void> {
 
     @CommandLine.Command(name = "diff", description = "Show difference between local model and database", mixinStandardHelpOptions = true)
     private void diff(@CommandLine.Option(names = {"-s", "--source"}) String sourceName,
-                      @CommandLine.Option(names = {"-m", "--model"}, defaultValue=DEFAULT_MODEL_YAML) String model) throws Exception {
+                      @CommandLine.Option(names = {"-m", "--model"}, defaultValue=DEFAULT_MODEL_YAML) String model,
+                      @CommandLine.Option(names = {"--format"}, defaultValue = "text",
+                              description = "Output format: text, json (one array) or jsonl (one difference per line).") String format,
+                      @CommandLine.Option(names = {"--scoped"},
+                              description = "Only extract the tables of the local model, other tables are only listed.") boolean scoped,
+                      @CommandLine.Option(names = {"--tables"}, split = ",",
+                              description = "Only compare these tables, separated by commas.") List<String> tables,
+                      @CommandLine.Option(names = {"--against-snapshot"},
+                              description = "Compare with the snapshot taken by apply at this timestamp, or the latest," +
+                                      " instead of the database.") String snapshot) throws Exception {
         requireConfig(config);
-        Connection sourceConnection = getSourceConnection(sourceName);
-
-        Path sourceWorkspace = Paths.get("./", sourceName);
-        if (!Files.isDirectory(sourceWorkspace)) {
-            throw new RuntimeException(String.format("Can not find directory: %s for source name: %s to find" +
-                    " models for translation", sourceWorkspace, sourceName));
+        DiffOutput.Format diffFormat = parseDiffFormat(format);
+        if (snapshot != null && scoped) {
+            throw new CommandLine.ParameterException(spec.commandLine(), "--scoped can not be used with --against-snapshot");
         }
+        Connection sourceConnection = snapshot == null ? getSourceConnection(sourceName) : null;
 
-        List<Database> databases = getDatabaseForModel(sourceWorkspace, model)
-                .map(AbstractMap.SimpleImmutableEntry::getValue)
-                .collect(Collectors.toList());
+        Path sourceWorkspace = getSourceWorkspace(sourceName);
 
-        if (databases.size() != 1) {
-            throw new RuntimeException(String.format("For comparisons we need exactly one model. Found  %d models in" +
-                    " directory %s", databases.size(), sourceWorkspace));
+        Database localDatabase = getComparedModel(sourceWorkspace, model);
+        Set<String> tableFilter = tables == null ? null : new HashSet<>(tables);
+        if (tableFilter != null) {
+            localDatabase.setTables(onlyTables(localDatabase.getTables(), tableFilter));
         }
 
-        Database localDatabase = databases.get(0);
-        Database targetDatabase = SourceGeneratorFactory.sourceGenerator(sourceConnection).generate(sourceConnection);
-
-        Diff<List<String>, Database, Database> tester = DiffFactory.diff();
+        List<Difference> differences;
+        if (snapshot != null) {
+            differences = SnapshotStore.open(sourceWorkspace.resolve("snapshots")).compare(localDatabase, snapshot, tableFilter);
+        } else {
+            Database targetDatabase;
+            if (tableFilter != null) {
+                targetDatabase = SourceGeneratorFactory.scopedSourceGenerator(sourceConnection, tableFilter).generate(sourceConnection);
+                targetDatabase.setTables(onlyTables(targetDatabase.getTables(), tableFilter));
+            } else if (scoped) {
+                Set<String> scope = localDatabase.getTables().stream().map(Table::getName).collect(Collectors.toSet());
+                targetDatabase = SourceGeneratorFactory.scopedSourceGenerator(sourceConnection, scope).generate(sourceConnection);
+            } else {
+                targetDatabase = SourceGeneratorFactory.sourceGenerator(sourceConnection).generate(sourceConnection);
+            }
+            differences = DiffFactory.diff().find(localDatabase, targetDatabase);
+        }
 
-        List<String> changeList = tester.find(localDatabase, targetDatabase);
-        if (changeList.size() > 0) {
+        if (diffFormat != DiffOutput.Format.TEXT) {
+            new DiffOutput(diffFormat, System.out).write(differences);
+        } else if (differences.size() > 0) {
             System.out.println("There are changes between local model and targeted source");
-            changeList.forEach(System.out::println);
+            new DiffOutput(diffFormat, System.out).write(differences);
         } else {
             System.out.println("There are no changes");
         }
     }
 
+    @CommandLine.Command(name = "watch", description = "Keep comparing the local model with the database and report drift" +
+            " as JSON lines", mixinStandardHelpOptions = true)
+    private void watch(@CommandLine.Option(names = {"-s", "--source"}, required = true) String sourceName,
+                       @CommandLine.Option(names = {"-m", "--model"}, defaultValue = DEFAULT_MODEL_YAML) String model,
+                       @CommandLine.Option(names = {"--interval"}, defaultValue = "60",
+                               description = "Seconds between two polls of the table signatures.") int interval,
+                       @CommandLine.Option(names = {"--jitter"}, defaultValue = "10",
+                               description = "Percent of the interval each wait is randomly shortened or lengthened by.") int jitter,
+                       @CommandLine.Option(names = {"--max-backoff"}, defaultValue = "600",
+                               description = "Maximum seconds to wait before retrying after failed polls.") int maxBackoff,
+                       @CommandLine.Option(names = {"--output"},
+                               description = "File the drift is appended to instead of standard output.") Path outputFile) throws Exception {
+        requireConfig(config);
+        if (interval < 1) {
+            throw new CommandLine.ParameterException(spec.commandLine(), "--interval must be at least 1");
+        }
+        if (jitter < 0 || jitter > 100) {
+            throw new CommandLine.ParameterException(spec.commandLine(), "--jitter must be between 0 and 100");
+        }
+        if (maxBackoff < interval) {
+            throw new CommandLine.ParameterException(spec.commandLine(), "--max-backoff must not be less than --interval");
+        }
+        Connection sourceConnection = getSourceConnection(sourceName);
+
+        Path sourceWorkspace = getSourceWorkspace(sourceName);
+
+        Database localDatabase = getComparedModel(sourceWorkspace, model);
+
+        try (CatalogSession session = SourceGeneratorFactory.catalogSession(sourceConnection);
+             OutputStream outputStream = outputFile == null ? CloseShieldOutputStream.wrap(System.out) :
+                     Files.newOutputStream(outputFile, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            DiffOutput output = new DiffOutput(DiffOutput.Format.JSONL, outputStream);
+            log.info("Watching {} for drift every {} seconds.", sourceName, interval);
+            new DriftWatcher(session, localDatabase, output, Duration.ofSeconds(interval), jitter / 100.0,
+                    Duration.ofSeconds(maxBackoff)).run();
+        }
+    }
+
+    @CommandLine.Command(name = "history", description = "List the snapshots taken by apply and what changed between them",
+            mixinStandardHelpOptions = true)
+    private void history(@CommandLine.Option(names = {"-s", "--source"}, required = true) String sourceName,
+                         @CommandLine.Option(names = {"--details"},
+                                 description = "Show the differences between snapshots, not only the changed tables.") boolean details) throws Exception {
+        requireConfig(config);
+        Path sourceWorkspace = getSourceWorkspace(sourceName);
+
+        SnapshotStore snapshotStore = SnapshotStore.open(sourceWorkspace.resolve("snapshots"));
+        if (snapshotStore.snapshots().isEmpty()) {
+            System.out.println("There are no snapshots");
+            return;
+        }
+        snapshotStore.writeHistory(details, System.out::println);
+    }
+
+    private static List<Table> onlyTables(Collection<Table> tables, Set<String> names) {
+        return tables.stream().filter(table -> names.contains(table.getName())).collect(Collectors.toList());
+    }
+
+    private DiffOutput.Format parseDiffFormat(String format) {
+        try {
+            return DiffOutput.Format.parse(format);
+        } catch (IllegalArgumentException e) {
+            throw new CommandLine.ParameterException(spec.commandLine(), e.getMessage());
+        }
+    }
+
+    private CostLimit parseCostLimit(String maxCost) {
+        if (maxCost == null) {
+            return null;
+        }
+        try {
+            return CostLimit.parse(maxCost);
+        } catch (IllegalArgumentException e) {
+            throw new CommandLine.ParameterException(spec.commandLine(), e.getMessage());
+        }
+    }
+
     private void requireConfig(Config config) {
         if (config == null) {
             throw new RuntimeException("Config file is required.");
@@ -361,7 +579,8 @@ class Cli implements Callable<Void> {
         return target.get();
     }
 
-    private List<FileNameAndDatabasePair> generateTranslatedModels(Connection source, Path sourceWorkspace, Connection target, Path targetWorkspace) throws IOException {
+    private List<FileNameAndDatabasePair> generateTranslatedModels(Connection source, Path sourceWorkspace, Connection target,
+                                                                   Path targetWorkspace, boolean deriveLayout) throws IOException {
         List<FileNameAndDatabasePair> translatedModels;
         if (source.getDbType().equals(target.getDbType())) {
             log.info("Skipping translation because the target ({}) and source ({}) db types are the same.",
@@ -369,7 +588,7 @@ class Cli implements Callable<Void> {
             translatedModels = getDatabases(sourceWorkspace).collect(Collectors.toList());
         } else {
             Translator<Database, Database> translator = TranslatorFactory.translator(source.getDbType(),
-                    target.getDbType());
+                    target.getDbType(), deriveLayout);
 
             translatedModels = getDatabases(sourceWorkspace)
                     .map(translateDatabases(translator))
@@ -415,6 +634,27 @@ class Cli implements Callable<Void> {
                 });
     }
 
+    private static Path getSourceWorkspace(String sourceName) {
+        Path sourceWorkspace = Paths.get("./", sourceName);
+        if (!Files.isDirectory(sourceWorkspace)) {
+            throw new RuntimeException(String.format("Can not find directory: %s for source name: %s to find" +
+                    " models for translation", sourceWorkspace, sourceName));
+        }
+        return sourceWorkspace;
+    }
+
+    private Database getComparedModel(Path sourceWorkspace, String model) throws IOException {
+        List<Database> databases = getDatabaseForModel(sourceWorkspace, model)
+                .map(AbstractMap.SimpleImmutableEntry::getValue)
+                .collect(Collectors.toList());
+
+        if (databases.size() != 1) {
+            throw new RuntimeException(String.format("For comparisons we need exactly one model. Found  %d models in" +
+                    " directory %s", databases.size(), sourceWorkspace));
+        }
+        return databases.get(0);
+    }
+
     private Stream<FileNameAndDatabasePair> getDatabaseForModel(Path directory, String model) throws IOException {
         return Files.list(directory)
                 .filter(path -> FilenameUtils.getName(path.toString()).equals(model) && !Files.isDirectory(path))
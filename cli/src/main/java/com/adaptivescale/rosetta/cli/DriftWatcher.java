@@ -0,0 +1,129 @@
+package com.adaptivescale.rosetta.cli;
+
+import com.adaptivescale.rosetta.common.models.Database;
+import com.adaptivescale.rosetta.common.models.Table;
+import com.adaptivescale.rosetta.diff.Diff;
+import com.adaptivescale.rosetta.diff.DiffFactory;
+import com.adaptivescale.rosetta.diff.Difference;
+import com.adataptivescale.rosetta.source.core.interfaces.SignatureSource;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Polls the table signatures of a schema and compares only the tables whose signature changed with the local model.
+ * The first poll compares every table of the model. Tables outside the model are reported once, when they appear.
+ * A failed poll closes the connection and is retried with exponential backoff.
+ */
+@Slf4j
+public class DriftWatcher {
+
+    private final SignatureSource session;
+    private final Map<String, Table> modelTables;
+    private final Output<List<Difference>> output;
+    private final Duration interval;
+    private final double jitter;
+    private final Duration maxBackoff;
+    private final Diff<List<Difference>, Database, Database> tester = DiffFactory.diff();
+
+    private Map<String, String> signatures;
+
+    /**
+     * @param jitter fraction of the interval the wait between two polls is randomly shortened or lengthened by
+     */
+    public DriftWatcher(SignatureSource session, Database model, Output<List<Difference>> output, Duration interval,
+                        double jitter, Duration maxBackoff) {
+        this.session = session;
+        this.modelTables = model.getTables().stream()
+                .collect(Collectors.toMap(Table::getName, Function.identity(), (first, second) -> first, LinkedHashMap::new));
+        this.output = output;
+        this.interval = interval;
+        this.jitter = jitter;
+        this.maxBackoff = maxBackoff;
+    }
+
+    public void run() throws InterruptedException {
+        int failures = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            long waitMillis;
+            try {
+                poll();
+                failures = 0;
+                waitMillis = withJitter(interval.toMillis());
+            } catch (Exception e) {
+                failures++;
+                waitMillis = backoffMillis(failures);
+                log.warn("Polling for drift failed, retrying in {} ms: {}", waitMillis, e.getMessage());
+                session.close();
+            }
+            Thread.sleep(waitMillis);
+        }
+    }
+
+    /**
+     * Reads the signatures and writes the differences of the tables that changed since the last successful poll.
+     */
+    void poll() throws Exception {
+        Map<String, String> current = session.signatures();
+        Map<String, String> previous = signatures == null ? Map.of() : signatures;
+
+        Set<String> changed = new LinkedHashSet<>();
+        if (signatures == null) {
+            changed.addAll(modelTables.keySet());
+        }
+        current.forEach((table, signature) -> {
+            if (!signature.equals(previous.get(table))) {
+                changed.add(table);
+            }
+        });
+        previous.keySet().stream().filter(table -> !current.containsKey(table)).forEach(changed::add);
+
+        List<String> toExtract = new ArrayList<>();
+        List<Table> localTables = new ArrayList<>();
+        List<Table> targetTables = new ArrayList<>();
+        for (String table : changed) {
+            if (modelTables.containsKey(table)) {
+                localTables.add(modelTables.get(table));
+                if (current.containsKey(table)) {
+                    toExtract.add(table);
+                }
+            } else if (current.containsKey(table) && !previous.containsKey(table)) {
+                // only the name is compared for tables outside the model
+                Table added = new Table();
+                added.setName(table);
+                targetTables.add(added);
+            }
+        }
+        if (!toExtract.isEmpty()) {
+            targetTables.addAll(session.extract(toExtract));
+        }
+        log.debug("{} of {} tables changed, extracted {}", changed.size(), current.size(), toExtract.size());
+
+        Database local = new Database();
+        local.setTables(localTables);
+        Database target = new Database();
+        target.setTables(targetTables);
+        List<Difference> differences = tester.find(local, target);
+        if (!differences.isEmpty()) {
+            output.write(differences);
+        }
+        signatures = current;
+    }
+
+    private long withJitter(long millis) {
+        long spread = (long) (millis * jitter);
+        if (spread <= 0) {
+            return millis;
+        }
+        return millis + ThreadLocalRandom.current().nextLong(-spread, spread + 1);
+    }
+
+    private long backoffMillis(int failures) {
+        long backoff = interval.toMillis() << Math.min(failures - 1, 20);
+        return Math.min(maxBackoff.toMillis(), backoff);
+    }
+}
@@ -0,0 +1,314 @@
+package com.adaptivescale.rosetta.cli;
+
+import com.adaptivescale.rosetta.common.HashUtils;
+import com.adaptivescale.rosetta.common.models.Database;
+import com.adaptivescale.rosetta.common.models.Index;
+import com.adaptivescale.rosetta.common.models.IndexStatistics;
+import com.adaptivescale.rosetta.common.models.Table;
+import com.adaptivescale.rosetta.diff.DiffFactory;
+import com.adaptivescale.rosetta.diff.DiffText;
+import com.adaptivescale.rosetta.diff.Difference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Snapshots of the database taken by apply, kept in the snapshots directory of the workspace. The model of a
+ * snapshot is stored once per content, as gzipped YAML named by its SHA-256. The index lists every snapshot with its
+ * timestamp, the hash of its model and the hash of each of its tables, so snapshots can be compared table by table
+ * without reading the tables that did not change. Statistics are not stored, so snapshots that only differ in
+ * statistics are stored once. Snapshots written as model-&lt;timestamp&gt;.yaml by earlier versions are added to the
+ * store when it is opened.
+ */
+@Slf4j
+public class SnapshotStore {
+
+    public static final String LATEST = "latest";
+
+    private static final String INDEX = "index.jsonl";
+    private static final String OBJECTS = "objects";
+    private static final Pattern MODEL_SNAPSHOT = Pattern.compile("model-(\\d{8}-\\d{6})\\.yaml");
+
+    // statistics describe the data when the snapshot was taken, they are left out so that they do not change hashes
+    private static final ObjectMapper YAML = new ObjectMapper(new YAMLFactory())
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+            .addMixIn(Index.class, WithoutStatistics.class);
+    // properties and map entries are sorted so that equal tables always hash the same
+    private static final ObjectMapper CANONICAL_JSON = JsonMapper.builder()
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .serializationInclusion(JsonInclude.Include.NON_NULL)
+            .addMixIn(Index.class, WithoutStatistics.class)
+            .build();
+
+    private final Path directory;
+
+    private SnapshotStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Opens the store in the directory, creating it if needed.
+     */
+    public static SnapshotStore open(Path directory) throws IOException {
+        Files.createDirectories(directory.resolve(OBJECTS));
+        SnapshotStore store = new SnapshotStore(directory);
+        store.addModelSnapshots();
+        return store;
+    }
+
+    /**
+     * Stores the model of the database unless the same model is already stored, and adds the snapshot to the index.
+     *
+     * @param ddl file with the DDL applied after the snapshot was taken, may be null
+     */
+    public Snapshot put(String timestamp, Database database, String ddl) throws IOException {
+        byte[] content = YAML.writeValueAsBytes(database);
+        String hash = HashUtils.sha256(content);
+
+        Path object = objectPath(hash);
+        if (!Files.exists(object)) {
+            Path temporary = Files.createTempFile(object.getParent(), hash, ".tmp");
+            try (OutputStream outputStream = new GZIPOutputStream(Files.newOutputStream(temporary))) {
+                outputStream.write(content);
+            }
+            Files.move(temporary, object, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        // tables are hashed as they are read back, the same way as any other model
+        Snapshot snapshot = new Snapshot();
+        snapshot.setTimestamp(timestamp);
+        snapshot.setHash(hash);
+        snapshot.setDdl(ddl);
+        snapshot.setTables(tableHashes(YAML.readValue(content, Database.class)));
+
+        byte[] line = (CANONICAL_JSON.writeValueAsString(snapshot) + "\n").getBytes(StandardCharsets.UTF_8);
+        Files.write(directory.resolve(INDEX), line, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        return snapshot;
+    }
+
+    /**
+     * @return every snapshot, oldest first
+     */
+    public List<Snapshot> snapshots() throws IOException {
+        Path index = directory.resolve(INDEX);
+        if (!Files.exists(index)) {
+            return new ArrayList<>();
+        }
+        List<Snapshot> snapshots = new ArrayList<>();
+        for (String line : Files.readAllLines(index, StandardCharsets.UTF_8)) {
+            if (!line.isBlank()) {
+                snapshots.add(CANONICAL_JSON.readValue(line, Snapshot.class));
+            }
+        }
+        snapshots.sort(Comparator.comparing(Snapshot::getTimestamp));
+        return snapshots;
+    }
+
+    /**
+     * @param timestamp timestamp of the snapshot or {@link #LATEST}
+     */
+    public Snapshot find(String timestamp) throws IOException {
+        List<Snapshot> snapshots = snapshots();
+        if (snapshots.isEmpty()) {
+            throw new RuntimeException(String.format("There are no snapshots in %s", directory));
+        }
+        if (LATEST.equals(timestamp)) {
+            return snapshots.get(snapshots.size() - 1);
+        }
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            if (snapshots.get(i).getTimestamp().equals(timestamp)) {
+                return snapshots.get(i);
+            }
+        }
+        throw new RuntimeException(String.format("Can not find snapshot %s in %s", timestamp, directory));
+    }
+
+    public Database load(Snapshot snapshot) throws IOException {
+        try (InputStream inputStream = new GZIPInputStream(Files.newInputStream(objectPath(snapshot.getHash())))) {
+            return YAML.readValue(inputStream, Database.class);
+        }
+    }
+
+    /**
+     * Compares the model with a snapshot without reading the tables whose hash is the same in both. The snapshot
+     * takes the place of the database.
+     *
+     * @param timestamp timestamp of the snapshot or {@link #LATEST}
+     * @param tables    tables to compare, null for all
+     */
+    public List<Difference> compare(Database model, String timestamp, Set<String> tables) throws IOException {
+        Snapshot snapshot = find(timestamp);
+        Map<String, String> modelTableHashes = tableHashes(model);
+        Map<String, String> snapshotTableHashes = new LinkedHashMap<>(snapshot.getTables());
+        if (tables != null) {
+            modelTableHashes.keySet().retainAll(tables);
+            snapshotTableHashes.keySet().retainAll(tables);
+        }
+        Set<String> changed = changedTables(modelTableHashes, snapshotTableHashes);
+        if (changed.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return DiffFactory.diff().find(onlyTables(model, changed), onlyTables(load(snapshot), changed));
+    }
+
+    /**
+     * Writes one line per snapshot, oldest first, with the number of tables that changed since the snapshot before.
+     * Only the index is read unless the differences are written as well.
+     *
+     * @param details write the differences of the changed tables below each snapshot
+     */
+    public void writeHistory(boolean details, Consumer<String> writer) throws IOException {
+        Snapshot previous = null;
+        for (Snapshot snapshot : snapshots()) {
+            Set<String> changed = previous == null ? Set.of() : changedTables(previous.getTables(), snapshot.getTables());
+            writer.accept(String.format("%s %s %d tables, %d changed%s", snapshot.getTimestamp(),
+                    snapshot.getHash().substring(0, 12), snapshot.getTables().size(), changed.size(),
+                    snapshot.getDdl() == null ? "" : ", applied " + snapshot.getDdl()));
+
+            if (details && !changed.isEmpty()) {
+                List<Difference> differences = DiffFactory.diff()
+                        .find(onlyTables(load(previous), changed), onlyTables(load(snapshot), changed));
+                DiffText.write(differences, line -> writer.accept("    " + line));
+            }
+            previous = snapshot;
+        }
+    }
+
+    /**
+     * @return hash of every table by table name
+     */
+    public static Map<String, String> tableHashes(Database database) throws IOException {
+        Map<String, String> hashes = new LinkedHashMap<>();
+        if (database.getTables() == null) {
+            return hashes;
+        }
+        for (Table table : database.getTables()) {
+            hashes.putIfAbsent(table.getName(), HashUtils.sha256(CANONICAL_JSON.writeValueAsBytes(table)));
+        }
+        return hashes;
+    }
+
+    /**
+     * @return names of the tables that are in only one of the models or whose hashes differ
+     */
+    public static Set<String> changedTables(Map<String, String> tableHashes, Map<String, String> otherTableHashes) {
+        Set<String> changed = new LinkedHashSet<>();
+        tableHashes.forEach((table, hash) -> {
+            if (!hash.equals(otherTableHashes.get(table))) {
+                changed.add(table);
+            }
+        });
+        otherTableHashes.keySet().stream().filter(table -> !tableHashes.containsKey(table)).forEach(changed::add);
+        return changed;
+    }
+
+    private static Database onlyTables(Database database, Set<String> tables) {
+        Database result = new Database();
+        result.setTables(database.getTables() == null ? new ArrayList<>() : database.getTables().stream()
+                .filter(table -> tables.contains(table.getName()))
+                .collect(Collectors.toList()));
+        return result;
+    }
+
+    private Path objectPath(String hash) {
+        return directory.resolve(OBJECTS).resolve(hash + ".yaml.gz");
+    }
+
+    private void addModelSnapshots() throws IOException {
+        Set<String> indexed = snapshots().stream().map(Snapshot::getTimestamp).collect(Collectors.toSet());
+        List<Path> models;
+        try (Stream<Path> files = Files.list(directory)) {
+            models = files.filter(path -> MODEL_SNAPSHOT.matcher(path.getFileName().toString()).matches())
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        for (Path model : models) {
+            Matcher matcher = MODEL_SNAPSHOT.matcher(model.getFileName().toString());
+            matcher.matches();
+            String timestamp = matcher.group(1);
+            if (indexed.contains(timestamp)) {
+                continue;
+            }
+            Path ddl = directory.resolveSibling("apply").resolve(String.format("ddl-%s.sql", timestamp));
+            put(timestamp, YAML.readValue(model.toFile(), Database.class),
+                    Files.exists(ddl) ? directory.getParent().relativize(ddl).toString() : null);
+            log.info("Added snapshot {} to the snapshot store.", model.getFileName());
+        }
+    }
+
+    private abstract static class WithoutStatistics {
+        @JsonIgnore
+        abstract IndexStatistics getStatistics();
+    }
+
+    public static class Snapshot {
+        private String timestamp;
+        private String hash;
+        private String ddl;
+        private Map<String, String> tables = new LinkedHashMap<>();
+
+        public String getTimestamp() {
+            return timestamp;
+        }
+
+        public void setTimestamp(String timestamp) {
+            this.timestamp = timestamp;
+        }
+
+        /**
+         * @return SHA-256 of the stored model
+         */
+        public String getHash() {
+            return hash;
+        }
+
+        public void setHash(String hash) {
+            this.hash = hash;
+        }
+
+        /**
+         * @return path of the DDL applied after the snapshot, relative to the workspace, null if unknown
+         */
+        public String getDdl() {
+            return ddl;
+        }
+
+        public void setDdl(String ddl) {
+            this.ddl = ddl;
+        }
+
+        /**
+         * @return hash of every table by table name
+         */
+        public Map<String, String> getTables() {
+            return tables;
+        }
+
+        public void setTables(Map<String, String> tables) {
+            this.tables = tables;
+        }
+    }
+}
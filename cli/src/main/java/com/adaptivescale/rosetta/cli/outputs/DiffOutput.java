@@ -0,0 +1,98 @@
+package com.adaptivescale.rosetta.cli.outputs;
+
+import com.adaptivescale.rosetta.cli.Output;
+import com.adaptivescale.rosetta.diff.DiffText;
+import com.adaptivescale.rosetta.diff.Difference;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Writes differences as text, as one JSON array or as JSON lines, one object per difference. Each difference is
+ * formatted when it is written, nothing else is buffered.
+ */
+public class DiffOutput implements Output<List<Difference>> {
+
+    public enum Format {
+        TEXT,
+        JSON,
+        JSONL;
+
+        /**
+         * @throws IllegalArgumentException for an unknown format
+         */
+        public static Format parse(String format) {
+            try {
+                return valueOf(format.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(String.format("Unknown diff format '%s', expected text, json or jsonl", format));
+            }
+        }
+    }
+
+    private final Format format;
+    private final OutputStream outputStream;
+
+    public DiffOutput(Format format, OutputStream outputStream) {
+        this.format = format;
+        this.outputStream = outputStream;
+    }
+
+    @Override
+    public void write(List<Difference> differences) throws IOException {
+        if (format == Format.TEXT) {
+            PrintWriter writer = new PrintWriter(new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)));
+            DiffText.write(differences, writer::println);
+            writer.flush();
+            return;
+        }
+
+        JsonGenerator generator = new ObjectMapper().getFactory().createGenerator(outputStream)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        if (format == Format.JSON) {
+            generator.writeStartArray();
+            for (Difference difference : differences) {
+                write(generator, difference);
+            }
+            generator.writeEndArray();
+        } else {
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            for (Difference difference : differences) {
+                write(generator, difference);
+            }
+        }
+        if (format == Format.JSON || !differences.isEmpty()) {
+            generator.writeRaw('\n');
+        }
+        generator.close();
+    }
+
+    private static void write(JsonGenerator generator, Difference difference) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("kind", difference.getKind().name());
+        generator.writeStringField("object", difference.getObjectType().name());
+        generator.writeStringField("path", difference.getPath());
+        generator.writeStringField("table", difference.getTable());
+        if (difference.getColumn() != null) {
+            generator.writeStringField("column", difference.getColumn());
+        }
+        if (difference.getName() != null) {
+            generator.writeStringField("name", difference.getName());
+        }
+        if (difference.getProperty() != null) {
+            generator.writeStringField("property", difference.getProperty());
+            generator.writeObjectField("oldValue", difference.getOldValue());
+            generator.writeObjectField("newValue", difference.getNewValue());
+        }
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,166 @@
+package com.adaptivescale.rosetta.cli;
+
+import com.adaptivescale.rosetta.common.models.Column;
+import com.adaptivescale.rosetta.common.models.Database;
+import com.adaptivescale.rosetta.common.models.Table;
+import com.adaptivescale.rosetta.diff.Difference;
+import com.adataptivescale.rosetta.source.core.interfaces.SignatureSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class DriftWatcherTest {
+
+    @Test
+    public void comparesEveryModelTableOnFirstPoll() throws Exception {
+        FakeSignatures source = new FakeSignatures()
+                .table(table("actor", "int4"))
+                .table(table("film", "int8"));
+        List<List<Difference>> written = new ArrayList<>();
+
+        watcher(source, written, table("actor", "int4"), table("film", "int4")).poll();
+
+        Assertions.assertEquals(List.of(List.of("actor", "film")), source.extracted);
+        Assertions.assertEquals(List.of(List.of("film.id")), paths(written));
+    }
+
+    @Test
+    public void writesNothingWhenNoSignatureChanged() throws Exception {
+        FakeSignatures source = new FakeSignatures()
+                .table(table("actor", "int4"))
+                .table(table("film", "int4"));
+        List<List<Difference>> written = new ArrayList<>();
+        DriftWatcher watcher = watcher(source, written, table("actor", "int4"), table("film", "int4"));
+
+        watcher.poll();
+        watcher.poll();
+
+        Assertions.assertEquals(List.of(List.of("actor", "film")), source.extracted);
+        Assertions.assertEquals(List.of(), written);
+    }
+
+    @Test
+    public void extractsOnlyTablesWhoseSignatureChanged() throws Exception {
+        FakeSignatures source = new FakeSignatures()
+                .table(table("actor", "int4"))
+                .table(table("film", "int4"));
+        List<List<Difference>> written = new ArrayList<>();
+        DriftWatcher watcher = watcher(source, written, table("actor", "int4"), table("film", "int4"));
+        watcher.poll();
+
+        source.table(table("film", "int8"));
+        watcher.poll();
+
+        Assertions.assertEquals(List.of(List.of("actor", "film"), List.of("film")), source.extracted);
+        Assertions.assertEquals(List.of(List.of("film.id")), paths(written));
+    }
+
+    @Test
+    public void reportsTablesOutsideTheModelOnceAndDroppedTables() throws Exception {
+        FakeSignatures source = new FakeSignatures()
+                .table(table("actor", "int4"))
+                .table(table("film", "int4"));
+        List<List<Difference>> written = new ArrayList<>();
+        DriftWatcher watcher = watcher(source, written, table("actor", "int4"), table("film", "int4"));
+        watcher.poll();
+
+        source.table(table("audit", "int4"));
+        watcher.poll();
+        source.table(table("audit", "int8"));
+        source.tables.remove("film");
+        watcher.poll();
+
+        // the added table is not extracted, only its name is compared
+        Assertions.assertEquals(List.of(List.of("actor", "film")), source.extracted);
+        Assertions.assertEquals(List.of(List.of("audit"), List.of("film")), paths(written));
+        Assertions.assertEquals(Difference.Kind.ADDED, written.get(0).get(0).getKind());
+        Assertions.assertEquals(Difference.Kind.REMOVED, written.get(1).get(0).getKind());
+    }
+
+    @Test
+    public void closesSourceAfterFailedPollAndKeepsPolling() {
+        FakeSignatures source = new FakeSignatures().table(table("actor", "int4"));
+        source.failures = 2;
+        source.pollsBeforeInterrupt = 4;
+        List<List<Difference>> written = new ArrayList<>();
+        DriftWatcher watcher = watcher(source, written, table("actor", "int8"));
+
+        Assertions.assertThrows(InterruptedException.class, watcher::run);
+
+        Assertions.assertEquals(4, source.polls);
+        Assertions.assertEquals(2, source.closes);
+        // the differences are written by the first successful poll only
+        Assertions.assertEquals(List.of(List.of("actor.id")), paths(written));
+    }
+
+    private static DriftWatcher watcher(FakeSignatures source, List<List<Difference>> written, Table... model) {
+        Database database = new Database();
+        database.setTables(List.of(model));
+        return new DriftWatcher(source, database, written::add, Duration.ofMillis(1), 0.5, Duration.ofMillis(4));
+    }
+
+    private static List<List<String>> paths(List<List<Difference>> written) {
+        return written.stream()
+                .map(differences -> differences.stream().map(Difference::getPath).collect(Collectors.toList()))
+                .collect(Collectors.toList());
+    }
+
+    private static Table table(String name, String idType) {
+        Column column = new Column();
+        column.setName("id");
+        column.setTypeName(idType);
+        Table table = new Table();
+        table.setName(name);
+        table.setColumns(List.of(column));
+        return table;
+    }
+
+    /**
+     * Signs a table by the type of its id column, failing the first polls when asked to.
+     */
+    private static class FakeSignatures implements SignatureSource {
+        private final Map<String, Table> tables = new LinkedHashMap<>();
+        private final List<List<String>> extracted = new ArrayList<>();
+        private int failures;
+        private int pollsBeforeInterrupt = -1;
+        private int polls;
+        private int closes;
+
+        FakeSignatures table(Table table) {
+            tables.put(table.getName(), table);
+            return this;
+        }
+
+        @Override
+        public Map<String, String> signatures() {
+            polls++;
+            if (polls == pollsBeforeInterrupt) {
+                Thread.currentThread().interrupt();
+            }
+            if (polls <= failures) {
+                throw new RuntimeException("Connection refused");
+            }
+            Map<String, String> signatures = new LinkedHashMap<>();
+            tables.forEach((name, table) -> signatures.put(name, table.getColumns().iterator().next().getTypeName()));
+            return signatures;
+        }
+
+        @Override
+        public Collection<Table> extract(Collection<String> names) {
+            extracted.add(List.copyOf(names));
+            return names.stream().map(tables::get).collect(Collectors.toList());
+        }
+
+        @Override
+        public void close() {
+            closes++;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.adaptivescale.rosetta.cli;
+
+import com.adaptivescale.rosetta.common.models.Column;
+import com.adaptivescale.rosetta.common.models.Database;
+import com.adaptivescale.rosetta.common.models.Index;
+import com.adaptivescale.rosetta.common.models.IndexStatistics;
+import com.adaptivescale.rosetta.common.models.Table;
+import com.adaptivescale.rosetta.common.models.TableStatistics;
+import com.adaptivescale.rosetta.diff.Difference;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class SnapshotStoreTest {
+
+    @TempDir
+    Path workspace;
+
+    @Test
+    public void readsBackStoredSnapshots() throws IOException {
+        SnapshotStore store = SnapshotStore.open(workspace.resolve("snapshots"));
+        store.put("20240101-120000", database(table("actor", "int4"), table("film", "int4")), "apply/ddl-20240101-120000.sql");
+        store.put("20240102-120000", database(table("actor", "int8")), null);
+
+        SnapshotStore reopened = SnapshotStore.open(workspace.resolve("snapshots"));
+        Assertions.assertEquals(List.of("20240101-120000", "20240102-120000"),
+                reopened.snapshots().stream().map(SnapshotStore.Snapshot::getTimestamp).collect(Collectors.toList()));
+
+        SnapshotStore.Snapshot first = reopened.find("20240101-120000");
+        Assertions.assertEquals("apply/ddl-20240101-120000.sql", first.getDdl());
+        Database database = reopened.load(first);
+        Assertions.assertEquals(List.of("actor", "film"),
+                database.getTables().stream().map(Table::getName).collect(Collectors.toList()));
+        Assertions.assertEquals(SnapshotStore.tableHashes(database), first.getTables());
+
+        Assertions.assertEquals("20240102-120000", reopened.find(SnapshotStore.LATEST).getTimestamp());
+        Assertions.assertThrows(RuntimeException.class, () -> reopened.find("20230101-000000"));
+    }
+
+    @Test
+    public void storesSnapshotsDifferingOnlyInStatisticsOnce() throws IOException {
+        SnapshotStore store = SnapshotStore.open(workspace.resolve("snapshots"));
+        Table before = table("actor", "int4");
+        before.setStatistics(new TableStatistics(10L, 8192L));
+        before.getIndices().get(0).setStatistics(new IndexStatistics(10, 1));
+        Table after = table("actor", "int4");
+        after.setStatistics(new TableStatistics(5000L, 409600L));
+        after.getIndices().get(0).setStatistics(new IndexStatistics(5000, 50));
+
+        SnapshotStore.Snapshot first = store.put("20240101-120000", database(before), null);
+        SnapshotStore.Snapshot second = store.put("20240102-120000", database(after), null);
+
+        Assertions.assertEquals(first.getHash(), second.getHash());
+        Assertions.assertEquals(first.getTables(), second.getTables());
+        try (Stream<Path> objects = Files.list(workspace.resolve("snapshots").resolve("objects"))) {
+            Assertions.assertEquals(1, objects.count());
+        }
+        Assertions.assertEquals(2, store.snapshots().size());
+    }
+
+    @Test
+    public void doesNotReadSnapshotWhenNoTableChanged() throws IOException {
+        SnapshotStore store = SnapshotStore.open(workspace.resolve("snapshots"));
+        store.put("20240101-120000", database(table("actor", "int4"), table("film", "int4")), null);
+        deleteObjects();
+
+        // every table hash matches, so the deleted snapshot is never read
+        Assertions.assertEquals(List.of(),
+                store.compare(database(table("actor", "int4"), table("film", "int4")), SnapshotStore.LATEST, null));
+        // tables outside the filter are not compared either
+        Assertions.assertEquals(List.of(),
+                store.compare(database(table("actor", "int4"), table("film", "int8")), SnapshotStore.LATEST, Set.of("actor")));
+    }
+
+    @Test
+    public void comparesOnlyChangedTables() throws IOException {
+        SnapshotStore store = SnapshotStore.open(workspace.resolve("snapshots"));
+        store.put("20240101-120000", database(table("actor", "int4"), table("film", "int4")), null);
+
+        List<Difference> differences = store.compare(database(table("actor", "int4"), table("film", "int8")),
+                "20240101-120000", null);
+
+        Assertions.assertEquals(1, differences.size());
+        Assertions.assertEquals("film.id", differences.get(0).getPath());
+        Assertions.assertEquals("Type Name", differences.get(0).getProperty());
+        // the model takes the place of the local model and the snapshot the place of the database
+        Assertions.assertEquals("int8", differences.get(0).getOldValue());
+        Assertions.assertEquals("int4", differences.get(0).getNewValue());
+    }
+
+    @Test
+    public void writesHistoryOfChangedTables() throws IOException {
+        SnapshotStore store = SnapshotStore.open(workspace.resolve("snapshots"));
+        SnapshotStore.Snapshot first = store.put("20240101-120000", database(table("actor", "int4"), table("film", "int4")),
+                "apply/ddl-20240101-120000.sql");
+        SnapshotStore.Snapshot second = store.put("20240102-120000", database(table("actor", "int4"), table("film", "int8")),
+                "apply/ddl-20240102-120000.sql");
+
+        List<String> summary = new ArrayList<>();
+        store.writeHistory(false, summary::add);
+        Assertions.assertEquals(List.of(
+                "20240101-120000 " + first.getHash().substring(0, 12) + " 2 tables, 0 changed, applied apply/ddl-20240101-120000.sql",
+                "20240102-120000 " + second.getHash().substring(0, 12) + " 2 tables, 1 changed, applied apply/ddl-20240102-120000.sql"),
+                summary);
+
+        List<String> details = new ArrayList<>();
+        store.writeHistory(true, details::add);
+        Assertions.assertEquals(summary, List.of(details.get(0), details.get(1)));
+        Assertions.assertTrue(details.size() > 2);
+        Assertions.assertTrue(details.subList(2, details.size()).stream()
+                .allMatch(line -> line.startsWith("    ") && line.contains("'film'")));
+    }
+
+    @Test
+    public void addsModelSnapshotsOfEarlierVersions() throws IOException {
+        Path snapshots = Files.createDirectories(workspace.resolve("snapshots"));
+        Files.createDirectories(workspace.resolve("apply"));
+        Files.writeString(workspace.resolve("apply").resolve("ddl-20240101-120000.sql"), "ALTER TABLE actor ...");
+        Files.writeString(snapshots.resolve("model-20240101-120000.yaml"),
+                "---\ntables:\n- name: actor\n  statistics:\n    rows: 10\n  columns:\n  - name: id\n    typeName: int4\n");
+
+        SnapshotStore store = SnapshotStore.open(snapshots);
+        SnapshotStore.Snapshot snapshot = store.find(SnapshotStore.LATEST);
+        Assertions.assertEquals("20240101-120000", snapshot.getTimestamp());
+        Assertions.assertEquals("apply/ddl-20240101-120000.sql", snapshot.getDdl());
+        Assertions.assertEquals(Set.of("actor"), snapshot.getTables().keySet());
+
+        // opening the store again does not add the snapshot twice
+        Assertions.assertEquals(1, SnapshotStore.open(snapshots).snapshots().size());
+    }
+
+    private void deleteObjects() throws IOException {
+        try (Stream<Path> objects = Files.list(workspace.resolve("snapshots").resolve("objects"))) {
+            for (Path object : objects.collect(Collectors.toList())) {
+                Files.delete(object);
+            }
+        }
+    }
+
+    private static Database database(Table... tables) {
+        Database database = new Database();
+        database.setTables(new ArrayList<>(List.of(tables)));
+        return database;
+    }
+
+    private static Table table(String name, String idType) {
+        Column column = new Column();
+        column.setName("id");
+        column.setTypeName(idType);
+        column.setPrimaryKey(true);
+
+        Index index = new Index();
+        index.setName(name + "_pkey");
+        index.setTableName(name);
+        index.setColumnNames(new ArrayList<>(List.of("id")));
+
+        Table table = new Table();
+        table.setName(name);
+        table.setSchema("public");
+        table.setColumns(new ArrayList<>(List.of(column)));
+        table.setIndices(new ArrayList<>(List.of(index)));
+        return table;
+    }
+}
@@ -0,0 +1,116 @@
+package com.adaptivescale.rosetta.common;
+
+import com.adaptivescale.rosetta.common.models.Column;
+import com.adaptivescale.rosetta.common.models.Index;
+import com.adaptivescale.rosetta.common.models.Table;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+public class IndexUtils {
+
+    private IndexUtils() {
+    }
+
+    /**
+     * Indices of the table other than the one backing its primary key. The primary key is expressed by the columns,
+     * JDBC reports its index (PRIMARY, table_pkey, ...) together with the others.
+     */
+    public static List<Index> secondaryIndices(Table table) {
+        if (table.getIndices() == null) {
+            return List.of();
+        }
+        List<String> primaryKey = primaryKeyColumns(table);
+        return table.getIndices().stream()
+                .filter(index -> index.getName() != null && !index.getColumnNames().isEmpty())
+                .filter(index -> !isPrimaryKeyIndex(index, primaryKey))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return the index backing the primary key of the table, if JDBC reported it
+     */
+    public static Optional<Index> primaryKeyIndex(Table table) {
+        if (table.getIndices() == null) {
+            return Optional.empty();
+        }
+        List<String> primaryKey = primaryKeyColumns(table);
+        return table.getIndices().stream()
+                .filter(index -> index.getName() != null && index.getColumnNames() != null)
+                .filter(index -> isPrimaryKeyIndex(index, primaryKey))
+                .findFirst();
+    }
+
+    /**
+     * Compares the definitions of two indices, names and statistics such as cardinality are left out. Every change
+     * finder compares indices with this, an index that is not the same is rebuilt.
+     *
+     * @return true if both indices cover the same columns in the same order with the same uniqueness, sort order,
+     * access method, included columns, operator classes and predicate
+     */
+    public static boolean sameStructure(Index expected, Index actual) {
+        return Objects.equals(expected.getColumnNames(), actual.getColumnNames())
+                && Objects.equals(isUnique(expected), isUnique(actual))
+                && Objects.equals(sortOrder(expected), sortOrder(actual))
+                && Objects.equals(method(expected), method(actual))
+                && Objects.equals(orEmpty(expected.getIncludeColumns()), orEmpty(actual.getIncludeColumns()))
+                && Objects.equals(orEmpty(expected.getOperatorClasses()), orEmpty(actual.getOperatorClasses()))
+                && Objects.equals(predicate(expected), predicate(actual));
+    }
+
+    /**
+     * @return access method of the index, btree if none is given
+     */
+    public static String method(Index index) {
+        return index.getMethod() == null || index.getMethod().isBlank() ? "btree" : index.getMethod().toLowerCase();
+    }
+
+    /**
+     * @return true if the index is a partial index
+     */
+    public static boolean isPartial(Index index) {
+        return predicate(index) != null;
+    }
+
+    // ascending unless the index says otherwise
+    private static String sortOrder(Index index) {
+        return "D".equalsIgnoreCase(index.getAscOrDesc()) ? "D" : "A";
+    }
+
+    // the predicate is compared as the database shows it, ignoring whitespace
+    private static String predicate(Index index) {
+        String filterCondition = index.getFilterCondition();
+        return filterCondition == null || filterCondition.isBlank() ? null : filterCondition.replaceAll("\\s+", "");
+    }
+
+    private static List<String> orEmpty(List<String> list) {
+        return list == null ? List.of() : list;
+    }
+
+    private static Map<String, String> orEmpty(Map<String, String> map) {
+        return map == null ? Map.of() : map;
+    }
+
+    public static boolean isUnique(Index index) {
+        return Boolean.FALSE.equals(index.getNonUnique());
+    }
+
+    private static boolean isPrimaryKeyIndex(Index index, List<String> primaryKey) {
+        return isUnique(index) && !primaryKey.isEmpty() && index.getColumnNames().equals(primaryKey);
+    }
+
+    private static List<String> primaryKeyColumns(Table table) {
+        if (table.getColumns() == null) {
+            return List.of();
+        }
+        return table.getColumns().stream()
+                .filter(Column::isPrimaryKey)
+                .sorted(Comparator.comparingInt(Column::getPrimaryKeySequenceId))
+                .map(Column::getName)
+                .collect(Collectors.toList());
+    }
+}
@@ -19,6 +19,10 @@ public class Column {
     private int scale;
     private int precision;
     private Tests tests;
+    // Kinetica column properties, e.g. dict, text_search or store_only
+    private List<String> properties;
+    // name of the column before it was renamed, a hint for the change finders
+    private String previousName;
 
     private List<ForeignKey> foreignKeys;
 
@@ -33,6 +37,14 @@ public class Column {
         this.name = name;
     }
 
+    public String getPreviousName() {
+        return previousName;
+    }
+
+    public void setPreviousName(String previousName) {
+        this.previousName = previousName;
+    }
+
     public String getLabel() {
         return label;
     }
@@ -137,4 +149,12 @@ public class Column {
         this.tests = tests;
     }
 
+    public List<String> getProperties() {
+        return properties;
+    }
+
+    public void setProperties(List<String> properties) {
+        this.properties = properties;
+    }
+
 }
@@ -1,7 +1,11 @@
 package com.adaptivescale.rosetta.common.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 public class Index {
@@ -9,13 +13,22 @@ public class Index {
     private String name;
     private String schema;
     private String tableName;
+    // key columns, expressions are written in parentheses, e.g. (lower(name))
     private List<String> columnNames = new ArrayList<>();
     private Boolean nonUnique;
     private String indexQualifier;
     private Short type;
     private String ascOrDesc;
-    private Integer cardinality;
+    // predicate of a partial index
     private String filterCondition;
+    // Postgres access method, e.g. brin, gin or gist, null for the default B-tree
+    private String method;
+    // non-key columns stored in the index, INCLUDE in Postgres
+    private List<String> includeColumns;
+    // operator classes other than the default of the key column or expression they are mapped to
+    private Map<String, String> operatorClasses;
+    // observed, not part of the definition, left out of equals
+    private IndexStatistics statistics;
 
     public Index() {
     }
@@ -88,12 +101,26 @@ public class Index {
         this.ascOrDesc = ascOrDesc;
     }
 
+    @JsonIgnore
     public Integer getCardinality() {
-        return cardinality;
+        return statistics == null ? null : statistics.getCardinality();
     }
 
+    // models written before statistics were split out have the cardinality on the index
+    @JsonProperty("cardinality")
     public void setCardinality(Integer cardinality) {
-        this.cardinality = cardinality;
+        if (statistics == null) {
+            statistics = new IndexStatistics();
+        }
+        statistics.setCardinality(cardinality);
+    }
+
+    public IndexStatistics getStatistics() {
+        return statistics;
+    }
+
+    public void setStatistics(IndexStatistics statistics) {
+        this.statistics = statistics;
     }
 
     public String getFilterCondition() {
@@ -104,16 +131,40 @@ public class Index {
         this.filterCondition = filterCondition;
     }
 
+    public String getMethod() {
+        return method;
+    }
+
+    public void setMethod(String method) {
+        this.method = method;
+    }
+
+    public List<String> getIncludeColumns() {
+        return includeColumns;
+    }
+
+    public void setIncludeColumns(List<String> includeColumns) {
+        this.includeColumns = includeColumns;
+    }
+
+    public Map<String, String> getOperatorClasses() {
+        return operatorClasses;
+    }
+
+    public void setOperatorClasses(Map<String, String> operatorClasses) {
+        this.operatorClasses = operatorClasses;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Index index = (Index) o;
-        return Objects.equals(name, index.name) && Objects.equals(schema, index.schema) && Objects.equals(tableName, index.tableName) && Objects.equals(columnNames, index.columnNames) && Objects.equals(nonUnique, index.nonUnique) && Objects.equals(indexQualifier, index.indexQualifier) && Objects.equals(type, index.type) && Objects.equals(ascOrDesc, index.ascOrDesc) && Objects.equals(cardinality, index.cardinality) && Objects.equals(filterCondition, index.filterCondition);
+        return Objects.equals(name, index.name) && Objects.equals(schema, index.schema) && Objects.equals(tableName, index.tableName) && Objects.equals(columnNames, index.columnNames) && Objects.equals(nonUnique, index.nonUnique) && Objects.equals(indexQualifier, index.indexQualifier) && Objects.equals(type, index.type) && Objects.equals(ascOrDesc, index.ascOrDesc) && Objects.equals(filterCondition, index.filterCondition) && Objects.equals(method, index.method) && Objects.equals(includeColumns, index.includeColumns) && Objects.equals(operatorClasses, index.operatorClasses);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(name, schema, tableName, columnNames, nonUnique, indexQualifier, type, ascOrDesc, cardinality, filterCondition);
+        return Objects.hash(name, schema, tableName, columnNames, nonUnique, indexQualifier, type, ascOrDesc, filterCondition, method, includeColumns, operatorClasses);
     }
 }
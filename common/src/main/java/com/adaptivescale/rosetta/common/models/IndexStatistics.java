@@ -0,0 +1,52 @@
+package com.adaptivescale.rosetta.common.models;
+
+import java.util.Objects;
+
+/**
+ * Statistics of an index as observed by the database when the model was extracted. They describe the data, not the
+ * definition of the index, and are never compared.
+ */
+public class IndexStatistics {
+
+    // number of rows or, for MySQL, of distinct values in the index
+    private Integer cardinality;
+    // number of pages used by the index
+    private Integer pages;
+
+    public IndexStatistics() {
+    }
+
+    public IndexStatistics(Integer cardinality, Integer pages) {
+        this.cardinality = cardinality;
+        this.pages = pages;
+    }
+
+    public Integer getCardinality() {
+        return cardinality;
+    }
+
+    public void setCardinality(Integer cardinality) {
+        this.cardinality = cardinality;
+    }
+
+    public Integer getPages() {
+        return pages;
+    }
+
+    public void setPages(Integer pages) {
+        this.pages = pages;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        IndexStatistics that = (IndexStatistics) o;
+        return Objects.equals(cardinality, that.cardinality) && Objects.equals(pages, that.pages);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(cardinality, pages);
+    }
+}
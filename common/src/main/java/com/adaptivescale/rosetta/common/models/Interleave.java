@@ -0,0 +1,54 @@
+package com.adaptivescale.rosetta.common.models;
+
+import java.util.Objects;
+
+/**
+ * Spanner parent of an interleaved table. Rows of the table are stored with the parent row sharing the primary key
+ * prefix.
+ */
+public class Interleave {
+
+    public static final String CASCADE = "CASCADE";
+    public static final String NO_ACTION = "NO ACTION";
+
+    private String parentTable;
+    // CASCADE or NO ACTION, the default
+    private String onDelete;
+
+    public Interleave() {
+    }
+
+    public Interleave(String parentTable, String onDelete) {
+        this.parentTable = parentTable;
+        this.onDelete = onDelete;
+    }
+
+    public String getParentTable() {
+        return parentTable;
+    }
+
+    public void setParentTable(String parentTable) {
+        this.parentTable = parentTable;
+    }
+
+    public String getOnDelete() {
+        return onDelete;
+    }
+
+    public void setOnDelete(String onDelete) {
+        this.onDelete = onDelete;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Interleave that = (Interleave) o;
+        return Objects.equals(parentTable, that.parentTable) && Objects.equals(onDelete, that.onDelete);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(parentTable, onDelete);
+    }
+}
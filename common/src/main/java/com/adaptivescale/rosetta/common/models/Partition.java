@@ -0,0 +1,45 @@
+package com.adaptivescale.rosetta.common.models;
+
+import java.util.Objects;
+
+/**
+ * Partition of a partitioned table. It lives in the schema of its table.
+ */
+public class Partition {
+
+    private String name;
+    // partition bound as written after the partition name, e.g. FOR VALUES FROM ('2023-01-01') TO ('2024-01-01') or DEFAULT
+    private String bound;
+
+    public Partition() {
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getBound() {
+        return bound;
+    }
+
+    public void setBound(String bound) {
+        this.bound = bound;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Partition partition = (Partition) o;
+        return Objects.equals(name, partition.name) && Objects.equals(bound, partition.bound);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, bound);
+    }
+}
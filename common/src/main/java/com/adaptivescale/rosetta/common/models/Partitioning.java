@@ -0,0 +1,57 @@
+package com.adaptivescale.rosetta.common.models;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Declarative partitioning of a table: how rows are routed (strategy and key) and the partitions they are routed to.
+ */
+public class Partitioning {
+
+    // RANGE, LIST or HASH
+    private String strategy;
+    // column names, or expressions in parentheses
+    private List<String> columns = new ArrayList<>();
+    private List<Partition> partitions = new ArrayList<>();
+
+    public Partitioning() {
+    }
+
+    public String getStrategy() {
+        return strategy;
+    }
+
+    public void setStrategy(String strategy) {
+        this.strategy = strategy;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    public void setColumns(List<String> columns) {
+        this.columns = columns;
+    }
+
+    public List<Partition> getPartitions() {
+        return partitions;
+    }
+
+    public void setPartitions(List<Partition> partitions) {
+        this.partitions = partitions;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Partitioning that = (Partitioning) o;
+        return Objects.equals(strategy, that.strategy) && Objects.equals(columns, that.columns) && Objects.equals(partitions, that.partitions);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(strategy, columns, partitions);
+    }
+}
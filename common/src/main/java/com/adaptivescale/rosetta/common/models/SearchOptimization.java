@@ -0,0 +1,39 @@
+package com.adaptivescale.rosetta.common.models;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Snowflake search optimization of a table. Without methods the whole table is optimized for equality searches on
+ * all eligible columns.
+ */
+public class SearchOptimization {
+
+    // search method and target as written after ON, e.g. EQUALITY("ID") or SUBSTRING("NAME")
+    private List<String> methods = new ArrayList<>();
+
+    public SearchOptimization() {
+    }
+
+    public List<String> getMethods() {
+        return methods;
+    }
+
+    public void setMethods(List<String> methods) {
+        this.methods = methods;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SearchOptimization that = (SearchOptimization) o;
+        return Objects.equals(methods, that.methods);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(methods);
+    }
+}
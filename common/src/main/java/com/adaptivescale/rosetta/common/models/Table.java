@@ -1,5 +1,7 @@
 package com.adaptivescale.rosetta.common.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.util.Collection;
 import java.util.List;
 
@@ -10,6 +12,24 @@ public class Table {
     private String type;
     private String schema;
     private List<Index> indices;
+    private Partitioning partitioning;
+    // BigQuery partitioning expression, e.g. DATE(created_at) or RANGE_BUCKET(id, GENERATE_ARRAY(0, 1000, 10))
+    private String partitionBy;
+    // clustering columns in BigQuery, clustering key expressions in Snowflake
+    private List<String> clusterBy;
+    private Double partitionExpirationDays;
+    private SearchOptimization searchOptimization;
+    private Interleave interleave;
+    // Kinetica distribution, tables are sharded by the primary key unless a shard key is given or they are replicated
+    private List<String> shardKey;
+    private Boolean replicated;
+    // Kinetica tier strategy as written after TIER STRATEGY, e.g. ( ( VRAM 1, RAM 7, PERSIST 5 ) )
+    private String tierStrategy;
+    // name of the table before it was renamed, a hint for the change finders
+    private String previousName;
+    // observed when the model is extracted, kept out of the written model because it changes with every load
+    @JsonIgnore
+    private TableStatistics statistics;
 
     private Collection<Column> columns;
 
@@ -21,6 +41,22 @@ public class Table {
         this.name = name;
     }
 
+    public String getPreviousName() {
+        return previousName;
+    }
+
+    public void setPreviousName(String previousName) {
+        this.previousName = previousName;
+    }
+
+    public TableStatistics getStatistics() {
+        return statistics;
+    }
+
+    public void setStatistics(TableStatistics statistics) {
+        this.statistics = statistics;
+    }
+
     public String getType() {
         return type;
     }
@@ -61,4 +97,76 @@ public class Table {
     public void setIndices(List<Index> indices) {
         this.indices = indices;
     }
+
+    public Partitioning getPartitioning() {
+        return partitioning;
+    }
+
+    public void setPartitioning(Partitioning partitioning) {
+        this.partitioning = partitioning;
+    }
+
+    public String getPartitionBy() {
+        return partitionBy;
+    }
+
+    public void setPartitionBy(String partitionBy) {
+        this.partitionBy = partitionBy;
+    }
+
+    public List<String> getClusterBy() {
+        return clusterBy;
+    }
+
+    public void setClusterBy(List<String> clusterBy) {
+        this.clusterBy = clusterBy;
+    }
+
+    public Double getPartitionExpirationDays() {
+        return partitionExpirationDays;
+    }
+
+    public void setPartitionExpirationDays(Double partitionExpirationDays) {
+        this.partitionExpirationDays = partitionExpirationDays;
+    }
+
+    public SearchOptimization getSearchOptimization() {
+        return searchOptimization;
+    }
+
+    public void setSearchOptimization(SearchOptimization searchOptimization) {
+        this.searchOptimization = searchOptimization;
+    }
+
+    public Interleave getInterleave() {
+        return interleave;
+    }
+
+    public void setInterleave(Interleave interleave) {
+        this.interleave = interleave;
+    }
+
+    public List<String> getShardKey() {
+        return shardKey;
+    }
+
+    public void setShardKey(List<String> shardKey) {
+        this.shardKey = shardKey;
+    }
+
+    public Boolean getReplicated() {
+        return replicated;
+    }
+
+    public void setReplicated(Boolean replicated) {
+        this.replicated = replicated;
+    }
+
+    public String getTierStrategy() {
+        return tierStrategy;
+    }
+
+    public void setTierStrategy(String tierStrategy) {
+        this.tierStrategy = tierStrategy;
+    }
 }
@@ -0,0 +1,95 @@
+package com.adaptivescale.rosetta.common.models;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Size of a table as observed by the database when the model was extracted. Used to estimate how long a change takes,
+ * never compared and not written to the model.
+ */
+public class TableStatistics {
+
+    private static final String[] SIZE_UNITS = {"bytes", "KB", "MB", "GB", "TB", "PB", "EB"};
+
+    // estimated number of rows as kept by the catalog, e.g. pg_class.reltuples
+    private Long rows;
+    // bytes used by the table and its indices
+    private Long bytes;
+
+    public TableStatistics() {
+    }
+
+    public TableStatistics(Long rows, Long bytes) {
+        this.rows = rows;
+        this.bytes = bytes;
+    }
+
+    /**
+     * Reads the statistics from the current row, a column that is SQL NULL is left unknown.
+     */
+    public static TableStatistics of(ResultSet resultSet, String rowsColumn, String bytesColumn) throws SQLException {
+        return new TableStatistics(getLong(resultSet, rowsColumn), getLong(resultSet, bytesColumn));
+    }
+
+    private static Long getLong(ResultSet resultSet, String column) throws SQLException {
+        long value = resultSet.getLong(column);
+        return resultSet.wasNull() ? null : value;
+    }
+
+    public Long getRows() {
+        return rows;
+    }
+
+    public void setRows(Long rows) {
+        this.rows = rows;
+    }
+
+    public Long getBytes() {
+        return bytes;
+    }
+
+    public void setBytes(Long bytes) {
+        this.bytes = bytes;
+    }
+
+    /**
+     * @return the known values, e.g. 1200 rows, 3 MB, empty if neither is known
+     */
+    public String describe() {
+        List<String> size = new ArrayList<>();
+        if (rows != null) {
+            size.add(rows + " rows");
+        }
+        if (bytes != null) {
+            size.add(displaySize(bytes));
+        }
+        return String.join(", ", size);
+    }
+
+    // rounded down to the largest unit, the same way as commons-io FileUtils.byteCountToDisplaySize
+    private static String displaySize(long bytes) {
+        int unit = 0;
+        long value = bytes;
+        while (value >= 1024 && unit < SIZE_UNITS.length - 1) {
+            value /= 1024;
+            unit++;
+        }
+        return value + " " + SIZE_UNITS[unit];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TableStatistics that = (TableStatistics) o;
+        return Objects.equals(rows, that.rows) && Objects.equals(bytes, that.bytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(rows, bytes);
+    }
+}
@@ -80,4 +80,20 @@ public class Connection {
     public void setTables(Collection<String> tables) {
         this.tables = tables;
     }
+
+    /**
+     * @return copy of this connection that only extracts the given tables
+     */
+    public Connection withTables(Collection<String> tables) {
+        Connection connection = new Connection();
+        connection.setName(name);
+        connection.setDatabaseName(databaseName);
+        connection.setSchemaName(schemaName);
+        connection.setDbType(dbType);
+        connection.setUrl(url);
+        connection.setUserName(userName);
+        connection.setPassword(password);
+        connection.setTables(tables);
+        return connection;
+    }
 }
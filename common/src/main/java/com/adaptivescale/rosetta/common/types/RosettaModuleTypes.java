@@ -19,8 +19,8 @@ package com.adaptivescale.rosetta.common.types;
 public enum RosettaModuleTypes {
     DDL_GENERATOR,
     DDL_EXECUTOR,
-    CHANGE_COMPARATOR,
     CHANGE_FINDER,
+    CHANGE_COST_MODEL,
     COLUMN_EXTRACTOR,
     TABLE_EXTRACTOR,
 }
@@ -0,0 +1,37 @@
+package com.adaptivescale.rosetta.ddl;
+
+import com.adaptivescale.rosetta.ddl.change.model.Change;
+
+/**
+ * Kind of clause a single-table change contributes to an ALTER TABLE statement. Used by dialects to declare which
+ * changes they can combine into one statement, see {@link DDL#combinableAlterTableClauses()}.
+ */
+public enum AlterTableClause {
+    ADD_COLUMN,
+    DROP_COLUMN,
+    ALTER_COLUMN,
+    PRIMARY_KEY;
+
+    /**
+     * @return clause kind of the change or null if the change can not be part of a combined ALTER TABLE
+     */
+    public static AlterTableClause of(Change<?> change) {
+        switch (change.getType()) {
+            case COLUMN:
+                switch (change.getStatus()) {
+                    case ADD:
+                        return ADD_COLUMN;
+                    case DROP:
+                        return DROP_COLUMN;
+                    case ALTER:
+                        return ALTER_COLUMN;
+                    default:
+                        return null;
+                }
+            case TABLE:
+                return change.getStatus() == Change.Status.ALTER ? PRIMARY_KEY : null;
+            default:
+                return null;
+        }
+    }
+}
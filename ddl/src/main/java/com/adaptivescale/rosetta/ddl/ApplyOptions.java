@@ -0,0 +1,89 @@
+package com.adaptivescale.rosetta.ddl;
+
+/**
+ * Options that change how changes are found and how DDL is generated and executed for {@code apply}. Change finders,
+ * generators and executors that support them declare a constructor taking {@link ApplyOptions}, see {@link DDLFactory}.
+ */
+public class ApplyOptions {
+
+    public static final int DEFAULT_STATEMENT_GROUP_SIZE = 50;
+
+    private boolean online;
+    private boolean allowBlockingChanges;
+    private Integer lockTimeoutMillis;
+    private int lockTimeoutRetries;
+    private int statementGroupSize = DEFAULT_STATEMENT_GROUP_SIZE;
+    private boolean detectRenames;
+
+    public ApplyOptions() {
+    }
+
+    /**
+     * @return true if changes should be applied without blocking concurrent writes where the target supports it
+     */
+    public boolean isOnline() {
+        return online;
+    }
+
+    public void setOnline(boolean online) {
+        this.online = online;
+    }
+
+    /**
+     * @return true if, in online mode, changes that can only be applied with a blocking operation are applied anyway
+     * with a warning instead of being refused
+     */
+    public boolean isAllowBlockingChanges() {
+        return allowBlockingChanges;
+    }
+
+    public void setAllowBlockingChanges(boolean allowBlockingChanges) {
+        this.allowBlockingChanges = allowBlockingChanges;
+    }
+
+    /**
+     * @return maximum time a statement waits for a table lock before it is aborted, null to wait indefinitely
+     */
+    public Integer getLockTimeoutMillis() {
+        return lockTimeoutMillis;
+    }
+
+    public void setLockTimeoutMillis(Integer lockTimeoutMillis) {
+        this.lockTimeoutMillis = lockTimeoutMillis;
+    }
+
+    /**
+     * @return how often statements aborted by the lock timeout are retried
+     */
+    public int getLockTimeoutRetries() {
+        return lockTimeoutRetries;
+    }
+
+    public void setLockTimeoutRetries(int lockTimeoutRetries) {
+        this.lockTimeoutRetries = lockTimeoutRetries;
+    }
+
+    /**
+     * @return maximum number of statements sent in one round trip on targets that accept multi-statement scripts,
+     * 1 sends every statement on its own
+     */
+    public int getStatementGroupSize() {
+        return statementGroupSize;
+    }
+
+    public void setStatementGroupSize(int statementGroupSize) {
+        this.statementGroupSize = statementGroupSize;
+    }
+
+    /**
+     * @return true if tables and columns without a previousName are renamed when exactly one dropped and one added
+     * object share the same definition, instead of being dropped and added again
+     */
+    public boolean isDetectRenames() {
+        return detectRenames;
+    }
+
+    public void setDetectRenames(boolean detectRenames) {
+        this.detectRenames = detectRenames;
+    }
+}
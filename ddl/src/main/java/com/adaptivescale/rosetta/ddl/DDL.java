@@ -1,9 +1,14 @@
 package com.adaptivescale.rosetta.ddl;
 
 import com.adaptivescale.rosetta.common.models.*;
+import com.adaptivescale.rosetta.ddl.change.model.Change;
 import com.adaptivescale.rosetta.ddl.change.model.ColumnChange;
 import com.adaptivescale.rosetta.ddl.change.model.ForeignKeyChange;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
 
 public interface DDL {
 
@@ -27,6 +32,24 @@ public interface DDL {
 
     String alterTable(Table expected, Table actual);
 
+    /**
+     * Renames the actual table to the name of the expected one, keeping its rows.
+     *
+     * @return the statement, null if this dialect can not rename tables
+     */
+    default String renameTable(Table expected, Table actual) {
+        return null;
+    }
+
+    /**
+     * Renames the actual column to the name of the expected one, keeping its values.
+     *
+     * @return the statement, null if this dialect can not rename columns
+     */
+    default String renameColumn(ColumnChange change) {
+        return null;
+    }
+
     default String createIndex(Index index) {
         return null;
     }
@@ -34,4 +57,99 @@ public interface DDL {
     default String dropIndex(Index actual) {
         return null;
     }
+
+    /**
+     * @return the statement, null if this dialect has no partitions, the change is then skipped
+     */
+    default String createPartition(Table table, Partition partition) {
+        return null;
+    }
+
+    /**
+     * @return the statement, null if this dialect has no partitions, the change is then skipped
+     */
+    default String dropPartition(Table table, Partition actual) {
+        return null;
+    }
+
+    /**
+     * Moves an existing partition to a new bound, keeping its rows.
+     *
+     * @return the statement, null if this dialect has no partitions, the change is then skipped
+     */
+    default String alterPartition(Table table, Partition expected, Partition actual) {
+        return null;
+    }
+
+    /**
+     * Sets the options of an existing table, such as the partition expiration, to the ones in the model.
+     *
+     * @return the statement, null if this dialect has no table options, the change is then skipped
+     */
+    default String alterTableOptions(Table expected, Table actual) {
+        return null;
+    }
+
+    /**
+     * Sets the clustering key of an existing table, replacing the current one.
+     *
+     * @return the statement, null if this dialect has no clustering keys, the change is then skipped
+     */
+    default String alterClusteringKey(Table table, List<String> clusterBy) {
+        return null;
+    }
+
+    /**
+     * @return the statement, null if this dialect has no clustering keys, the change is then skipped
+     */
+    default String dropClusteringKey(Table table) {
+        return null;
+    }
+
+    /**
+     * @return the statement, null if this dialect has no search optimization, the change is then skipped
+     */
+    default String addSearchOptimization(Table table, SearchOptimization expected) {
+        return null;
+    }
+
+    /**
+     * @return the statement, null if this dialect has no search optimization, the change is then skipped
+     */
+    default String dropSearchOptimization(Table table, SearchOptimization actual) {
+        return null;
+    }
+
+    /**
+     * @return the statement, null if this dialect has no search optimization, the change is then skipped
+     */
+    default String alterSearchOptimization(Table table, SearchOptimization expected, SearchOptimization actual) {
+        return null;
+    }
+
+    /**
+     * Clauses this dialect can combine into one ALTER TABLE statement for the same table. Empty keeps one statement
+     * per change.
+     */
+    default Set<AlterTableClause> combinableAlterTableClauses() {
+        return Collections.emptySet();
+    }
+
+    /**
+     * Whether clauses of different kinds, e.g. ADD COLUMN and DROP COLUMN, may share one statement. If not, only
+     * clauses of the same kind are combined.
+     */
+    default boolean mixedAlterTableClauses() {
+        return true;
+    }
+
+    /**
+     * Renders changes of one table as a single ALTER TABLE statement. Only called with changes whose
+     * {@link AlterTableClause} is listed in {@link #combinableAlterTableClauses()}.
+     *
+     * @return the statement, null to render every change as its own statement
+     */
+    default String combinedAlterTable(Table table, List<Change<?>> changes) {
+        return null;
+    }
 }
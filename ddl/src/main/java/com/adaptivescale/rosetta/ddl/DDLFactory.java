@@ -5,30 +5,46 @@ import com.adaptivescale.rosetta.common.helpers.ModuleLoader;
 import com.adaptivescale.rosetta.common.models.input.Connection;
 import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
 import com.adaptivescale.rosetta.ddl.change.*;
-import com.adaptivescale.rosetta.ddl.change.comparator.*;
-import com.adaptivescale.rosetta.ddl.change.model.Change;
+import com.adaptivescale.rosetta.ddl.cost.CostModel;
+import com.adaptivescale.rosetta.ddl.cost.DefaultCostModel;
 import com.adaptivescale.rosetta.ddl.executor.*;
+import lombok.extern.slf4j.Slf4j;
 
 import java.lang.reflect.InvocationTargetException;
-import java.util.Comparator;
 import java.util.Optional;
 
+@Slf4j
 public class DDLFactory {
 
     public static DDL ddlForDatabaseType(String databaseType) {
+        return ddlForDatabaseType(databaseType, new ApplyOptions());
+    }
+
+    public static DDL ddlForDatabaseType(String databaseType, ApplyOptions options) {
         Optional<Class<?>> ddlGenerator = ModuleLoader.loadModuleByAnnotationClassValues(
                 DDLFactory.class.getPackageName(), RosettaModuleTypes.DDL_GENERATOR, databaseType);
         if(ddlGenerator.isEmpty()) {
             throw new RuntimeException("DDL not supported for database type: " + databaseType);
         }
         try {
-            return (DDL) ddlGenerator.get().getDeclaredConstructor().newInstance();
+            try {
+                return (DDL) ddlGenerator.get().getDeclaredConstructor(ApplyOptions.class).newInstance(options);
+            } catch (NoSuchMethodException e) {
+                if (options.isOnline()) {
+                    log.warn("Online mode is not supported for database type: {}. Changes are applied as usual.", databaseType);
+                }
+                return (DDL) ddlGenerator.get().getDeclaredConstructor().newInstance();
+            }
         } catch (InstantiationException | IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
             throw new RuntimeException(e);
         }
     }
 
     public static DDLExecutor executor(Connection connection, JDBCDriverProvider driverProvider) {
+        return executor(connection, driverProvider, new ApplyOptions());
+    }
+
+    public static DDLExecutor executor(Connection connection, JDBCDriverProvider driverProvider, ApplyOptions options) {
         String dbType = connection.getDbType();
         Optional<Class<?>> ddlGenerator = ModuleLoader.loadModuleByAnnotationClassValues(
                 DDLFactory.class.getPackageName(), RosettaModuleTypes.DDL_EXECUTOR, dbType);
@@ -36,6 +52,22 @@ public class DDLFactory {
             throw new RuntimeException("DDL not supported for database type: " + dbType);
         }
         try {
+            try {
+                return (DDLExecutor) ddlGenerator.get()
+                        .getDeclaredConstructor(
+                                Connection.class,
+                                JDBCDriverProvider.class,
+                                ApplyOptions.class
+                        ).newInstance(
+                                connection,
+                                driverProvider,
+                                options
+                        );
+            } catch (NoSuchMethodException e) {
+                if (options.getLockTimeoutMillis() != null) {
+                    log.warn("Lock timeout is not supported for database type: {}.", dbType);
+                }
+            }
             return (DDLExecutor) ddlGenerator.get()
                     .getDeclaredConstructor(
                             Connection.class,
@@ -50,32 +82,45 @@ public class DDLFactory {
     }
 
     public static ChangeHandler changeHandler(String databaseType) {
-        DDL ddl = ddlForDatabaseType(databaseType);
-        Comparator<Change<?>> changeComparator = changesSortComparatorForDatabase(databaseType);
-        return new ChangeHandlerImplementation(ddl, changeComparator);
+        return changeHandler(databaseType, new ApplyOptions());
     }
 
-    private static Comparator<Change<?>> changesSortComparatorForDatabase(String databaseType) {
-        Optional<Class<?>> ddlGenerator = ModuleLoader.loadModuleByAnnotationClassValues(
-                DDLFactory.class.getPackageName(), RosettaModuleTypes.CHANGE_COMPARATOR, databaseType);
-        if(ddlGenerator.isEmpty()) {
-            throw new RuntimeException("DDL not supported for database type: " + databaseType);
+    public static ChangeHandler changeHandler(String databaseType, ApplyOptions options) {
+        return new ChangeHandlerImplementation(ddlForDatabaseType(databaseType, options));
+    }
+
+    public static CostModel costModelForDatabaseType(String databaseType) {
+        Optional<Class<?>> costModel = ModuleLoader.loadModuleByAnnotationClassValues(
+                DDLFactory.class.getPackageName(), RosettaModuleTypes.CHANGE_COST_MODEL, databaseType);
+        if(costModel.isEmpty()) {
+            return new DefaultCostModel();
         }
         try {
-            return ( Comparator<Change<?>>) ddlGenerator.get().getDeclaredConstructor().newInstance();
+            return (CostModel) costModel.get().getDeclaredConstructor().newInstance();
         } catch (InstantiationException | IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
             throw new RuntimeException(e);
         }
     }
 
     public static ChangeFinder changeFinderForDatabaseType(String databaseType) {
+        return changeFinderForDatabaseType(databaseType, new ApplyOptions());
+    }
+
+    public static ChangeFinder changeFinderForDatabaseType(String databaseType, ApplyOptions options) {
         Optional<Class<?>> ddlGenerator = ModuleLoader.loadModuleByAnnotationClassValues(
                 DDLFactory.class.getPackageName(), RosettaModuleTypes.CHANGE_FINDER, databaseType);
         if(ddlGenerator.isEmpty()) {
-            return new DefaultChangeFinder();
+            return new DefaultChangeFinder(options);
         }
         try {
-            return ( ChangeFinder) ddlGenerator.get().getDeclaredConstructor().newInstance();
+            try {
+                return (ChangeFinder) ddlGenerator.get().getDeclaredConstructor(ApplyOptions.class).newInstance(options);
+            } catch (NoSuchMethodException e) {
+                if (options.isDetectRenames()) {
+                    log.warn("Rename detection is not supported for database type: {}.", databaseType);
+                }
+                return (ChangeFinder) ddlGenerator.get().getDeclaredConstructor().newInstance();
+            }
         } catch (InstantiationException | IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
             throw new RuntimeException(e);
         }
@@ -0,0 +1,97 @@
+package com.adaptivescale.rosetta.ddl.change;
+
+import com.adaptivescale.rosetta.common.models.Table;
+import com.adaptivescale.rosetta.ddl.AlterTableClause;
+import com.adaptivescale.rosetta.ddl.DDL;
+import com.adaptivescale.rosetta.ddl.change.model.Change;
+import com.adaptivescale.rosetta.ddl.change.model.ColumnChange;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Groups ordered changes of the same table so they can be emitted as one ALTER TABLE statement. A change only joins a
+ * group if no change between them touches the same table, so the relative order of dependent changes, e.g. a
+ * foreign key drop and the drop of its column, is kept.
+ */
+public class AlterTableCoalescer {
+
+    private final Set<AlterTableClause> combinableClauses;
+    private final boolean mixedClauses;
+
+    public AlterTableCoalescer(DDL ddl) {
+        this.combinableClauses = ddl.combinableAlterTableClauses();
+        this.mixedClauses = ddl.mixedAlterTableClauses();
+    }
+
+    /**
+     * @param orderedChanges changes in the order they are applied
+     * @return changes in the same order, each inner list is emitted as one statement
+     */
+    public List<List<Change<?>>> coalesce(List<Change<?>> orderedChanges) {
+        List<List<Change<?>>> statements = new ArrayList<>();
+        if (combinableClauses.isEmpty()) {
+            orderedChanges.forEach(change -> statements.add(List.of(change)));
+            return statements;
+        }
+
+        ChangeTargets targets = ChangeTargets.of(orderedChanges);
+        Map<TableKey, Group> openGroups = new HashMap<>();
+        for (Change<?> change : orderedChanges) {
+            AlterTableClause clause = AlterTableClause.of(change);
+            Set<TableKey> tables = targets.tablesOf(change);
+
+            if (clause != null && combinableClauses.contains(clause)) {
+                TableKey tableKey = tables.iterator().next();
+                Table table = tableOf(change);
+                Group group = openGroups.get(tableKey);
+                if (group != null && group.accepts(table, clause)) {
+                    group.changes.add(change);
+                    continue;
+                }
+                group = new Group(table, clause);
+                group.changes.add(change);
+                openGroups.put(tableKey, group);
+                statements.add(group.changes);
+                continue;
+            }
+
+            // any other change touching the table ends its group
+            if (tables.isEmpty()) {
+                openGroups.clear();
+            } else {
+                tables.forEach(openGroups::remove);
+            }
+            statements.add(List.of(change));
+        }
+        return statements;
+    }
+
+    public static Table tableOf(Change<?> change) {
+        if (change instanceof ColumnChange) {
+            return ((ColumnChange) change).getTable();
+        }
+        return (Table) (change.getExpected() != null ? change.getExpected() : change.getActual());
+    }
+
+    private class Group {
+        private final Table table;
+        private final AlterTableClause clause;
+        private final List<Change<?>> changes = new ArrayList<>();
+
+        private Group(Table table, AlterTableClause clause) {
+            this.table = table;
+            this.clause = clause;
+        }
+
+        private boolean accepts(Table other, AlterTableClause otherClause) {
+            return Objects.equals(table.getName(), other.getName())
+                    && Objects.equals(table.getSchema(), other.getSchema())
+                    && (mixedClauses || clause == otherClause);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.adaptivescale.rosetta.ddl.change;
+
+import com.adaptivescale.rosetta.common.annotations.RosettaModule;
+import com.adaptivescale.rosetta.common.models.Database;
+import com.adaptivescale.rosetta.common.models.Table;
+import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
+import com.adaptivescale.rosetta.ddl.ApplyOptions;
+import com.adaptivescale.rosetta.ddl.change.model.Change;
+import com.adaptivescale.rosetta.ddl.change.model.ChangeFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Finds the same changes as {@link DefaultChangeFinder} and compares partitioning, clustering and partition
+ * expiration of tables present in both models. Partitioning and clustering left out of the model are not compared,
+ * a differing partitioning or clustering is only logged since changing it requires recreating the table.
+ */
+@Slf4j
+@RosettaModule(
+        name = "bigquery",
+        type = RosettaModuleTypes.CHANGE_FINDER
+)
+public class BigQueryChangeFinder extends DefaultChangeFinder {
+
+    public BigQueryChangeFinder() {
+        this(new ApplyOptions());
+    }
+
+    public BigQueryChangeFinder(ApplyOptions options) {
+        super(options);
+    }
+
+    @Override
+    public List<Change<?>> findChanges(Database expected, Database actual) {
+        List<Change<?>> changes = super.findChanges(expected, actual);
+        if (actual.getTables() == null || actual.getTables().isEmpty()) {
+            return changes;
+        }
+
+        Map<TableKey, Table> actualTables = TableKey.index(actual.getTables());
+        for (Table expectedTable : expected.getTables()) {
+            Optional.ofNullable(actualTables.get(TableKey.of(expectedTable)))
+                    .ifPresent(actualTable -> findChangesInTableOptions(expectedTable, actualTable, changes));
+        }
+        return changes;
+    }
+
+    private void findChangesInTableOptions(Table expected, Table actual, List<Change<?>> changes) {
+        if (expected.getPartitionBy() != null && !expected.getPartitionBy().equals(actual.getPartitionBy())) {
+            log.warn("Partitioning of table {}.{} differs ({} in model, {} in database) and is not changed by DDL," +
+                            " the table has to be recreated.", expected.getSchema(), expected.getName(),
+                    expected.getPartitionBy(), actual.getPartitionBy());
+        }
+
+        if (expected.getClusterBy() != null && !expected.getClusterBy().equals(actual.getClusterBy())) {
+            log.warn("Clustering of table {}.{} differs ({} in model, {} in database) and is not changed by DDL.",
+                    expected.getSchema(), expected.getName(), expected.getClusterBy(), actual.getClusterBy());
+        }
+
+        if (!Objects.equals(expected.getPartitionExpirationDays(), actual.getPartitionExpirationDays())) {
+            changes.add(ChangeFactory.tableOptionsChange(expected, actual, Change.Status.ALTER));
+        }
+    }
+}
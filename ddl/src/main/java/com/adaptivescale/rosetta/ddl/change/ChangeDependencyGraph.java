@@ -0,0 +1,513 @@
+package com.adaptivescale.rosetta.ddl.change;
+
+import com.adaptivescale.rosetta.common.models.Column;
+import com.adaptivescale.rosetta.common.models.ForeignKey;
+import com.adaptivescale.rosetta.common.models.Index;
+import com.adaptivescale.rosetta.common.models.Partition;
+import com.adaptivescale.rosetta.common.models.Table;
+import com.adaptivescale.rosetta.ddl.change.model.Change;
+import com.adaptivescale.rosetta.ddl.change.model.ColumnChange;
+import com.adaptivescale.rosetta.ddl.change.model.PartitionChange;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Dependency DAG over changes. {@link #of} first puts the changes in an order in which they can be applied one after
+ * another: a foreign key is dropped before its table and added after it, an index is dropped before its columns and
+ * a column is added before the primary key that uses it. Changes are listed in a preferred order, database changes,
+ * foreign key drops, other drops, everything else, clustering and search optimization, foreign keys added last, each
+ * group in the order the changes were found. A topological sort then moves every change after the changes it depends
+ * on, pulling a dependency forward only where the preferred order would break it. Ordering is linear in the changes
+ * and their dependencies.
+ * <p>
+ * In the ordered list a change depends on the latest earlier change that touches one of its tables (see
+ * {@link ChangeTargets}), so the order of a foreign key drop and the drop of its table is kept while changes on
+ * unrelated tables become independent and may be applied concurrently. Consecutive changes that touch only the same
+ * single table are grouped into one node, so they are still applied in order over one connection.
+ * <p>
+ * Tables are identified by lower-cased schema and name, as in {@link ChangeTargets}, columns and other objects of a
+ * table by lower-cased name.
+ */
+public class ChangeDependencyGraph {
+
+    private final List<Change<?>> orderedChanges;
+    private final List<Node> nodes;
+
+    private ChangeDependencyGraph(List<Change<?>> orderedChanges, List<Node> nodes) {
+        this.orderedChanges = orderedChanges;
+        this.nodes = nodes;
+    }
+
+    /**
+     * Orders the changes by the dependencies between them and builds the graph of the ordered changes.
+     *
+     * @throws RuntimeException if changes depend on each other, e.g. two columns swap their names
+     */
+    public static ChangeDependencyGraph of(List<Change<?>> changes) {
+        List<Change<?>> preferred = preferredOrder(changes);
+        return fromOrderedChanges(topologicalOrder(preferred, new DependencyBuilder(preferred).build()));
+    }
+
+    /**
+     * @param orderedChanges changes in the order they are valid to be applied serially
+     */
+    public static ChangeDependencyGraph fromOrderedChanges(List<Change<?>> orderedChanges) {
+        ChangeTargets targets = ChangeTargets.of(orderedChanges);
+        List<Node> nodes = new ArrayList<>();
+        Map<TableKey, Node> lastNodeForTable = new HashMap<>();
+        Node barrier = null;
+
+        for (Change<?> change : orderedChanges) {
+            Set<TableKey> tables = targets.tablesOf(change);
+
+            if (tables.isEmpty()) {
+                // database level change, depends on everything before and everything after depends on it
+                Node node = new Node(nodes.size(), tables);
+                node.changes.add(change);
+                nodes.forEach(previous -> previous.addSuccessor(node));
+                nodes.add(node);
+                lastNodeForTable.clear();
+                barrier = node;
+                continue;
+            }
+
+            if (tables.size() == 1) {
+                Node last = lastNodeForTable.get(tables.iterator().next());
+                if (last != null && last.tables.equals(tables) && last.successors.isEmpty()) {
+                    last.changes.add(change);
+                    continue;
+                }
+            }
+
+            Node node = new Node(nodes.size(), tables);
+            node.changes.add(change);
+            for (TableKey table : tables) {
+                Node previous = lastNodeForTable.get(table);
+                if (previous != null) {
+                    previous.addSuccessor(node);
+                }
+                lastNodeForTable.put(table, node);
+            }
+            if (barrier != null) {
+                barrier.addSuccessor(node);
+            }
+            nodes.add(node);
+        }
+        return new ChangeDependencyGraph(new ArrayList<>(orderedChanges), nodes);
+    }
+
+    /**
+     * @return changes in an order in which they can be applied one after another
+     */
+    public List<Change<?>> getOrderedChanges() {
+        return Collections.unmodifiableList(orderedChanges);
+    }
+
+    /**
+     * @return nodes in the order of the ordered changes
+     */
+    public List<Node> getNodes() {
+        return Collections.unmodifiableList(nodes);
+    }
+
+    /**
+     * Groups nodes by the longest path leading to them. Nodes in one level do not depend on each other.
+     */
+    public List<List<Node>> levels() {
+        int[] levelOfNode = new int[nodes.size()];
+        List<List<Node>> levels = new ArrayList<>();
+        // nodes only have successors later in the list, so the list order is already topological
+        for (Node node : nodes) {
+            int level = levelOfNode[node.id];
+            while (levels.size() <= level) {
+                levels.add(new ArrayList<>());
+            }
+            levels.get(level).add(node);
+            for (Node successor : node.successors) {
+                levelOfNode[successor.id] = Math.max(levelOfNode[successor.id], level + 1);
+            }
+        }
+        return levels;
+    }
+
+    // depth first, each change after its predecessors in preferred order, so an already valid order stays as it is
+    private static List<Change<?>> topologicalOrder(List<Change<?>> changes, List<List<Integer>> predecessors) {
+        List<Change<?>> ordered = new ArrayList<>(changes.size());
+        byte[] state = new byte[changes.size()];
+        for (int change = 0; change < changes.size(); change++) {
+            visit(change, changes, predecessors, state, ordered);
+        }
+        return ordered;
+    }
+
+    private static void visit(int change, List<Change<?>> changes, List<List<Integer>> predecessors, byte[] state,
+                              List<Change<?>> ordered) {
+        if (state[change] == 2) {
+            return;
+        }
+        if (state[change] == 1) {
+            throw new RuntimeException(String.format("Can not order the changes, %s depends on changes that depend on it.",
+                    describe(changes.get(change), ChangeTargets.of(changes))));
+        }
+        state[change] = 1;
+        for (int predecessor : predecessors.get(change)) {
+            visit(predecessor, changes, predecessors, state, ordered);
+        }
+        state[change] = 2;
+        ordered.add(changes.get(change));
+    }
+
+    private static String describe(Change<?> change, ChangeTargets targets) {
+        return change.getStatus() + " " + change.getType().toString().replace('_', ' ') + " on "
+                + targets.tablesOf(change).stream().map(TableKey::toString).collect(Collectors.joining(", "));
+    }
+
+    private static List<Change<?>> preferredOrder(List<Change<?>> changes) {
+        List<List<Change<?>>> groups = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            groups.add(new ArrayList<>());
+        }
+        changes.forEach(change -> groups.get(preferredGroup(change)).add(change));
+        List<Change<?>> preferred = new ArrayList<>(changes.size());
+        groups.forEach(preferred::addAll);
+        return preferred;
+    }
+
+    private static int preferredGroup(Change<?> change) {
+        boolean drop = change.getStatus() == Change.Status.DROP;
+        switch (change.getType()) {
+            case DATABASE:
+                return 0;
+            case FOREIGN_KEY:
+                return drop ? 1 : 5;
+            case TABLE_OPTIONS:
+            case CLUSTERING:
+            case SEARCH_OPTIMIZATION:
+                return drop ? 2 : 4;
+            default:
+                return drop ? 2 : 3;
+        }
+    }
+
+    /**
+     * Every change registers what it does under keys, e.g. {@code column-drop:public.orders} for a dropped column of
+     * orders, and looks up the keys of the changes it has to wait for.
+     */
+    private static class DependencyBuilder {
+        private static final String DATABASE = "database";
+        private static final String TABLE_ADD = "table-add:";
+        private static final String TABLE_ALTER = "table-alter:";
+        private static final String TABLE_DROP = "table-drop:";
+        private static final String INTERLEAVED_TABLE_DROP = "interleaved-table-drop:";
+        private static final String TABLE_RENAMED_TO = "table-renamed-to:";
+        private static final String TABLE_RENAMED_FROM = "table-renamed-from:";
+        private static final String COLUMN_CHANGE = "column-change:";
+        private static final String COLUMN_DROP = "column-drop:";
+        private static final String COLUMN_NAME_DROP = "column-name-drop:";
+        private static final String COLUMN_RENAME = "column-rename:";
+        private static final String COLUMN_RENAMED_FROM = "column-renamed-from:";
+        private static final String FOREIGN_KEY_DROP = "foreign-key-drop:";
+        private static final String FOREIGN_KEY_NAME_DROP = "foreign-key-name-drop:";
+        private static final String INDEX_ADD = "index-add:";
+        private static final String INDEX_DROP = "index-drop:";
+        private static final String INDEX_NAME_DROP = "index-name-drop:";
+        private static final String LAYOUT_DROP = "layout-drop:";
+        private static final String PARTITION_DROP = "partition-drop:";
+
+        private final List<Change<?>> changes;
+        private final ChangeTargets targets;
+        private final Map<String, List<Integer>> changesByKey = new HashMap<>();
+
+        private DependencyBuilder(List<Change<?>> changes) {
+            this.changes = changes;
+            this.targets = ChangeTargets.of(changes);
+        }
+
+        private List<List<Integer>> build() {
+            for (int i = 0; i < changes.size(); i++) {
+                for (String key : providedKeys(changes.get(i))) {
+                    changesByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+                }
+            }
+
+            List<List<Integer>> successors = new ArrayList<>(changes.size());
+            for (int i = 0; i < changes.size(); i++) {
+                successors.add(new ArrayList<>());
+            }
+            for (int i = 0; i < changes.size(); i++) {
+                for (String key : requiredKeys(changes.get(i))) {
+                    for (int predecessor : changesByKey.getOrDefault(key, List.of())) {
+                        if (predecessor != i) {
+                            successors.get(predecessor).add(i);
+                        }
+                    }
+                }
+            }
+
+            // walking the predecessors in order leaves every list sorted by the preferred order and without repeats
+            List<List<Integer>> predecessors = new ArrayList<>(changes.size());
+            for (int i = 0; i < changes.size(); i++) {
+                predecessors.add(new ArrayList<>());
+            }
+            for (int predecessor = 0; predecessor < changes.size(); predecessor++) {
+                for (int successor : successors.get(predecessor)) {
+                    List<Integer> list = predecessors.get(successor);
+                    if (list.isEmpty() || list.get(list.size() - 1) != predecessor) {
+                        list.add(predecessor);
+                    }
+                }
+            }
+            return predecessors;
+        }
+
+        private List<String> providedKeys(Change<?> change) {
+            List<String> keys = new ArrayList<>();
+            Change.Status status = change.getStatus();
+            switch (change.getType()) {
+                case DATABASE:
+                    keys.add(DATABASE);
+                    break;
+                case TABLE:
+                    Table table = (Table) (change.getExpected() != null ? change.getExpected() : change.getActual());
+                    Set<TableKey> tableKeys = targets.tablesOf(table);
+                    if (status == Change.Status.ADD) {
+                        add(keys, TABLE_ADD, tableKeys);
+                    } else if (status == Change.Status.ALTER) {
+                        add(keys, TABLE_ALTER, tableKeys);
+                    } else if (status == Change.Status.DROP) {
+                        add(keys, TABLE_DROP, tableKeys);
+                        if (table.getInterleave() != null) {
+                            add(keys, INTERLEAVED_TABLE_DROP, parentOf(table));
+                        }
+                    } else if (status == Change.Status.RENAME) {
+                        add(keys, TABLE_RENAMED_TO, tableKeys);
+                        add(keys, TABLE_RENAMED_FROM, targets.tablesOf((Table) change.getActual()));
+                    }
+                    break;
+                case COLUMN:
+                    Set<TableKey> columnTables = targets.tablesOf(((ColumnChange) change).getTable());
+                    if (status == Change.Status.DROP) {
+                        add(keys, COLUMN_DROP, columnTables);
+                        add(keys, COLUMN_NAME_DROP, columnTables, name(((Column) change.getActual()).getName()));
+                    } else if (status == Change.Status.RENAME) {
+                        add(keys, COLUMN_RENAME, columnTables);
+                        add(keys, COLUMN_RENAMED_FROM, columnTables, name(((Column) change.getActual()).getName()));
+                    } else {
+                        add(keys, COLUMN_CHANGE, columnTables);
+                    }
+                    break;
+                case FOREIGN_KEY:
+                    if (status == Change.Status.DROP) {
+                        ForeignKey foreignKey = (ForeignKey) change.getActual();
+                        add(keys, FOREIGN_KEY_DROP, targets.tablesOf(change));
+                        add(keys, FOREIGN_KEY_NAME_DROP, targets.tablesOf(foreignKey.getSchema(), foreignKey.getTableName()),
+                                name(foreignKey.getName()));
+                    }
+                    break;
+                case INDEX:
+                    Index index = (Index) (status == Change.Status.DROP ? change.getActual() : change.getExpected());
+                    Set<TableKey> indexTables = targets.tablesOf(index.getSchema(), index.getTableName());
+                    if (status == Change.Status.DROP) {
+                        add(keys, INDEX_DROP, indexTables);
+                        add(keys, INDEX_NAME_DROP, indexTables, name(index.getName()));
+                    } else {
+                        add(keys, INDEX_ADD, indexTables);
+                    }
+                    break;
+                case PARTITION:
+                    if (status == Change.Status.DROP) {
+                        addPartition(keys, (PartitionChange) change);
+                    }
+                    break;
+                case TABLE_OPTIONS:
+                case CLUSTERING:
+                case SEARCH_OPTIMIZATION:
+                    if (status == Change.Status.DROP) {
+                        add(keys, LAYOUT_DROP, targets.tablesOf(change));
+                    }
+                    break;
+                default:
+                    break;
+            }
+            return keys;
+        }
+
+        private List<String> requiredKeys(Change<?> change) {
+            List<String> keys = new ArrayList<>();
+            if (change.getType() == Change.Type.DATABASE) {
+                return keys;
+            }
+            keys.add(DATABASE);
+
+            Change.Status status = change.getStatus();
+            Set<TableKey> tables = targets.tablesOf(change);
+            switch (change.getType()) {
+                case TABLE:
+                    Table table = (Table) (change.getExpected() != null ? change.getExpected() : change.getActual());
+                    Set<TableKey> tableKeys = targets.tablesOf(table);
+                    if (status == Change.Status.ADD) {
+                        add(keys, TABLE_DROP, tableKeys);
+                        add(keys, TABLE_RENAMED_FROM, tableKeys);
+                        if (table.getInterleave() != null) {
+                            add(keys, TABLE_ADD, parentOf(table));
+                        }
+                    } else if (status == Change.Status.DROP) {
+                        add(keys, FOREIGN_KEY_DROP, tableKeys);
+                        add(keys, INDEX_DROP, tableKeys);
+                        add(keys, INTERLEAVED_TABLE_DROP, tableKeys);
+                    } else if (status == Change.Status.RENAME) {
+                        Set<TableKey> previousKeys = targets.tablesOf((Table) change.getActual());
+                        add(keys, FOREIGN_KEY_DROP, previousKeys);
+                        add(keys, INDEX_DROP, previousKeys);
+                        add(keys, TABLE_DROP, tableKeys);
+                        add(keys, TABLE_RENAMED_FROM, tableKeys);
+                    } else {
+                        add(keys, TABLE_RENAMED_TO, tableKeys);
+                        add(keys, FOREIGN_KEY_DROP, tableKeys);
+                        add(keys, COLUMN_DROP, tableKeys);
+                        add(keys, COLUMN_RENAME, tableKeys);
+                        add(keys, COLUMN_CHANGE, tableKeys);
+                    }
+                    break;
+                case COLUMN:
+                    ColumnChange columnChange = (ColumnChange) change;
+                    Set<TableKey> columnTables = targets.tablesOf(columnChange.getTable());
+                    add(keys, TABLE_RENAMED_TO, columnTables);
+                    if (status == Change.Status.DROP) {
+                        add(keys, FOREIGN_KEY_DROP, columnTables);
+                        add(keys, INDEX_DROP, columnTables);
+                        add(keys, LAYOUT_DROP, columnTables);
+                    } else if (status == Change.Status.RENAME) {
+                        add(keys, FOREIGN_KEY_DROP, columnTables);
+                        add(keys, INDEX_DROP, columnTables);
+                        add(keys, COLUMN_DROP, columnTables);
+                        add(keys, COLUMN_RENAMED_FROM, columnTables, name(columnChange.getExpected().getName()));
+                    } else if (status == Change.Status.ADD) {
+                        add(keys, COLUMN_RENAME, columnTables);
+                        add(keys, COLUMN_NAME_DROP, columnTables, name(columnChange.getExpected().getName()));
+                    } else {
+                        add(keys, COLUMN_RENAME, columnTables);
+                        add(keys, FOREIGN_KEY_DROP, columnTables);
+                    }
+                    break;
+                case FOREIGN_KEY:
+                    if (status != Change.Status.DROP) {
+                        add(keys, TABLE_ADD, tables);
+                        add(keys, TABLE_ALTER, tables);
+                        add(keys, TABLE_RENAMED_TO, tables);
+                        add(keys, COLUMN_CHANGE, tables);
+                        add(keys, COLUMN_RENAME, tables);
+                        add(keys, INDEX_ADD, tables);
+                        ForeignKey foreignKey = (ForeignKey) change.getExpected();
+                        add(keys, FOREIGN_KEY_NAME_DROP, targets.tablesOf(foreignKey.getSchema(), foreignKey.getTableName()),
+                                name(foreignKey.getName()));
+                    }
+                    break;
+                case INDEX:
+                    if (status == Change.Status.DROP) {
+                        add(keys, FOREIGN_KEY_DROP, tables);
+                    } else {
+                        Index index = (Index) change.getExpected();
+                        add(keys, TABLE_ADD, tables);
+                        add(keys, TABLE_RENAMED_TO, tables);
+                        add(keys, COLUMN_CHANGE, tables);
+                        add(keys, COLUMN_RENAME, tables);
+                        add(keys, INDEX_NAME_DROP, targets.tablesOf(index.getSchema(), index.getTableName()),
+                                name(index.getName()));
+                    }
+                    break;
+                case PARTITION:
+                    PartitionChange partitionChange = (PartitionChange) change;
+                    add(keys, TABLE_RENAMED_TO, targets.tablesOf(partitionChange.getTable()));
+                    if (status != Change.Status.DROP) {
+                        addPartition(keys, partitionChange);
+                    }
+                    break;
+                case TABLE_OPTIONS:
+                case CLUSTERING:
+                case SEARCH_OPTIMIZATION:
+                    add(keys, TABLE_RENAMED_TO, tables);
+                    if (status != Change.Status.DROP) {
+                        add(keys, TABLE_ADD, tables);
+                        add(keys, TABLE_ALTER, tables);
+                        add(keys, COLUMN_CHANGE, tables);
+                        add(keys, COLUMN_RENAME, tables);
+                        add(keys, LAYOUT_DROP, tables);
+                    }
+                    break;
+                default:
+                    break;
+            }
+            return keys;
+        }
+
+        // an interleaved table is in the schema of its parent
+        private Set<TableKey> parentOf(Table table) {
+            return targets.tablesOf(table.getSchema(), table.getInterleave().getParentTable());
+        }
+
+        private void addPartition(List<String> keys, PartitionChange change) {
+            Partition partition = change.getExpected() != null ? change.getExpected() : change.getActual();
+            add(keys, PARTITION_DROP, targets.tablesOf(change.getTable()), name(partition.getName()));
+        }
+
+        private static void add(List<String> keys, String prefix, Set<TableKey> tables) {
+            tables.forEach(table -> keys.add(prefix + table));
+        }
+
+        // key of an object of the table, e.g. a column, by its name
+        private static void add(List<String> keys, String prefix, Set<TableKey> tables, String name) {
+            tables.forEach(table -> keys.add(prefix + table + "." + name));
+        }
+
+        private static String name(String name) {
+            return name == null ? "" : name.toLowerCase(Locale.ROOT);
+        }
+    }
+
+    public static class Node {
+        private final int id;
+        private final Set<TableKey> tables;
+        private final List<Change<?>> changes = new ArrayList<>();
+        private final Set<Node> successors = new LinkedHashSet<>();
+        private int predecessorCount;
+
+        private Node(int id, Set<TableKey> tables) {
+            this.id = id;
+            this.tables = tables;
+        }
+
+        private void addSuccessor(Node node) {
+            if (successors.add(node)) {
+                node.predecessorCount++;
+            }
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        /**
+         * @return changes of this node, to be applied in this order
+         */
+        public List<Change<?>> getChanges() {
+            return Collections.unmodifiableList(changes);
+        }
+
+        public Set<Node> getSuccessors() {
+            return Collections.unmodifiableSet(successors);
+        }
+
+        public int getPredecessorCount() {
+            return predecessorCount;
+        }
+    }
+}
@@ -8,6 +8,14 @@ public interface ChangeHandler {
 
     String createDDLForChanges(List<Change<?>> changes);
 
+    /**
+     * Removes redundant changes and sorts the rest in place into an order in which they can be applied one after
+     * another, see {@link ChangeDependencyGraph}.
+     *
+     * @return the same list, optimized and sorted
+     */
+    List<Change<?>> orderChanges(List<Change<?>> changes);
+
     String onDatabaseChange(DatabaseChange databaseChange);
 
     String onTableChange(TableChange change);
@@ -17,4 +25,12 @@ public interface ChangeHandler {
     String onForeignKeyChange(ForeignKeyChange change);
 
     String onIndexChange(IndexChange change);
+
+    String onPartitionChange(PartitionChange change);
+
+    String onTableOptionsChange(TableChange change);
+
+    String onClusteringChange(ClusteringChange change);
+
+    String onSearchOptimizationChange(SearchOptimizationChange change);
 }
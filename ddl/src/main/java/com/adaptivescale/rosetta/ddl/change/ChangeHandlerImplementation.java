@@ -1,53 +1,76 @@
 package com.adaptivescale.rosetta.ddl.change;
 
+import com.adaptivescale.rosetta.common.models.Partition;
 import com.adaptivescale.rosetta.ddl.DDL;
 import com.adaptivescale.rosetta.ddl.change.model.*;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 
 @Slf4j
 public class ChangeHandlerImplementation implements ChangeHandler{
 
     private final DDL ddl;
-    private final Comparator<Change<?>> changeComparator;
 
-    public ChangeHandlerImplementation(DDL ddl, Comparator<Change<?>> changeComparator) {
+    public ChangeHandlerImplementation(DDL ddl) {
         this.ddl = ddl;
-        this.changeComparator = changeComparator;
     }
 
     @Override
     public String createDDLForChanges(List<Change<?>> changes) {
-        if(changeComparator != null){
-            changes.sort(changeComparator);
-        }
+        orderChanges(changes);
 
         List<String> ddlStatements = new ArrayList<>();
-        for (Change<?> change : changes) {
-            switch (change.getType()) {
-                case DATABASE:
-                    ddlStatements.add(onDatabaseChange((DatabaseChange) change));
-                    break;
-                case TABLE:
-                    ddlStatements.add(onTableChange((TableChange) change));
-                    break;
-                case COLUMN:
-                    ddlStatements.add(onColumnChange((ColumnChange) change));
-                    break;
-                case FOREIGN_KEY:
-                    ddlStatements.add(onForeignKeyChange((ForeignKeyChange) change));
-                    break;
-                case INDEX:
-                    ddlStatements.add(onIndexChange((IndexChange) change));
+        for (List<Change<?>> statement : new AlterTableCoalescer(ddl).coalesce(changes)) {
+            String combined = statement.size() > 1
+                    ? ddl.combinedAlterTable(AlterTableCoalescer.tableOf(statement.get(0)), statement)
+                    : null;
+            if (combined != null) {
+                ddlStatements.add(combined);
+            } else {
+                statement.forEach(change -> ddlStatements.add(onChange(change)));
             }
         }
 
+        // dialects without a statement for a change, e.g. indices on Snowflake, return null or an empty statement
+        ddlStatements.removeIf(statement -> statement == null || statement.isBlank());
         return String.join("\r", ddlStatements);
     }
 
+    @Override
+    public List<Change<?>> orderChanges(List<Change<?>> changes) {
+        List<Change<?>> ordered = ChangeDependencyGraph.of(ChangePlanOptimizer.optimize(changes)).getOrderedChanges();
+        changes.clear();
+        changes.addAll(ordered);
+        return changes;
+    }
+
+    private String onChange(Change<?> change) {
+        switch (change.getType()) {
+            case DATABASE:
+                return onDatabaseChange((DatabaseChange) change);
+            case TABLE:
+                return onTableChange((TableChange) change);
+            case COLUMN:
+                return onColumnChange((ColumnChange) change);
+            case FOREIGN_KEY:
+                return onForeignKeyChange((ForeignKeyChange) change);
+            case INDEX:
+                return onIndexChange((IndexChange) change);
+            case PARTITION:
+                return onPartitionChange((PartitionChange) change);
+            case TABLE_OPTIONS:
+                return onTableOptionsChange((TableChange) change);
+            case CLUSTERING:
+                return onClusteringChange((ClusteringChange) change);
+            case SEARCH_OPTIMIZATION:
+                return onSearchOptimizationChange((SearchOptimizationChange) change);
+            default:
+                throw new RuntimeException("Change of type " + change.getType() + " not supported");
+        }
+    }
+
     @Override
     public String onDatabaseChange(DatabaseChange databaseChange) {
         switch (databaseChange.getStatus()) {
@@ -69,6 +92,15 @@ public class ChangeHandlerImplementation implements ChangeHandler{
                 return ddl.createTable(change.getExpected(), false);
             case ALTER:
                 return ddl.alterTable(change.getExpected(), change.getActual());
+            case RENAME:
+                String renameTable = ddl.renameTable(change.getExpected(), change.getActual());
+                if (renameTable == null) {
+                    // dropping and adding the table instead would lose its rows
+                    throw new RuntimeException(String.format("Table '%s' can not be renamed to '%s' on this target. " +
+                            "Remove its previousName to drop it and add it again.",
+                            change.getActual().getName(), change.getExpected().getName()));
+                }
+                return renameTable;
             default:
                 throw new RuntimeException("Operation " + change.getStatus() + " for table not supported");
         }
@@ -83,6 +115,15 @@ public class ChangeHandlerImplementation implements ChangeHandler{
                 return ddl.dropColumn(change);
             case ADD:
                 return ddl.addColumn(change);
+            case RENAME:
+                String renameColumn = ddl.renameColumn(change);
+                if (renameColumn == null) {
+                    // dropping and adding the column instead would lose its values
+                    throw new RuntimeException(String.format("Column '%s' of table '%s' can not be renamed to '%s' on " +
+                            "this target. Remove its previousName to drop it and add it again.",
+                            change.getActual().getName(), change.getTable().getName(), change.getExpected().getName()));
+                }
+                return renameColumn;
             default:
                 throw new RuntimeException("Operation " + change.getStatus() + " for column not supported");
         }
@@ -106,6 +147,11 @@ public class ChangeHandlerImplementation implements ChangeHandler{
     public String onIndexChange(IndexChange change) {
         switch (change.getStatus()) {
             case ADD:
+                if (change.isRebuild()) {
+                    log.warn("Index {} on {} is rebuilt, {} entries are indexed again.", change.getExpected().getName(),
+                            change.getExpected().getTableName(),
+                            change.getRebuildEntries().map(String::valueOf).orElse("an unknown number of"));
+                }
                 return ddl.createIndex(change.getExpected());
             case DROP:
                 return ddl.dropIndex(change.getActual());
@@ -113,4 +159,85 @@ public class ChangeHandlerImplementation implements ChangeHandler{
                 throw new RuntimeException("Operation " + change.getStatus() + " for index not supported");
         }
     }
+
+    @Override
+    public String onPartitionChange(PartitionChange change) {
+        String statement;
+        switch (change.getStatus()) {
+            case ADD:
+                statement = ddl.createPartition(change.getTable(), change.getExpected());
+                break;
+            case DROP:
+                statement = ddl.dropPartition(change.getTable(), change.getActual());
+                break;
+            case ALTER:
+                statement = ddl.alterPartition(change.getTable(), change.getExpected(), change.getActual());
+                break;
+            default:
+                throw new RuntimeException("Operation " + change.getStatus() + " for partition not supported");
+        }
+        if (statement == null) {
+            Partition partition = change.getExpected() != null ? change.getExpected() : change.getActual();
+            log.warn("Partitions are not supported, change of partition {} of table {} is skipped.", partition.getName(),
+                    change.getTable().getName());
+        }
+        return statement;
+    }
+
+    @Override
+    public String onTableOptionsChange(TableChange change) {
+        if (change.getStatus() != Change.Status.ALTER) {
+            throw new RuntimeException("Operation " + change.getStatus() + " for table options not supported");
+        }
+        String statement = ddl.alterTableOptions(change.getExpected(), change.getActual());
+        if (statement == null) {
+            log.warn("Table options are not supported, change of the options of table {} is skipped.",
+                    change.getExpected().getName());
+        }
+        return statement;
+    }
+
+    @Override
+    public String onClusteringChange(ClusteringChange change) {
+        String statement;
+        switch (change.getStatus()) {
+            case ADD:
+            case ALTER:
+                statement = ddl.alterClusteringKey(change.getTable(), change.getExpected());
+                break;
+            case DROP:
+                statement = ddl.dropClusteringKey(change.getTable());
+                break;
+            default:
+                throw new RuntimeException("Operation " + change.getStatus() + " for clustering key not supported");
+        }
+        if (statement == null) {
+            log.warn("Clustering keys are not supported, change of the clustering key of table {} is skipped.",
+                    change.getTable().getName());
+        }
+        return statement;
+    }
+
+    @Override
+    public String onSearchOptimizationChange(SearchOptimizationChange change) {
+        String statement;
+        switch (change.getStatus()) {
+            case ADD:
+                statement = ddl.addSearchOptimization(change.getTable(), change.getExpected());
+                break;
+            case DROP:
+                statement = ddl.dropSearchOptimization(change.getTable(), change.getActual());
+                break;
+            case ALTER:
+                statement = ddl.alterSearchOptimization(change.getTable(), change.getExpected(), change.getActual());
+                break;
+            default:
+                throw new RuntimeException("Operation " + change.getStatus() + " for search optimization not supported");
+        }
+        if (statement == null) {
+            log.warn("Search optimization is not supported, change of the search optimization of table {} is skipped.",
+                    change.getTable().getName());
+        }
+        return statement;
+    }
 }
@@ -0,0 +1,181 @@
+package com.adaptivescale.rosetta.ddl.change;
+
+import com.adaptivescale.rosetta.common.IndexUtils;
+import com.adaptivescale.rosetta.common.models.Column;
+import com.adaptivescale.rosetta.common.models.Database;
+import com.adaptivescale.rosetta.common.models.ForeignKey;
+import com.adaptivescale.rosetta.common.models.Index;
+import com.adaptivescale.rosetta.common.models.Partition;
+import com.adaptivescale.rosetta.common.models.Table;
+import com.adaptivescale.rosetta.ddl.change.model.Change;
+import com.adaptivescale.rosetta.ddl.change.model.ClusteringChange;
+import com.adaptivescale.rosetta.ddl.change.model.ColumnChange;
+import com.adaptivescale.rosetta.ddl.change.model.PartitionChange;
+import com.adaptivescale.rosetta.ddl.change.model.SearchOptimizationChange;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Removes the redundant parts of a list of changes before DDL is created for it, in time linear to its size.
+ * <ul>
+ *     <li>A change found more than once is kept once, where it was found first. A foreign key is dropped both with
+ *     its column and with the primary key it references, for example.</li>
+ *     <li>Alterations of the same table, rebuilds of its primary key for every key column that changed, are merged
+ *     into one. It is kept where the last of them was found, after every column the key needs has been added.</li>
+ *     <li>An index or foreign key dropped and added again with the same definition is left as it is. Not if a table
+ *     it is defined on changes as well, the drop may be what lets that change run.</li>
+ * </ul>
+ */
+@Slf4j
+public class ChangePlanOptimizer {
+
+    private ChangePlanOptimizer() {
+    }
+
+    /**
+     * @return the changes without redundant ones, in the order they were given
+     */
+    public static List<Change<?>> optimize(List<Change<?>> changes) {
+        List<Change<?>> optimized = cancelRecreated(deduplicate(changes));
+        if (optimized.size() < changes.size()) {
+            log.info("Optimized {} changes to {}", changes.size(), optimized.size());
+        }
+        return optimized;
+    }
+
+    private static List<Change<?>> deduplicate(List<Change<?>> changes) {
+        Map<String, Integer> lastAlteration = new HashMap<>();
+        for (int i = 0; i < changes.size(); i++) {
+            if (isTableAlteration(changes.get(i))) {
+                lastAlteration.put(key(changes.get(i)), i);
+            }
+        }
+
+        Set<String> found = new HashSet<>();
+        List<Change<?>> unique = new ArrayList<>(changes.size());
+        for (int i = 0; i < changes.size(); i++) {
+            Change<?> change = changes.get(i);
+            String key = key(change);
+            boolean keep = isTableAlteration(change) ? lastAlteration.get(key) == i : key == null || found.add(key);
+            if (keep) {
+                unique.add(change);
+            }
+        }
+        return unique;
+    }
+
+    private static List<Change<?>> cancelRecreated(List<Change<?>> changes) {
+        ChangeTargets targets = ChangeTargets.of(changes);
+        Set<TableKey> changedTables = new HashSet<>();
+        for (Change<?> change : changes) {
+            if (change.getType() == Change.Type.TABLE || change.getType() == Change.Type.COLUMN
+                    || change.getType() == Change.Type.PARTITION) {
+                changedTables.addAll(targets.tablesOf(change));
+            }
+        }
+
+        Map<String, Integer> drops = new HashMap<>();
+        Set<Integer> cancelled = new HashSet<>();
+        for (int i = 0; i < changes.size(); i++) {
+            Change<?> change = changes.get(i);
+            if (change.getType() != Change.Type.INDEX && change.getType() != Change.Type.FOREIGN_KEY) {
+                continue;
+            }
+
+            String key = objectKey(change);
+            if (change.getStatus() == Change.Status.DROP) {
+                drops.put(key, i);
+            } else if (change.getStatus() == Change.Status.ADD) {
+                Integer drop = drops.remove(key);
+                if (drop != null && recreates(changes.get(drop), change)
+                        && Collections.disjoint(targets.tablesOf(change), changedTables)) {
+                    cancelled.add(drop);
+                    cancelled.add(i);
+                }
+            }
+        }
+
+        if (cancelled.isEmpty()) {
+            return changes;
+        }
+        List<Change<?>> remaining = new ArrayList<>(changes.size() - cancelled.size());
+        for (int i = 0; i < changes.size(); i++) {
+            if (!cancelled.contains(i)) {
+                remaining.add(changes.get(i));
+            }
+        }
+        return remaining;
+    }
+
+    private static boolean recreates(Change<?> drop, Change<?> add) {
+        Object dropped = drop.getActual();
+        Object added = add.getExpected();
+        if (dropped instanceof Index && added instanceof Index) {
+            return IndexUtils.sameStructure((Index) added, (Index) dropped);
+        }
+        if (dropped instanceof ForeignKey && added instanceof ForeignKey) {
+            ForeignKey droppedForeignKey = (ForeignKey) dropped;
+            ForeignKey addedForeignKey = (ForeignKey) added;
+            return Objects.equals(addedForeignKey.getColumnName(), droppedForeignKey.getColumnName())
+                    && Objects.equals(addedForeignKey.getDeleteRule(), droppedForeignKey.getDeleteRule())
+                    && Objects.equals(addedForeignKey.getPrimaryTableSchema(), droppedForeignKey.getPrimaryTableSchema())
+                    && Objects.equals(addedForeignKey.getPrimaryTableName(), droppedForeignKey.getPrimaryTableName())
+                    && Objects.equals(addedForeignKey.getPrimaryColumnName(), droppedForeignKey.getPrimaryColumnName());
+        }
+        return false;
+    }
+
+    private static boolean isTableAlteration(Change<?> change) {
+        return change.getType() == Change.Type.TABLE && change.getStatus() == Change.Status.ALTER;
+    }
+
+    private static String key(Change<?> change) {
+        String objectKey = objectKey(change);
+        return objectKey == null ? null : change.getStatus() + "->" + objectKey;
+    }
+
+    // identifies the object a change is made to, the existing object if there is one
+    private static String objectKey(Change<?> change) {
+        Object object = change.getActual() != null ? change.getActual() : change.getExpected();
+        switch (change.getType()) {
+            case DATABASE:
+                return "DATABASE->" + ((Database) object).getDatabaseType();
+            case TABLE:
+                Table table = (Table) object;
+                return "TABLE->" + table.getSchema() + "->" + table.getName();
+            case COLUMN:
+                Table columnTable = ((ColumnChange) change).getTable();
+                return "COLUMN->" + columnTable.getSchema() + "->" + columnTable.getName() + "->" + ((Column) object).getName();
+            case FOREIGN_KEY:
+                ForeignKey foreignKey = (ForeignKey) object;
+                return "FOREIGN_KEY->" + foreignKey.getSchema() + "->" + foreignKey.getTableName() + "->"
+                        + foreignKey.getColumnName() + "->" + foreignKey.getName();
+            case INDEX:
+                Index index = (Index) object;
+                return "INDEX->" + index.getSchema() + "->" + index.getTableName() + "->" + index.getName();
+            case PARTITION:
+                Table partitionedTable = ((PartitionChange) change).getTable();
+                return "PARTITION->" + partitionedTable.getSchema() + "->" + partitionedTable.getName() + "->"
+                        + ((Partition) object).getName();
+            case TABLE_OPTIONS:
+                Table optionsTable = (Table) object;
+                return "TABLE_OPTIONS->" + optionsTable.getSchema() + "->" + optionsTable.getName();
+            case CLUSTERING:
+                Table clusteredTable = ((ClusteringChange) change).getTable();
+                return "CLUSTERING->" + clusteredTable.getSchema() + "->" + clusteredTable.getName();
+            case SEARCH_OPTIMIZATION:
+                Table optimizedTable = ((SearchOptimizationChange) change).getTable();
+                return "SEARCH_OPTIMIZATION->" + optimizedTable.getSchema() + "->" + optimizedTable.getName();
+            default:
+                return null;
+        }
+    }
+}
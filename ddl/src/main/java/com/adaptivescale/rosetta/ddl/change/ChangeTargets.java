@@ -0,0 +1,154 @@
+package com.adaptivescale.rosetta.ddl.change;
+
+import com.adaptivescale.rosetta.common.models.ForeignKey;
+import com.adaptivescale.rosetta.common.models.Index;
+import com.adaptivescale.rosetta.common.models.Partition;
+import com.adaptivescale.rosetta.common.models.Table;
+import com.adaptivescale.rosetta.ddl.change.model.Change;
+import com.adaptivescale.rosetta.ddl.change.model.ClusteringChange;
+import com.adaptivescale.rosetta.ddl.change.model.ColumnChange;
+import com.adaptivescale.rosetta.ddl.change.model.PartitionChange;
+import com.adaptivescale.rosetta.ddl.change.model.SearchOptimizationChange;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tables a change has to lock or reference when it is applied. Two changes that share a table must keep their
+ * relative order; changes that share none are independent.
+ * <p>
+ * Tables are identified by lower-cased schema and name. Foreign keys and indices written by hand may leave out their
+ * schema, such a reference is taken to mean every table of that name the changes of the plan know a schema for, and
+ * treating two same-named tables as dependent is always safe.
+ */
+public class ChangeTargets {
+
+    private final Map<String, Set<String>> schemasByTable;
+
+    private ChangeTargets(Map<String, Set<String>> schemasByTable) {
+        this.schemasByTable = schemasByTable;
+    }
+
+    /**
+     * @param changes all changes of the plan, they tell the schemas of the tables
+     */
+    public static ChangeTargets of(List<Change<?>> changes) {
+        Map<String, Set<String>> schemasByTable = new HashMap<>();
+        for (Change<?> change : changes) {
+            addSchema(schemasByTable, tableOf(change));
+            if (change.getType() == Change.Type.TABLE) {
+                // the previous name of a renamed table
+                addSchema(schemasByTable, (Table) change.getActual());
+            }
+        }
+        return new ChangeTargets(schemasByTable);
+    }
+
+    private static void addSchema(Map<String, Set<String>> schemasByTable, Table table) {
+        if (table != null && table.getSchema() != null && table.getName() != null) {
+            schemasByTable.computeIfAbsent(lower(table.getName()), name -> new LinkedHashSet<>())
+                    .add(lower(table.getSchema()));
+        }
+    }
+
+    /**
+     * @return tables touched by the change, empty for a database change which touches everything
+     */
+    public Set<TableKey> tablesOf(Change<?> change) {
+        Set<TableKey> tables = new LinkedHashSet<>();
+        switch (change.getType()) {
+            case TABLE:
+                Table table = (Table) (change.getExpected() != null ? change.getExpected() : change.getActual());
+                tables.addAll(tablesOf(table));
+                if (change.getStatus() == Change.Status.RENAME) {
+                    tables.addAll(tablesOf((Table) change.getActual()));
+                }
+                // an interleaved table is added after and dropped before its parent
+                if (table.getInterleave() != null) {
+                    tables.addAll(tablesOf(table.getSchema(), table.getInterleave().getParentTable()));
+                }
+                break;
+            case COLUMN:
+                tables.addAll(tablesOf(((ColumnChange) change).getTable()));
+                break;
+            case FOREIGN_KEY:
+                ForeignKey foreignKey = (ForeignKey) (change.getExpected() != null ? change.getExpected() : change.getActual());
+                tables.addAll(tablesOf(foreignKey.getSchema(), foreignKey.getTableName()));
+                String primaryTableSchema = foreignKey.getPrimaryTableSchema() != null
+                        ? foreignKey.getPrimaryTableSchema() : foreignKey.getSchema();
+                tables.addAll(tablesOf(primaryTableSchema, foreignKey.getPrimaryTableName()));
+                break;
+            case INDEX:
+                Index index = (Index) (change.getExpected() != null ? change.getExpected() : change.getActual());
+                tables.addAll(tablesOf(index.getSchema(), index.getTableName()));
+                break;
+            case PARTITION:
+                PartitionChange partitionChange = (PartitionChange) change;
+                Partition partition = partitionChange.getExpected() != null ? partitionChange.getExpected() : partitionChange.getActual();
+                Table partitionedTable = partitionChange.getTable();
+                tables.addAll(tablesOf(partitionedTable));
+                // a partition lives in the schema of its table
+                tables.addAll(tablesOf(partitionedTable.getSchema(), partition.getName()));
+                break;
+            case TABLE_OPTIONS:
+            case CLUSTERING:
+            case SEARCH_OPTIMIZATION:
+                tables.addAll(tablesOf(tableOf(change)));
+                break;
+            case DATABASE:
+            default:
+                break;
+        }
+        return tables;
+    }
+
+    public Set<TableKey> tablesOf(Table table) {
+        return tablesOf(table.getSchema(), table.getName());
+    }
+
+    /**
+     * @param schema schema of the table, null if the reference does not name one
+     */
+    public Set<TableKey> tablesOf(String schema, String name) {
+        if (name == null) {
+            return Set.of();
+        }
+        if (schema != null) {
+            return Set.of(TableKey.of(lower(schema), lower(name)));
+        }
+        Set<String> schemas = schemasByTable.get(lower(name));
+        if (schemas == null) {
+            return Set.of(TableKey.of(null, lower(name)));
+        }
+        Set<TableKey> tables = new LinkedHashSet<>();
+        schemas.forEach(known -> tables.add(TableKey.of(known, lower(name))));
+        return tables;
+    }
+
+    // table a change is made to or in, null for changes of objects that only reference their table by name
+    private static Table tableOf(Change<?> change) {
+        switch (change.getType()) {
+            case TABLE:
+            case TABLE_OPTIONS:
+                return (Table) (change.getExpected() != null ? change.getExpected() : change.getActual());
+            case COLUMN:
+                return ((ColumnChange) change).getTable();
+            case PARTITION:
+                return ((PartitionChange) change).getTable();
+            case CLUSTERING:
+                return ((ClusteringChange) change).getTable();
+            case SEARCH_OPTIMIZATION:
+                return ((SearchOptimizationChange) change).getTable();
+            default:
+                return null;
+        }
+    }
+
+    private static String lower(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
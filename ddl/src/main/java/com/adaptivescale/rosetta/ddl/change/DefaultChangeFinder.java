@@ -4,19 +4,34 @@ import com.adaptivescale.rosetta.common.models.Column;
 import com.adaptivescale.rosetta.common.models.Database;
 import com.adaptivescale.rosetta.common.models.ForeignKey;
 import com.adaptivescale.rosetta.common.models.Table;
+import com.adaptivescale.rosetta.ddl.ApplyOptions;
 import com.adaptivescale.rosetta.ddl.change.model.Change;
 import com.adaptivescale.rosetta.ddl.change.model.ChangeFactory;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 @Slf4j
 public class DefaultChangeFinder implements ChangeFinder {
 
+    private final boolean detectRenames;
+
+    public DefaultChangeFinder() {
+        this(new ApplyOptions());
+    }
+
+    /**
+     * Tables and columns are only paired by their definition if {@link ApplyOptions#isDetectRenames()}, a
+     * {@code previousName} always renames them.
+     */
+    public DefaultChangeFinder(ApplyOptions options) {
+        this.detectRenames = options.isDetectRenames();
+    }
+
     @Override
     public List<Change<?>> findChanges(Database expected, Database actual) {
         List<Change<?>> changes = new ArrayList<>();
@@ -30,31 +45,46 @@ public class DefaultChangeFinder implements ChangeFinder {
             return changes;
         }
 
-        Collection<Table> actualTables = new ArrayList<>(actual.getTables());
+        KeyedMatcher<TableKey, Table> actualTables = new KeyedMatcher<>(actual.getTables(), TableKey::of);
 
+        Map<Table, Table> matchedTables = new IdentityHashMap<>();
+        List<Table> addedTables = new ArrayList<>();
         for (Table expectedTable : expected.getTables()) {
-            List<Table> foundedTables = actualTables
-                    .stream()
-                    .filter(table -> Objects.equals(expectedTable.getName(), table.getName()) && Objects.equals(expectedTable.getSchema(), table.getSchema()))
-                    .collect(Collectors.toList());
+            List<Table> foundedTables = actualTables.match(TableKey.of(expectedTable));
 
             if (foundedTables.size() == 0) {
-                Change<Table> tableChange = ChangeFactory.tableChange(expectedTable, null, Change.Status.ADD);
-                changes.add(tableChange);
+                addedTables.add(expectedTable);
             } else if (foundedTables.size() == 1) {
-                Table table = foundedTables.get(0);
-                actualTables.remove(table);
-                //change in table
-                List<Change<?>> changesFromTables = findChangesInColumnsForTable(expectedTable, table);
-                changes.addAll(changesFromTables);
+                matchedTables.put(expectedTable, foundedTables.get(0));
             } else {
                 throw new RuntimeException(String.format("Found %d table with name '%s' and schema '%s'",
                         foundedTables.size(), expectedTable.getName(), expectedTable.getSchema()));
             }
         }
+        Map<Table, Table> renamedTables = RenameDetection.tables(addedTables, actualTables.unmatched(), detectRenames);
+        renamedTables.values().forEach(actualTables::take);
+
+        TableComparisons comparisons = new TableComparisons();
+        for (Table expectedTable : expected.getTables()) {
+            Table table = matchedTables.get(expectedTable);
+            if (table == null && renamedTables.containsKey(expectedTable)) {
+                table = renamedTables.get(expectedTable);
+                comparisons.add(ChangeFactory.tableChange(expectedTable, table, Change.Status.RENAME));
+            }
+
+            if (table == null) {
+                Change<Table> tableChange = ChangeFactory.tableChange(expectedTable, null, Change.Status.ADD);
+                comparisons.add(tableChange);
+            } else {
+                Table actualTable = table;
+                //change in table, compared in parallel with the other tables
+                comparisons.add(() -> findChangesInColumnsForTable(expectedTable, actualTable));
+            }
+        }
+        changes.addAll(comparisons.run());
 
         //mark all for deletion
-        for (Table actualTable : actualTables) {
+        for (Table actualTable : actualTables.unmatched()) {
             Change<Table> tableChange = ChangeFactory.tableChange(null, actualTable, Change.Status.DROP);
             changes.add(tableChange);
         }
@@ -66,13 +96,19 @@ public class DefaultChangeFinder implements ChangeFinder {
     private List<Change<?>> findChangesInColumnsForTable(Table expected, Table actual) {
 
         List<Change<?>> changes = new ArrayList<>();
-        ArrayList<Column> actualColumns = new ArrayList<>(actual.getColumns());
+        Map<Column, Column> renamedColumns = RenameDetection.columns(expected, actual, detectRenames);
+        KeyedMatcher<String, Column> actualColumns = new KeyedMatcher<>(actual.getColumns(), Column::getName);
+        renamedColumns.values().forEach(actualColumns::take);
 
         for (Column expectedColumn : expected.getColumns()) {
-            List<Column> foundColumns = actualColumns
-                    .stream()
-                    .filter(column -> Objects.equals(expectedColumn.getName(), column.getName()))
-                    .collect(Collectors.toList());
+            List<Column> foundColumns = actualColumns.match(expectedColumn.getName());
+
+            Column renamedFrom = renamedColumns.get(expectedColumn);
+            if (renamedFrom != null) {
+                changes.add(ChangeFactory.columnChange(expectedColumn, renamedFrom, Change.Status.RENAME, expected));
+                //compared as any other column after it is renamed
+                foundColumns = List.of(renamedFrom);
+            }
 
             if (foundColumns.isEmpty()) {
                 Change<Column> columnChange = ChangeFactory.columnChange(expectedColumn, null, Change.Status.ADD, expected);
@@ -110,15 +146,13 @@ public class DefaultChangeFinder implements ChangeFinder {
                 List<Change<?>> changesForForeignKeys = findChangesForForeignKeys(expectedColumn, expectedColumn.getForeignKeys(), actualColumn.getForeignKeys());
                 changes.addAll(changesForForeignKeys);
 
-                actualColumns.remove(actualColumn);
-
             } else {
                 throw new RuntimeException(String.format("Found %d column with name '%s' in table '%s'.'%s'",
                         foundColumns.size(), actual.getName(), actual.getName(), actual.getSchema()));
             }
         }
 
-        for (Column actualColumn : actualColumns) {
+        for (Column actualColumn : actualColumns.unmatched()) {
             Change<Column> columnChange = ChangeFactory.columnChange(null, actualColumn, Change.Status.DROP, expected);
             changes.add(columnChange);
         }
@@ -149,12 +183,10 @@ public class DefaultChangeFinder implements ChangeFinder {
             return changes;
         }
 
-        ArrayList<ForeignKey> actualForeignKeys = new ArrayList<>(actualForeignKeyList);
+        KeyedMatcher<String, ForeignKey> actualForeignKeys = new KeyedMatcher<>(actualForeignKeyList, ForeignKey::getName);
 
         for (ForeignKey foreignKey : expectedForeignKeyList) {
-            List<ForeignKey> foundForeignKeys = actualForeignKeys.stream()
-                    .filter(actualForeignKey -> Objects.equals(foreignKey.getName(), actualForeignKey.getName()))
-                    .collect(Collectors.toList());
+            List<ForeignKey> foundForeignKeys = actualForeignKeys.match(foreignKey.getName());
 
 
             if (foundForeignKeys.isEmpty()) {
@@ -176,16 +208,15 @@ public class DefaultChangeFinder implements ChangeFinder {
                     Change<ForeignKey> foreignKeyChange = ChangeFactory.foreignKeyChange(foreignKey, actualForeignKey, Change.Status.ALTER);
                     changes.add(foreignKeyChange);
                 }
-                actualForeignKeys.remove(actualForeignKey);
             } else {
                 throw new RuntimeException(String.format("Found %d foreign keys with name '%s' in column '%s' table '%s.%s'",
                         foundForeignKeys.size(), foreignKey.getName(), foreignKey.getColumnName(), foreignKey.getTableName(), foreignKey.getSchema()));
             }
+        }
 
-            for (ForeignKey actualForeignKey : actualForeignKeys) {
-                Change<ForeignKey> foreignKeyChange = ChangeFactory.foreignKeyChange(null, actualForeignKey, Change.Status.DROP);
-                changes.add(foreignKeyChange);
-            }
+        for (ForeignKey actualForeignKey : actualForeignKeys.unmatched()) {
+            Change<ForeignKey> foreignKeyChange = ChangeFactory.foreignKeyChange(null, actualForeignKey, Change.Status.DROP);
+            changes.add(foreignKeyChange);
         }
 
         return changes;
@@ -0,0 +1,65 @@
+package com.adaptivescale.rosetta.ddl.change;
+
+import com.adaptivescale.rosetta.common.models.Column;
+import com.adaptivescale.rosetta.common.models.ForeignKey;
+import com.adaptivescale.rosetta.common.models.Table;
+import com.adaptivescale.rosetta.ddl.change.model.Change;
+import com.adaptivescale.rosetta.ddl.change.model.ChangeFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Foreign keys of a model by the table and column they reference. A dropped table or column, or a changed primary key,
+ * looks up the foreign keys to drop with it here instead of going through all of them.
+ */
+public class ForeignKeyReferences {
+
+    private final Map<TableKey, Map<String, List<ForeignKey>>> foreignKeysByReference = new HashMap<>();
+
+    public ForeignKeyReferences(Collection<Table> tables) {
+        for (Table table : tables) {
+            for (Column column : table.getColumns()) {
+                if (column.getForeignKeys() == null) {
+                    continue;
+                }
+                for (ForeignKey foreignKey : column.getForeignKeys()) {
+                    foreignKeysByReference.computeIfAbsent(TableKey.referencedBy(foreignKey), key -> new HashMap<>())
+                            .computeIfAbsent(foreignKey.getPrimaryColumnName(), key -> new ArrayList<>())
+                            .add(foreignKey);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return foreign keys referencing the column of the table
+     */
+    public List<ForeignKey> referencing(Table table, Column column) {
+        return foreignKeysByReference.getOrDefault(TableKey.of(table), Map.of()).getOrDefault(column.getName(), List.of());
+    }
+
+    /**
+     * @return changes dropping the foreign keys that reference the column of the table
+     */
+    public List<Change<ForeignKey>> dropReferencing(Table table, Column column) {
+        return referencing(table, column).stream()
+                .map(foreignKey -> ChangeFactory.foreignKeyChange(null, foreignKey, Change.Status.DROP))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return changes dropping the foreign keys that reference any column of the table
+     */
+    public List<Change<ForeignKey>> dropReferencing(Table table) {
+        List<Change<ForeignKey>> changes = new ArrayList<>();
+        for (Column column : table.getColumns()) {
+            changes.addAll(dropReferencing(table, column));
+        }
+        return changes;
+    }
+}
@@ -0,0 +1,84 @@
+package com.adaptivescale.rosetta.ddl.change;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Matches objects of the expected model with the actual ones by key, e.g. tables by {@link TableKey} or columns by
+ * name. The actual objects are hashed by key once, so matching a whole model takes linear time. Matched objects are
+ * taken out, the ones left unmatched exist only in the actual model.
+ *
+ * @param <K> key the objects are matched by
+ * @param <T> type of the matched objects
+ */
+public class KeyedMatcher<K, T> {
+
+    private final List<T> actual;
+    private final Function<T, K> key;
+    private final Map<K, List<T>> actualByKey = new HashMap<>();
+    private final Set<T> matched = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    public KeyedMatcher(Collection<T> actual, Function<T, K> key) {
+        this.actual = actual == null ? List.of() : new ArrayList<>(actual);
+        this.key = key;
+        for (T object : this.actual) {
+            actualByKey.computeIfAbsent(key.apply(object), k -> new ArrayList<>(1)).add(object);
+        }
+    }
+
+    /**
+     * @return the unmatched actual objects with the key, taken out if there is exactly one
+     */
+    public List<T> match(K key) {
+        List<T> found = actualByKey.getOrDefault(key, List.of());
+        if (found.size() == 1) {
+            actualByKey.remove(key);
+            matched.add(found.get(0));
+        }
+        return Collections.unmodifiableList(found);
+    }
+
+    /**
+     * @return the first unmatched actual object with the key, taken out
+     */
+    public Optional<T> matchFirst(K key) {
+        List<T> found = actualByKey.get(key);
+        if (found == null) {
+            return Optional.empty();
+        }
+        T first = found.remove(0);
+        if (found.isEmpty()) {
+            actualByKey.remove(key);
+        }
+        matched.add(first);
+        return Optional.of(first);
+    }
+
+    /**
+     * Takes out an object matched by other means than its key, e.g. a renamed table.
+     */
+    public void take(T object) {
+        K objectKey = key.apply(object);
+        List<T> found = actualByKey.get(objectKey);
+        if (found != null && found.remove(object) && found.isEmpty()) {
+            actualByKey.remove(objectKey);
+        }
+        matched.add(object);
+    }
+
+    /**
+     * @return the actual objects not matched, in their original order
+     */
+    public List<T> unmatched() {
+        return actual.stream().filter(object -> !matched.contains(object)).collect(Collectors.toList());
+    }
+}
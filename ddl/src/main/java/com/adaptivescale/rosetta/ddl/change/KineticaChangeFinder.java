@@ -6,15 +6,14 @@ import com.adaptivescale.rosetta.common.models.Database;
 import com.adaptivescale.rosetta.common.models.ForeignKey;
 import com.adaptivescale.rosetta.common.models.Table;
 import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
+import com.adaptivescale.rosetta.ddl.ApplyOptions;
 import com.adaptivescale.rosetta.ddl.change.model.Change;
 import com.adaptivescale.rosetta.ddl.change.model.ChangeFactory;
-import com.adaptivescale.rosetta.ddl.change.model.ColumnChange;
+import com.adaptivescale.rosetta.ddl.targets.kinetica.KineticaColumnProperties;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.*;
-import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Slf4j
 @RosettaModule(
@@ -23,6 +22,20 @@ import java.util.stream.Stream;
 )
 public class KineticaChangeFinder implements ChangeFinder {
 
+    private final boolean detectRenames;
+
+    public KineticaChangeFinder() {
+        this(new ApplyOptions());
+    }
+
+    /**
+     * Tables and columns are only paired by their definition if {@link ApplyOptions#isDetectRenames()}, the DDL of
+     * this dialect renames them.
+     */
+    public KineticaChangeFinder(ApplyOptions options) {
+        this.detectRenames = options.isDetectRenames();
+    }
+
     @Override
     public List<Change<?>> findChanges(Database expected, Database actual) {
         List<Change<?>> changes = new ArrayList<>();
@@ -36,56 +49,123 @@ public class KineticaChangeFinder implements ChangeFinder {
             return changes;
         }
 
-        Collection<Table> actualTables = new ArrayList<>(actual.getTables());
-        List<ForeignKey> allForeignKeys = findAllForeignKeys(actual.getTables());
+        KeyedMatcher<TableKey, Table> actualTables = new KeyedMatcher<>(actual.getTables(), TableKey::of);
+        ForeignKeyReferences foreignKeyReferences = new ForeignKeyReferences(actual.getTables());
 
+        Map<Table, Table> matchedTables = new IdentityHashMap<>();
+        List<Table> addedTables = new ArrayList<>();
         for (Table expectedTable : expected.getTables()) {
-            List<Table> foundedTables = actualTables
-                    .stream()
-                    .filter(table -> Objects.equals(expectedTable.getName(), table.getName()) && Objects.equals(expectedTable.getSchema(), table.getSchema()))
-                    .collect(Collectors.toList());
+            List<Table> foundedTables = actualTables.match(TableKey.of(expectedTable));
 
             if (foundedTables.size() == 0) {
-                Change<Table> tableChange = ChangeFactory.tableChange(expectedTable, null, Change.Status.ADD);
-                changes.add(tableChange);
+                addedTables.add(expectedTable);
             } else if (foundedTables.size() == 1) {
-                Table table = foundedTables.get(0);
-                actualTables.remove(table);
-                //change in table
-                List<Change<?>> changesFromTables = findChangesInColumnsForTable(expectedTable, table, allForeignKeys);
-                changes.addAll(changesFromTables);
+                matchedTables.put(expectedTable, foundedTables.get(0));
             } else {
                 throw new RuntimeException(String.format("Found %d table with name '%s' and schema '%s'",
                         foundedTables.size(), expectedTable.getName(), expectedTable.getSchema()));
             }
         }
+        Map<Table, Table> renamedTables = RenameDetection.tables(addedTables, actualTables.unmatched(), detectRenames);
+        renamedTables.values().forEach(actualTables::take);
+
+        TableComparisons comparisons = new TableComparisons();
+        for (Table expectedTable : expected.getTables()) {
+            Table table = matchedTables.get(expectedTable);
+            if (table == null && renamedTables.containsKey(expectedTable)) {
+                table = renamedTables.get(expectedTable);
+                comparisons.add(ChangeFactory.tableChange(expectedTable, table, Change.Status.RENAME));
+            }
+
+            if (table == null) {
+                Change<Table> tableChange = ChangeFactory.tableChange(expectedTable, null, Change.Status.ADD);
+                comparisons.add(tableChange);
+            } else {
+                Table actualTable = table;
+                //change in table, compared in parallel with the other tables
+                comparisons.add(() -> findChangesInTable(expectedTable, actualTable, foreignKeyReferences));
+            }
+        }
+        changes.addAll(comparisons.run());
 
         //mark all for deletion
-        for (Table actualTable : actualTables) {
+        for (Table actualTable : actualTables.unmatched()) {
 
             //check if table columns are reference by any foreign keys
-            List<Change<ForeignKey>> foreignKeysToDrop = dropForeignKeysThatAreReferencedToTable(actualTable, allForeignKeys);
+            List<Change<ForeignKey>> foreignKeysToDrop = foreignKeyReferences.dropReferencing(actualTable);
             changes.addAll(foreignKeysToDrop);
 
             Change<Table> tableChange = ChangeFactory.tableChange(null, actualTable, Change.Status.DROP);
             changes.add(tableChange);
         }
 
-        List<Change<?>> result = filterDuplicates(changes);
-        log.info("Found {} changes", result.size());
-        return result;
+        log.info("Found {} changes", changes.size());
+        return changes;
     }
 
-    private List<Change<?>> findChangesInColumnsForTable(Table expected, Table actual, List<ForeignKey> allForeignKeys) {
+    // sharding is fixed when a table is created, only the tier strategy can be changed in place
+    private List<Change<?>> findChangesInDistribution(Table expected, Table actual) {
+        boolean sameDistribution = Objects.equals(Boolean.TRUE.equals(expected.getReplicated()), Boolean.TRUE.equals(actual.getReplicated()))
+                && Objects.equals(shardKey(expected), shardKey(actual));
+        if (!sameDistribution) {
+            throw new RuntimeException(String.format("Table '%s.%s' is %s but expected %s. Kinetica can not change the " +
+                            "distribution of a table, the table has to be recreated.", expected.getSchema(), expected.getName(),
+                    describeDistribution(actual), describeDistribution(expected)));
+        }
+
+        if (!Objects.equals(normalize(expected.getTierStrategy()), normalize(actual.getTierStrategy()))) {
+            return List.of(ChangeFactory.tableChange(expected, actual, Change.Status.ALTER));
+        }
+        return List.of();
+    }
+
+    // a shard key on the primary key columns is the same as the default
+    private List<String> shardKey(Table table) {
+        List<String> primaryKey = table.getColumns().stream()
+                .filter(Column::isPrimaryKey)
+                .sorted(Comparator.comparingInt(Column::getPrimaryKeySequenceId))
+                .map(Column::getName)
+                .collect(Collectors.toList());
+        if (table.getShardKey() == null || table.getShardKey().equals(primaryKey)) {
+            return List.of();
+        }
+        return table.getShardKey();
+    }
+
+    private String describeDistribution(Table table) {
+        if (Boolean.TRUE.equals(table.getReplicated())) {
+            return "replicated";
+        }
+        return shardKey(table).isEmpty() ? "sharded by its primary key" : "sharded by " + shardKey(table);
+    }
+
+    private String normalize(String tierStrategy) {
+        return tierStrategy == null || tierStrategy.isBlank() ? null : tierStrategy.replaceAll("\\s+", "");
+    }
+
+    private List<Change<?>> findChangesInTable(Table expected, Table actual, ForeignKeyReferences foreignKeyReferences) {
+        List<Change<?>> changes = new ArrayList<>(findChangesInColumnsForTable(expected, actual,
+                RenameDetection.columns(expected, actual, detectRenames), foreignKeyReferences));
+        changes.addAll(findChangesInDistribution(expected, actual));
+        return changes;
+    }
+
+    private List<Change<?>> findChangesInColumnsForTable(Table expected, Table actual, Map<Column, Column> renamedColumns,
+                                                         ForeignKeyReferences foreignKeyReferences) {
 
         List<Change<?>> changes = new ArrayList<>();
-        ArrayList<Column> actualColumns = new ArrayList<>(actual.getColumns());
+        KeyedMatcher<String, Column> actualColumns = new KeyedMatcher<>(actual.getColumns(), Column::getName);
+        renamedColumns.values().forEach(actualColumns::take);
 
         for (Column expectedColumn : expected.getColumns()) {
-            List<Column> foundColumns = actualColumns
-                    .stream()
-                    .filter(column -> Objects.equals(expectedColumn.getName(), column.getName()))
-                    .collect(Collectors.toList());
+            List<Column> foundColumns = actualColumns.match(expectedColumn.getName());
+
+            Column renamedFrom = renamedColumns.get(expectedColumn);
+            if (renamedFrom != null) {
+                changes.add(ChangeFactory.columnChange(expectedColumn, renamedFrom, Change.Status.RENAME, expected));
+                //compared as any other column after it is renamed
+                foundColumns = List.of(renamedFrom);
+            }
 
             if (foundColumns.isEmpty()) {
                 Change<Column> columnChange = ChangeFactory.columnChange(expectedColumn, null, Change.Status.ADD, expected);
@@ -113,7 +193,8 @@ public class KineticaChangeFinder implements ChangeFinder {
                         && Objects.equals(expectedColumn.getScale(), actualColumn.getScale())
                         && Objects.equals(expectedColumn.getOrdinalPosition(), actualColumn.getOrdinalPosition())
                         && Objects.equals(expectedColumn.getColumnDisplaySize(), actualColumn.getColumnDisplaySize())
-                        && Objects.equals(expectedColumn.getPrimaryKeySequenceId(), actualColumn.getPrimaryKeySequenceId());
+                        && Objects.equals(expectedColumn.getPrimaryKeySequenceId(), actualColumn.getPrimaryKeySequenceId())
+                        && KineticaColumnProperties.same(expectedColumn, actualColumn);
 
                 if (!same) {
                     Change<Column> columnChange = ChangeFactory.columnChange(expectedColumn, actualColumn, Change.Status.ALTER, expected);
@@ -124,7 +205,7 @@ public class KineticaChangeFinder implements ChangeFinder {
                 if (!Objects.equals(expectedColumn.isPrimaryKey(), actualColumn.isPrimaryKey())) {
 
                     if (actualColumn.isPrimaryKey()) {
-                        List<Change<ForeignKey>> dropForeignKeys = dropForeignKeysThatAreReferencedToColumn(actualColumn, actual, allForeignKeys);
+                        List<Change<ForeignKey>> dropForeignKeys = foreignKeyReferences.dropReferencing(actual, actualColumn);
                         changes.addAll(dropForeignKeys);
                     }
 
@@ -136,8 +217,6 @@ public class KineticaChangeFinder implements ChangeFinder {
                 List<Change<?>> changesForForeignKeys = findChangesForForeignKeys(expectedColumn.getForeignKeys(), actualColumn.getForeignKeys());
                 changes.addAll(changesForForeignKeys);
 
-                actualColumns.remove(actualColumn);
-
             } else {
                 throw new RuntimeException(String.format("Found %d column with name '%s' in table '%s'.'%s'",
                         foundColumns.size(), actual.getName(), actual.getName(), actual.getSchema()));
@@ -145,7 +224,7 @@ public class KineticaChangeFinder implements ChangeFinder {
         }
 
 
-        for (Column actualColumn : actualColumns) {
+        for (Column actualColumn : actualColumns.unmatched()) {
 
             if (actualColumn.getForeignKeys() != null) {
                 List<Change<ForeignKey>> collect = actualColumn.getForeignKeys().stream().map(foreignKey -> ChangeFactory.foreignKeyChange(null, foreignKey, Change.Status.DROP)).collect(Collectors.toList());
@@ -153,7 +232,7 @@ public class KineticaChangeFinder implements ChangeFinder {
             }
 
 
-            List<Change<ForeignKey>> foreignKeyToDrop = dropForeignKeysThatAreReferencedToColumn(actualColumn, actual, allForeignKeys);
+            List<Change<ForeignKey>> foreignKeyToDrop = foreignKeyReferences.dropReferencing(actual, actualColumn);
             changes.addAll(foreignKeyToDrop);
 
 
@@ -188,12 +267,10 @@ public class KineticaChangeFinder implements ChangeFinder {
             return changes;
         }
 
-        ArrayList<ForeignKey> actualForeignKeys = new ArrayList<>(actualForeignKeyList);
+        KeyedMatcher<String, ForeignKey> actualForeignKeys = new KeyedMatcher<>(actualForeignKeyList, ForeignKey::getName);
 
         for (ForeignKey foreignKey : expectedForeignKeyList) {
-            List<ForeignKey> foundForeignKeys = actualForeignKeys.stream()
-                    .filter(actualForeignKey -> Objects.equals(foreignKey.getName(), actualForeignKey.getName()))
-                    .collect(Collectors.toList());
+            List<ForeignKey> foundForeignKeys = actualForeignKeys.match(foreignKey.getName());
 
 
             if (foundForeignKeys.isEmpty()) {
@@ -215,16 +292,15 @@ public class KineticaChangeFinder implements ChangeFinder {
                     changes.add(ChangeFactory.foreignKeyChange(foreignKey, actualForeignKey, Change.Status.DROP));
                     changes.add(ChangeFactory.foreignKeyChange(foreignKey, actualForeignKey, Change.Status.ADD));
                 }
-                actualForeignKeys.remove(actualForeignKey);
             } else {
                 throw new RuntimeException(String.format("Found %d foreign keys with name '%s' in column '%s' table '%s.%s'",
                         foundForeignKeys.size(), foreignKey.getName(), foreignKey.getColumnName(), foreignKey.getTableName(), foreignKey.getSchema()));
             }
+        }
 
-            for (ForeignKey actualForeignKey : actualForeignKeys) {
-                Change<ForeignKey> foreignKeyChange = ChangeFactory.foreignKeyChange(null, actualForeignKey, Change.Status.DROP);
-                changes.add(foreignKeyChange);
-            }
+        for (ForeignKey actualForeignKey : actualForeignKeys.unmatched()) {
+            Change<ForeignKey> foreignKeyChange = ChangeFactory.foreignKeyChange(null, actualForeignKey, Change.Status.DROP);
+            changes.add(foreignKeyChange);
         }
 
 
@@ -232,72 +308,5 @@ public class KineticaChangeFinder implements ChangeFinder {
     }
 
 
-    private List<Change<?>> filterDuplicates(List<Change<?>> changes) {
-        Set<String> foreignKeysFound = new HashSet<>();
-
-        return changes.stream().filter(change -> {
-
-            String id = null;
-            Object object = change.getActual() != null ? change.getActual() : change.getExpected();
-            if (object instanceof ForeignKey) {
-                id = "FOREIGN_KEY->" + change.getStatus() + "->" + ((ForeignKey) object).getSchema() + "->" +
-                        ((ForeignKey) object).getTableName() + "->" + ((ForeignKey) object).getColumnName() + "->" +
-                        ((ForeignKey) object).getName();
-            }
-
-            if (object instanceof Column) {
-                Table table = ((ColumnChange) change).getTable();
-                id = "COLUMN->" + change.getStatus() + "->" + table.getSchema() + "->" + table.getName() + "->" + ((Column) object).getName();
-            }
-
-            if (object instanceof Table) {
-                id = "TABLE->" + change.getStatus() + "->" + ((Table) object).getSchema() + "->" + ((Table) object).getName();
-            }
-
-            if (object instanceof Database) {
-                id = "DATABASE->" + change.getStatus() + "->" + ((Database) object).getDatabaseType();
-            }
-
-            boolean contains = foreignKeysFound.contains(id);
-            if (contains) {
-                return false;
-            }
-
-            foreignKeysFound.add(id);
-            return true;
-        }).collect(Collectors.toList());
-    }
-
-    private List<Change<ForeignKey>> dropForeignKeysThatAreReferencedToTable(Table tableToDrop, List<ForeignKey> allForeignKeys) {
-
-        List<Change<ForeignKey>> foreignKeysToDrop = new ArrayList<>();
-        for (Column column : tableToDrop.getColumns()) {
-            List<Change<ForeignKey>> changes = dropForeignKeysThatAreReferencedToColumn(column, tableToDrop, allForeignKeys);
-            foreignKeysToDrop.addAll(changes);
-        }
-
-        return foreignKeysToDrop;
-    }
-
-    private List<Change<ForeignKey>> dropForeignKeysThatAreReferencedToColumn(Column columnToDrop, Table columnTable, List<ForeignKey> allForeignKeys) {
-
-        List<Change<ForeignKey>> foreignKeysToDrop = new ArrayList<>();
-        for (ForeignKey foreignKey : allForeignKeys) {
-            if (Objects.equals(foreignKey.getPrimaryTableSchema(), columnTable.getSchema())
-                    && Objects.equals(foreignKey.getPrimaryTableName(), columnTable.getName())
-                    && Objects.equals(foreignKey.getPrimaryColumnName(), columnToDrop.getName())
-            ) {
-                Change<ForeignKey> foreignKeyChange = ChangeFactory.foreignKeyChange(null, foreignKey, Change.Status.DROP);
-                foreignKeysToDrop.add(foreignKeyChange);
-            }
-        }
-
-        return foreignKeysToDrop;
-    }
 
-    private List<ForeignKey> findAllForeignKeys(Collection<Table> tables) {
-        return tables.stream().flatMap((Function<Table, Stream<ForeignKey>>) table
-                        -> table.getColumns().stream().flatMap((Function<Column, Stream<ForeignKey>>) column -> column.getForeignKeys() == null ? Stream.empty() : column.getForeignKeys().stream()))
-                .collect(Collectors.toList());
-    }
 }
@@ -1,18 +1,19 @@
 package com.adaptivescale.rosetta.ddl.change;
 
+import com.adaptivescale.rosetta.common.IndexUtils;
 import com.adaptivescale.rosetta.common.annotations.RosettaModule;
 import com.adaptivescale.rosetta.common.models.Column;
 import com.adaptivescale.rosetta.common.models.Database;
 import com.adaptivescale.rosetta.common.models.ForeignKey;
+import com.adaptivescale.rosetta.common.models.Index;
 import com.adaptivescale.rosetta.common.models.Table;
 import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
+import com.adaptivescale.rosetta.ddl.ApplyOptions;
 import com.adaptivescale.rosetta.ddl.change.model.*;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.*;
-import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Slf4j
 @RosettaModule(
@@ -21,6 +22,20 @@ import java.util.stream.Stream;
 )
 public class MySQLChangeFinder implements ChangeFinder {
 
+    private final boolean detectRenames;
+
+    public MySQLChangeFinder() {
+        this(new ApplyOptions());
+    }
+
+    /**
+     * Tables and columns are only paired by their definition if {@link ApplyOptions#isDetectRenames()}, the DDL of
+     * this dialect renames them.
+     */
+    public MySQLChangeFinder(ApplyOptions options) {
+        this.detectRenames = options.isDetectRenames();
+    }
+
     @Override
     public List<Change<?>> findChanges(Database expected, Database actual) {
         List<Change<?>> changes = new ArrayList<>();
@@ -34,56 +49,83 @@ public class MySQLChangeFinder implements ChangeFinder {
             return changes;
         }
 
-        Collection<Table> actualTables = new ArrayList<>(actual.getTables());
-        List<ForeignKey> allForeignKeys = findAllForeignKeys(actual.getTables());
+        KeyedMatcher<TableKey, Table> actualTables = new KeyedMatcher<>(actual.getTables(), TableKey::of);
+        ForeignKeyReferences foreignKeyReferences = new ForeignKeyReferences(actual.getTables());
 
+        Map<Table, Table> matchedTables = new IdentityHashMap<>();
+        List<Table> addedTables = new ArrayList<>();
         for (Table expectedTable : expected.getTables()) {
-            List<Table> foundedTables = actualTables
-                    .stream()
-                    .filter(table -> Objects.equals(expectedTable.getName(), table.getName()) && Objects.equals(expectedTable.getSchema(), table.getSchema()))
-                    .collect(Collectors.toList());
+            List<Table> foundedTables = actualTables.match(TableKey.of(expectedTable));
 
             if (foundedTables.size() == 0) {
-                Change<Table> tableChange = ChangeFactory.tableChange(expectedTable, null, Change.Status.ADD);
-                changes.add(tableChange);
+                addedTables.add(expectedTable);
             } else if (foundedTables.size() == 1) {
-                Table table = foundedTables.get(0);
-                actualTables.remove(table);
-                //change in table
-                List<Change<?>> changesFromTables = findChangesInColumnsForTable(expectedTable, table, allForeignKeys);
-                changes.addAll(changesFromTables);
+                matchedTables.put(expectedTable, foundedTables.get(0));
             } else {
                 throw new RuntimeException(String.format("Found %d table with name '%s' and schema '%s'",
                         foundedTables.size(), expectedTable.getName(), expectedTable.getSchema()));
             }
         }
+        Map<Table, Table> renamedTables = RenameDetection.tables(addedTables, actualTables.unmatched(), detectRenames);
+        renamedTables.values().forEach(actualTables::take);
+
+        TableComparisons comparisons = new TableComparisons();
+        for (Table expectedTable : expected.getTables()) {
+            Table table = matchedTables.get(expectedTable);
+            if (table == null && renamedTables.containsKey(expectedTable)) {
+                table = renamedTables.get(expectedTable);
+                comparisons.add(ChangeFactory.tableChange(expectedTable, table, Change.Status.RENAME));
+            }
+
+            if (table == null) {
+                Change<Table> tableChange = ChangeFactory.tableChange(expectedTable, null, Change.Status.ADD);
+                comparisons.add(tableChange);
+            } else {
+                Table actualTable = table;
+                //change in table, compared in parallel with the other tables
+                comparisons.add(() -> findChangesInTable(expectedTable, actualTable, foreignKeyReferences));
+            }
+        }
+        changes.addAll(comparisons.run());
 
         //mark all for deletion
-        for (Table actualTable : actualTables) {
+        for (Table actualTable : actualTables.unmatched()) {
 
             //check if table columns are reference by any foreign keys
-            List<Change<ForeignKey>> foreignKeysToDrop = dropForeignKeysThatAreReferencedToTable(actualTable, allForeignKeys);
+            List<Change<ForeignKey>> foreignKeysToDrop = foreignKeyReferences.dropReferencing(actualTable);
             changes.addAll(foreignKeysToDrop);
 
             Change<Table> tableChange = ChangeFactory.tableChange(null, actualTable, Change.Status.DROP);
             changes.add(tableChange);
         }
 
-        List<Change<?>> result = filterDuplicates(changes);
-        log.info("Found {} changes", result.size());
-        return result;
+        log.info("Found {} changes", changes.size());
+        return changes;
+    }
+
+    private List<Change<?>> findChangesInTable(Table expected, Table actual, ForeignKeyReferences foreignKeyReferences) {
+        Map<Column, Column> renamedColumns = RenameDetection.columns(expected, actual, detectRenames);
+        List<Change<?>> changes = new ArrayList<>(findChangesInColumnsForTable(expected, actual, renamedColumns, foreignKeyReferences));
+        changes.addAll(findChangesInIndicesForTable(expected, actual, renamedColumns));
+        return changes;
     }
 
-    private List<Change<?>> findChangesInColumnsForTable(Table expected, Table actual, List<ForeignKey> allForeignKeys) {
+    private List<Change<?>> findChangesInColumnsForTable(Table expected, Table actual, Map<Column, Column> renamedColumns,
+                                                         ForeignKeyReferences foreignKeyReferences) {
 
         List<Change<?>> changes = new ArrayList<>();
-        ArrayList<Column> actualColumns = new ArrayList<>(actual.getColumns());
+        KeyedMatcher<String, Column> actualColumns = new KeyedMatcher<>(actual.getColumns(), Column::getName);
+        renamedColumns.values().forEach(actualColumns::take);
 
         for (Column expectedColumn : expected.getColumns()) {
-            List<Column> foundColumns = actualColumns
-                    .stream()
-                    .filter(column -> Objects.equals(expectedColumn.getName(), column.getName()))
-                    .collect(Collectors.toList());
+            List<Column> foundColumns = actualColumns.match(expectedColumn.getName());
+
+            Column renamedFrom = renamedColumns.get(expectedColumn);
+            if (renamedFrom != null) {
+                changes.add(ChangeFactory.columnChange(expectedColumn, renamedFrom, Change.Status.RENAME, expected));
+                //compared as any other column after it is renamed
+                foundColumns = List.of(renamedFrom);
+            }
 
             if (foundColumns.isEmpty()) {
                 Change<Column> columnChange = ChangeFactory.columnChange(expectedColumn, null, Change.Status.ADD, expected);
@@ -122,7 +164,7 @@ public class MySQLChangeFinder implements ChangeFinder {
                 if (!Objects.equals(expectedColumn.isPrimaryKey(), actualColumn.isPrimaryKey())) {
 
                     if (actualColumn.isPrimaryKey()) {
-                        List<Change<ForeignKey>> dropForeignKeys = dropForeignKeysThatAreReferencedToColumn(actualColumn, actual, allForeignKeys);
+                        List<Change<ForeignKey>> dropForeignKeys = foreignKeyReferences.dropReferencing(actual, actualColumn);
                         changes.addAll(dropForeignKeys);
                     }
 
@@ -134,8 +176,6 @@ public class MySQLChangeFinder implements ChangeFinder {
                 List<Change<?>> changesForForeignKeys = findChangesForForeignKeys(expectedColumn.getForeignKeys(), actualColumn.getForeignKeys());
                 changes.addAll(changesForForeignKeys);
 
-                actualColumns.remove(actualColumn);
-
             } else {
                 throw new RuntimeException(String.format("Found %d column with name '%s' in table '%s'.'%s'",
                         foundColumns.size(), actual.getName(), actual.getName(), actual.getSchema()));
@@ -143,7 +183,7 @@ public class MySQLChangeFinder implements ChangeFinder {
         }
 
 
-        for (Column actualColumn : actualColumns) {
+        for (Column actualColumn : actualColumns.unmatched()) {
 
             if (actualColumn.getForeignKeys() != null) {
                 List<Change<ForeignKey>> collect = actualColumn.getForeignKeys().stream().map(foreignKey -> ChangeFactory.foreignKeyChange(null, foreignKey, Change.Status.DROP)).collect(Collectors.toList());
@@ -151,7 +191,7 @@ public class MySQLChangeFinder implements ChangeFinder {
             }
 
 
-            List<Change<ForeignKey>> foreignKeyToDrop = dropForeignKeysThatAreReferencedToColumn(actualColumn, actual, allForeignKeys);
+            List<Change<ForeignKey>> foreignKeyToDrop = foreignKeyReferences.dropReferencing(actual, actualColumn);
             changes.addAll(foreignKeyToDrop);
 
 
@@ -186,12 +226,10 @@ public class MySQLChangeFinder implements ChangeFinder {
             return changes;
         }
 
-        ArrayList<ForeignKey> actualForeignKeys = new ArrayList<>(actualForeignKeyList);
+        KeyedMatcher<String, ForeignKey> actualForeignKeys = new KeyedMatcher<>(actualForeignKeyList, ForeignKey::getName);
 
         for (ForeignKey foreignKey : expectedForeignKeyList) {
-            List<ForeignKey> foundForeignKeys = actualForeignKeys.stream()
-                    .filter(actualForeignKey -> Objects.equals(foreignKey.getName(), actualForeignKey.getName()))
-                    .collect(Collectors.toList());
+            List<ForeignKey> foundForeignKeys = actualForeignKeys.match(foreignKey.getName());
 
 
             if (foundForeignKeys.isEmpty()) {
@@ -213,16 +251,15 @@ public class MySQLChangeFinder implements ChangeFinder {
                     changes.add(ChangeFactory.foreignKeyChange(foreignKey, actualForeignKey, Change.Status.DROP));
                     changes.add(ChangeFactory.foreignKeyChange(foreignKey, actualForeignKey, Change.Status.ADD));
                 }
-                actualForeignKeys.remove(actualForeignKey);
             } else {
                 throw new RuntimeException(String.format("Found %d foreign keys with name '%s' in column '%s' table '%s.%s'",
                         foundForeignKeys.size(), foreignKey.getName(), foreignKey.getColumnName(), foreignKey.getTableName(), foreignKey.getSchema()));
             }
+        }
 
-            for (ForeignKey actualForeignKey : actualForeignKeys) {
-                Change<ForeignKey> foreignKeyChange = ChangeFactory.foreignKeyChange(null, actualForeignKey, Change.Status.DROP);
-                changes.add(foreignKeyChange);
-            }
+        for (ForeignKey actualForeignKey : actualForeignKeys.unmatched()) {
+            Change<ForeignKey> foreignKeyChange = ChangeFactory.foreignKeyChange(null, actualForeignKey, Change.Status.DROP);
+            changes.add(foreignKeyChange);
         }
 
 
@@ -230,72 +267,47 @@ public class MySQLChangeFinder implements ChangeFinder {
     }
 
 
-    private List<Change<?>> filterDuplicates(List<Change<?>> changes) {
-        Set<String> foreignKeysFound = new HashSet<>();
-
-        return changes.stream().filter(change -> {
-
-            String id = null;
-            Object object = change.getActual() != null ? change.getActual() : change.getExpected();
-            if (object instanceof ForeignKey) {
-                id = "FOREIGN_KEY->" + change.getStatus() + "->" + ((ForeignKey) object).getSchema() + "->" +
-                        ((ForeignKey) object).getTableName() + "->" + ((ForeignKey) object).getColumnName() + "->" +
-                        ((ForeignKey) object).getName();
-            }
+    private List<Change<?>> findChangesInIndicesForTable(Table expected, Table actual, Map<Column, Column> renamedColumns) {
+        List<Change<?>> changes = new ArrayList<>();
+        // a model without indices leaves them unspecified, the indices of the database are kept
+        if (expected.getIndices() == null) {
+            return changes;
+        }
+        KeyedMatcher<String, Index> actualIndices = new KeyedMatcher<>(IndexUtils.secondaryIndices(actual), Index::getName);
+        Set<String> expectedColumns = expected.getColumns().stream().map(Column::getName).collect(Collectors.toSet());
+        // a renamed column keeps its indices
+        renamedColumns.values().forEach(column -> expectedColumns.add(column.getName()));
 
-            if (object instanceof Column) {
-                Table table = ((ColumnChange) change).getTable();
-                id = "COLUMN->" + change.getStatus() + "->" + table.getSchema() + "->" + table.getName() + "->" + ((Column) object).getName();
-            }
+        for (Index expectedIndex : IndexUtils.secondaryIndices(expected)) {
+            Optional<Index> foundIndex = actualIndices.matchFirst(expectedIndex.getName());
 
-            if (object instanceof Table) {
-                id = "TABLE->" + change.getStatus() + "->" + ((Table) object).getSchema() + "->" + ((Table) object).getName();
+            if (foundIndex.isEmpty()) {
+                changes.add(ChangeFactory.indexChange(expectedIndex, null, Change.Status.ADD));
+                continue;
             }
 
-            if (object instanceof Database) {
-                id = "DATABASE->" + change.getStatus() + "->" + ((Database) object).getDatabaseType();
+            Index actualIndex = foundIndex.get();
+            if (!IndexUtils.sameStructure(expectedIndex, actualIndex)) {
+                if (isKept(actualIndex, expectedColumns)) {
+                    changes.add(ChangeFactory.indexChange(expectedIndex, actualIndex, Change.Status.DROP));
+                }
+                changes.add(ChangeFactory.indexChange(expectedIndex, actualIndex, Change.Status.ADD));
             }
+        }
 
-            boolean contains = foreignKeysFound.contains(id);
-            if (contains) {
-                return false;
+        for (Index actualIndex : actualIndices.unmatched()) {
+            if (isKept(actualIndex, expectedColumns)) {
+                changes.add(ChangeFactory.indexChange(null, actualIndex, Change.Status.DROP));
             }
-
-            foreignKeysFound.add(id);
-            return true;
-        }).collect(Collectors.toList());
-    }
-
-    private List<Change<ForeignKey>> dropForeignKeysThatAreReferencedToTable(Table tableToDrop, List<ForeignKey> allForeignKeys) {
-
-        List<Change<ForeignKey>> foreignKeysToDrop = new ArrayList<>();
-        for (Column column : tableToDrop.getColumns()) {
-            List<Change<ForeignKey>> changes = dropForeignKeysThatAreReferencedToColumn(column, tableToDrop, allForeignKeys);
-            foreignKeysToDrop.addAll(changes);
         }
+        return changes;
+    }
 
-        return foreignKeysToDrop;
+    // MySQL drops an index together with the last of its columns, there is nothing left to drop then
+    private boolean isKept(Index actualIndex, Set<String> expectedColumns) {
+        return actualIndex.getColumnNames().stream().anyMatch(expectedColumns::contains);
     }
 
-    private List<Change<ForeignKey>> dropForeignKeysThatAreReferencedToColumn(Column columnToDrop, Table columnTable, List<ForeignKey> allForeignKeys) {
 
-        List<Change<ForeignKey>> foreignKeysToDrop = new ArrayList<>();
-        for (ForeignKey foreignKey : allForeignKeys) {
-            if (Objects.equals(foreignKey.getPrimaryTableSchema(), columnTable.getSchema())
-                    && Objects.equals(foreignKey.getPrimaryTableName(), columnTable.getName())
-                    && Objects.equals(foreignKey.getPrimaryColumnName(), columnToDrop.getName())
-            ) {
-                Change<ForeignKey> foreignKeyChange = ChangeFactory.foreignKeyChange(null, foreignKey, Change.Status.DROP);
-                foreignKeysToDrop.add(foreignKeyChange);
-            }
-        }
 
-        return foreignKeysToDrop;
-    }
-
-    private List<ForeignKey> findAllForeignKeys(Collection<Table> tables) {
-        return tables.stream().flatMap((Function<Table, Stream<ForeignKey>>) table
-                        -> table.getColumns().stream().flatMap((Function<Column, Stream<ForeignKey>>) column -> column.getForeignKeys() == null ? Stream.empty() : column.getForeignKeys().stream()))
-                .collect(Collectors.toList());
-    }
 }
\ No newline at end of file
@@ -0,0 +1,139 @@
+package com.adaptivescale.rosetta.ddl.change;
+
+import com.adaptivescale.rosetta.common.models.Column;
+import com.adaptivescale.rosetta.common.models.ForeignKey;
+import com.adaptivescale.rosetta.common.models.Table;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Pairs tables and columns that exist only in the expected model with ones that exist only in the actual model, so a
+ * renamed object is renamed instead of dropped and added again, which would lose its data.
+ * <p>
+ * A {@code previousName} in the expected model pairs objects explicitly. Only if asked to, the remaining objects are
+ * paired by their signature: type, precision, scale, nullability, primary key, position and foreign key targets of a
+ * column, the names and signatures of all columns of a table. Only a signature shared by exactly one added and one
+ * dropped object makes a pair, anything ambiguous stays a drop and an add. Equal definitions are no proof of a rename,
+ * so this is left to the user, see {@link com.adaptivescale.rosetta.ddl.ApplyOptions#isDetectRenames()}.
+ */
+@Slf4j
+public class RenameDetection {
+
+    private RenameDetection() {
+    }
+
+    /**
+     * @param bySignature pair tables without a previous name by their signature
+     * @return renamed tables, expected table to the actual table it was renamed from
+     */
+    public static Map<Table, Table> tables(Collection<Table> added, Collection<Table> dropped, boolean bySignature) {
+        Map<Table, Table> renamed = pair(added, dropped, TableKey::of,
+                table -> table.getPreviousName() == null ? null : TableKey.of(table.getSchema(), table.getPreviousName()),
+                bySignature ? RenameDetection::signature : null);
+        renamed.forEach((expected, actual) -> log.info("Table {} is renamed to {}", TableKey.of(actual), TableKey.of(expected)));
+        return renamed;
+    }
+
+    /**
+     * @param bySignature pair columns without a previous name by their signature
+     * @return renamed columns of the table, expected column to the actual column it was renamed from
+     */
+    public static Map<Column, Column> columns(Table expected, Table actual, boolean bySignature) {
+        Set<String> expectedNames = expected.getColumns().stream().map(Column::getName).collect(Collectors.toSet());
+        Set<String> actualNames = actual.getColumns().stream().map(Column::getName).collect(Collectors.toSet());
+        return columns(
+                expected.getColumns().stream().filter(column -> !actualNames.contains(column.getName())).collect(Collectors.toList()),
+                actual.getColumns().stream().filter(column -> !expectedNames.contains(column.getName())).collect(Collectors.toList()),
+                bySignature);
+    }
+
+    /**
+     * @param bySignature pair columns without a previous name by their signature
+     * @return renamed columns, expected column to the actual column it was renamed from
+     */
+    public static Map<Column, Column> columns(Collection<Column> added, Collection<Column> dropped, boolean bySignature) {
+        Map<Column, Column> renamed = pair(added, dropped, Column::getName, Column::getPreviousName,
+                bySignature ? RenameDetection::signature : null);
+        renamed.forEach((expected, actual) -> log.info("Column {} is renamed to {}", actual.getName(), expected.getName()));
+        return renamed;
+    }
+
+    /**
+     * @param signature signature to pair objects without a previous name by, null to pair them only by previous name
+     */
+    private static <K, T> Map<T, T> pair(Collection<T> added, Collection<T> dropped, Function<T, K> key,
+                                         Function<T, K> previousKey, Function<T, String> signature) {
+        Map<T, T> renamed = new IdentityHashMap<>();
+        if (added.isEmpty() || dropped.isEmpty()) {
+            return renamed;
+        }
+
+        Map<K, T> droppedByKey = new HashMap<>();
+        dropped.forEach(object -> droppedByKey.putIfAbsent(key.apply(object), object));
+        Set<T> paired = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        List<T> unhinted = new ArrayList<>();
+        for (T object : added) {
+            K previous = previousKey.apply(object);
+            T renamedFrom = previous == null ? null : droppedByKey.get(previous);
+            if (renamedFrom != null && paired.add(renamedFrom)) {
+                renamed.put(object, renamedFrom);
+            } else {
+                unhinted.add(object);
+            }
+        }
+        if (signature == null) {
+            return renamed;
+        }
+
+        Map<String, List<T>> droppedBySignature = dropped.stream()
+                .filter(object -> !paired.contains(object))
+                .collect(Collectors.groupingBy(signature));
+        Map<String, List<T>> addedBySignature = unhinted.stream().collect(Collectors.groupingBy(signature));
+        addedBySignature.forEach((objectSignature, objects) -> {
+            List<T> candidates = droppedBySignature.getOrDefault(objectSignature, List.of());
+            if (objects.size() == 1 && candidates.size() == 1) {
+                renamed.put(objects.get(0), candidates.get(0));
+            }
+        });
+        return renamed;
+    }
+
+    private static String signature(Table table) {
+        String columns = table.getColumns() == null ? "" : table.getColumns().stream()
+                .map(column -> column.getName() + "=" + signature(column))
+                .collect(Collectors.joining(";"));
+        return table.getType() + "[" + columns + "]";
+    }
+
+    private static String signature(Column column) {
+        String foreignKeys = column.getForeignKeys() == null ? "" : column.getForeignKeys().stream()
+                .map(RenameDetection::target)
+                .sorted()
+                .collect(Collectors.joining(","));
+        return String.join("|",
+                String.valueOf(column.getTypeName()).toLowerCase(Locale.ROOT),
+                String.valueOf(column.getPrecision()),
+                String.valueOf(column.getScale()),
+                String.valueOf(column.isNullable()),
+                String.valueOf(column.isAutoincrement()),
+                String.valueOf(column.isPrimaryKey()),
+                String.valueOf(column.getOrdinalPosition()),
+                foreignKeys);
+    }
+
+    private static String target(ForeignKey foreignKey) {
+        return foreignKey.getPrimaryTableSchema() + "." + foreignKey.getPrimaryTableName() + "." + foreignKey.getPrimaryColumnName();
+    }
+}
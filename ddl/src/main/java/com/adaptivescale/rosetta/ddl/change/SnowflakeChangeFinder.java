@@ -0,0 +1,96 @@
+package com.adaptivescale.rosetta.ddl.change;
+
+import com.adaptivescale.rosetta.common.annotations.RosettaModule;
+import com.adaptivescale.rosetta.common.models.Database;
+import com.adaptivescale.rosetta.common.models.SearchOptimization;
+import com.adaptivescale.rosetta.common.models.Table;
+import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
+import com.adaptivescale.rosetta.ddl.ApplyOptions;
+import com.adaptivescale.rosetta.ddl.change.model.Change;
+import com.adaptivescale.rosetta.ddl.change.model.ChangeFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Finds the same changes as {@link DefaultChangeFinder} and compares clustering keys and search optimization of
+ * tables present in both models. No other change finder reports them, dialects whose DDL has no statement for them
+ * skip them.
+ */
+@RosettaModule(
+        name = "snowflake",
+        type = RosettaModuleTypes.CHANGE_FINDER
+)
+public class SnowflakeChangeFinder extends DefaultChangeFinder {
+
+    public SnowflakeChangeFinder() {
+        this(new ApplyOptions());
+    }
+
+    public SnowflakeChangeFinder(ApplyOptions options) {
+        super(options);
+    }
+
+    @Override
+    public List<Change<?>> findChanges(Database expected, Database actual) {
+        List<Change<?>> changes = super.findChanges(expected, actual);
+        if (actual.getTables() == null || actual.getTables().isEmpty()) {
+            return changes;
+        }
+
+        Map<TableKey, Table> actualTables = TableKey.index(actual.getTables());
+        for (Table expectedTable : expected.getTables()) {
+            Optional.ofNullable(actualTables.get(TableKey.of(expectedTable)))
+                    .ifPresent(actualTable -> {
+                        findChangesInClusteringKey(expectedTable, actualTable, changes);
+                        findChangesInSearchOptimization(expectedTable, actualTable, changes);
+                    });
+        }
+        return changes;
+    }
+
+    private void findChangesInClusteringKey(Table expected, Table actual, List<Change<?>> changes) {
+        List<String> expectedKey = normalize(expected.getClusterBy());
+        List<String> actualKey = normalize(actual.getClusterBy());
+        if (expectedKey.equals(actualKey)) {
+            return;
+        }
+
+        Change.Status status = actualKey.isEmpty() ? Change.Status.ADD
+                : expectedKey.isEmpty() ? Change.Status.DROP : Change.Status.ALTER;
+        changes.add(ChangeFactory.clusteringChange(expected.getClusterBy(), actual.getClusterBy(), status, expected));
+    }
+
+    private void findChangesInSearchOptimization(Table expected, Table actual, List<Change<?>> changes) {
+        SearchOptimization expectedSearch = expected.getSearchOptimization();
+        SearchOptimization actualSearch = actual.getSearchOptimization();
+        if (expectedSearch == null && actualSearch == null) {
+            return;
+        }
+
+        if (actualSearch == null) {
+            changes.add(ChangeFactory.searchOptimizationChange(expectedSearch, null, Change.Status.ADD, expected));
+        } else if (expectedSearch == null) {
+            changes.add(ChangeFactory.searchOptimizationChange(null, actualSearch, Change.Status.DROP, expected));
+        } else if (!searchMethods(expectedSearch).equals(searchMethods(actualSearch))) {
+            changes.add(ChangeFactory.searchOptimizationChange(expectedSearch, actualSearch, Change.Status.ALTER, expected));
+        }
+    }
+
+    // search optimization without methods is the same as equality searches on all columns
+    private static Set<String> searchMethods(SearchOptimization searchOptimization) {
+        List<String> methods = normalize(searchOptimization.getMethods());
+        return methods.isEmpty() ? Set.of("EQUALITY(*)") : Set.copyOf(methods);
+    }
+
+    // expressions are compared as Snowflake shows them, ignoring whitespace
+    private static List<String> normalize(List<String> expressions) {
+        if (expressions == null) {
+            return List.of();
+        }
+        return expressions.stream().map(expression -> expression.replaceAll("\\s+", "")).collect(Collectors.toList());
+    }
+}
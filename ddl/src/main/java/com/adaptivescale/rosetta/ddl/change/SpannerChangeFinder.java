@@ -1,18 +1,18 @@
 package com.adaptivescale.rosetta.ddl.change;
 
+import com.adaptivescale.rosetta.common.IndexUtils;
 import com.adaptivescale.rosetta.common.annotations.RosettaModule;
 import com.adaptivescale.rosetta.common.models.*;
 import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
+import com.adaptivescale.rosetta.ddl.ApplyOptions;
 import com.adaptivescale.rosetta.ddl.change.model.Change;
 import com.adaptivescale.rosetta.ddl.change.model.ChangeFactory;
-import com.adaptivescale.rosetta.ddl.change.model.ColumnChange;
 import com.adaptivescale.rosetta.ddl.change.model.IndexChange;
+import com.adaptivescale.rosetta.ddl.targets.spanner.SpannerInterleaveOrder;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.*;
-import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Slf4j
 @RosettaModule(
@@ -20,6 +20,21 @@ import java.util.stream.Stream;
         type = RosettaModuleTypes.CHANGE_FINDER
 )
 public class SpannerChangeFinder implements ChangeFinder {
+
+    private final boolean detectRenames;
+
+    public SpannerChangeFinder() {
+        this(new ApplyOptions());
+    }
+
+    /**
+     * Tables are only paired by their definition if {@link ApplyOptions#isDetectRenames()}. Spanner can not rename
+     * columns, a column with a {@code previousName} is refused.
+     */
+    public SpannerChangeFinder(ApplyOptions options) {
+        this.detectRenames = options.isDetectRenames();
+    }
+
     @Override
     public List<Change<?>> findChanges(Database expected, Database actual) {
         List<Change<?>> changes = new ArrayList<>();
@@ -33,57 +48,89 @@ public class SpannerChangeFinder implements ChangeFinder {
             return changes;
         }
 
-        Collection<Table> actualTables = new ArrayList<>(actual.getTables());
-        List<ForeignKey> allForeignKeys = findAllForeignKeys(actual.getTables());
+        KeyedMatcher<String, Table> actualTables = new KeyedMatcher<>(actual.getTables(), Table::getName);
+        ForeignKeyReferences foreignKeyReferences = new ForeignKeyReferences(actual.getTables());
 
-        for (Table expectedTable : expected.getTables()) {
-            List<Table> foundedTables = actualTables
-                    .stream()
-                    .filter(table -> Objects.equals(expectedTable.getName(), table.getName()))
-                    .collect(Collectors.toList());
+        List<Table> expectedTables = SpannerInterleaveOrder.parentsFirst(expected.getTables());
+        Map<Table, Table> matchedTables = new IdentityHashMap<>();
+        List<Table> addedTables = new ArrayList<>();
+        for (Table expectedTable : expectedTables) {
+            List<Table> foundedTables = actualTables.match(expectedTable.getName());
 
             if (foundedTables.size() == 0) {
-                Change<Table> tableChange = ChangeFactory.tableChange(expectedTable, null, Change.Status.ADD);
-                changes.add(tableChange);
+                addedTables.add(expectedTable);
             } else if (foundedTables.size() == 1) {
-                Table table = foundedTables.get(0);
-                actualTables.remove(table);
-                //change in table
-                List<Change<?>> changesFromTables = findChangesInColumnsForTable(expectedTable, table, allForeignKeys);
-                List<Change<?>> changesFromIndices = findChangesInIndicesForTable(expectedTable, table);
-                changes.addAll(changesFromTables);
-                changes.addAll(changesFromIndices);
+                matchedTables.put(expectedTable, foundedTables.get(0));
             } else {
                 throw new RuntimeException(String.format("Found %d table with name '%s' and schema '%s'",
                         foundedTables.size(), expectedTable.getName(), expectedTable.getSchema()));
             }
         }
+        Map<Table, Table> renamedTables = RenameDetection.tables(addedTables, actualTables.unmatched(), detectRenames);
+        renamedTables.values().forEach(actualTables::take);
+
+        TableComparisons comparisons = new TableComparisons();
+        for (Table expectedTable : expectedTables) {
+            Table table = matchedTables.get(expectedTable);
+            if (table == null && renamedTables.containsKey(expectedTable)) {
+                table = renamedTables.get(expectedTable);
+                comparisons.add(ChangeFactory.tableChange(expectedTable, table, Change.Status.RENAME));
+            }
+
+            if (table == null) {
+                Change<Table> tableChange = ChangeFactory.tableChange(expectedTable, null, Change.Status.ADD);
+                comparisons.add(tableChange);
+            } else {
+                Table actualTable = table;
+                //change in table, compared in parallel with the other tables
+                comparisons.add(() -> findChangesInTable(expectedTable, actualTable, foreignKeyReferences));
+            }
+        }
+        changes.addAll(comparisons.run());
 
-        //mark all for deletion
-        for (Table actualTable : actualTables) {
+        //mark all for deletion, interleaved tables before their parent
+        List<Table> tablesToDrop = SpannerInterleaveOrder.parentsFirst(actualTables.unmatched());
+        Collections.reverse(tablesToDrop);
+        for (Table actualTable : tablesToDrop) {
 
             //check if table columns are reference by any foreign keys
-            List<Change<ForeignKey>> foreignKeysToDrop = dropForeignKeysThatAreReferencedToTable(actualTable, allForeignKeys);
+            List<Change<ForeignKey>> foreignKeysToDrop = foreignKeyReferences.dropReferencing(actualTable);
             changes.addAll(foreignKeysToDrop);
 
             Change<Table> tableChange = ChangeFactory.tableChange(null, actualTable, Change.Status.DROP);
             changes.add(tableChange);
         }
 
-        List<Change<?>> result = filterDuplicates(changes);
-        log.info("Found {} changes", result.size());
-        return result;
+        log.info("Found {} changes", changes.size());
+        return changes;
+    }
+
+    private List<Change<?>> findChangesInInterleave(Table expected, Table actual) {
+        Interleave expectedInterleave = expected.getInterleave();
+        Interleave actualInterleave = actual.getInterleave();
+        String expectedParent = expectedInterleave == null ? null : expectedInterleave.getParentTable();
+        String actualParent = actualInterleave == null ? null : actualInterleave.getParentTable();
+        if (!Objects.equals(expectedParent, actualParent)) {
+            throw new RuntimeException(String.format("Table '%s' is interleaved in '%s' but expected in '%s'. Spanner can " +
+                    "not change the parent of a table, the table has to be recreated.", expected.getName(), actualParent, expectedParent));
+        }
+
+        if (expectedInterleave != null && !Objects.equals(onDelete(expectedInterleave), onDelete(actualInterleave))) {
+            return List.of(ChangeFactory.tableChange(expected, actual, Change.Status.ALTER));
+        }
+        return List.of();
+    }
+
+    private String onDelete(Interleave interleave) {
+        return interleave.getOnDelete() == null ? Interleave.NO_ACTION : interleave.getOnDelete();
     }
 
     private List<Change<?>> findChangesInIndicesForTable(Table expected, Table actual) {
         List<Change<?>> changes = new ArrayList<>();
-        ArrayList<Index> actualIndices = new ArrayList<>(actual.getIndices());
+        KeyedMatcher<String, Index> actualIndices = new KeyedMatcher<>(actual.getIndices(), Index::getName);
 
-        for (Index expectedIndex : expected.getIndices()) {
-            List<Index> foundIndices = actualIndices
-                .stream()
-                .filter(index -> Objects.equals(expectedIndex.getName(), index.getName()))
-                .collect(Collectors.toList());
+        for (Index expectedIndex : Optional.ofNullable(expected.getIndices()).orElse(List.of())) {
+            List<Index> foundIndices = actualIndices.match(expectedIndex.getName());
 
             if (foundIndices.isEmpty()) {
                 Change<Index> indexChange = ChangeFactory.indexChange(expectedIndex, null, Change.Status.ADD);
@@ -92,23 +139,17 @@ public class SpannerChangeFinder implements ChangeFinder {
             } else if (foundIndices.size() == 1) {
                 Index actualIndex = foundIndices.get(0);
 
-                boolean same = Objects.equals(expectedIndex, actualIndex);
-
-                if (!same) {
+                if (!IndexUtils.sameStructure(expectedIndex, actualIndex)) {
                     changes.add(ChangeFactory.indexChange(expectedIndex, actualIndex, Change.Status.DROP));
                     changes.add(ChangeFactory.indexChange(expectedIndex, actualIndex, Change.Status.ADD));
                 }
-
-                for (Index foundIndex: foundIndices) {
-                    actualIndices.remove(foundIndex);
-                }
             } else {
                 throw new RuntimeException(String.format("Found %d indices with name '%s' in table '%s'.'%s'",
                         foundIndices.size(), actual.getName(), actual.getName(), actual.getSchema()));
             }
         }
 
-        for (Index actualIndex : actualIndices) {
+        for (Index actualIndex : actualIndices.unmatched()) {
             Change<Index> indexChange = ChangeFactory.indexChange(null, actualIndex, Change.Status.DROP);
             changes.add(indexChange);
         }
@@ -123,16 +164,27 @@ public class SpannerChangeFinder implements ChangeFinder {
         return compatibleType;
     }
 
-    private List<Change<?>> findChangesInColumnsForTable(Table expected, Table actual, List<ForeignKey> allForeignKeys) {
+    private List<Change<?>> findChangesInTable(Table expected, Table actual, ForeignKeyReferences foreignKeyReferences) {
+        List<Change<?>> changes = new ArrayList<>(findChangesInColumnsForTable(expected, actual, foreignKeyReferences));
+        changes.addAll(findChangesInIndicesForTable(expected, actual));
+        changes.addAll(findChangesInInterleave(expected, actual));
+        return changes;
+    }
+
+    private List<Change<?>> findChangesInColumnsForTable(Table expected, Table actual, ForeignKeyReferences foreignKeyReferences) {
 
         List<Change<?>> changes = new ArrayList<>();
-        ArrayList<Column> actualColumns = new ArrayList<>(actual.getColumns());
+        Map<Column, Column> renamedColumns = RenameDetection.columns(expected, actual, false);
+        if (!renamedColumns.isEmpty()) {
+            Map.Entry<Column, Column> renamed = renamedColumns.entrySet().iterator().next();
+            throw new RuntimeException(String.format("Spanner can not rename column '%s' of table '%s' to '%s'. " +
+                            "Remove its previousName to drop it and add it again.",
+                    renamed.getValue().getName(), expected.getName(), renamed.getKey().getName()));
+        }
+        KeyedMatcher<String, Column> actualColumns = new KeyedMatcher<>(actual.getColumns(), Column::getName);
 
         for (Column expectedColumn : expected.getColumns()) {
-            List<Column> foundColumns = actualColumns
-                    .stream()
-                    .filter(column -> Objects.equals(expectedColumn.getName(), column.getName()))
-                    .collect(Collectors.toList());
+            List<Column> foundColumns = actualColumns.match(expectedColumn.getName());
 
             if (foundColumns.isEmpty()) {
                 Change<Column> columnChange = ChangeFactory.columnChange(expectedColumn, null, Change.Status.ADD, expected);
@@ -171,7 +223,7 @@ public class SpannerChangeFinder implements ChangeFinder {
                 if (!Objects.equals(expectedColumn.isPrimaryKey(), actualColumn.isPrimaryKey())) {
 
                     if (actualColumn.isPrimaryKey()) {
-                        List<Change<ForeignKey>> dropForeignKeys = dropForeignKeysThatAreReferencedToColumn(actualColumn, actual, allForeignKeys);
+                        List<Change<ForeignKey>> dropForeignKeys = foreignKeyReferences.dropReferencing(actual, actualColumn);
                         changes.addAll(dropForeignKeys);
                     }
 
@@ -183,8 +235,6 @@ public class SpannerChangeFinder implements ChangeFinder {
                 List<Change<?>> changesForForeignKeys = findChangesForForeignKeys(expectedColumn.getForeignKeys(), actualColumn.getForeignKeys());
                 changes.addAll(changesForForeignKeys);
 
-                actualColumns.remove(actualColumn);
-
             } else {
                 throw new RuntimeException(String.format("Found %d column with name '%s' in table '%s'.'%s'",
                         foundColumns.size(), actual.getName(), actual.getName(), actual.getSchema()));
@@ -192,7 +242,7 @@ public class SpannerChangeFinder implements ChangeFinder {
         }
 
 
-        for (Column actualColumn : actualColumns) {
+        for (Column actualColumn : actualColumns.unmatched()) {
 
             if (actualColumn.getForeignKeys() != null) {
                 List<Change<ForeignKey>> collect = actualColumn.getForeignKeys().stream().map(foreignKey -> ChangeFactory.foreignKeyChange(null, foreignKey, Change.Status.DROP)).collect(Collectors.toList());
@@ -200,7 +250,7 @@ public class SpannerChangeFinder implements ChangeFinder {
             }
 
 
-            List<Change<ForeignKey>> foreignKeyToDrop = dropForeignKeysThatAreReferencedToColumn(actualColumn, actual, allForeignKeys);
+            List<Change<ForeignKey>> foreignKeyToDrop = foreignKeyReferences.dropReferencing(actual, actualColumn);
             changes.addAll(foreignKeyToDrop);
 
 
@@ -235,12 +285,10 @@ public class SpannerChangeFinder implements ChangeFinder {
             return changes;
         }
 
-        ArrayList<ForeignKey> actualForeignKeys = new ArrayList<>(actualForeignKeyList);
+        KeyedMatcher<String, ForeignKey> actualForeignKeys = new KeyedMatcher<>(actualForeignKeyList, ForeignKey::getName);
 
         for (ForeignKey foreignKey : expectedForeignKeyList) {
-            List<ForeignKey> foundForeignKeys = actualForeignKeys.stream()
-                    .filter(actualForeignKey -> Objects.equals(foreignKey.getName(), actualForeignKey.getName()))
-                    .collect(Collectors.toList());
+            List<ForeignKey> foundForeignKeys = actualForeignKeys.match(foreignKey.getName());
 
 
             if (foundForeignKeys.isEmpty()) {
@@ -262,16 +310,15 @@ public class SpannerChangeFinder implements ChangeFinder {
                     changes.add(ChangeFactory.foreignKeyChange(foreignKey, actualForeignKey, Change.Status.DROP));
                     changes.add(ChangeFactory.foreignKeyChange(foreignKey, actualForeignKey, Change.Status.ADD));
                 }
-                actualForeignKeys.remove(actualForeignKey);
             } else {
                 throw new RuntimeException(String.format("Found %d foreign keys with name '%s' in column '%s' table '%s.%s'",
                         foundForeignKeys.size(), foreignKey.getName(), foreignKey.getColumnName(), foreignKey.getTableName(), foreignKey.getSchema()));
             }
+        }
 
-            for (ForeignKey actualForeignKey : actualForeignKeys) {
-                Change<ForeignKey> foreignKeyChange = ChangeFactory.foreignKeyChange(null, actualForeignKey, Change.Status.DROP);
-                changes.add(foreignKeyChange);
-            }
+        for (ForeignKey actualForeignKey : actualForeignKeys.unmatched()) {
+            Change<ForeignKey> foreignKeyChange = ChangeFactory.foreignKeyChange(null, actualForeignKey, Change.Status.DROP);
+            changes.add(foreignKeyChange);
         }
 
 
@@ -279,76 +326,5 @@ public class SpannerChangeFinder implements ChangeFinder {
     }
 
 
-    private List<Change<?>> filterDuplicates(List<Change<?>> changes) {
-        Set<String> foreignKeysFound = new HashSet<>();
-
-        return changes.stream().filter(change -> {
-
-            String id = null;
-            Object object = change.getActual() != null ? change.getActual() : change.getExpected();
-            if (object instanceof ForeignKey) {
-                id = "FOREIGN_KEY->" + change.getStatus() + "->" + ((ForeignKey) object).getSchema() + "->" +
-                        ((ForeignKey) object).getTableName() + "->" + ((ForeignKey) object).getColumnName() + "->" +
-                        ((ForeignKey) object).getName();
-            }
-
-            if (object instanceof Column) {
-                Table table = ((ColumnChange) change).getTable();
-                id = "COLUMN->" + change.getStatus() + "->" + table.getSchema() + "->" + table.getName() + "->" + ((Column) object).getName();
-            }
-
-            if (object instanceof Table) {
-                id = "TABLE->" + change.getStatus() + "->" + ((Table) object).getSchema() + "->" + ((Table) object).getName();
-            }
-
-            if (object instanceof Database) {
-                id = "DATABASE->" + change.getStatus() + "->" + ((Database) object).getDatabaseType();
-            }
-
-            if (object instanceof Index) {
-                id = "INDEX->" + change.getStatus() + "->" + ((Index) object).getSchema() + "->" + ((Index) object).getTableName() + "->" + ((Index) object).getName();
-            }
-
-            boolean contains = foreignKeysFound.contains(id);
-            if (contains) {
-                return false;
-            }
-
-            foreignKeysFound.add(id);
-            return true;
-        }).collect(Collectors.toList());
-    }
-
-    private List<Change<ForeignKey>> dropForeignKeysThatAreReferencedToTable(Table tableToDrop, List<ForeignKey> allForeignKeys) {
-
-        List<Change<ForeignKey>> foreignKeysToDrop = new ArrayList<>();
-        for (Column column : tableToDrop.getColumns()) {
-            List<Change<ForeignKey>> changes = dropForeignKeysThatAreReferencedToColumn(column, tableToDrop, allForeignKeys);
-            foreignKeysToDrop.addAll(changes);
-        }
-
-        return foreignKeysToDrop;
-    }
-
-    private List<Change<ForeignKey>> dropForeignKeysThatAreReferencedToColumn(Column columnToDrop, Table columnTable, List<ForeignKey> allForeignKeys) {
 
-        List<Change<ForeignKey>> foreignKeysToDrop = new ArrayList<>();
-        for (ForeignKey foreignKey : allForeignKeys) {
-            if (Objects.equals(foreignKey.getPrimaryTableSchema(), columnTable.getSchema())
-                    && Objects.equals(foreignKey.getPrimaryTableName(), columnTable.getName())
-                    && Objects.equals(foreignKey.getPrimaryColumnName(), columnToDrop.getName())
-            ) {
-                Change<ForeignKey> foreignKeyChange = ChangeFactory.foreignKeyChange(null, foreignKey, Change.Status.DROP);
-                foreignKeysToDrop.add(foreignKeyChange);
-            }
-        }
-
-        return foreignKeysToDrop;
-    }
-
-    private List<ForeignKey> findAllForeignKeys(Collection<Table> tables) {
-        return tables.stream().flatMap((Function<Table, Stream<ForeignKey>>) table
-                        -> table.getColumns().stream().flatMap((Function<Column, Stream<ForeignKey>>) column -> column.getForeignKeys() == null ? Stream.empty() : column.getForeignKeys().stream()))
-                .collect(Collectors.toList());
-    }
 }
@@ -0,0 +1,47 @@
+package com.adaptivescale.rosetta.ddl.change;
+
+import com.adaptivescale.rosetta.ddl.change.model.Change;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Collects the comparisons of matched tables and runs them in parallel on the common fork-join pool. Tables are
+ * compared independently of each other and only read the models, the changes are merged back in the order the
+ * comparisons were added, so the result is the same as comparing one table after the other.
+ */
+public class TableComparisons {
+
+    // below this, handing tables to other threads costs more than comparing them
+    private static final int PARALLEL_THRESHOLD = 64;
+
+    private final List<Supplier<List<Change<?>>>> comparisons = new ArrayList<>();
+
+    /**
+     * @param change change known without comparing, e.g. a table that is added, kept in order with the comparisons
+     */
+    public void add(Change<?> change) {
+        comparisons.add(() -> List.of(change));
+    }
+
+    /**
+     * @param comparison finds the changes of one table
+     */
+    public void add(Supplier<List<Change<?>>> comparison) {
+        comparisons.add(comparison);
+    }
+
+    /**
+     * @return changes of all comparisons in the order they were added
+     */
+    public List<Change<?>> run() {
+        Stream<Supplier<List<Change<?>>>> stream = comparisons.size() < PARALLEL_THRESHOLD
+                ? comparisons.stream() : comparisons.parallelStream();
+        return stream.map(Supplier::get)
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,75 @@
+package com.adaptivescale.rosetta.ddl.change;
+
+import com.adaptivescale.rosetta.common.models.ForeignKey;
+import com.adaptivescale.rosetta.common.models.Table;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Identifies a table by schema and name, the key tables of the expected and actual model are matched by.
+ */
+public final class TableKey {
+
+    private final String schema;
+    private final String name;
+
+    private TableKey(String schema, String name) {
+        this.schema = schema;
+        this.name = name;
+    }
+
+    public static TableKey of(String schema, String name) {
+        return new TableKey(schema, name);
+    }
+
+    public static TableKey of(Table table) {
+        return new TableKey(table.getSchema(), table.getName());
+    }
+
+    /**
+     * @return key of the table the foreign key references
+     */
+    public static TableKey referencedBy(ForeignKey foreignKey) {
+        return new TableKey(foreignKey.getPrimaryTableSchema(), foreignKey.getPrimaryTableName());
+    }
+
+    /**
+     * @return tables by their key, the first one is kept if a key repeats
+     */
+    public static Map<TableKey, Table> index(Collection<Table> tables) {
+        Map<TableKey, Table> tablesByKey = new HashMap<>();
+        for (Table table : tables) {
+            tablesByKey.putIfAbsent(of(table), table);
+        }
+        return tablesByKey;
+    }
+
+    public String getSchema() {
+        return schema;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TableKey tableKey = (TableKey) o;
+        return Objects.equals(schema, tableKey.schema) && Objects.equals(name, tableKey.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(schema, name);
+    }
+
+    @Override
+    public String toString() {
+        return schema == null ? name : schema + "." + name;
+    }
+}
@@ -47,13 +47,18 @@ public class Change<T> {
         TABLE,
         COLUMN,
         FOREIGN_KEY,
-        INDEX
+        INDEX,
+        PARTITION,
+        TABLE_OPTIONS,
+        CLUSTERING,
+        SEARCH_OPTIMIZATION
     }
 
     public enum Status {
         ALTER,
         DROP,
-        ADD
+        ADD,
+        RENAME
     }
 
     @Override
@@ -2,6 +2,8 @@ package com.adaptivescale.rosetta.ddl.change.model;
 
 import com.adaptivescale.rosetta.common.models.*;
 
+import java.util.List;
+
 
 public class ChangeFactory {
 
@@ -13,6 +15,10 @@ public class ChangeFactory {
         return new TableChange(expected, actual, status, Change.Type.TABLE);
     }
 
+    public static Change<Table> tableOptionsChange(Table expected, Table actual, Change.Status status){
+        return new TableChange(expected, actual, status, Change.Type.TABLE_OPTIONS);
+    }
+
     public static Change<Database> databaseChange(Database expected, Database actual, Change.Status status){
         return new DatabaseChange(expected, actual, status, Change.Type.DATABASE);
     }
@@ -24,4 +30,17 @@ public class ChangeFactory {
     public static Change<Index> indexChange(Index expected, Index actual, Change.Status status) {
         return new IndexChange(expected, actual, status, Change.Type.INDEX);
     }
+
+    public static Change<Partition> partitionChange(Partition expected, Partition actual, Change.Status status, Table table) {
+        return new PartitionChange(expected, actual, status, Change.Type.PARTITION, table);
+    }
+
+    public static Change<List<String>> clusteringChange(List<String> expected, List<String> actual, Change.Status status, Table table) {
+        return new ClusteringChange(expected, actual, status, Change.Type.CLUSTERING, table);
+    }
+
+    public static Change<SearchOptimization> searchOptimizationChange(SearchOptimization expected, SearchOptimization actual,
+                                                                      Change.Status status, Table table) {
+        return new SearchOptimizationChange(expected, actual, status, Change.Type.SEARCH_OPTIMIZATION, table);
+    }
 }
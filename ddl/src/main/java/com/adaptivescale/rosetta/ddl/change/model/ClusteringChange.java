@@ -0,0 +1,21 @@
+package com.adaptivescale.rosetta.ddl.change.model;
+
+import com.adaptivescale.rosetta.common.models.Table;
+
+import java.util.List;
+
+public class ClusteringChange extends Change<List<String>> {
+    private final Table table;
+
+    public ClusteringChange(List<String> expected, List<String> actual, Status state, Type type, Table table) {
+        super(expected, actual, state, type);
+        this.table = table;
+    }
+
+    /**
+     * @return table the clustering key belongs to
+     */
+    public Table getTable() {
+        return table;
+    }
+}
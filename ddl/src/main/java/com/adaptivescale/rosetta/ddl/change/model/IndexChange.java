@@ -1,10 +1,36 @@
 package com.adaptivescale.rosetta.ddl.change.model;
 
 import com.adaptivescale.rosetta.common.models.Index;
+import com.adaptivescale.rosetta.common.models.IndexStatistics;
+
+import java.util.Optional;
 
 public class IndexChange extends Change<Index> {
 
     public IndexChange(Index expected, Index actual, Status state, Type type) {
         super(expected, actual, state, type);
     }
+
+    /**
+     * @return true if an existing index is dropped and created again because its definition changed, the database
+     * then builds the whole index again
+     */
+    public boolean isRebuild() {
+        return getExpected() != null && getActual() != null;
+    }
+
+    /**
+     * Estimates the cost of a rebuild from the statistics of the existing index.
+     *
+     * @return entries indexed again, empty if this is no rebuild or the statistics are not known
+     */
+    public Optional<Long> getRebuildEntries() {
+        if (!isRebuild()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(getActual().getStatistics())
+                .map(IndexStatistics::getCardinality)
+                .filter(cardinality -> cardinality >= 0)
+                .map(Integer::longValue);
+    }
 }
@@ -0,0 +1,20 @@
+package com.adaptivescale.rosetta.ddl.change.model;
+
+import com.adaptivescale.rosetta.common.models.Partition;
+import com.adaptivescale.rosetta.common.models.Table;
+
+public class PartitionChange extends Change<Partition> {
+    private final Table table;
+
+    public PartitionChange(Partition expected, Partition actual, Status state, Type type, Table table) {
+        super(expected, actual, state, type);
+        this.table = table;
+    }
+
+    /**
+     * @return partitioned table the partition belongs to
+     */
+    public Table getTable() {
+        return table;
+    }
+}
@@ -0,0 +1,20 @@
+package com.adaptivescale.rosetta.ddl.change.model;
+
+import com.adaptivescale.rosetta.common.models.SearchOptimization;
+import com.adaptivescale.rosetta.common.models.Table;
+
+public class SearchOptimizationChange extends Change<SearchOptimization> {
+    private final Table table;
+
+    public SearchOptimizationChange(SearchOptimization expected, SearchOptimization actual, Status state, Type type, Table table) {
+        super(expected, actual, state, type);
+        this.table = table;
+    }
+
+    /**
+     * @return table the search optimization belongs to
+     */
+    public Table getTable() {
+        return table;
+    }
+}
@@ -0,0 +1,20 @@
+package com.adaptivescale.rosetta.ddl.cost;
+
+import com.adaptivescale.rosetta.common.annotations.RosettaModule;
+import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
+import com.adaptivescale.rosetta.ddl.change.model.Change;
+
+/**
+ * BigQuery only changes metadata, columns can only be relaxed or widened and a new clustering applies to new data.
+ */
+@RosettaModule(
+        name = "bigquery",
+        type = RosettaModuleTypes.CHANGE_COST_MODEL
+)
+public class BigQueryCostModel implements CostModel {
+
+    @Override
+    public CostClass classify(Change<?> change) {
+        return CostClass.INSTANT;
+    }
+}
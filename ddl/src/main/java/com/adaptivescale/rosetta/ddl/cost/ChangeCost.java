@@ -0,0 +1,90 @@
+package com.adaptivescale.rosetta.ddl.cost;
+
+import com.adaptivescale.rosetta.common.models.Column;
+import com.adaptivescale.rosetta.common.models.ForeignKey;
+import com.adaptivescale.rosetta.common.models.Index;
+import com.adaptivescale.rosetta.common.models.Partition;
+import com.adaptivescale.rosetta.common.models.Table;
+import com.adaptivescale.rosetta.common.models.TableStatistics;
+import com.adaptivescale.rosetta.ddl.change.TableKey;
+import com.adaptivescale.rosetta.ddl.change.model.Change;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Estimated cost of applying one change, see {@link CostEstimator}.
+ */
+public class ChangeCost {
+
+    private final Change<?> change;
+    private final CostClass costClass;
+    private final TableKey table;
+    private final TableStatistics statistics;
+    private final Duration estimatedDuration;
+
+    ChangeCost(Change<?> change, CostClass costClass, TableKey table, TableStatistics statistics, Duration estimatedDuration) {
+        this.change = change;
+        this.costClass = costClass;
+        this.table = table;
+        this.statistics = statistics;
+        this.estimatedDuration = estimatedDuration;
+    }
+
+    public Change<?> getChange() {
+        return change;
+    }
+
+    public CostClass getCostClass() {
+        return costClass;
+    }
+
+    /**
+     * @return table the change is applied to, empty for a change of the whole database
+     */
+    public Optional<TableKey> getTable() {
+        return Optional.ofNullable(table);
+    }
+
+    /**
+     * @return size of the table as extracted, empty if the database does not report it
+     */
+    public Optional<TableStatistics> getStatistics() {
+        return Optional.ofNullable(statistics);
+    }
+
+    /**
+     * @return time the change is estimated to take, empty if it depends on a table of unknown size
+     */
+    public Optional<Duration> getEstimatedDuration() {
+        return Optional.ofNullable(estimatedDuration);
+    }
+
+    /**
+     * @return change as a short sentence, e.g. ADD INDEX PLAYER_NAME_IDX on public.PLAYER
+     */
+    public String describe() {
+        String description = change.getStatus() + " " + change.getType().toString().replace('_', ' ') + " " + objectName();
+        return table == null ? description : description + " on " + table;
+    }
+
+    private String objectName() {
+        Object object = change.getExpected() != null ? change.getExpected() : change.getActual();
+        if (object instanceof Table) {
+            return ((Table) object).getName();
+        }
+        if (object instanceof Column) {
+            return ((Column) object).getName();
+        }
+        if (object instanceof ForeignKey) {
+            return ((ForeignKey) object).getName();
+        }
+        if (object instanceof Index) {
+            return ((Index) object).getName();
+        }
+        if (object instanceof Partition) {
+            return ((Partition) object).getName();
+        }
+        return "";
+    }
+}
@@ -0,0 +1,13 @@
+package com.adaptivescale.rosetta.ddl.cost;
+
+/**
+ * How much of a table a change has to touch, ordered from cheapest to most expensive.
+ */
+public enum CostClass {
+    // catalog or metadata only, independent of the size of the table
+    INSTANT,
+    // reads the table, e.g. to build an index or validate a constraint, while the table stays in place
+    IN_PLACE,
+    // copies every row of the table into a new one
+    REWRITE
+}
@@ -0,0 +1,134 @@
+package com.adaptivescale.rosetta.ddl.cost;
+
+import com.adaptivescale.rosetta.common.models.Database;
+import com.adaptivescale.rosetta.common.models.ForeignKey;
+import com.adaptivescale.rosetta.common.models.Index;
+import com.adaptivescale.rosetta.common.models.Table;
+import com.adaptivescale.rosetta.common.models.TableStatistics;
+import com.adaptivescale.rosetta.ddl.change.TableKey;
+import com.adaptivescale.rosetta.ddl.change.model.Change;
+import com.adaptivescale.rosetta.ddl.change.model.ClusteringChange;
+import com.adaptivescale.rosetta.ddl.change.model.ColumnChange;
+import com.adaptivescale.rosetta.ddl.change.model.PartitionChange;
+import com.adaptivescale.rosetta.ddl.change.model.SearchOptimizationChange;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Estimates how long changes take from their {@link CostClass} and the size of the table they are applied to, as
+ * extracted into the {@link TableStatistics} of the actual model. The throughputs are rough figures for a single
+ * connection; they tell seconds from hours, not minutes from minutes.
+ */
+public class CostEstimator {
+
+    // reading a table, e.g. to build an index
+    static final long IN_PLACE_BYTES_PER_SECOND = 100L * 1024 * 1024;
+    // copying a table and rebuilding its indices
+    static final long REWRITE_BYTES_PER_SECOND = 20L * 1024 * 1024;
+    // size of a row when only the row count is known
+    static final long BYTES_PER_ROW = 200;
+
+    /**
+     * Most expensive first: by cost class, then by estimated duration with unknown durations first.
+     */
+    public static final Comparator<ChangeCost> MOST_EXPENSIVE_FIRST = Comparator
+            .comparing(ChangeCost::getCostClass, Comparator.reverseOrder())
+            .thenComparing(cost -> cost.getEstimatedDuration().orElse(null),
+                    Comparator.nullsFirst(Comparator.<Duration>reverseOrder()));
+
+    private final CostModel costModel;
+    private final Map<TableKey, Table> tablesByKey;
+    // tables whose name is unique across schemas, for changes that do not name the schema
+    private final Map<String, Table> tablesByName = new HashMap<>();
+
+    public CostEstimator(CostModel costModel, Database actual) {
+        this.costModel = costModel;
+        List<Table> tables = actual.getTables() == null ? List.of() : List.copyOf(actual.getTables());
+        this.tablesByKey = TableKey.index(tables);
+        Set<String> repeatedNames = new HashSet<>();
+        for (Table table : tables) {
+            if (tablesByName.putIfAbsent(table.getName(), table) != null) {
+                repeatedNames.add(table.getName());
+            }
+        }
+        repeatedNames.forEach(tablesByName::remove);
+    }
+
+    /**
+     * @return costs of the changes, in the order of the changes
+     */
+    public List<ChangeCost> estimate(List<Change<?>> changes) {
+        return changes.stream().map(this::estimate).collect(Collectors.toList());
+    }
+
+    /**
+     * @return costs of the changes, most expensive first
+     */
+    public List<ChangeCost> rank(List<Change<?>> changes) {
+        return changes.stream().map(this::estimate).sorted(MOST_EXPENSIVE_FIRST).collect(Collectors.toList());
+    }
+
+    public ChangeCost estimate(Change<?> change) {
+        CostClass costClass = costModel.classify(change);
+        TableKey table = tableOf(change);
+        TableStatistics statistics = table == null ? null : statisticsOf(table);
+        return new ChangeCost(change, costClass, table, statistics, duration(costClass, statistics));
+    }
+
+    private TableStatistics statisticsOf(TableKey key) {
+        Table table = tablesByKey.get(key);
+        if (table == null && (key.getSchema() == null || key.getSchema().isEmpty())) {
+            table = tablesByName.get(key.getName());
+        }
+        return table == null ? null : table.getStatistics();
+    }
+
+    private static Duration duration(CostClass costClass, TableStatistics statistics) {
+        if (costClass == CostClass.INSTANT) {
+            return Duration.ZERO;
+        }
+        Long bytes = statistics == null ? null : statistics.getBytes();
+        if (bytes == null && statistics != null && statistics.getRows() != null) {
+            bytes = statistics.getRows() * BYTES_PER_ROW;
+        }
+        if (bytes == null) {
+            return null;
+        }
+        long bytesPerSecond = costClass == CostClass.REWRITE ? REWRITE_BYTES_PER_SECOND : IN_PLACE_BYTES_PER_SECOND;
+        return Duration.ofMillis(bytes * 1000 / bytesPerSecond);
+    }
+
+    private static TableKey tableOf(Change<?> change) {
+        switch (change.getType()) {
+            case TABLE:
+                Table table = (Table) (change.getActual() != null ? change.getActual() : change.getExpected());
+                return TableKey.of(table);
+            case COLUMN:
+                return TableKey.of(((ColumnChange) change).getTable());
+            case FOREIGN_KEY:
+                ForeignKey foreignKey = (ForeignKey) (change.getExpected() != null ? change.getExpected() : change.getActual());
+                return TableKey.of(foreignKey.getSchema(), foreignKey.getTableName());
+            case INDEX:
+                Index index = (Index) (change.getExpected() != null ? change.getExpected() : change.getActual());
+                return TableKey.of(index.getSchema(), index.getTableName());
+            case PARTITION:
+                return TableKey.of(((PartitionChange) change).getTable());
+            case TABLE_OPTIONS:
+                return TableKey.of((Table) change.getExpected());
+            case CLUSTERING:
+                return TableKey.of(((ClusteringChange) change).getTable());
+            case SEARCH_OPTIMIZATION:
+                return TableKey.of(((SearchOptimizationChange) change).getTable());
+            case DATABASE:
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.adaptivescale.rosetta.ddl.cost;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Largest cost a plan may have to be applied: either the most expensive {@link CostClass} allowed for any change, or
+ * the estimated duration of all changes together.
+ */
+public class CostLimit {
+
+    private static final Pattern DURATION = Pattern.compile("(\\d+)([smh])");
+
+    private final CostClass maxCostClass;
+    private final Duration maxDuration;
+
+    private CostLimit(CostClass maxCostClass, Duration maxDuration) {
+        this.maxCostClass = maxCostClass;
+        this.maxDuration = maxDuration;
+    }
+
+    /**
+     * @param value cost class, e.g. {@code in_place}, or duration in seconds, minutes or hours, e.g. {@code 15m}
+     */
+    public static CostLimit parse(String value) {
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        Matcher matcher = DURATION.matcher(normalized);
+        if (matcher.matches()) {
+            long amount = Long.parseLong(matcher.group(1));
+            switch (matcher.group(2)) {
+                case "h":
+                    return new CostLimit(null, Duration.ofHours(amount));
+                case "m":
+                    return new CostLimit(null, Duration.ofMinutes(amount));
+                default:
+                    return new CostLimit(null, Duration.ofSeconds(amount));
+            }
+        }
+        for (CostClass costClass : CostClass.values()) {
+            if (costClass.name().equalsIgnoreCase(normalized.replace('-', '_'))) {
+                return new CostLimit(costClass, null);
+            }
+        }
+        throw new IllegalArgumentException(String.format("Invalid cost limit '%s', expected one of instant, in_place, " +
+                "rewrite or a duration such as 30s, 15m or 2h", value));
+    }
+
+    /**
+     * @return reasons the plan exceeds the limit, empty if it can be applied
+     */
+    public List<String> violations(List<ChangeCost> costs) {
+        List<String> violations = new ArrayList<>();
+        if (maxCostClass != null) {
+            for (ChangeCost cost : costs) {
+                if (cost.getCostClass().compareTo(maxCostClass) > 0) {
+                    violations.add(String.format("%s is %s", cost.describe(), cost.getCostClass()));
+                }
+            }
+            return violations;
+        }
+
+        Duration total = Duration.ZERO;
+        for (ChangeCost cost : costs) {
+            Optional<Duration> duration = cost.getEstimatedDuration();
+            if (duration.isPresent()) {
+                total = total.plus(duration.get());
+            } else {
+                violations.add(String.format("%s is %s on a table of unknown size", cost.describe(), cost.getCostClass()));
+            }
+        }
+        if (total.compareTo(maxDuration) > 0) {
+            violations.add(String.format("changes are estimated to take %s, more than %s", format(total), format(maxDuration)));
+        }
+        return violations;
+    }
+
+    /**
+     * @return duration rounded to seconds, e.g. 1h 5m 30s
+     */
+    public static String format(Duration duration) {
+        long seconds = duration.getSeconds();
+        if (seconds == 0) {
+            return duration.isZero() ? "0s" : "<1s";
+        }
+        StringBuilder text = new StringBuilder();
+        if (seconds >= 3600) {
+            text.append(seconds / 3600).append("h ");
+        }
+        if (seconds >= 60) {
+            text.append(seconds % 3600 / 60).append("m ");
+        }
+        return text.append(seconds % 60).append("s").toString();
+    }
+}
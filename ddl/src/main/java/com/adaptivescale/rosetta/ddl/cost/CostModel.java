@@ -0,0 +1,12 @@
+package com.adaptivescale.rosetta.ddl.cost;
+
+import com.adaptivescale.rosetta.ddl.change.model.Change;
+
+/**
+ * Classifies changes by what the target database has to do to apply them. Dialects register their model as a
+ * {@code CHANGE_COST_MODEL} module, others fall back to {@link DefaultCostModel}.
+ */
+public interface CostModel {
+
+    CostClass classify(Change<?> change);
+}
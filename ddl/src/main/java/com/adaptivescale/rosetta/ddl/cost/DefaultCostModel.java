@@ -0,0 +1,28 @@
+package com.adaptivescale.rosetta.ddl.cost;
+
+import com.adaptivescale.rosetta.ddl.change.model.Change;
+
+/**
+ * Assumes the worst for databases without a cost model of their own: altering a column or the primary key rewrites
+ * the table and anything adding data or constraints reads it.
+ */
+public class DefaultCostModel implements CostModel {
+
+    @Override
+    public CostClass classify(Change<?> change) {
+        switch (change.getType()) {
+            case TABLE:
+            case COLUMN:
+                if (change.getStatus() == Change.Status.ALTER) {
+                    return CostClass.REWRITE;
+                }
+                return change.getType() == Change.Type.COLUMN && change.getStatus() == Change.Status.ADD
+                        ? CostClass.IN_PLACE : CostClass.INSTANT;
+            case FOREIGN_KEY:
+            case INDEX:
+                return change.getStatus() == Change.Status.ADD ? CostClass.IN_PLACE : CostClass.INSTANT;
+            default:
+                return CostClass.INSTANT;
+        }
+    }
+}
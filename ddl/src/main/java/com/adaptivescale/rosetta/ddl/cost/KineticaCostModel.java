@@ -0,0 +1,34 @@
+package com.adaptivescale.rosetta.ddl.cost;
+
+import com.adaptivescale.rosetta.common.annotations.RosettaModule;
+import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
+import com.adaptivescale.rosetta.ddl.change.model.Change;
+
+/**
+ * Kinetica stores columns separately: an added column is filled in place, a changed column is rewritten. A new tier
+ * strategy moves the table between tiers.
+ */
+@RosettaModule(
+        name = "kinetica",
+        type = RosettaModuleTypes.CHANGE_COST_MODEL
+)
+public class KineticaCostModel implements CostModel {
+
+    @Override
+    public CostClass classify(Change<?> change) {
+        switch (change.getType()) {
+            case COLUMN:
+                if (change.getStatus() == Change.Status.ALTER) {
+                    return CostClass.REWRITE;
+                }
+                return change.getStatus() == Change.Status.ADD ? CostClass.IN_PLACE : CostClass.INSTANT;
+            case TABLE:
+                return change.getStatus() == Change.Status.ALTER ? CostClass.IN_PLACE : CostClass.INSTANT;
+            case FOREIGN_KEY:
+            case INDEX:
+                return change.getStatus() == Change.Status.ADD ? CostClass.IN_PLACE : CostClass.INSTANT;
+            default:
+                return CostClass.INSTANT;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.adaptivescale.rosetta.ddl.cost;
+
+import com.adaptivescale.rosetta.common.annotations.RosettaModule;
+import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
+import com.adaptivescale.rosetta.ddl.change.model.Change;
+import com.adaptivescale.rosetta.ddl.targets.mysql.MySqlAlterAlgorithm;
+
+/**
+ * Follows the InnoDB algorithm of the change, a table copy rewrites the table.
+ */
+@RosettaModule(
+        name = "mysql",
+        type = RosettaModuleTypes.CHANGE_COST_MODEL
+)
+public class MySqlCostModel implements CostModel {
+
+    @Override
+    public CostClass classify(Change<?> change) {
+        MySqlAlterAlgorithm algorithm = MySqlAlterAlgorithm.of(change);
+        if (algorithm == null) {
+            return CostClass.INSTANT;
+        }
+        switch (algorithm) {
+            case INPLACE:
+                return CostClass.IN_PLACE;
+            case COPY:
+                return CostClass.REWRITE;
+            case INSTANT:
+            default:
+                return CostClass.INSTANT;
+        }
+    }
+}
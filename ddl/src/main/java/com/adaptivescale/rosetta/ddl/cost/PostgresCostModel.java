@@ -0,0 +1,54 @@
+package com.adaptivescale.rosetta.ddl.cost;
+
+import com.adaptivescale.rosetta.common.annotations.RosettaModule;
+import com.adaptivescale.rosetta.common.models.Column;
+import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
+import com.adaptivescale.rosetta.ddl.change.model.Change;
+import com.adaptivescale.rosetta.ddl.change.model.ColumnChange;
+
+import java.util.Objects;
+
+@RosettaModule(
+        name = "postgres",
+        type = RosettaModuleTypes.CHANGE_COST_MODEL
+)
+public class PostgresCostModel implements CostModel {
+
+    @Override
+    public CostClass classify(Change<?> change) {
+        switch (change.getType()) {
+            case TABLE:
+                // adding a primary key builds its index
+                return change.getStatus() == Change.Status.ALTER ? CostClass.IN_PLACE : CostClass.INSTANT;
+            case COLUMN:
+                return classifyColumnChange((ColumnChange) change);
+            case FOREIGN_KEY:
+            case INDEX:
+                // foreign keys are validated and indices built by reading the table
+                return change.getStatus() == Change.Status.ADD ? CostClass.IN_PLACE : CostClass.INSTANT;
+            case PARTITION:
+                // a partition moved to a new bound is checked against it when it is attached again
+                return change.getStatus() == Change.Status.ALTER ? CostClass.IN_PLACE : CostClass.INSTANT;
+            default:
+                return CostClass.INSTANT;
+        }
+    }
+
+    private CostClass classifyColumnChange(ColumnChange change) {
+        switch (change.getStatus()) {
+            case ADD:
+                // a column without a volatile default is added to the catalog only, a serial default fills every row
+                return change.getExpected().isAutoincrement() ? CostClass.REWRITE : CostClass.INSTANT;
+            case ALTER:
+                Column expected = change.getExpected();
+                Column actual = change.getActual();
+                if (!Objects.equals(expected.getTypeName(), actual.getTypeName())) {
+                    return CostClass.REWRITE;
+                }
+                // SET NOT NULL scans the table for nulls
+                return !expected.isNullable() && actual.isNullable() ? CostClass.IN_PLACE : CostClass.INSTANT;
+            default:
+                return CostClass.INSTANT;
+        }
+    }
+}
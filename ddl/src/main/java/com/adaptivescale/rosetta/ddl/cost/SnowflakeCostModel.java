@@ -0,0 +1,27 @@
+package com.adaptivescale.rosetta.ddl.cost;
+
+import com.adaptivescale.rosetta.common.annotations.RosettaModule;
+import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
+import com.adaptivescale.rosetta.ddl.change.model.Change;
+
+/**
+ * Snowflake only changes metadata, columns can only be widened. A clustering key or search optimization is built in
+ * the background after the statement returns, reading the whole table.
+ */
+@RosettaModule(
+        name = "snowflake",
+        type = RosettaModuleTypes.CHANGE_COST_MODEL
+)
+public class SnowflakeCostModel implements CostModel {
+
+    @Override
+    public CostClass classify(Change<?> change) {
+        switch (change.getType()) {
+            case CLUSTERING:
+            case SEARCH_OPTIMIZATION:
+                return change.getStatus() == Change.Status.DROP ? CostClass.INSTANT : CostClass.IN_PLACE;
+            default:
+                return CostClass.INSTANT;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.adaptivescale.rosetta.ddl.cost;
+
+import com.adaptivescale.rosetta.common.annotations.RosettaModule;
+import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
+import com.adaptivescale.rosetta.ddl.change.model.Change;
+
+/**
+ * Spanner backfills new indices and validates changed columns and new foreign keys against every row, as a long
+ * running schema operation.
+ */
+@RosettaModule(
+        name = "spanner",
+        type = RosettaModuleTypes.CHANGE_COST_MODEL
+)
+public class SpannerCostModel implements CostModel {
+
+    @Override
+    public CostClass classify(Change<?> change) {
+        switch (change.getType()) {
+            case COLUMN:
+                return change.getStatus() == Change.Status.ALTER ? CostClass.IN_PLACE : CostClass.INSTANT;
+            case FOREIGN_KEY:
+            case INDEX:
+                return change.getStatus() == Change.Status.ADD ? CostClass.IN_PLACE : CostClass.INSTANT;
+            default:
+                return CostClass.INSTANT;
+        }
+    }
+}
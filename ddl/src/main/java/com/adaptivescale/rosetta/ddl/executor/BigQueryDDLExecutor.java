@@ -5,18 +5,23 @@ import com.adaptivescale.rosetta.common.JDBCUtils;
 import com.adaptivescale.rosetta.common.annotations.RosettaModule;
 import com.adaptivescale.rosetta.common.models.input.Connection;
 import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
+import com.adaptivescale.rosetta.ddl.change.ChangeDependencyGraph;
+import com.adaptivescale.rosetta.ddl.change.ChangeHandler;
 
 import java.sql.Driver;
 import java.sql.SQLException;
+import java.util.List;
 import java.util.Properties;
 
 @RosettaModule(
         name = "bigquery",
         type = RosettaModuleTypes.DDL_EXECUTOR
 )
-public class BigQueryDDLExecutor implements DDLExecutor {
+public class BigQueryDDLExecutor implements ConcurrentDDLExecutor {
     private final Connection connection;
     private final JDBCDriverProvider driverProvider;
+    // shared by all connections, the limits are per table and not per connection
+    private final StatementThrottle throttle = new BigQueryStatementThrottle();
 
     public BigQueryDDLExecutor(Connection connection, JDBCDriverProvider driverProvider) {
         this.connection = connection;
@@ -25,11 +30,23 @@ public class BigQueryDDLExecutor implements DDLExecutor {
 
     @Override
     public void execute(String query) throws SQLException {
+        try (java.sql.Connection jdbcConnection = connect()) {
+            runStatements(jdbcConnection, DDLStatementParser.parse(query, DDLStatementParser.Dialect.GOOGLE_SQL));
+        }
+    }
+
+    @Override
+    public void execute(ChangeDependencyGraph graph, ChangeHandler changeHandler, int maxConcurrency) throws SQLException {
+        new ConcurrentChangeApplier(this::connect, this::runStatements, DDLStatementParser.Dialect.GOOGLE_SQL, maxConcurrency).apply(graph, changeHandler);
+    }
+
+    private java.sql.Connection connect() throws SQLException {
         Driver driver = driverProvider.getDriver(connection);
         Properties properties = JDBCUtils.setJDBCAuth(connection);
+        return driver.connect(connection.getUrl(), properties);
+    }
 
-        java.sql.Connection jdbcConnection = driver.connect(connection.getUrl(), properties);
-        jdbcConnection.createStatement().execute(query);
-        jdbcConnection.close();
+    private void runStatements(java.sql.Connection jdbcConnection, List<String> statements) throws SQLException {
+        new DDLStatementPipeline(jdbcConnection, throttle).executeEach(statements);
     }
 }
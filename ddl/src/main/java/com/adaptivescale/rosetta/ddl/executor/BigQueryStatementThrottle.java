@@ -0,0 +1,66 @@
+package com.adaptivescale.rosetta.ddl.executor;
+
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps DDL within the BigQuery limit of 5 metadata updates per table every 10 seconds. Statements are paced by a
+ * token bucket per table, and statements failing with a rate limit error are retried with exponential backoff.
+ */
+public class BigQueryStatementThrottle implements StatementThrottle {
+
+    private static final int UPDATES_PER_TABLE = 5;
+    private static final double UPDATES_PER_TABLE_PER_SECOND = 0.5;
+    private static final int MAX_RETRIES = 5;
+    private static final long INITIAL_BACKOFF_MILLIS = 2000;
+    private static final long MAX_BACKOFF_MILLIS = 64000;
+
+    private static final Pattern TABLE = Pattern.compile(
+            "^\\s*(?:CREATE\\s+(?:OR\\s+REPLACE\\s+)?TABLE(?:\\s+IF\\s+NOT\\s+EXISTS)?|ALTER\\s+TABLE(?:\\s+IF\\s+EXISTS)?"
+                    + "|DROP\\s+TABLE(?:\\s+IF\\s+EXISTS)?)\\s+(`[^`]+`|[\\w.\\-]+)",
+            Pattern.CASE_INSENSITIVE);
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    @Override
+    public void beforeStatement(String statement) throws InterruptedException {
+        String table = tableOf(statement);
+        if (table != null) {
+            buckets.computeIfAbsent(table, key -> new TokenBucket(UPDATES_PER_TABLE, UPDATES_PER_TABLE_PER_SECOND))
+                    .acquire();
+        }
+    }
+
+    @Override
+    public long retryDelayMillis(String statement, SQLException failure, int attempt) {
+        if (attempt > MAX_RETRIES || !isRateLimited(failure)) {
+            return -1;
+        }
+        return Math.min(MAX_BACKOFF_MILLIS, INITIAL_BACKOFF_MILLIS << (attempt - 1));
+    }
+
+    /**
+     * @return lower-cased name of the table the statement updates, null if it does not update a table
+     */
+    static String tableOf(String statement) {
+        Matcher matcher = TABLE.matcher(statement);
+        if (!matcher.find()) {
+            return null;
+        }
+        return matcher.group(1).replace("`", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isRateLimited(SQLException failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            String message = cause.getMessage();
+            if (message != null && (message.contains("rateLimitExceeded") || message.contains("Exceeded rate limits"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,145 @@
+package com.adaptivescale.rosetta.ddl.executor;
+
+import com.adaptivescale.rosetta.ddl.change.ChangeDependencyGraph;
+import com.adaptivescale.rosetta.ddl.change.ChangeHandler;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Applies a {@link ChangeDependencyGraph} on a bounded pool of connections. A node is started as soon as all nodes
+ * it depends on have been applied. On the first failure no new nodes are started, running nodes are awaited and the
+ * failure is rethrown.
+ */
+@Slf4j
+public class ConcurrentChangeApplier {
+
+    private final ConnectionFactory connectionFactory;
+    private final StatementRunner statementRunner;
+    private final DDLStatementParser.Dialect dialect;
+    private final int maxConcurrency;
+
+    public ConcurrentChangeApplier(ConnectionFactory connectionFactory, StatementRunner statementRunner,
+                                   DDLStatementParser.Dialect dialect, int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1, got " + maxConcurrency);
+        }
+        this.connectionFactory = connectionFactory;
+        this.statementRunner = statementRunner;
+        this.dialect = dialect;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    public void apply(ChangeDependencyGraph graph, ChangeHandler changeHandler) throws SQLException {
+        List<ChangeDependencyGraph.Node> nodes = graph.getNodes();
+        log.info("Applying changes as {} nodes in {} levels on up to {} connections",
+                nodes.size(), graph.levels().size(), maxConcurrency);
+
+        int[] pendingPredecessors = new int[nodes.size()];
+        nodes.forEach(node -> pendingPredecessors[node.getId()] = node.getPredecessorCount());
+
+        BlockingQueue<java.sql.Connection> idleConnections = new LinkedBlockingQueue<>();
+        List<java.sql.Connection> openedConnections = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService pool = Executors.newFixedThreadPool(maxConcurrency);
+        CompletionService<ChangeDependencyGraph.Node> completionService = new ExecutorCompletionService<>(pool);
+
+        Throwable failure = null;
+        try {
+            int running = 0;
+            for (ChangeDependencyGraph.Node node : nodes) {
+                if (pendingPredecessors[node.getId()] == 0) {
+                    completionService.submit(() -> applyNode(node, changeHandler, idleConnections, openedConnections));
+                    running++;
+                }
+            }
+
+            while (running > 0) {
+                try {
+                    ChangeDependencyGraph.Node applied = completionService.take().get();
+                    running--;
+                    if (failure != null) {
+                        continue;
+                    }
+                    for (ChangeDependencyGraph.Node successor : applied.getSuccessors()) {
+                        if (--pendingPredecessors[successor.getId()] == 0) {
+                            completionService.submit(() -> applyNode(successor, changeHandler, idleConnections, openedConnections));
+                            running++;
+                        }
+                    }
+                } catch (ExecutionException e) {
+                    running--;
+                    if (failure == null) {
+                        failure = e.getCause();
+                    } else {
+                        failure.addSuppressed(e.getCause());
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while applying changes", e);
+        } finally {
+            pool.shutdownNow();
+            closeAll(openedConnections);
+        }
+
+        if (failure instanceof SQLException) {
+            throw (SQLException) failure;
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure != null) {
+            throw new RuntimeException(failure);
+        }
+    }
+
+    private ChangeDependencyGraph.Node applyNode(ChangeDependencyGraph.Node node,
+                                                 ChangeHandler changeHandler,
+                                                 BlockingQueue<java.sql.Connection> idleConnections,
+                                                 List<java.sql.Connection> openedConnections) throws SQLException {
+        String ddl = changeHandler.createDDLForChanges(new ArrayList<>(node.getChanges()));
+        List<String> statements = DDLStatementParser.parse(ddl, dialect);
+        if (statements.isEmpty()) {
+            return node;
+        }
+
+        // one task per pool thread, so at most maxConcurrency connections are ever opened
+        java.sql.Connection connection = idleConnections.poll();
+        if (connection == null) {
+            connection = connectionFactory.connect();
+            openedConnections.add(connection);
+        }
+        try {
+            statementRunner.run(connection, statements);
+        } finally {
+            idleConnections.offer(connection);
+        }
+        return node;
+    }
+
+    private void closeAll(List<java.sql.Connection> connections) {
+        for (java.sql.Connection connection : connections) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                log.warn("Could not close connection: {}", e.getMessage());
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        java.sql.Connection connect() throws SQLException;
+    }
+}
@@ -0,0 +1,21 @@
+package com.adaptivescale.rosetta.ddl.executor;
+
+import com.adaptivescale.rosetta.ddl.change.ChangeDependencyGraph;
+import com.adaptivescale.rosetta.ddl.change.ChangeHandler;
+
+import java.sql.SQLException;
+
+/**
+ * Executor for targets without transactional DDL, where independent changes can be applied at the same time.
+ */
+public interface ConcurrentDDLExecutor extends DDLExecutor {
+
+    /**
+     * Applies the changes of the graph, running independent nodes on up to maxConcurrency connections.
+     *
+     * @param graph          {@link ChangeDependencyGraph} built from the ordered changes
+     * @param changeHandler  {@link ChangeHandler} generating the DDL of each node
+     * @param maxConcurrency maximum number of connections used at the same time
+     */
+    void execute(ChangeDependencyGraph graph, ChangeHandler changeHandler, int maxConcurrency) throws SQLException;
+}
@@ -0,0 +1,36 @@
+package com.adaptivescale.rosetta.ddl.executor;
+
+import java.sql.SQLException;
+
+/**
+ * Raised when one statement of a DDL script fails. Carries the failing statement so the user does not have to
+ * bisect the generated script.
+ */
+public class DDLStatementException extends SQLException {
+    private final int statementIndex;
+    private final int statementCount;
+    private final String statement;
+
+    public DDLStatementException(int statementIndex, int statementCount, String statement, SQLException cause) {
+        super(String.format("Statement %d of %d failed: %s%n%s",
+                statementIndex, statementCount, cause.getMessage(), statement), cause.getSQLState(), cause.getErrorCode(), cause);
+        this.statementIndex = statementIndex;
+        this.statementCount = statementCount;
+        this.statement = statement;
+    }
+
+    /**
+     * @return position of the failing statement in the script, starting from 1
+     */
+    public int getStatementIndex() {
+        return statementIndex;
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public String getStatement() {
+        return statement;
+    }
+}
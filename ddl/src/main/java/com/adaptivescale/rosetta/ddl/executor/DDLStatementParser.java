@@ -0,0 +1,133 @@
+package com.adaptivescale.rosetta.ddl.executor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Splits the DDL produced by a {@link com.adaptivescale.rosetta.ddl.change.ChangeHandler} into single statements.
+ * Semicolons inside quoted literals, quoted identifiers and comments do not terminate a statement. How literals are
+ * quoted depends on the {@link Dialect}.
+ */
+public class DDLStatementParser {
+
+    // $$ or $tag$ opening a dollar quoted string
+    private static final Pattern DOLLAR_QUOTE_TAG = Pattern.compile("\\$([A-Za-z_][A-Za-z_0-9]*)?\\$");
+
+    /**
+     * Quoting rules of a database. A quote doubled inside a quoted text escapes itself in all of them.
+     */
+    public enum Dialect {
+        STANDARD("", false),
+        // backslash is an ordinary character in literals (standard_conforming_strings), bodies are dollar quoted
+        POSTGRES("", true),
+        MYSQL("'\"", false),
+        SNOWFLAKE("'", true),
+        // BigQuery and Spanner
+        GOOGLE_SQL("'\"`", false);
+
+        private final String backslashEscapedQuotes;
+        private final boolean dollarQuotes;
+
+        Dialect(String backslashEscapedQuotes, boolean dollarQuotes) {
+            this.backslashEscapedQuotes = backslashEscapedQuotes;
+            this.dollarQuotes = dollarQuotes;
+        }
+
+        private boolean escapesWithBackslash(char quote) {
+            return backslashEscapedQuotes.indexOf(quote) != -1;
+        }
+    }
+
+    private DDLStatementParser() {
+    }
+
+    /**
+     * @param script {@link String} one or more statements separated by ';'
+     * @param dialect {@link Dialect} quoting rules of the database the script is written for
+     * @return {@link List<String>} statements without the trailing ';', blank statements are skipped
+     */
+    public static List<String> parse(String script, Dialect dialect) {
+        List<String> statements = new ArrayList<>();
+        if (script == null) {
+            return statements;
+        }
+
+        StringBuilder current = new StringBuilder();
+        int length = script.length();
+        int i = 0;
+        while (i < length) {
+            char c = script.charAt(i);
+            if (c == '\'' || c == '"' || c == '`') {
+                int end = closingQuote(script, i, c, dialect);
+                current.append(script, i, end);
+                i = end;
+            } else if (c == '$' && dialect.dollarQuotes && startsDollarQuote(script, i)) {
+                int end = closingDollarQuote(script, i);
+                current.append(script, i, end);
+                i = end;
+            } else if (c == '-' && i + 1 < length && script.charAt(i + 1) == '-') {
+                int end = script.indexOf('\n', i);
+                i = end == -1 ? length : end;
+            } else if (c == '/' && i + 1 < length && script.charAt(i + 1) == '*') {
+                int end = script.indexOf("*/", i + 2);
+                i = end == -1 ? length : end + 2;
+            } else if (c == ';') {
+                addStatement(statements, current);
+                current.setLength(0);
+                i++;
+            } else {
+                current.append(c == '\r' ? '\n' : c);
+                i++;
+            }
+        }
+        addStatement(statements, current);
+        return statements;
+    }
+
+    private static int closingQuote(String script, int start, char quote, Dialect dialect) {
+        int i = start + 1;
+        while (i < script.length()) {
+            if (script.charAt(i) == quote) {
+                // doubled quote is an escaped quote inside the literal
+                if (i + 1 < script.length() && script.charAt(i + 1) == quote) {
+                    i += 2;
+                    continue;
+                }
+                return i + 1;
+            }
+            if (script.charAt(i) == '\\' && dialect.escapesWithBackslash(quote)) {
+                i++;
+            }
+            i++;
+        }
+        return script.length();
+    }
+
+    // a $ inside or right after an identifier, e.g. a$b, does not open a dollar quote
+    private static boolean startsDollarQuote(String script, int start) {
+        if (start > 0) {
+            char previous = script.charAt(start - 1);
+            if (Character.isLetterOrDigit(previous) || previous == '_' || previous == '$') {
+                return false;
+            }
+        }
+        return DOLLAR_QUOTE_TAG.matcher(script).region(start, script.length()).lookingAt();
+    }
+
+    private static int closingDollarQuote(String script, int start) {
+        Matcher matcher = DOLLAR_QUOTE_TAG.matcher(script).region(start, script.length());
+        matcher.lookingAt();
+        String tag = matcher.group();
+        int end = script.indexOf(tag, matcher.end());
+        return end == -1 ? script.length() : end + tag.length();
+    }
+
+    private static void addStatement(List<String> statements, StringBuilder current) {
+        String statement = current.toString().trim();
+        if (!statement.isEmpty()) {
+            statements.add(statement);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.adaptivescale.rosetta.ddl.executor;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.BatchUpdateException;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends parsed DDL statements over one JDBC connection, either as a single JDBC batch or one after another,
+ * logging progress and latency per statement. A failure is reported as {@link DDLStatementException} pointing at the
+ * statement that failed. Transaction handling is left to the caller.
+ */
+@Slf4j
+public class DDLStatementPipeline {
+
+    private final java.sql.Connection connection;
+    private final StatementThrottle throttle;
+
+    public DDLStatementPipeline(java.sql.Connection connection) {
+        this(connection, StatementThrottle.NONE);
+    }
+
+    /**
+     * @param throttle paces statements and retries statements sent one by one
+     */
+    public DDLStatementPipeline(java.sql.Connection connection, StatementThrottle throttle) {
+        this.connection = connection;
+        this.throttle = throttle;
+    }
+
+    /**
+     * Sends all statements with addBatch/executeBatch in one round trip. Falls back to {@link #executeEach(List)}
+     * when the driver does not support batch updates.
+     */
+    public List<DDLStatementResult> executeBatch(List<String> statements) throws SQLException {
+        if (statements.isEmpty()) {
+            return new ArrayList<>();
+        }
+        if (!connection.getMetaData().supportsBatchUpdates()) {
+            log.debug("Driver does not support batch updates, executing statements one by one");
+            return executeEach(statements);
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            for (String query : statements) {
+                statement.addBatch(query);
+            }
+            long start = System.nanoTime();
+            int[] updateCounts;
+            try {
+                updateCounts = statement.executeBatch();
+            } catch (BatchUpdateException e) {
+                int failed = failedStatementIndex(e.getUpdateCounts(), statements.size());
+                throw new DDLStatementException(failed + 1, statements.size(), statements.get(failed), e);
+            }
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            log.info("Executed batch of {} statements in {} ms", statements.size(), elapsed);
+
+            List<DDLStatementResult> results = new ArrayList<>();
+            for (int i = 0; i < statements.size(); i++) {
+                int updateCount = i < updateCounts.length ? updateCounts[i] : Statement.SUCCESS_NO_INFO;
+                results.add(new DDLStatementResult(i + 1, statements.get(i), elapsed / statements.size(), updateCount, true));
+            }
+            return results;
+        }
+    }
+
+    /**
+     * Sends the statements one after another on the same connection, timing each of them. Every statement waits for
+     * the throttle and is sent again for as long as the throttle asks to retry it.
+     */
+    public List<DDLStatementResult> executeEach(List<String> statements) throws SQLException {
+        return executeEach(statements, 0, statements.size());
+    }
+
+    /**
+     * Sends the statements in groups of up to {@code groupSize}, each group as one multi-statement script in a
+     * single round trip, and reads the result of every statement from the sequence of results of the group. The
+     * connection has to accept several statements per execute, e.g. Snowflake with MULTI_STATEMENT_COUNT = 0.
+     * <p>
+     * Every statement of a group waits for the throttle before the group is sent. If a group fails after the results
+     * of some of its statements were read, the statements from the one that failed on are sent one by one through the
+     * throttle, so the statement that fails is reported and statements after a transient failure are still applied.
+     * If the group fails before any result was read, it is not known which of its statements were applied, so
+     * nothing is sent again and the group fails as a whole.
+     */
+    public List<DDLStatementResult> executeGrouped(List<String> statements, int groupSize) throws SQLException {
+        if (groupSize <= 1) {
+            return executeEach(statements);
+        }
+        List<DDLStatementResult> results = new ArrayList<>();
+        for (int from = 0; from < statements.size(); from += groupSize) {
+            List<String> group = statements.subList(from, Math.min(from + groupSize, statements.size()));
+            results.addAll(group.size() == 1
+                    ? executeEach(group, from, statements.size())
+                    : executeGroup(group, from, statements.size()));
+        }
+        return results;
+    }
+
+    private List<DDLStatementResult> executeEach(List<String> statements, int offset, int count) throws SQLException {
+        List<DDLStatementResult> results = new ArrayList<>();
+        try (Statement statement = connection.createStatement()) {
+            for (int i = 0; i < statements.size(); i++) {
+                String query = statements.get(i);
+                int index = offset + i + 1;
+                long start = System.nanoTime();
+                int updateCount = executeThrottled(statement, query, index, count);
+                long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                log.info("[{}/{}] {} ms: {}", index, count, elapsed, summary(query));
+                results.add(new DDLStatementResult(index, query, elapsed, updateCount, false));
+            }
+        }
+        return results;
+    }
+
+    private List<DDLStatementResult> executeGroup(List<String> group, int offset, int count) throws SQLException {
+        for (int i = 0; i < group.size(); i++) {
+            awaitThrottle(group.get(i), offset + i + 1, count);
+        }
+        List<Integer> updateCounts = new ArrayList<>();
+        long start = System.nanoTime();
+        try (Statement statement = connection.createStatement()) {
+            boolean hasResultSet = statement.execute(String.join(";\n", group));
+            for (int i = 0; i < group.size(); i++) {
+                if (i > 0) {
+                    hasResultSet = statement.getMoreResults();
+                }
+                updateCounts.add(hasResultSet ? Statement.SUCCESS_NO_INFO : statement.getUpdateCount());
+            }
+        } catch (SQLException e) {
+            int confirmed = updateCounts.size();
+            if (confirmed == 0) {
+                log.error("[{}-{}/{}] group failed before any result was read, its statements may be partly applied",
+                        offset + 1, offset + group.size(), count);
+                throw new DDLStatementException(offset + 1, count, String.join(";\n", group), e);
+            }
+            log.warn("[{}-{}/{}] group failed after {} statements, sending the remaining statements one by one: {}",
+                    offset + 1, offset + group.size(), count, confirmed, e.getMessage());
+            List<DDLStatementResult> results = toResults(group.subList(0, confirmed), offset, updateCounts, 0);
+            results.addAll(executeEach(group.subList(confirmed, group.size()), offset + confirmed, count));
+            return results;
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("[{}-{}/{}] {} ms: {} statements in one round trip", offset + 1, offset + group.size(), count,
+                elapsed, group.size());
+        return toResults(group, offset, updateCounts, elapsed / group.size());
+    }
+
+    private static List<DDLStatementResult> toResults(List<String> statements, int offset, List<Integer> updateCounts,
+                                                      long elapsedPerStatement) {
+        List<DDLStatementResult> results = new ArrayList<>();
+        for (int i = 0; i < statements.size(); i++) {
+            results.add(new DDLStatementResult(offset + i + 1, statements.get(i), elapsedPerStatement, updateCounts.get(i), true));
+        }
+        return results;
+    }
+
+    private int executeThrottled(Statement statement, String query, int index, int count) throws SQLException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                awaitThrottle(query, index, count);
+                return statement.executeUpdate(query);
+            } catch (DDLStatementException e) {
+                throw e;
+            } catch (SQLException e) {
+                long delay = throttle.retryDelayMillis(query, e, attempt);
+                if (delay < 0) {
+                    throw new DDLStatementException(index, count, query, e);
+                }
+                log.warn("[{}/{}] failed, retrying in {} ms: {}", index, count, delay, e.getMessage());
+                sleep(delay, index, count, query, e);
+            }
+        }
+    }
+
+    private void awaitThrottle(String query, int index, int count) throws DDLStatementException {
+        try {
+            throttle.beforeStatement(query);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DDLStatementException(index, count, query, new SQLException("Interrupted while throttled", e));
+        }
+    }
+
+    private static void sleep(long millis, int index, int count, String query, SQLException failure) throws SQLException {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DDLStatementException(index, count, query, failure);
+        }
+    }
+
+    /**
+     * Drivers either stop at the failing statement, returning the counts of the statements before it, or continue
+     * and mark the failed ones with {@link Statement#EXECUTE_FAILED}.
+     */
+    private static int failedStatementIndex(int[] updateCounts, int statementCount) {
+        if (updateCounts == null) {
+            return 0;
+        }
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (updateCounts[i] == Statement.EXECUTE_FAILED) {
+                return i;
+            }
+        }
+        return Math.min(updateCounts.length, statementCount - 1);
+    }
+
+    static String summary(String statement) {
+        String singleLine = statement.replaceAll("\\s+", " ");
+        return singleLine.length() > 120 ? singleLine.substring(0, 117) + "..." : singleLine;
+    }
+}
@@ -0,0 +1,46 @@
+package com.adaptivescale.rosetta.ddl.executor;
+
+/**
+ * Outcome of a single statement sent by {@link DDLStatementPipeline}.
+ */
+public class DDLStatementResult {
+    private final int index;
+    private final String statement;
+    private final long elapsedMillis;
+    private final int updateCount;
+    private final boolean batched;
+
+    public DDLStatementResult(int index, String statement, long elapsedMillis, int updateCount, boolean batched) {
+        this.index = index;
+        this.statement = statement;
+        this.elapsedMillis = elapsedMillis;
+        this.updateCount = updateCount;
+        this.batched = batched;
+    }
+
+    /**
+     * @return position of the statement in the script, starting from 1
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public String getStatement() {
+        return statement;
+    }
+
+    /**
+     * @return latency of the statement; for batched statements this is the batch latency divided by its size
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public int getUpdateCount() {
+        return updateCount;
+    }
+
+    public boolean isBatched() {
+        return batched;
+    }
+}
@@ -5,16 +5,19 @@ import com.adaptivescale.rosetta.common.JDBCUtils;
 import com.adaptivescale.rosetta.common.annotations.RosettaModule;
 import com.adaptivescale.rosetta.common.models.input.Connection;
 import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
+import com.adaptivescale.rosetta.ddl.change.ChangeDependencyGraph;
+import com.adaptivescale.rosetta.ddl.change.ChangeHandler;
 
 import java.sql.Driver;
 import java.sql.SQLException;
+import java.util.List;
 import java.util.Properties;
 
 @RosettaModule(
         name = "kinetica",
         type = RosettaModuleTypes.DDL_EXECUTOR
 )
-public class KineticaDDLExecutor implements DDLExecutor {
+public class KineticaDDLExecutor implements ConcurrentDDLExecutor {
     private final Connection connection;
     private final JDBCDriverProvider driverProvider;
 
@@ -25,12 +28,23 @@ public class KineticaDDLExecutor implements DDLExecutor {
 
     @Override
     public void execute(String query) throws SQLException {
+        try (java.sql.Connection jdbcConnection = connect()) {
+            runStatements(jdbcConnection, DDLStatementParser.parse(query, DDLStatementParser.Dialect.STANDARD));
+        }
+    }
+
+    @Override
+    public void execute(ChangeDependencyGraph graph, ChangeHandler changeHandler, int maxConcurrency) throws SQLException {
+        new ConcurrentChangeApplier(this::connect, this::runStatements, DDLStatementParser.Dialect.STANDARD, maxConcurrency).apply(graph, changeHandler);
+    }
+
+    private java.sql.Connection connect() throws SQLException {
         Driver driver = driverProvider.getDriver(connection);
         Properties properties = JDBCUtils.setJDBCAuth(connection);
-        properties.setProperty("allowMultiQueries", "true");
+        return driver.connect(connection.getUrl(), properties);
+    }
 
-        java.sql.Connection jdbcConnection = driver.connect(connection.getUrl(), properties);
-        jdbcConnection.createStatement().execute(query);
-        jdbcConnection.close();
+    private void runStatements(java.sql.Connection jdbcConnection, List<String> statements) throws SQLException {
+        new DDLStatementPipeline(jdbcConnection).executeEach(statements);
     }
 }
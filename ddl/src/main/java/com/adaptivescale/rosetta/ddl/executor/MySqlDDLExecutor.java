@@ -27,10 +27,10 @@ public class MySqlDDLExecutor implements DDLExecutor {
     public void execute(String query) throws SQLException {
         Driver driver = driverProvider.getDriver(connection);
         Properties properties = JDBCUtils.setJDBCAuth(connection);
-        properties.setProperty("allowMultiQueries", "true");
 
-        java.sql.Connection jdbcConnection = driver.connect(connection.getUrl(), properties);
-        jdbcConnection.createStatement().executeUpdate(query);
-        jdbcConnection.close();
+        // every DDL statement commits implicitly in MySQL, so statements are sent one by one to know where it stopped
+        try (java.sql.Connection jdbcConnection = driver.connect(connection.getUrl(), properties)) {
+            new DDLStatementPipeline(jdbcConnection).executeEach(DDLStatementParser.parse(query, DDLStatementParser.Dialect.MYSQL));
+        }
     }
 }
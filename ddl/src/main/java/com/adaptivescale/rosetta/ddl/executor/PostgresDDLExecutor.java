@@ -5,38 +5,137 @@ import com.adaptivescale.rosetta.common.JDBCUtils;
 import com.adaptivescale.rosetta.common.annotations.RosettaModule;
 import com.adaptivescale.rosetta.common.models.input.Connection;
 import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
+import com.adaptivescale.rosetta.ddl.ApplyOptions;
+import lombok.extern.slf4j.Slf4j;
 
 import java.sql.Driver;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Optional;
 import java.util.Properties;
 
+@Slf4j
 @RosettaModule(
         name = "postgres",
         type = RosettaModuleTypes.DDL_EXECUTOR
 )
 public class PostgresDDLExecutor implements DDLExecutor {
+    // lock_not_available, raised when lock_timeout expires
+    private static final String LOCK_NOT_AVAILABLE = "55P03";
+    private static final long RETRY_DELAY_MILLIS = 500;
+
     private final Connection connection;
     private final JDBCDriverProvider driverProvider;
+    private final Integer lockTimeoutMillis;
+    private final int lockTimeoutRetries;
 
     public PostgresDDLExecutor(Connection connection, JDBCDriverProvider driverProvider) {
+        this(connection, driverProvider, new ApplyOptions());
+    }
+
+    public PostgresDDLExecutor(Connection connection, JDBCDriverProvider driverProvider, ApplyOptions options) {
         this.connection = connection;
         this.driverProvider = driverProvider;
+        this.lockTimeoutMillis = options.getLockTimeoutMillis();
+        this.lockTimeoutRetries = options.getLockTimeoutRetries();
     }
 
     @Override
     public void execute(String query) throws SQLException {
         Driver driver = driverProvider.getDriver(connection);
         Properties properties = JDBCUtils.setJDBCAuth(connection);
-        properties.setProperty("allowMultiQueries", "true");
 
-        // Postgres supports transaction - wrapping the ddl in  transaction
-        StringBuilder transaction = new StringBuilder();
-        transaction.append("begin transaction;");
-        transaction.append(query);
-        transaction.append("commit;");
+        try (java.sql.Connection jdbcConnection = driver.connect(connection.getUrl(), properties)) {
+            // each transaction is committed before a statement that can not run in one, then a new one is opened
+            for (List<String> phase : PostgresStatementPhases.phases(DDLStatementParser.parse(query, DDLStatementParser.Dialect.POSTGRES))) {
+                if (PostgresStatementPhases.runsOutsideTransaction(phase.get(0))) {
+                    executeOutsideTransaction(jdbcConnection, phase.get(0));
+                } else {
+                    withLockTimeoutRetries(() -> executeInTransaction(jdbcConnection, phase));
+                }
+            }
+        }
+    }
+
+    // Postgres supports transactional DDL - the whole batch is applied or nothing
+    private void executeInTransaction(java.sql.Connection jdbcConnection, List<String> statements) throws SQLException {
+        jdbcConnection.setAutoCommit(false);
+        try {
+            if (lockTimeoutMillis != null) {
+                try (Statement statement = jdbcConnection.createStatement()) {
+                    statement.execute("SET LOCAL lock_timeout = '" + lockTimeoutMillis + "ms'");
+                }
+            }
+            new DDLStatementPipeline(jdbcConnection).executeBatch(statements);
+            jdbcConnection.commit();
+        } catch (SQLException e) {
+            jdbcConnection.rollback();
+            throw e;
+        }
+    }
+
+    private void executeOutsideTransaction(java.sql.Connection jdbcConnection, String statement) throws SQLException {
+        log.info("Applying a statement that can not run in a DDL transaction");
+        jdbcConnection.setAutoCommit(true);
+        if (lockTimeoutMillis != null) {
+            try (Statement setLockTimeout = jdbcConnection.createStatement()) {
+                setLockTimeout.execute("SET lock_timeout = '" + lockTimeoutMillis + "ms'");
+            }
+        }
+
+        DDLStatementPipeline pipeline = new DDLStatementPipeline(jdbcConnection);
+        Optional<String> dropLeftover = PostgresStatementPhases.dropLeftoverIndex(statement);
+        boolean[] retried = {false};
+        withLockTimeoutRetries(() -> {
+            if (retried[0] && dropLeftover.isPresent()) {
+                pipeline.executeEach(List.of(dropLeftover.get()));
+            }
+            retried[0] = true;
+            pipeline.executeEach(List.of(statement));
+        });
+    }
+
+    /**
+     * Runs the action again with increasing delay while it fails because a lock could not be acquired in time. A
+     * waiting DDL statement blocks every query queued behind it, so it is better to give up and retry than to wait.
+     */
+    private void withLockTimeoutRetries(SqlAction action) throws SQLException {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                action.run();
+                return;
+            } catch (SQLException e) {
+                if (attempt >= lockTimeoutRetries || !isLockTimeout(e)) {
+                    throw e;
+                }
+                long delay = RETRY_DELAY_MILLIS << attempt;
+                log.warn("Lock timeout, retrying in {} ms ({}/{}): {}", delay, attempt + 1, lockTimeoutRetries, e.getMessage());
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private static boolean isLockTimeout(SQLException exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException) {
+                for (SQLException next = (SQLException) cause; next != null; next = next.getNextException()) {
+                    if (LOCK_NOT_AVAILABLE.equals(next.getSQLState())) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
 
-        java.sql.Connection jdbcConnection = driver.connect(connection.getUrl(), properties);
-        jdbcConnection.createStatement().executeUpdate(transaction.toString());
-        jdbcConnection.close();
+    @FunctionalInterface
+    private interface SqlAction {
+        void run() throws SQLException;
     }
 }
@@ -0,0 +1,75 @@
+package com.adaptivescale.rosetta.ddl.executor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Classifies Postgres DDL statements into the ones applied in a DDL transaction and the ones that have to run outside
+ * of any, each on its own. Concurrent index builds can not run in a transaction block, and validating a foreign key in
+ * the transaction that added it would hold the strong lock of the ADD CONSTRAINT for the whole scan.
+ */
+public class PostgresStatementPhases {
+
+    private static final String IDENTIFIER = "(\"(?:[^\"]|\"\")+\"|[\\w$]+)";
+
+    private static final Pattern OUTSIDE_TRANSACTION = Pattern.compile(
+            "^\\s*(CREATE\\s+(UNIQUE\\s+)?INDEX\\s+CONCURRENTLY|DROP\\s+INDEX\\s+CONCURRENTLY|REINDEX\\b.*\\bCONCURRENTLY"
+                    + "|ALTER\\s+TABLE\\b.*\\bVALIDATE\\s+CONSTRAINT)\\b",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    private static final Pattern CREATE_INDEX_CONCURRENTLY = Pattern.compile(
+            "^\\s*CREATE\\s+(?:UNIQUE\\s+)?INDEX\\s+CONCURRENTLY\\s+(?:IF\\s+NOT\\s+EXISTS\\s+)?" + IDENTIFIER
+                    + "\\s+ON\\s+(?:ONLY\\s+)?(?:" + IDENTIFIER + "\\.)?",
+            Pattern.CASE_INSENSITIVE);
+
+    private PostgresStatementPhases() {
+    }
+
+    public static boolean runsOutsideTransaction(String statement) {
+        return OUTSIDE_TRANSACTION.matcher(statement).find();
+    }
+
+    /**
+     * Splits the statements into phases that keep their order, so a statement still runs after the ones it depends
+     * on, e.g. a foreign key after the unique index it references. Consecutive statements that can run in a
+     * transaction share a phase, every other statement is a phase of its own.
+     */
+    public static List<List<String>> phases(List<String> statements) {
+        List<List<String>> phases = new ArrayList<>();
+        List<String> transactional = new ArrayList<>();
+        for (String statement : statements) {
+            if (!runsOutsideTransaction(statement)) {
+                transactional.add(statement);
+                continue;
+            }
+            if (!transactional.isEmpty()) {
+                phases.add(transactional);
+                transactional = new ArrayList<>();
+            }
+            phases.add(List.of(statement));
+        }
+        if (!transactional.isEmpty()) {
+            phases.add(transactional);
+        }
+        return phases;
+    }
+
+    /**
+     * A failed concurrent index build leaves an invalid index behind which has to be dropped before the build is
+     * retried.
+     *
+     * @return statement dropping the index a CREATE INDEX CONCURRENTLY statement builds
+     */
+    public static Optional<String> dropLeftoverIndex(String statement) {
+        Matcher matcher = CREATE_INDEX_CONCURRENTLY.matcher(statement);
+        if (!matcher.find()) {
+            return Optional.empty();
+        }
+        // an index always lives in the schema of its table
+        String schema = matcher.group(2) == null ? "" : matcher.group(2) + ".";
+        return Optional.of("DROP INDEX CONCURRENTLY IF EXISTS " + schema + matcher.group(1));
+    }
+}
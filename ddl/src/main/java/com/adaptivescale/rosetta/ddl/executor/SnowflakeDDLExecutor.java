@@ -5,32 +5,65 @@ import com.adaptivescale.rosetta.common.JDBCUtils;
 import com.adaptivescale.rosetta.common.annotations.RosettaModule;
 import com.adaptivescale.rosetta.common.models.input.Connection;
 import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
+import com.adaptivescale.rosetta.ddl.ApplyOptions;
+import com.adaptivescale.rosetta.ddl.change.ChangeDependencyGraph;
+import com.adaptivescale.rosetta.ddl.change.ChangeHandler;
 
 import java.sql.Driver;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
 import java.util.Properties;
 
 @RosettaModule(
         name = "snowflake",
         type = RosettaModuleTypes.DDL_EXECUTOR
 )
-public class SnowflakeDDLExecutor implements DDLExecutor {
+public class SnowflakeDDLExecutor implements ConcurrentDDLExecutor {
     private final Connection connection;
     private final JDBCDriverProvider driverProvider;
+    private final int statementGroupSize;
 
     public SnowflakeDDLExecutor(Connection connection, JDBCDriverProvider driverProvider) {
+        this(connection, driverProvider, new ApplyOptions());
+    }
+
+    public SnowflakeDDLExecutor(Connection connection, JDBCDriverProvider driverProvider, ApplyOptions options) {
         this.connection = connection;
         this.driverProvider = driverProvider;
+        this.statementGroupSize = options.getStatementGroupSize();
     }
 
     @Override
     public void execute(String query) throws SQLException {
+        try (java.sql.Connection jdbcConnection = connect()) {
+            runStatements(jdbcConnection, DDLStatementParser.parse(query, DDLStatementParser.Dialect.SNOWFLAKE));
+        }
+    }
+
+    @Override
+    public void execute(ChangeDependencyGraph graph, ChangeHandler changeHandler, int maxConcurrency) throws SQLException {
+        new ConcurrentChangeApplier(this::connect, this::runStatements, DDLStatementParser.Dialect.SNOWFLAKE, maxConcurrency).apply(graph, changeHandler);
+    }
+
+    private java.sql.Connection connect() throws SQLException {
         Driver driver = driverProvider.getDriver(connection);
         Properties properties = JDBCUtils.setJDBCAuth(connection);
-
         java.sql.Connection jdbcConnection = driver.connect(connection.getUrl(), properties);
-        jdbcConnection.createStatement().execute("alter session set MULTI_STATEMENT_COUNT = 0;");
-        jdbcConnection.createStatement().executeUpdate(query);
-        jdbcConnection.close();
+        if (statementGroupSize > 1) {
+            try (Statement statement = jdbcConnection.createStatement()) {
+                // 0 accepts any number of statements per execute
+                statement.execute("ALTER SESSION SET MULTI_STATEMENT_COUNT = 0");
+            } catch (SQLException e) {
+                jdbcConnection.close();
+                throw e;
+            }
+        }
+        return jdbcConnection;
+    }
+
+    // every statement costs a round trip to the warehouse, so statements are sent as multi-statement groups
+    private void runStatements(java.sql.Connection jdbcConnection, List<String> statements) throws SQLException {
+        new DDLStatementPipeline(jdbcConnection).executeGrouped(statements, statementGroupSize);
     }
 }
@@ -8,8 +8,6 @@ import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
 
 import java.sql.Driver;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Properties;
 
 @RosettaModule(
@@ -25,36 +23,16 @@ public class SpannerDDLExecutor implements DDLExecutor {
         this.driverProvider = driverProvider;
     }
 
-    /**
-     * Sanitized query for Spanner and separates into statements
-     * @param query {@link String}
-     * @return {@link List<String>} query statements list
-     */
-    private List<String> parseQuery(String query) {
-        String sanitizedQuery = query.replaceAll("\r", "").replaceAll(";", ";\n");
-        String[] split = sanitizedQuery.split(";");
-        List<String> queryParts = new ArrayList<>();
-        for (String s : split) {
-            if(!s.trim().isEmpty()){
-                queryParts.add(s);
-            }
-        }
-        return queryParts;
-    }
-
     @Override
     public void execute(String query) throws SQLException {
 
         Driver driver = driverProvider.getDriver(connection);
         Properties properties = JDBCUtils.setJDBCAuth(connection);
 
-        java.sql.Connection jdbcConnection = driver.connect(connection.getUrl(), properties);
-        // Spanner does not allow multiple DDL statements in single query
-        List<String> queryParts = parseQuery(query);
-        for (String queryPart : queryParts) {
-            jdbcConnection.createStatement().executeUpdate(queryPart);
+        // Spanner does not allow multiple DDL statements in single query, but applies a DDL batch as one
+        // schema update which is much faster than a schema update per statement
+        try (java.sql.Connection jdbcConnection = driver.connect(connection.getUrl(), properties)) {
+            new DDLStatementPipeline(jdbcConnection).executeBatch(DDLStatementParser.parse(query, DDLStatementParser.Dialect.GOOGLE_SQL));
         }
-        jdbcConnection.close();
-
     }
 }
@@ -0,0 +1,12 @@
+package com.adaptivescale.rosetta.ddl.executor;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Dialect specific way of sending parsed statements over an open connection.
+ */
+@FunctionalInterface
+public interface StatementRunner {
+    void run(java.sql.Connection connection, List<String> statements) throws SQLException;
+}
@@ -0,0 +1,32 @@
+package com.adaptivescale.rosetta.ddl.executor;
+
+import java.sql.SQLException;
+
+/**
+ * Paces statements sent by {@link DDLStatementPipeline#executeEach(java.util.List)} and
+ * {@link DDLStatementPipeline#executeGrouped(java.util.List, int)} and decides whether a failed statement is sent again. Implementations are shared between connections and have to be thread safe.
+ */
+public interface StatementThrottle {
+
+    StatementThrottle NONE = new StatementThrottle() {
+        @Override
+        public void beforeStatement(String statement) {
+        }
+
+        @Override
+        public long retryDelayMillis(String statement, SQLException failure, int attempt) {
+            return -1;
+        }
+    };
+
+    /**
+     * Called before every attempt to send the statement, blocks until the statement may be sent.
+     */
+    void beforeStatement(String statement) throws InterruptedException;
+
+    /**
+     * @param attempt number of failed attempts so far, starting from 1
+     * @return milliseconds to wait before the statement is sent again, negative to fail
+     */
+    long retryDelayMillis(String statement, SQLException failure, int attempt);
+}
@@ -6,7 +6,9 @@ import com.adaptivescale.rosetta.common.models.Database;
 import com.adaptivescale.rosetta.common.models.ForeignKey;
 import com.adaptivescale.rosetta.common.models.Table;
 import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
+import com.adaptivescale.rosetta.ddl.AlterTableClause;
 import com.adaptivescale.rosetta.ddl.DDL;
+import com.adaptivescale.rosetta.ddl.change.model.Change;
 import com.adaptivescale.rosetta.ddl.change.model.ColumnChange;
 import com.adaptivescale.rosetta.ddl.change.model.ForeignKeyChange;
 import com.adaptivescale.rosetta.ddl.targets.ColumnSQLDecoratorFactory;
@@ -62,7 +64,20 @@ public class BigQueryDDLGenerator implements DDL {
                 .append("`")
                 .append("(")
                 .append(definitionAsString)
-                .append(");");
+                .append(")");
+
+        if (table.getPartitionBy() != null && !table.getPartitionBy().isBlank()) {
+            builder.append(" PARTITION BY ").append(table.getPartitionBy());
+        }
+        if (table.getClusterBy() != null && !table.getClusterBy().isEmpty()) {
+            builder.append(" CLUSTER BY ").append(table.getClusterBy().stream()
+                    .map(column -> "`" + column + "`")
+                    .collect(Collectors.joining(", ")));
+        }
+        if (table.getPartitionExpirationDays() != null) {
+            builder.append(" OPTIONS(").append(partitionExpirationOption(table.getPartitionExpirationDays())).append(")");
+        }
+        builder.append(";");
 
         return builder.toString();
     }
@@ -131,6 +146,29 @@ public class BigQueryDDLGenerator implements DDL {
         return String.format("ALTER TABLE %s.%s ADD COLUMN %s;", change.getTable().getSchema(), change.getTable().getName(), columnNameWithType);
     }
 
+    // every ALTER TABLE counts against the table metadata update rate limit, BigQuery accepts several ADD COLUMN or
+    // several DROP COLUMN clauses in one statement but not both kinds together
+    @Override
+    public Set<AlterTableClause> combinableAlterTableClauses() {
+        return EnumSet.of(AlterTableClause.ADD_COLUMN, AlterTableClause.DROP_COLUMN);
+    }
+
+    @Override
+    public boolean mixedAlterTableClauses() {
+        return false;
+    }
+
+    @Override
+    public String combinedAlterTable(Table table, List<Change<?>> changes) {
+        String clauses = changes.stream()
+                .map(change -> (ColumnChange) change)
+                .map(change -> change.getStatus() == Change.Status.DROP
+                        ? "DROP COLUMN " + change.getActual().getName()
+                        : "ADD COLUMN " + columnSQLDecoratorFactory.decoratorFor(change.getExpected()).expressSQl())
+                .collect(Collectors.joining(", "));
+        return String.format("ALTER TABLE %s.%s %s;", table.getSchema(), table.getName(), clauses);
+    }
+
 
 
     @Override
@@ -138,6 +176,17 @@ public class BigQueryDDLGenerator implements DDL {
         return String.format("DROP TABLE %s.%s;", actual.getSchema(), actual.getName());
     }
 
+    @Override
+    public String renameTable(Table expected, Table actual) {
+        return String.format("ALTER TABLE %s.%s RENAME TO %s;", actual.getSchema(), actual.getName(), expected.getName());
+    }
+
+    @Override
+    public String renameColumn(ColumnChange change) {
+        return String.format("ALTER TABLE %s.%s RENAME COLUMN %s TO %s;", change.getTable().getSchema(),
+                change.getTable().getName(), change.getActual().getName(), change.getExpected().getName());
+    }
+
     @Override
     public String createForeignKey(ForeignKey foreignKey) {
         return null;
@@ -157,4 +206,27 @@ public class BigQueryDDLGenerator implements DDL {
     public String alterTable(Table expected, Table actual) {
         return null;
     }
+
+    // partitioning and clustering can not be changed by DDL, BigQueryChangeFinder only reports partition expiration
+    @Override
+    public String alterTableOptions(Table expected, Table actual) {
+        if (actual == null || Objects.equals(expected.getPartitionExpirationDays(), actual.getPartitionExpirationDays())) {
+            return "";
+        }
+        return String.format("ALTER TABLE %s.%s SET OPTIONS(%s);", expected.getSchema(), expected.getName(),
+                partitionExpirationOption(expected.getPartitionExpirationDays()));
+    }
+
+    // NULL removes the expiration
+    private static String partitionExpirationOption(Double days) {
+        String value;
+        if (days == null) {
+            value = "NULL";
+        } else if (days == Math.rint(days)) {
+            value = String.valueOf(days.longValue());
+        } else {
+            value = String.valueOf(days);
+        }
+        return "partition_expiration_days=" + value;
+    }
 }
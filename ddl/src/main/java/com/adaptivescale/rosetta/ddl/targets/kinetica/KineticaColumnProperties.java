@@ -0,0 +1,27 @@
+package com.adaptivescale.rosetta.ddl.targets.kinetica;
+
+import com.adaptivescale.rosetta.common.models.Column;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Compares Kinetica column properties. Kinetica shows them in lower case and in its own order.
+ */
+public class KineticaColumnProperties {
+
+    private KineticaColumnProperties() {
+    }
+
+    public static boolean same(Column expected, Column actual) {
+        return normalize(expected.getProperties()).equals(normalize(actual.getProperties()));
+    }
+
+    private static Set<String> normalize(List<String> properties) {
+        if (properties == null) {
+            return Set.of();
+        }
+        return properties.stream().map(property -> property.trim().toLowerCase()).collect(Collectors.toSet());
+    }
+}
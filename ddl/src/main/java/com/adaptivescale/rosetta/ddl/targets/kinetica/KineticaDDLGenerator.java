@@ -6,13 +6,17 @@ import com.adaptivescale.rosetta.common.models.Database;
 import com.adaptivescale.rosetta.common.models.ForeignKey;
 import com.adaptivescale.rosetta.common.models.Table;
 import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
+import com.adaptivescale.rosetta.ddl.AlterTableClause;
 import com.adaptivescale.rosetta.ddl.DDL;
+import com.adaptivescale.rosetta.ddl.change.model.Change;
 import com.adaptivescale.rosetta.ddl.change.model.ColumnChange;
 import com.adaptivescale.rosetta.ddl.change.model.ForeignKeyChange;
 import com.adaptivescale.rosetta.ddl.targets.ColumnSQLDecoratorFactory;
 import lombok.extern.slf4j.Slf4j;
 
 import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -41,6 +45,11 @@ public class KineticaDDLGenerator implements DDL {
 
         Optional<String> primaryKeysForTable = createPrimaryKeysForTable(table);
         primaryKeysForTable.ifPresent(definitions::add);
+        if (table.getShardKey() != null && !table.getShardKey().isEmpty()) {
+            definitions.add("SHARD KEY (" + table.getShardKey().stream()
+                    .map(column -> DEFAULT_WRAPPER + column + DEFAULT_WRAPPER)
+                    .collect(Collectors.joining(", ")) + ")");
+        }
         String definitionAsString = String.join(", ", definitions);
 
         StringBuilder stringBuilder = new StringBuilder();
@@ -52,14 +61,18 @@ public class KineticaDDLGenerator implements DDL {
             stringBuilder.append(DEFAULT_WRAPPER).append(table.getName()).append(DEFAULT_WRAPPER).append("; \n");
         }
 
-        stringBuilder.append("CREATE TABLE ");
+        stringBuilder.append(Boolean.TRUE.equals(table.getReplicated()) ? "CREATE REPLICATED TABLE " : "CREATE TABLE ");
 
         if (table.getSchema() != null && !table.getSchema().isBlank()) {
             stringBuilder.append(DEFAULT_WRAPPER)
                     .append(table.getSchema()).append(DEFAULT_WRAPPER).append(".");
         }
 
-        stringBuilder.append(DEFAULT_WRAPPER).append(table.getName()).append(DEFAULT_WRAPPER).append("(").append(definitionAsString).append(");");
+        stringBuilder.append(DEFAULT_WRAPPER).append(table.getName()).append(DEFAULT_WRAPPER).append("(").append(definitionAsString).append(")");
+        if (table.getTierStrategy() != null && !table.getTierStrategy().isBlank()) {
+            stringBuilder.append(" TIER STRATEGY (").append(table.getTierStrategy()).append(")");
+        }
+        stringBuilder.append(";");
         return stringBuilder.toString();
     }
 
@@ -110,41 +123,80 @@ public class KineticaDDLGenerator implements DDL {
     @Override
     public String alterColumn(ColumnChange change) {
         Table table = change.getTable();
-        Column actual = change.getActual();
-        Column expected = change.getExpected();
-
-        if (!Objects.equals(expected.getTypeName(), actual.getTypeName())
-                || !Objects.equals(expected.isNullable(), actual.isNullable())) {
-            return String.format("ALTER TABLE%s MODIFY %s;",
-                    handleNullSchema(table.getSchema(), table.getName()),
-                    columnSQLDecoratorFactory.decoratorFor(expected).expressSQl());
+        String clause = alterColumnClause(change);
+        if (clause == null) {
+            return "";
         }
-
-        log.info("No action taken for changes detected in column: {}.{}.{}", change.getTable().getSchema(),
-                change.getTable().getName(),
-                expected.getName());
-        return "";
+        return "ALTER TABLE" + handleNullSchema(table.getSchema(), table.getName()) + " " + clause + ";";
     }
 
     @Override
     public String dropColumn(ColumnChange change) {
         Table table = change.getTable();
-        Column actual = change.getActual();
-
-        return "ALTER TABLE" +
-                handleNullSchema(table.getSchema(), table.getName()) + " DROP COLUMN "+ DEFAULT_WRAPPER +
-                actual.getName() + DEFAULT_WRAPPER +";";
+        return "ALTER TABLE" + handleNullSchema(table.getSchema(), table.getName()) + " " + dropColumnClause(change) + ";";
     }
 
     @Override
     public String addColumn(ColumnChange change) {
         Table table = change.getTable();
+        return "ALTER TABLE" + handleNullSchema(table.getSchema(), table.getName()) + " " + addColumnClause(change) + ";";
+    }
+
+    // column modifications may rewrite the table, the primary key is left out as it is rebuilt separately
+    @Override
+    public Set<AlterTableClause> combinableAlterTableClauses() {
+        return EnumSet.of(AlterTableClause.ADD_COLUMN, AlterTableClause.DROP_COLUMN, AlterTableClause.ALTER_COLUMN);
+    }
+
+    @Override
+    public String combinedAlterTable(Table table, List<Change<?>> changes) {
+        List<String> clauses = new ArrayList<>();
+        for (Change<?> change : changes) {
+            String clause = alterTableClause((ColumnChange) change);
+            if (clause != null && !clause.isEmpty()) {
+                clauses.add(clause);
+            }
+        }
+        if (clauses.isEmpty()) {
+            return "";
+        }
+        return "ALTER TABLE" + handleNullSchema(table.getSchema(), table.getName()) + " " + String.join(", ", clauses) + ";";
+    }
+
+    private String alterTableClause(ColumnChange change) {
+        switch (change.getStatus()) {
+            case ADD:
+                return addColumnClause(change);
+            case DROP:
+                return dropColumnClause(change);
+            case ALTER:
+            default:
+                return alterColumnClause(change);
+        }
+    }
+
+    private String addColumnClause(ColumnChange change) {
+        return "ADD COLUMN " + columnSQLDecoratorFactory.decoratorFor(change.getExpected()).expressSQl();
+    }
+
+    private String dropColumnClause(ColumnChange change) {
+        return "DROP COLUMN " + DEFAULT_WRAPPER + change.getActual().getName() + DEFAULT_WRAPPER;
+    }
+
+    private String alterColumnClause(ColumnChange change) {
+        Column actual = change.getActual();
         Column expected = change.getExpected();
 
-        return "ALTER TABLE" +
-                handleNullSchema(table.getSchema(), table.getName()) +
-                " ADD COLUMN " +
-                columnSQLDecoratorFactory.decoratorFor(expected).expressSQl() + ";";
+        if (!Objects.equals(expected.getTypeName(), actual.getTypeName())
+                || !Objects.equals(expected.isNullable(), actual.isNullable())
+                || !KineticaColumnProperties.same(expected, actual)) {
+            return "MODIFY " + columnSQLDecoratorFactory.decoratorFor(expected).expressSQl();
+        }
+
+        log.info("No action taken for changes detected in column: {}.{}.{}", change.getTable().getSchema(),
+                change.getTable().getName(),
+                expected.getName());
+        return null;
     }
 
     @Override
@@ -152,6 +204,20 @@ public class KineticaDDLGenerator implements DDL {
         return "DROP TABLE" + handleNullSchema(actual.getSchema(), actual.getName()) + ";";
     }
 
+    @Override
+    public String renameTable(Table expected, Table actual) {
+        return "ALTER TABLE" + handleNullSchema(actual.getSchema(), actual.getName()) + " RENAME TO "
+                + DEFAULT_WRAPPER + expected.getName() + DEFAULT_WRAPPER + ";";
+    }
+
+    @Override
+    public String renameColumn(ColumnChange change) {
+        Table table = change.getTable();
+        return "ALTER TABLE" + handleNullSchema(table.getSchema(), table.getName()) + " RENAME COLUMN "
+                + DEFAULT_WRAPPER + change.getActual().getName() + DEFAULT_WRAPPER + " TO "
+                + DEFAULT_WRAPPER + change.getExpected().getName() + DEFAULT_WRAPPER + ";";
+    }
+
     @Override
     public String alterForeignKey(ForeignKeyChange change) {
         return "";
@@ -164,6 +230,12 @@ public class KineticaDDLGenerator implements DDL {
 
     @Override
     public String alterTable(Table expected, Table actual) {
+        boolean sameTierStrategy = Objects.equals(expected.getTierStrategy(), actual.getTierStrategy());
+        // the primary key is unchanged when only the tier strategy differs
+        if (Objects.equals(createPrimaryKeysForTable(expected), createPrimaryKeysForTable(actual))) {
+            return sameTierStrategy ? "" : alterTierStrategy(expected);
+        }
+
         boolean doesPKExist = actual.getColumns().stream().map(Column::isPrimaryKey).reduce((aBoolean, aBoolean2) -> aBoolean || aBoolean2).orElse(false);
         boolean doWeNeedToCreatePk = expected.getColumns().stream().map(Column::isPrimaryKey).reduce((aBoolean, aBoolean2) -> aBoolean || aBoolean2).orElse(false);
 
@@ -185,9 +257,20 @@ public class KineticaDDLGenerator implements DDL {
         }
 
         stringBuilder.append(";");
+        if (!sameTierStrategy) {
+            stringBuilder.append("\r").append(alterTierStrategy(expected));
+        }
         return stringBuilder.toString();
     }
 
+    private String alterTierStrategy(Table expected) {
+        if (expected.getTierStrategy() == null || expected.getTierStrategy().isBlank()) {
+            return "ALTER TABLE" + handleNullSchema(expected.getSchema(), expected.getName()) + " RESET TIER STRATEGY;";
+        }
+        return "ALTER TABLE" + handleNullSchema(expected.getSchema(), expected.getName())
+                + " SET TIER STRATEGY (" + expected.getTierStrategy() + ");";
+    }
+
     private Optional<String> createPrimaryKeysForTable(Table table) {
         List<String> primaryKeys = table
                 .getColumns()
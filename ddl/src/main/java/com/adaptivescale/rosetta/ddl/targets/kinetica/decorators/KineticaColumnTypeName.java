@@ -3,6 +3,9 @@ package com.adaptivescale.rosetta.ddl.targets.kinetica.decorators;
 import com.adaptivescale.rosetta.common.models.Column;
 import com.adaptivescale.rosetta.ddl.targets.ColumnDataTypeName;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static com.adaptivescale.rosetta.ddl.targets.kinetica.Constants.PRECISION_DEFAULTS;
 import static com.adaptivescale.rosetta.ddl.targets.kinetica.Constants.PRECISION_TYPES;
 
@@ -11,8 +14,17 @@ public class KineticaColumnTypeName implements ColumnDataTypeName {
     public String nameForColumn(Column column) {
         StringBuilder builder = new StringBuilder();
         builder.append(ColumnDataTypeName.super.nameForColumn(column));
+
+        // column properties are written with the size, e.g. VARCHAR(32, dict)
+        List<String> arguments = new ArrayList<>();
         if ( !PRECISION_DEFAULTS.contains(column.getPrecision()) && PRECISION_TYPES.contains(column.getTypeName().toLowerCase())) {
-            builder.append("(").append(column.getPrecision()).append(")");
+            arguments.add(String.valueOf(column.getPrecision()));
+        }
+        if (column.getProperties() != null) {
+            arguments.addAll(column.getProperties());
+        }
+        if (!arguments.isEmpty()) {
+            builder.append("(").append(String.join(", ", arguments)).append(")");
         }
         return builder.toString();
     }
@@ -0,0 +1,86 @@
+package com.adaptivescale.rosetta.ddl.targets.mysql;
+
+import com.adaptivescale.rosetta.common.models.Column;
+import com.adaptivescale.rosetta.common.models.Table;
+import com.adaptivescale.rosetta.ddl.change.model.Change;
+import com.adaptivescale.rosetta.ddl.change.model.ColumnChange;
+
+import java.util.Objects;
+
+/**
+ * InnoDB algorithms for ALTER TABLE, ordered from least to most blocking. A statement with several clauses runs with
+ * the most blocking algorithm any of its clauses needs.
+ */
+public enum MySqlAlterAlgorithm {
+    // metadata only change
+    INSTANT,
+    // table may be rebuilt in place while concurrent reads and writes continue (LOCK=NONE)
+    INPLACE,
+    // table is copied and writes are blocked until the copy is done
+    COPY;
+
+    /**
+     * @return algorithm the change needs or null if the change is not applied through ALTER TABLE
+     */
+    public static MySqlAlterAlgorithm of(Change<?> change) {
+        switch (change.getType()) {
+            case COLUMN:
+                return ofColumnChange((ColumnChange) change);
+            case TABLE:
+                if (change.getStatus() != Change.Status.ALTER) {
+                    return null;
+                }
+                // dropping the primary key without adding a new one needs a table copy
+                return hasPrimaryKey((Table) change.getExpected()) ? INPLACE : COPY;
+            case FOREIGN_KEY:
+                switch (change.getStatus()) {
+                    case DROP:
+                        return INPLACE;
+                    case ADD:
+                        // in place only if foreign_key_checks is disabled, which we do not rely on
+                        return COPY;
+                    default:
+                        return null;
+                }
+            case INDEX:
+                return change.getStatus() == Change.Status.ALTER ? null : INPLACE;
+            default:
+                return null;
+        }
+    }
+
+    public MySqlAlterAlgorithm max(MySqlAlterAlgorithm other) {
+        return other == null || compareTo(other) >= 0 ? this : other;
+    }
+
+    private static MySqlAlterAlgorithm ofColumnChange(ColumnChange change) {
+        switch (change.getStatus()) {
+            case ADD:
+                // columns are appended last which is instant since 8.0.12, unless they are auto increment
+                return change.getExpected().isAutoincrement() ? COPY : INSTANT;
+            case DROP:
+                // instant only since 8.0.29, in place works on every 8.0 server
+                return INPLACE;
+            case RENAME:
+                // instant only since 8.0.28, in place works on every 8.0 server
+                return INPLACE;
+            case ALTER:
+                Column expected = change.getExpected();
+                Column actual = change.getActual();
+                if (!Objects.equals(expected.getTypeName(), actual.getTypeName())) {
+                    return COPY;
+                }
+                if (!Objects.equals(expected.isNullable(), actual.isNullable())) {
+                    return INPLACE;
+                }
+                // no statement is generated for any other difference
+                return null;
+            default:
+                return null;
+        }
+    }
+
+    private static boolean hasPrimaryKey(Table table) {
+        return table.getColumns().stream().anyMatch(Column::isPrimaryKey);
+    }
+}
@@ -1,18 +1,27 @@
 package com.adaptivescale.rosetta.ddl.targets.mysql;
 
+import com.adaptivescale.rosetta.common.IndexUtils;
 import com.adaptivescale.rosetta.common.annotations.RosettaModule;
 import com.adaptivescale.rosetta.common.models.Column;
 import com.adaptivescale.rosetta.common.models.Database;
 import com.adaptivescale.rosetta.common.models.ForeignKey;
+import com.adaptivescale.rosetta.common.models.Index;
 import com.adaptivescale.rosetta.common.models.Table;
 import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
+import com.adaptivescale.rosetta.ddl.AlterTableClause;
+import com.adaptivescale.rosetta.ddl.ApplyOptions;
 import com.adaptivescale.rosetta.ddl.DDL;
+import com.adaptivescale.rosetta.ddl.change.model.Change;
+import com.adaptivescale.rosetta.ddl.change.model.ChangeFactory;
 import com.adaptivescale.rosetta.ddl.change.model.ColumnChange;
 import com.adaptivescale.rosetta.ddl.change.model.ForeignKeyChange;
+import com.adaptivescale.rosetta.ddl.change.model.TableChange;
 import com.adaptivescale.rosetta.ddl.targets.ColumnSQLDecoratorFactory;
 import lombok.extern.slf4j.Slf4j;
 
 import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -27,6 +36,15 @@ import java.util.stream.Collectors;
 public class MySqlDDLGenerator implements DDL {
 
     private final ColumnSQLDecoratorFactory columnSQLDecoratorFactory = new MySqlColumnDecoratorFactory();
+    private final MySqlOnlineSchemaChange onlineSchemaChange;
+
+    public MySqlDDLGenerator() {
+        this(new ApplyOptions());
+    }
+
+    public MySqlDDLGenerator(ApplyOptions options) {
+        this.onlineSchemaChange = new MySqlOnlineSchemaChange(options);
+    }
 
     @Override
     public String createColumn(Column column) {
@@ -39,6 +57,7 @@ public class MySqlDDLGenerator implements DDL {
 
         Optional<String> primaryKeysForTable = createPrimaryKeysForTable(table);
         primaryKeysForTable.ifPresent(definitions::add);
+        IndexUtils.secondaryIndices(table).stream().map(this::indexDefinition).forEach(definitions::add);
         String definitionAsString = String.join(", ", definitions);
 
         StringBuilder stringBuilder = new StringBuilder();
@@ -99,37 +118,31 @@ public class MySqlDDLGenerator implements DDL {
 
     @Override
     public String createForeignKey(ForeignKey foreignKey) {
+        String algorithmClause = onlineSchemaChange.algorithmClause(
+                List.of(ChangeFactory.foreignKeyChange(foreignKey, null, Change.Status.ADD)));
+        return foreignKeyStatement(foreignKey, algorithmClause);
+    }
+
+    private String foreignKeyStatement(ForeignKey foreignKey, String algorithmClause) {
         return "ALTER TABLE" + handleNullSchema(foreignKey.getSchema(), foreignKey.getTableName()) + " ADD CONSTRAINT "
                 + foreignKey.getName() + " FOREIGN KEY (`" + foreignKey.getColumnName() + "`) REFERENCES "
                 + handleNullSchema(foreignKey.getPrimaryTableSchema(), foreignKey.getPrimaryTableName())
                 + "(`" + foreignKey.getPrimaryColumnName() + "`)"
-                + foreignKeyDeleteRuleSanitation(foreignKeyDeleteRule(foreignKey)) + ";\r";
+                + foreignKeyDeleteRuleSanitation(foreignKeyDeleteRule(foreignKey)) + algorithmClause + ";\r";
     }
 
     //use this to handle primary keys
     @Override
     public String alterTable(Table expected, Table actual) {
-
-        boolean doesPKExist = actual.getColumns().stream().map(Column::isPrimaryKey).reduce((aBoolean, aBoolean2) -> aBoolean || aBoolean2).orElse(false);
-        boolean doWeNeedToCreatePk = expected.getColumns().stream().map(Column::isPrimaryKey).reduce((aBoolean, aBoolean2) -> aBoolean || aBoolean2).orElse(false);
+        String primaryKeyClause = primaryKeyClause(expected, actual);
 
         StringBuilder stringBuilder = new StringBuilder("ALTER TABLE")
                 .append(handleNullSchema(expected.getSchema(), expected.getName()));
-
-        if (doesPKExist) {
-            stringBuilder.append(" DROP PRIMARY KEY");
-        }
-
-        if (doWeNeedToCreatePk) {
-            Optional<String> primaryKeysForTable = createPrimaryKeysForTable(expected);
-            if (primaryKeysForTable.isPresent()) {
-                if (doesPKExist) {
-                    stringBuilder.append(",");
-                }
-                stringBuilder.append(" ADD ").append(primaryKeysForTable.get());
-            }
+        if (!primaryKeyClause.isEmpty()) {
+            stringBuilder.append(" ").append(primaryKeyClause)
+                    .append(onlineSchemaChange.algorithmClause(
+                            List.of(ChangeFactory.tableChange(expected, actual, Change.Status.ALTER))));
         }
-
         stringBuilder.append(";");
         return stringBuilder.toString();
     }
@@ -137,47 +150,121 @@ public class MySqlDDLGenerator implements DDL {
     @Override
     public String alterColumn(ColumnChange change) {
         Table table = change.getTable();
+        String clause = alterColumnClause(change);
+        if (clause == null) {
+            return "";
+        }
+        return "ALTER TABLE" + handleNullSchema(table.getSchema(), table.getName()) + " " + clause
+                + onlineSchemaChange.algorithmClause(List.of(change)) + ";";
+    }
+
+    @Override
+    public String dropColumn(ColumnChange change) {
+        Table table = change.getTable();
+        return "ALTER TABLE" + handleNullSchema(table.getSchema(), table.getName()) + " " + dropColumnClause(change)
+                + onlineSchemaChange.algorithmClause(List.of(change)) + ";";
+    }
+
+    @Override
+    public String addColumn(ColumnChange change) {
+        Table table = change.getTable();
+        return "ALTER TABLE" + handleNullSchema(table.getSchema(), table.getName()) + " " + addColumnClause(change)
+                + onlineSchemaChange.algorithmClause(List.of(change)) + ";";
+    }
+
+    // every ALTER TABLE may rebuild the table, so all column and key changes of a table go into one statement
+    @Override
+    public Set<AlterTableClause> combinableAlterTableClauses() {
+        return EnumSet.allOf(AlterTableClause.class);
+    }
+
+    @Override
+    public String combinedAlterTable(Table table, List<Change<?>> changes) {
+        List<String> clauses = new ArrayList<>();
+        for (Change<?> change : changes) {
+            String clause = alterTableClause(change);
+            if (clause != null && !clause.isEmpty()) {
+                clauses.add(clause);
+            }
+        }
+        if (clauses.isEmpty()) {
+            return "";
+        }
+        return "ALTER TABLE" + handleNullSchema(table.getSchema(), table.getName()) + " " + String.join(", ", clauses)
+                + onlineSchemaChange.algorithmClause(changes) + ";";
+    }
+
+    private String alterTableClause(Change<?> change) {
+        switch (AlterTableClause.of(change)) {
+            case ADD_COLUMN:
+                return addColumnClause((ColumnChange) change);
+            case DROP_COLUMN:
+                return dropColumnClause((ColumnChange) change);
+            case ALTER_COLUMN:
+                return alterColumnClause((ColumnChange) change);
+            case PRIMARY_KEY:
+                TableChange tableChange = (TableChange) change;
+                return primaryKeyClause(tableChange.getExpected(), tableChange.getActual());
+            default:
+                throw new RuntimeException("Change " + change.getType() + " can not be part of ALTER TABLE");
+        }
+    }
+
+    private String addColumnClause(ColumnChange change) {
+        return "ADD COLUMN " + columnSQLDecoratorFactory.decoratorFor(change.getExpected()).expressSQl();
+    }
+
+    private String dropColumnClause(ColumnChange change) {
+        return "DROP COLUMN `" + change.getActual().getName() + "`";
+    }
+
+    private String alterColumnClause(ColumnChange change) {
         Column actual = change.getActual();
         Column expected = change.getExpected();
 
         if (!Objects.equals(expected.getTypeName(), actual.getTypeName())
                 || !Objects.equals(expected.isNullable(), actual.isNullable())) {
-            return String.format("ALTER TABLE%s MODIFY %s;",
-                    handleNullSchema(table.getSchema(), table.getName()),
-                    columnSQLDecoratorFactory.decoratorFor(expected).expressSQl());
+            return "MODIFY " + columnSQLDecoratorFactory.decoratorFor(expected).expressSQl();
         }
 
         log.info("No action taken for changes detected in column: {}.{}.{}", change.getTable().getSchema(),
                 change.getTable().getName(),
                 expected.getName());
-        return "";
+        return null;
     }
 
-    @Override
-    public String dropColumn(ColumnChange change) {
-        Table table = change.getTable();
-        Column actual = change.getActual();
+    private String primaryKeyClause(Table expected, Table actual) {
+        boolean doesPKExist = actual.getColumns().stream().map(Column::isPrimaryKey).reduce((aBoolean, aBoolean2) -> aBoolean || aBoolean2).orElse(false);
+        boolean doWeNeedToCreatePk = expected.getColumns().stream().map(Column::isPrimaryKey).reduce((aBoolean, aBoolean2) -> aBoolean || aBoolean2).orElse(false);
 
-        return "ALTER TABLE" +
-                handleNullSchema(table.getSchema(), table.getName()) + " DROP COLUMN `" +
-                actual.getName() + "`;";
+        List<String> clauses = new ArrayList<>();
+        if (doesPKExist) {
+            clauses.add("DROP PRIMARY KEY");
+        }
+        if (doWeNeedToCreatePk) {
+            createPrimaryKeysForTable(expected).ifPresent(primaryKey -> clauses.add("ADD " + primaryKey));
+        }
+        return String.join(", ", clauses);
     }
 
-    @Override
-    public String addColumn(ColumnChange change) {
-        Table table = change.getTable();
-        Column expected = change.getExpected();
 
-        return "ALTER TABLE" +
-                handleNullSchema(table.getSchema(), table.getName()) +
-                " ADD COLUMN " +
-                columnSQLDecoratorFactory.decoratorFor(expected).expressSQl() + ";";
+    @Override
+    public String dropTable(Table actual) {
+        return "DROP TABLE" + handleNullSchema(actual.getSchema(), actual.getName()) + ";";
     }
 
+    @Override
+    public String renameTable(Table expected, Table actual) {
+        return "ALTER TABLE" + handleNullSchema(actual.getSchema(), actual.getName()) + " RENAME TO"
+                + handleNullSchema(expected.getSchema(), expected.getName()) + ";";
+    }
 
     @Override
-    public String dropTable(Table actual) {
-        return "DROP TABLE" + handleNullSchema(actual.getSchema(), actual.getName()) + ";";
+    public String renameColumn(ColumnChange change) {
+        Table table = change.getTable();
+        return "ALTER TABLE" + handleNullSchema(table.getSchema(), table.getName()) + " RENAME COLUMN `"
+                + change.getActual().getName() + "` TO `" + change.getExpected().getName() + "`"
+                + onlineSchemaChange.algorithmClause(List.of(change)) + ";";
     }
 
     @Override
@@ -185,9 +272,27 @@ public class MySqlDDLGenerator implements DDL {
         return "";
     }
 
+    @Override
+    public String createIndex(Index index) {
+        return "ALTER TABLE" + handleNullSchema(index.getSchema(), index.getTableName()) + " ADD " + indexDefinition(index)
+                + onlineSchemaChange.algorithmClause(List.of(ChangeFactory.indexChange(index, null, Change.Status.ADD))) + ";";
+    }
+
+    @Override
+    public String dropIndex(Index actual) {
+        return "ALTER TABLE" + handleNullSchema(actual.getSchema(), actual.getTableName()) + " DROP INDEX `" + actual.getName() + "`"
+                + onlineSchemaChange.algorithmClause(List.of(ChangeFactory.indexChange(null, actual, Change.Status.DROP))) + ";";
+    }
+
+    private String indexDefinition(Index index) {
+        String columns = index.getColumnNames().stream().map(column -> "`" + column + "`").collect(Collectors.joining(", "));
+        return (IndexUtils.isUnique(index) ? "UNIQUE " : "") + "INDEX `" + index.getName() + "` (" + columns + ")";
+    }
+
     @Override
     public String dropForeignKey(ForeignKey actual) {
-        return "ALTER TABLE" + handleNullSchema(actual.getSchema(), actual.getTableName()) + " DROP FOREIGN KEY `" + actual.getName() + "`;";
+        return "ALTER TABLE" + handleNullSchema(actual.getSchema(), actual.getTableName()) + " DROP FOREIGN KEY `" + actual.getName() + "`"
+                + onlineSchemaChange.algorithmClause(List.of(ChangeFactory.foreignKeyChange(null, actual, Change.Status.DROP))) + ";";
     }
 
 
@@ -217,7 +322,8 @@ public class MySqlDDLGenerator implements DDL {
 
     //ALTER TABLE rosetta.contacts ADD CONSTRAINT contacts_fk FOREIGN KEY (contact_id) REFERENCES rosetta."user"(user_id);
     private String createForeignKeys(Column column) {
-        return column.getForeignKeys().stream().map(this::createForeignKey).collect(Collectors.joining());
+        // tables of a new database are empty, there is nothing to apply online
+        return column.getForeignKeys().stream().map(foreignKey -> foreignKeyStatement(foreignKey, "")).collect(Collectors.joining());
     }
 
     private String handleNullSchema(String schema, String tableName) {
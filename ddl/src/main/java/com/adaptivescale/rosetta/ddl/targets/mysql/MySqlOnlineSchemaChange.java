@@ -0,0 +1,95 @@
+package com.adaptivescale.rosetta.ddl.targets.mysql;
+
+import com.adaptivescale.rosetta.common.models.Column;
+import com.adaptivescale.rosetta.common.models.ForeignKey;
+import com.adaptivescale.rosetta.common.models.Index;
+import com.adaptivescale.rosetta.common.models.Table;
+import com.adaptivescale.rosetta.ddl.ApplyOptions;
+import com.adaptivescale.rosetta.ddl.change.model.Change;
+import com.adaptivescale.rosetta.ddl.change.model.ColumnChange;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Renders the ALGORITHM and LOCK clause of an ALTER TABLE in online mode. With an explicit algorithm MySQL fails the
+ * statement instead of silently falling back to a blocking table copy. Changes that can only be applied with
+ * ALGORITHM=COPY are refused, or applied with a warning if blocking changes are allowed.
+ */
+@Slf4j
+public class MySqlOnlineSchemaChange {
+
+    private final boolean online;
+    private final boolean allowBlockingChanges;
+
+    public MySqlOnlineSchemaChange(ApplyOptions options) {
+        this.online = options.isOnline();
+        this.allowBlockingChanges = options.isAllowBlockingChanges();
+    }
+
+    /**
+     * @param changes changes applied by one ALTER TABLE statement
+     * @return clause to append to the statement, starting with a comma, or an empty string
+     */
+    public String algorithmClause(List<? extends Change<?>> changes) {
+        if (!online) {
+            return "";
+        }
+
+        MySqlAlterAlgorithm algorithm = null;
+        for (Change<?> change : changes) {
+            MySqlAlterAlgorithm changeAlgorithm = MySqlAlterAlgorithm.of(change);
+            if (changeAlgorithm != null) {
+                algorithm = changeAlgorithm.max(algorithm);
+            }
+        }
+        if (algorithm == null) {
+            return "";
+        }
+
+        switch (algorithm) {
+            case INSTANT:
+                // INSTANT does not take a lock, MySQL rejects any LOCK clause other than DEFAULT with it
+                return ", ALGORITHM=INSTANT";
+            case INPLACE:
+                return ", ALGORITHM=INPLACE, LOCK=NONE";
+            case COPY:
+            default:
+                String blocking = changes.stream()
+                        .filter(change -> MySqlAlterAlgorithm.of(change) == MySqlAlterAlgorithm.COPY)
+                        .map(MySqlOnlineSchemaChange::describe)
+                        .collect(Collectors.joining(", "));
+                if (!allowBlockingChanges) {
+                    throw new RuntimeException(String.format("Online mode: %s requires ALGORITHM=COPY which blocks " +
+                            "writes until the table is copied. Apply it without online mode or allow blocking changes.",
+                            blocking));
+                }
+                log.warn("Online mode: {} requires ALGORITHM=COPY and will block writes until the table is copied.",
+                        blocking);
+                return "";
+        }
+    }
+
+    static String describe(Change<?> change) {
+        Object target = change.getExpected() != null ? change.getExpected() : change.getActual();
+        String name;
+        switch (change.getType()) {
+            case COLUMN:
+                name = ((ColumnChange) change).getTable().getName() + "." + ((Column) target).getName();
+                break;
+            case TABLE:
+                name = ((Table) target).getName() + " primary key";
+                break;
+            case FOREIGN_KEY:
+                name = ((ForeignKey) target).getTableName() + "." + ((ForeignKey) target).getName();
+                break;
+            case INDEX:
+                name = ((Index) target).getTableName() + "." + ((Index) target).getName();
+                break;
+            default:
+                name = "database";
+        }
+        return String.format("%s %s %s", change.getStatus(), change.getType(), name);
+    }
+}
@@ -1,19 +1,30 @@
 package com.adaptivescale.rosetta.ddl.targets.postgres;
 
+import com.adaptivescale.rosetta.common.IndexUtils;
 import com.adaptivescale.rosetta.common.annotations.RosettaModule;
 import com.adaptivescale.rosetta.common.models.Column;
 import com.adaptivescale.rosetta.common.models.Database;
 import com.adaptivescale.rosetta.common.models.ForeignKey;
+import com.adaptivescale.rosetta.common.models.Index;
+import com.adaptivescale.rosetta.common.models.Partition;
+import com.adaptivescale.rosetta.common.models.Partitioning;
 import com.adaptivescale.rosetta.common.models.Table;
 import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
+import com.adaptivescale.rosetta.ddl.AlterTableClause;
+import com.adaptivescale.rosetta.ddl.ApplyOptions;
 import com.adaptivescale.rosetta.ddl.DDL;
+import com.adaptivescale.rosetta.ddl.change.model.Change;
 import com.adaptivescale.rosetta.ddl.change.model.ColumnChange;
 import com.adaptivescale.rosetta.ddl.change.model.ForeignKeyChange;
+import com.adaptivescale.rosetta.ddl.change.model.TableChange;
 import com.adaptivescale.rosetta.ddl.targets.ColumnSQLDecoratorFactory;
 import lombok.extern.slf4j.Slf4j;
 
 import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -30,6 +41,20 @@ public class PostgresDDLGenerator implements DDL {
 
 
     private final ColumnSQLDecoratorFactory columnSQLDecoratorFactory = new PostgresColumnDecoratorFactory();
+    private final boolean online;
+
+    public PostgresDDLGenerator() {
+        this(new ApplyOptions());
+    }
+
+    /**
+     * In online mode foreign keys are added as NOT VALID and validated by a separate statement, and indexes are
+     * created and dropped CONCURRENTLY. Those statements are applied outside of the DDL transaction by
+     * {@link com.adaptivescale.rosetta.ddl.executor.PostgresDDLExecutor}.
+     */
+    public PostgresDDLGenerator(ApplyOptions options) {
+        this.online = options.isOnline();
+    }
 
     @Override
     public String createColumn(Column column) {
@@ -60,10 +85,53 @@ public class PostgresDDLGenerator implements DDL {
                     .append(table.getSchema()).append(DEFAULT_WRAPPER).append(".");
         }
 
-        stringBuilder.append(DEFAULT_WRAPPER).append(table.getName()).append(DEFAULT_WRAPPER).append("(").append(definitionAsString).append(");");
+        stringBuilder.append(DEFAULT_WRAPPER).append(table.getName()).append(DEFAULT_WRAPPER).append("(").append(definitionAsString).append(")");
+
+        Partitioning partitioning = table.getPartitioning();
+        if (partitioning == null) {
+            stringBuilder.append(";");
+        } else {
+            stringBuilder.append(" PARTITION BY ").append(partitioning.getStrategy().toUpperCase())
+                    .append(" (").append(partitionKey(partitioning)).append(");");
+            for (Partition partition : partitioning.getPartitions()) {
+                stringBuilder.append("\r").append(createPartition(table, partition));
+            }
+        }
+
+        // the table is new and empty, its indices do not need to be built concurrently
+        for (Index index : IndexUtils.secondaryIndices(table)) {
+            stringBuilder.append("\r").append(indexStatement(index, false));
+        }
         return stringBuilder.toString();
     }
 
+    @Override
+    public String createPartition(Table table, Partition partition) {
+        return "CREATE TABLE" + handleNullSchema(table.getSchema(), partition.getName()) + " PARTITION OF"
+                + handleNullSchema(table.getSchema(), table.getName()) + " " + partition.getBound() + ";";
+    }
+
+    @Override
+    public String dropPartition(Table table, Partition actual) {
+        return "DROP TABLE" + handleNullSchema(table.getSchema(), actual.getName()) + ";";
+    }
+
+    // a bound can not be altered in place, detaching and attaching again keeps the rows of the partition
+    @Override
+    public String alterPartition(Table table, Partition expected, Partition actual) {
+        String parent = handleNullSchema(table.getSchema(), table.getName());
+        String partition = handleNullSchema(table.getSchema(), expected.getName());
+        return "ALTER TABLE" + parent + " DETACH PARTITION" + partition + ";\r"
+                + "ALTER TABLE" + parent + " ATTACH PARTITION" + partition + " " + expected.getBound() + ";";
+    }
+
+    private String partitionKey(Partitioning partitioning) {
+        return partitioning.getColumns().stream()
+                .map(column -> !column.contains("(") ? DEFAULT_WRAPPER + column + DEFAULT_WRAPPER
+                        : column.startsWith("(") ? column : "(" + column + ")")
+                .collect(Collectors.joining(", "));
+    }
+
     @Override
     public String createDatabase(Database database, boolean dropTableIfExists) {
         StringBuilder stringBuilder = new StringBuilder();
@@ -101,63 +169,85 @@ public class PostgresDDLGenerator implements DDL {
 
     @Override
     public String createForeignKey(ForeignKey foreignKey) {
+        if (!online) {
+            return foreignKeyStatement(foreignKey, false);
+        }
+        // NOT VALID holds the SHARE ROW EXCLUSIVE lock only briefly, the scan of VALIDATE does not block writes
+        return foreignKeyStatement(foreignKey, true)
+                + "ALTER TABLE" + handleNullSchema(foreignKey.getSchema(), foreignKey.getTableName())
+                + " VALIDATE CONSTRAINT " + foreignKey.getName() + ";\r";
+    }
+
+    private String foreignKeyStatement(ForeignKey foreignKey, boolean notValid) {
+        String deleteRule = foreignKeyDeleteRuleSanitation(foreignKeyDeleteRule(foreignKey));
         return "ALTER TABLE" + handleNullSchema(foreignKey.getSchema(), foreignKey.getTableName()) + " ADD CONSTRAINT "
                 + foreignKey.getName() + " FOREIGN KEY ("+ DEFAULT_WRAPPER + foreignKey.getColumnName() + DEFAULT_WRAPPER +") REFERENCES "
                 + handleNullSchema(foreignKey.getPrimaryTableSchema(), foreignKey.getPrimaryTableName())
                 + "("+ DEFAULT_WRAPPER + foreignKey.getPrimaryColumnName()+ DEFAULT_WRAPPER + ")"
-                + foreignKeyDeleteRuleSanitation(foreignKeyDeleteRule(foreignKey)) + ";\r";
+                + deleteRule + (notValid ? (deleteRule.isEmpty() ? " " : "") + "NOT VALID" : "") + ";\r";
     }
 
     @Override
-    public String alterColumn(ColumnChange change) {
-        Table table = change.getTable();
-        Column actual = change.getActual();
-        Column expected = change.getExpected();
-
-        if (!Objects.equals(expected.getTypeName(), actual.getTypeName())
-                || !Objects.equals(expected.isNullable(), actual.isNullable())) {
-            String alterColumnString = columnSQLDecoratorFactory.decoratorFor(expected).expressSQl();
-            String formattedAlterColumn = String.format("%s TYPE %s", alterColumnString.split(" ")[0], alterColumnString.split(" ")[1]);
+    public String createIndex(Index index) {
+        return indexStatement(index, online);
+    }
 
-            StringBuilder stringBuilder = new StringBuilder();
-            stringBuilder.append("ALTER TABLE");
-            stringBuilder.append(handleNullSchema(table.getSchema(), table.getName()));
-            stringBuilder.append(" ALTER COLUMN ");
-            stringBuilder.append(formattedAlterColumn);
-            if(expected.isNullable()){
-                stringBuilder.append(", ALTER COLUMN ");
-                stringBuilder.append(expected.getName());
-                stringBuilder.append(" DROP NOT NULL");
-            }
-            stringBuilder.append(";");
-            return stringBuilder.toString();
+    private String indexStatement(Index index, boolean concurrently) {
+        Map<String, String> operatorClasses = index.getOperatorClasses() == null ? Map.of() : index.getOperatorClasses();
+        String columns = index.getColumnNames().stream()
+                .map(column -> indexItem(column) + (operatorClasses.containsKey(column) ? " " + operatorClasses.get(column) : ""))
+                .collect(Collectors.joining(", "));
+        StringBuilder statement = new StringBuilder("CREATE ")
+                .append(IndexUtils.isUnique(index) ? "UNIQUE " : "").append("INDEX ")
+                .append(concurrently ? "CONCURRENTLY " : "").append(DEFAULT_WRAPPER).append(index.getName()).append(DEFAULT_WRAPPER)
+                .append(" ON").append(handleNullSchema(index.getSchema(), index.getTableName()));
+        if (!"btree".equals(IndexUtils.method(index))) {
+            statement.append(" USING ").append(IndexUtils.method(index));
+        }
+        statement.append("(").append(columns).append(")");
+        if (index.getIncludeColumns() != null && !index.getIncludeColumns().isEmpty()) {
+            statement.append(" INCLUDE (").append(index.getIncludeColumns().stream()
+                    .map(this::indexItem)
+                    .collect(Collectors.joining(", "))).append(")");
         }
+        if (IndexUtils.isPartial(index)) {
+            statement.append(" WHERE ").append(index.getFilterCondition().trim());
+        }
+        return statement.append(";").toString();
+    }
 
-        log.info("No action taken for changes detected in column: {}.{}.{}", change.getTable().getSchema(),
-                change.getTable().getName(),
-                expected.getName());
-        return "";
+    // expressions are written in parentheses and are not quoted
+    private String indexItem(String column) {
+        return column.startsWith("(") ? column : DEFAULT_WRAPPER + column + DEFAULT_WRAPPER;
     }
 
     @Override
-    public String dropColumn(ColumnChange change) {
+    public String dropIndex(Index actual) {
+        // IF EXISTS keeps a retried concurrent drop idempotent
+        return "DROP INDEX" + (online ? " CONCURRENTLY IF EXISTS" : "")
+                + handleNullSchema(actual.getSchema(), actual.getName()) + ";";
+    }
+
+    @Override
+    public String alterColumn(ColumnChange change) {
         Table table = change.getTable();
-        Column actual = change.getActual();
+        String clause = alterColumnClause(change);
+        if (clause == null) {
+            return "";
+        }
+        return "ALTER TABLE" + handleNullSchema(table.getSchema(), table.getName()) + " " + clause + ";";
+    }
 
-        return "ALTER TABLE" +
-                handleNullSchema(table.getSchema(), table.getName()) + " DROP COLUMN "+ DEFAULT_WRAPPER +
-                actual.getName() + DEFAULT_WRAPPER +";";
+    @Override
+    public String dropColumn(ColumnChange change) {
+        Table table = change.getTable();
+        return "ALTER TABLE" + handleNullSchema(table.getSchema(), table.getName()) + " " + dropColumnClause(change) + ";";
     }
 
     @Override
     public String addColumn(ColumnChange change) {
         Table table = change.getTable();
-        Column expected = change.getExpected();
-
-        return "ALTER TABLE" +
-                handleNullSchema(table.getSchema(), table.getName()) +
-                " ADD COLUMN " +
-                columnSQLDecoratorFactory.decoratorFor(expected).expressSQl() + ";";
+        return "ALTER TABLE" + handleNullSchema(table.getSchema(), table.getName()) + " " + addColumnClause(change) + ";";
     }
 
     @Override
@@ -165,6 +255,20 @@ public class PostgresDDLGenerator implements DDL {
         return "DROP TABLE" + handleNullSchema(actual.getSchema(), actual.getName()) + ";";
     }
 
+    @Override
+    public String renameTable(Table expected, Table actual) {
+        return "ALTER TABLE" + handleNullSchema(actual.getSchema(), actual.getName()) + " RENAME TO "
+                + DEFAULT_WRAPPER + expected.getName() + DEFAULT_WRAPPER + ";";
+    }
+
+    @Override
+    public String renameColumn(ColumnChange change) {
+        Table table = change.getTable();
+        return "ALTER TABLE" + handleNullSchema(table.getSchema(), table.getName()) + " RENAME COLUMN "
+                + DEFAULT_WRAPPER + change.getActual().getName() + DEFAULT_WRAPPER + " TO "
+                + DEFAULT_WRAPPER + change.getExpected().getName() + DEFAULT_WRAPPER + ";";
+    }
+
     @Override
     public String alterForeignKey(ForeignKeyChange change) {
         return "";
@@ -177,28 +281,104 @@ public class PostgresDDLGenerator implements DDL {
 
     @Override
     public String alterTable(Table expected, Table actual) {
-        boolean doesPKExist = actual.getColumns().stream().map(Column::isPrimaryKey).reduce((aBoolean, aBoolean2) -> aBoolean || aBoolean2).orElse(false);
-        boolean doWeNeedToCreatePk = expected.getColumns().stream().map(Column::isPrimaryKey).reduce((aBoolean, aBoolean2) -> aBoolean || aBoolean2).orElse(false);
+        String primaryKeyClause = primaryKeyClause(expected, actual);
 
         StringBuilder stringBuilder = new StringBuilder("ALTER TABLE")
                 .append(handleNullSchema(expected.getSchema(), expected.getName()));
+        if (!primaryKeyClause.isEmpty()) {
+            stringBuilder.append(" ").append(primaryKeyClause);
+        }
+        stringBuilder.append(";");
+        return stringBuilder.toString();
+    }
 
-        if (doesPKExist) {
-            stringBuilder.append(" DROP PRIMARY KEY");
+    @Override
+    public Set<AlterTableClause> combinableAlterTableClauses() {
+        return EnumSet.allOf(AlterTableClause.class);
+    }
+
+    @Override
+    public String combinedAlterTable(Table table, List<Change<?>> changes) {
+        List<String> clauses = new ArrayList<>();
+        for (Change<?> change : changes) {
+            String clause = alterTableClause(change);
+            if (clause != null && !clause.isEmpty()) {
+                clauses.add(clause);
+            }
         }
+        if (clauses.isEmpty()) {
+            return "";
+        }
+        return "ALTER TABLE" + handleNullSchema(table.getSchema(), table.getName()) + " " + String.join(", ", clauses) + ";";
+    }
 
-        if (doWeNeedToCreatePk) {
-            Optional<String> primaryKeysForTable = createPrimaryKeysForTable(expected);
-            if (primaryKeysForTable.isPresent()) {
-                if (doesPKExist) {
-                    stringBuilder.append(",");
-                }
-                stringBuilder.append(" ADD ").append(primaryKeysForTable.get());
+    private String alterTableClause(Change<?> change) {
+        switch (AlterTableClause.of(change)) {
+            case ADD_COLUMN:
+                return addColumnClause((ColumnChange) change);
+            case DROP_COLUMN:
+                return dropColumnClause((ColumnChange) change);
+            case ALTER_COLUMN:
+                return alterColumnClause((ColumnChange) change);
+            case PRIMARY_KEY:
+                TableChange tableChange = (TableChange) change;
+                return primaryKeyClause(tableChange.getExpected(), tableChange.getActual());
+            default:
+                throw new RuntimeException("Change " + change.getType() + " can not be part of ALTER TABLE");
+        }
+    }
+
+    private String addColumnClause(ColumnChange change) {
+        return "ADD COLUMN " + columnSQLDecoratorFactory.decoratorFor(change.getExpected()).expressSQl();
+    }
+
+    private String dropColumnClause(ColumnChange change) {
+        return "DROP COLUMN " + DEFAULT_WRAPPER + change.getActual().getName() + DEFAULT_WRAPPER;
+    }
+
+    private String alterColumnClause(ColumnChange change) {
+        Column actual = change.getActual();
+        Column expected = change.getExpected();
+
+        if (!Objects.equals(expected.getTypeName(), actual.getTypeName())
+                || !Objects.equals(expected.isNullable(), actual.isNullable())) {
+            String alterColumnString = columnSQLDecoratorFactory.decoratorFor(expected).expressSQl();
+            String formattedAlterColumn = String.format("%s TYPE %s", alterColumnString.split(" ")[0], alterColumnString.split(" ")[1]);
+
+            StringBuilder stringBuilder = new StringBuilder();
+            stringBuilder.append("ALTER COLUMN ");
+            stringBuilder.append(formattedAlterColumn);
+            if(expected.isNullable()){
+                stringBuilder.append(", ALTER COLUMN ");
+                stringBuilder.append(expected.getName());
+                stringBuilder.append(" DROP NOT NULL");
             }
+            return stringBuilder.toString();
         }
 
-        stringBuilder.append(";");
-        return stringBuilder.toString();
+        log.info("No action taken for changes detected in column: {}.{}.{}", change.getTable().getSchema(),
+                change.getTable().getName(),
+                expected.getName());
+        return null;
+    }
+
+    private String primaryKeyClause(Table expected, Table actual) {
+        boolean doesPKExist = actual.getColumns().stream().map(Column::isPrimaryKey).reduce((aBoolean, aBoolean2) -> aBoolean || aBoolean2).orElse(false);
+        boolean doWeNeedToCreatePk = expected.getColumns().stream().map(Column::isPrimaryKey).reduce((aBoolean, aBoolean2) -> aBoolean || aBoolean2).orElse(false);
+
+        List<String> clauses = new ArrayList<>();
+        if (doesPKExist) {
+            clauses.add("DROP CONSTRAINT " + DEFAULT_WRAPPER + primaryKeyConstraintName(actual) + DEFAULT_WRAPPER);
+        }
+        if (doWeNeedToCreatePk) {
+            createPrimaryKeysForTable(expected).ifPresent(primaryKey -> clauses.add("ADD " + primaryKey));
+        }
+        return String.join(", ", clauses);
+    }
+
+    // the index backing a primary key is named like its constraint, Postgres names it <table>_pkey if not told otherwise
+    private static String primaryKeyConstraintName(Table table) {
+        return IndexUtils.primaryKeyIndex(table).map(Index::getName).orElse(table.getName() + "_pkey");
     }
 
     private Optional<String> createPrimaryKeysForTable(Table table) {
@@ -227,7 +407,8 @@ public class PostgresDDLGenerator implements DDL {
 
     //ALTER TABLE rosetta.contacts ADD CONSTRAINT contacts_fk FOREIGN KEY (contact_id) REFERENCES rosetta."user"(user_id);
     private String createForeignKeys(Column column) {
-        return column.getForeignKeys().stream().map(this::createForeignKey).collect(Collectors.joining());
+        // tables of a new database are empty, validating separately gains nothing
+        return column.getForeignKeys().stream().map(foreignKey -> foreignKeyStatement(foreignKey, false)).collect(Collectors.joining());
     }
 
     private String handleNullSchema(String schema, String tableName) {
@@ -4,15 +4,21 @@ import com.adaptivescale.rosetta.common.annotations.RosettaModule;
 import com.adaptivescale.rosetta.common.models.Column;
 import com.adaptivescale.rosetta.common.models.Database;
 import com.adaptivescale.rosetta.common.models.ForeignKey;
+import com.adaptivescale.rosetta.common.models.Index;
+import com.adaptivescale.rosetta.common.models.SearchOptimization;
 import com.adaptivescale.rosetta.common.models.Table;
 import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
+import com.adaptivescale.rosetta.ddl.AlterTableClause;
 import com.adaptivescale.rosetta.ddl.DDL;
+import com.adaptivescale.rosetta.ddl.change.model.Change;
 import com.adaptivescale.rosetta.ddl.change.model.ColumnChange;
 import com.adaptivescale.rosetta.ddl.change.model.ForeignKeyChange;
 import com.adaptivescale.rosetta.ddl.targets.ColumnSQLDecoratorFactory;
 import lombok.extern.slf4j.Slf4j;
 
 import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -56,7 +62,15 @@ public class SnowflakeDDLGenerator implements DDL {
         builder.append(tableNameWithSchema(table))
                 .append("(")
                 .append(definitionAsString)
-                .append(");");
+                .append(")");
+        if (table.getClusterBy() != null && !table.getClusterBy().isEmpty()) {
+            builder.append(" CLUSTER BY (").append(String.join(", ", table.getClusterBy())).append(")");
+        }
+        builder.append(";");
+
+        if (table.getSearchOptimization() != null) {
+            builder.append("\r").append(addSearchOptimization(table, table.getSearchOptimization()));
+        }
 
         return builder.toString();
     }
@@ -154,32 +168,75 @@ public class SnowflakeDDLGenerator implements DDL {
 
     @Override
     public String alterColumn(ColumnChange change) {
+        String alteration = columnAlteration(change);
+        if (alteration == null) {
+            return "";
+        }
+        return String.format("ALTER TABLE %s ALTER  %s;", tableNameWithSchema(change.getTable()), alteration);
+    }
+
+    // Snowflake accepts a list of columns after ADD, DROP and ALTER but does not mix them in one statement
+    @Override
+    public Set<AlterTableClause> combinableAlterTableClauses() {
+        return EnumSet.of(AlterTableClause.ADD_COLUMN, AlterTableClause.DROP_COLUMN, AlterTableClause.ALTER_COLUMN);
+    }
+
+    @Override
+    public boolean mixedAlterTableClauses() {
+        return false;
+    }
+
+    @Override
+    public String combinedAlterTable(Table table, List<Change<?>> changes) {
+        AlterTableClause clause = AlterTableClause.of(changes.get(0));
+        List<String> columns = new ArrayList<>();
+        for (Change<?> change : changes) {
+            ColumnChange columnChange = (ColumnChange) change;
+            switch (clause) {
+                case ADD_COLUMN:
+                    columns.add(columnSQLDecoratorFactory.decoratorFor(columnChange.getExpected()).expressSQl());
+                    break;
+                case DROP_COLUMN:
+                    columns.add(escapeName(columnChange.getActual().getName()));
+                    break;
+                case ALTER_COLUMN:
+                    String alteration = columnAlteration(columnChange);
+                    if (alteration != null) {
+                        columns.add(alteration);
+                    }
+                    break;
+                default:
+                    throw new RuntimeException("Change " + change.getType() + " can not be part of ALTER TABLE");
+            }
+        }
+        if (columns.isEmpty()) {
+            return "";
+        }
+
+        String keyword = clause == AlterTableClause.ADD_COLUMN ? "add" : clause == AlterTableClause.DROP_COLUMN ? "DROP" : "ALTER";
+        return "ALTER TABLE " + tableNameWithSchema(table) + " " + keyword + " " + String.join(", ", columns) + ";";
+    }
+
+    private String columnAlteration(ColumnChange change) {
         Column actual = change.getActual();
         Column expected = change.getExpected();
 
         if (!Objects.equals(expected.getTypeName(), actual.getTypeName())) {
-            return String.format("ALTER TABLE %s ALTER  \"%s\" SET DATA TYPE %s;",
-                    tableNameWithSchema(change.getTable()),
-                    expected.getName(),
-                    expected.getTypeName());
+            return String.format("\"%s\" SET DATA TYPE %s", expected.getName(), expected.getTypeName());
         }
 
         if (!Objects.equals(expected.isNullable(), actual.isNullable())) {
             if (expected.isNullable()) {
-                return String.format("ALTER TABLE %s ALTER  \"%s\" DROP NOT NULL;",
-                        tableNameWithSchema(change.getTable()),
-                        expected.getName());
+                return String.format("\"%s\" DROP NOT NULL", expected.getName());
             } else {
-                return String.format("ALTER TABLE %s ALTER  \"%s\" SET NOT NULL;",
-                        tableNameWithSchema(change.getTable()),
-                        expected.getName());
+                return String.format("\"%s\" SET NOT NULL", expected.getName());
             }
         }
 
         log.info("No action taken for changes detected in column: {}.{}.{}", change.getTable().getSchema(),
                 change.getTable().getName(),
                 expected.getName());
-        return "";
+        return null;
     }
 
     @Override
@@ -199,6 +256,84 @@ public class SnowflakeDDLGenerator implements DDL {
         return "DROP TABLE " + tableNameWithSchema(actual) + ";";
     }
 
+    @Override
+    public String renameTable(Table expected, Table actual) {
+        return "ALTER TABLE " + tableNameWithSchema(actual) + " RENAME TO " + tableNameWithSchema(expected) + ";";
+    }
+
+    @Override
+    public String renameColumn(ColumnChange change) {
+        return "ALTER TABLE " + tableNameWithSchema(change.getTable()) + " RENAME COLUMN "
+                + escapeName(change.getActual().getName()) + " TO " + escapeName(change.getExpected().getName()) + ";";
+    }
+
+    // standard tables have no secondary indices, searches are sped up by search optimization and clustering instead
+    @Override
+    public String createIndex(Index index) {
+        log.warn("Snowflake does not support index {} on {}.{}, use clusterBy or searchOptimization instead.",
+                index.getName(), index.getSchema(), index.getTableName());
+        return "";
+    }
+
+    @Override
+    public String dropIndex(Index actual) {
+        return "";
+    }
+
+    @Override
+    public String alterClusteringKey(Table table, List<String> clusterBy) {
+        return "ALTER TABLE " + tableNameWithSchema(table) + " CLUSTER BY (" + String.join(", ", clusterBy) + ");";
+    }
+
+    @Override
+    public String dropClusteringKey(Table table) {
+        return "ALTER TABLE " + tableNameWithSchema(table) + " DROP CLUSTERING KEY;";
+    }
+
+    @Override
+    public String addSearchOptimization(Table table, SearchOptimization expected) {
+        if (expected.getMethods() == null || expected.getMethods().isEmpty()) {
+            return "ALTER TABLE " + tableNameWithSchema(table) + " ADD SEARCH OPTIMIZATION;";
+        }
+        return searchOptimizationStatement(table, "ADD", expected.getMethods());
+    }
+
+    @Override
+    public String dropSearchOptimization(Table table, SearchOptimization actual) {
+        return "ALTER TABLE " + tableNameWithSchema(table) + " DROP SEARCH OPTIMIZATION;";
+    }
+
+    // only the methods that differ are dropped and added, the search access paths of the others are kept
+    @Override
+    public String alterSearchOptimization(Table table, SearchOptimization expected, SearchOptimization actual) {
+        List<String> expectedMethods = searchMethods(expected);
+        List<String> actualMethods = searchMethods(actual);
+
+        List<String> statements = new ArrayList<>();
+        List<String> dropped = actualMethods.stream().filter(method -> !expectedMethods.contains(method)).collect(Collectors.toList());
+        if (!dropped.isEmpty()) {
+            statements.add(searchOptimizationStatement(table, "DROP", dropped));
+        }
+        List<String> added = expectedMethods.stream().filter(method -> !actualMethods.contains(method)).collect(Collectors.toList());
+        if (!added.isEmpty()) {
+            statements.add(searchOptimizationStatement(table, "ADD", added));
+        }
+        return String.join("\r", statements);
+    }
+
+    // search optimization without methods is the same as equality searches on all columns
+    private static List<String> searchMethods(SearchOptimization searchOptimization) {
+        if (searchOptimization.getMethods() == null || searchOptimization.getMethods().isEmpty()) {
+            return List.of("EQUALITY(*)");
+        }
+        return searchOptimization.getMethods();
+    }
+
+    private String searchOptimizationStatement(Table table, String action, List<String> methods) {
+        return "ALTER TABLE " + tableNameWithSchema(table) + " " + action + " SEARCH OPTIMIZATION ON "
+                + String.join(", ", methods) + ";";
+    }
+
     private Optional<String> createPrimaryKeysForTable(Table table) {
         List<String> primaryKeys = table
                 .getColumns()
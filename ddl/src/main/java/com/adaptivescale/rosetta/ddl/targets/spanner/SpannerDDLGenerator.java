@@ -3,6 +3,7 @@ package com.adaptivescale.rosetta.ddl.targets.spanner;
 import com.adaptivescale.rosetta.common.annotations.RosettaModule;
 import com.adaptivescale.rosetta.common.models.*;
 import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
+import com.adaptivescale.rosetta.ddl.AlterTableClause;
 import com.adaptivescale.rosetta.ddl.DDL;
 import com.adaptivescale.rosetta.ddl.change.model.ColumnChange;
 import com.adaptivescale.rosetta.ddl.change.model.ForeignKeyChange;
@@ -33,7 +34,10 @@ public class SpannerDDLGenerator implements DDL {
         if(table.getColumns().stream().filter(column -> column.isPrimaryKey()).count()==0){
             throw new RuntimeException(String.format("Table %s has no primary key. Spanner requires tables to have primary key.", table.getName()));
         }
-        List<String> definitions = table.getColumns().stream().map(this::createColumn).collect(Collectors.toList());
+        SpannerKeyCheck.hotspotWarning(table).ifPresent(log::warn);
+        List<String> definitions = table.getColumns().stream()
+                .map(column -> columnDefinition(table, column))
+                .collect(Collectors.toList());
 
         Optional<String> primaryKeysForTable = createPrimaryKeysForTable(table);
         String definitionAsString = String.join(", ", definitions);
@@ -47,6 +51,11 @@ public class SpannerDDLGenerator implements DDL {
             stringBuilder.append(DEFAULT_WRAPPER).append(table.getName()).append(DEFAULT_WRAPPER).append("; \n");
         }
 
+        table.getColumns().stream()
+                .filter(SpannerKeyCheck::usesBitReversedSequence)
+                .map(column -> createSequence(table, column))
+                .forEach(stringBuilder::append);
+
         stringBuilder.append("CREATE TABLE ");
 
         if (table.getSchema() != null && !table.getSchema().isBlank()) {
@@ -61,10 +70,34 @@ public class SpannerDDLGenerator implements DDL {
             stringBuilder.append(primaryKeysForTable.get());
         }
 
+        Interleave interleave = table.getInterleave();
+        if (interleave != null) {
+            stringBuilder.append(", INTERLEAVE IN PARENT ").append(DEFAULT_WRAPPER).append(interleave.getParentTable())
+                    .append(DEFAULT_WRAPPER).append(" ON DELETE ").append(onDelete(interleave));
+        }
+
         stringBuilder.append(";");
         return stringBuilder.toString();
     }
 
+    // IF NOT EXISTS keeps the sequence of a table that was dropped and is created again
+    private String createSequence(Table table, Column column) {
+        return "CREATE SEQUENCE IF NOT EXISTS " + DEFAULT_WRAPPER + SpannerKeyCheck.sequenceName(table, column)
+                + DEFAULT_WRAPPER + " OPTIONS (sequence_kind = 'bit_reversed_positive');\r";
+    }
+
+    private String columnDefinition(Table table, Column column) {
+        if (!SpannerKeyCheck.usesBitReversedSequence(column)) {
+            return createColumn(column);
+        }
+        return createColumn(column).stripTrailing() + " DEFAULT (GET_NEXT_SEQUENCE_VALUE(SEQUENCE " + DEFAULT_WRAPPER
+                + SpannerKeyCheck.sequenceName(table, column) + DEFAULT_WRAPPER + "))";
+    }
+
+    private String onDelete(Interleave interleave) {
+        return interleave.getOnDelete() == null ? Interleave.NO_ACTION : interleave.getOnDelete();
+    }
+
     @Override
     public String createDatabase(Database database, boolean dropTableIfExists) {
         StringBuilder stringBuilder = new StringBuilder();
@@ -84,7 +117,7 @@ public class SpannerDDLGenerator implements DDL {
                     String.format("Tables %s are missing primary key. Spanner does not allow table without primary key.",
                             missingPrimaryKeys.stream().collect(Collectors.joining(","))));
         }
-        stringBuilder.append(database.getTables()
+        stringBuilder.append(SpannerInterleaveOrder.parentsFirst(database.getTables())
                 .stream()
                 .map(table -> createTable(table, dropTableIfExists))
                 .collect(Collectors.joining("\r\r")));
@@ -181,6 +214,11 @@ public class SpannerDDLGenerator implements DDL {
         return "DROP TABLE" + handleNullSchema(actual.getSchema(), actual.getName()) + ";";
     }
 
+    @Override
+    public String renameTable(Table expected, Table actual) {
+        return "ALTER TABLE" + handleNullSchema(actual.getSchema(), actual.getName()) + " RENAME TO " + expected.getName() + ";";
+    }
+
     @Override
     public String alterForeignKey(ForeignKeyChange change) {
         return "";
@@ -191,8 +229,21 @@ public class SpannerDDLGenerator implements DDL {
         return "ALTER TABLE" + handleNullSchema(actual.getSchema(), actual.getTableName()) + " DROP CONSTRAINT " + DEFAULT_WRAPPER + actual.getName() + DEFAULT_WRAPPER + ";";
     }
 
+    // Spanner accepts one alteration per ALTER TABLE statement, the executor batches the statements instead
+    @Override
+    public Set<AlterTableClause> combinableAlterTableClauses() {
+        return Collections.emptySet();
+    }
+
     @Override
     public String alterTable(Table expected, Table actual) {
+        // a table stays in its parent, only the delete action of the interleaving can change
+        if (expected.getInterleave() != null && actual.getInterleave() != null
+                && Objects.equals(createPrimaryKeysForTable(expected), createPrimaryKeysForTable(actual))) {
+            return "ALTER TABLE" + handleNullSchema(expected.getSchema(), expected.getName())
+                    + " SET ON DELETE " + onDelete(expected.getInterleave()) + ";";
+        }
+
         boolean doesPKExist = actual.getColumns().stream().map(Column::isPrimaryKey).reduce((aBoolean, aBoolean2) -> aBoolean || aBoolean2).orElse(false);
         boolean doWeNeedToCreatePk = expected.getColumns().stream().map(Column::isPrimaryKey).reduce((aBoolean, aBoolean2) -> aBoolean || aBoolean2).orElse(false);
 
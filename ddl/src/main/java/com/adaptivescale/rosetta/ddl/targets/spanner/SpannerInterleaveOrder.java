@@ -0,0 +1,47 @@
+package com.adaptivescale.rosetta.ddl.targets.spanner;
+
+import com.adaptivescale.rosetta.common.models.Table;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Orders tables so that the parent of an interleaved table comes before it. Spanner only creates an interleaved table
+ * when its parent exists and only drops a parent once its interleaved tables are gone.
+ */
+public class SpannerInterleaveOrder {
+
+    private SpannerInterleaveOrder() {
+    }
+
+    /**
+     * @return tables ordered by their interleaving depth, otherwise in the given order
+     */
+    public static List<Table> parentsFirst(Collection<Table> tables) {
+        Map<String, Table> tablesByName = tables.stream()
+                .collect(Collectors.toMap(Table::getName, Function.identity(), (a, b) -> a));
+        return tables.stream()
+                .sorted(Comparator.comparingInt(table -> depth(table, tablesByName)))
+                .collect(Collectors.toList());
+    }
+
+    private static int depth(Table table, Map<String, Table> tablesByName) {
+        int depth = 0;
+        Set<String> visited = new HashSet<>();
+        Table current = table;
+        while (current.getInterleave() != null && visited.add(current.getName())) {
+            current = tablesByName.get(current.getInterleave().getParentTable());
+            if (current == null) {
+                break;
+            }
+            depth++;
+        }
+        return depth;
+    }
+}
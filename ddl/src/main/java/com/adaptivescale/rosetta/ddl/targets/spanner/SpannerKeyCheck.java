@@ -0,0 +1,58 @@
+package com.adaptivescale.rosetta.ddl.targets.spanner;
+
+import com.adaptivescale.rosetta.common.models.Column;
+import com.adaptivescale.rosetta.common.models.Table;
+
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Finds primary keys whose leading column grows monotonically. Spanner splits a table by key ranges, with such a key
+ * every insert goes to the last split and that split becomes a hotspot. Auto increment INT64 key columns are taken
+ * from a bit-reversed sequence instead, which keeps them unique integers but spreads them over the key space.
+ */
+public class SpannerKeyCheck {
+
+    private static final String SEQUENCE_TYPE = "INT64";
+    private static final Set<String> TIME_TYPES = Set.of("TIMESTAMP", "DATE");
+
+    private SpannerKeyCheck() {
+    }
+
+    /**
+     * @return true if the column is an auto increment key column generated by a bit-reversed sequence
+     */
+    public static boolean usesBitReversedSequence(Column column) {
+        return column.isPrimaryKey() && column.isAutoincrement() && SEQUENCE_TYPE.equalsIgnoreCase(column.getTypeName());
+    }
+
+    public static String sequenceName(Table table, Column column) {
+        return table.getName() + "_" + column.getName() + "_seq";
+    }
+
+    /**
+     * @return description of the hotspot and how to avoid it, empty if the leading key column is not sequential
+     */
+    public static Optional<String> hotspotWarning(Table table) {
+        // rows of an interleaved table are spread by the key of their parent
+        if (table.getInterleave() != null) {
+            return Optional.empty();
+        }
+        Optional<Column> leadingColumn = table.getColumns().stream()
+                .filter(Column::isPrimaryKey)
+                .min(Comparator.comparingInt(Column::getPrimaryKeySequenceId));
+        if (leadingColumn.isEmpty() || usesBitReversedSequence(leadingColumn.get())) {
+            return Optional.empty();
+        }
+
+        Column column = leadingColumn.get();
+        if (column.isAutoincrement() || TIME_TYPES.contains(column.getTypeName().toUpperCase())) {
+            return Optional.of(String.format("Primary key of table %s starts with sequential column %s, inserts will " +
+                    "hotspot a single split. Use a UUID key (STRING(36) DEFAULT (GENERATE_UUID())), an INT64 key " +
+                    "from a bit-reversed sequence or start the key with a well distributed column.",
+                    table.getName(), column.getName()));
+        }
+        return Optional.empty();
+    }
+}
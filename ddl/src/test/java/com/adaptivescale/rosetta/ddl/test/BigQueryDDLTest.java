@@ -3,7 +3,7 @@ package com.adaptivescale.rosetta.ddl.test;
 import com.adaptivescale.rosetta.common.models.Database;
 import com.adaptivescale.rosetta.ddl.change.ChangeHandler;
 import com.adaptivescale.rosetta.ddl.change.ChangeHandlerImplementation;
-import com.adaptivescale.rosetta.ddl.change.DefaultChangeFinder;
+import com.adaptivescale.rosetta.ddl.change.BigQueryChangeFinder;
 import com.adaptivescale.rosetta.ddl.change.model.Change;
 import com.adaptivescale.rosetta.ddl.targets.bigquery.BigQueryDDLGenerator;
 import org.junit.jupiter.api.Assertions;
@@ -50,6 +50,12 @@ public class BigQueryDDLTest {
         Assertions.assertEquals("ALTER TABLE halis.tableA DROP COLUMN columnB;", ddl);
     }
 
+    @Test
+    public void dropMultipleColumns() throws IOException {
+        String ddl = generateDDL("drop_multiple_columns");
+        Assertions.assertEquals("ALTER TABLE halis.tableA DROP COLUMN columnB, DROP COLUMN columnC;", ddl);
+    }
+
     @Test
     public void alterColumnDataType() throws IOException {
         String ddl = generateDDL("alter_column_data_type");
@@ -62,11 +68,54 @@ public class BigQueryDDLTest {
         Assertions.assertEquals("ALTER TABLE halis.tableA ALTER COLUMN columnB DROP NOT NULL;", ddl);
     }
 
+    @Test
+    public void addPartitionedTable() throws IOException {
+        String ddl = generateDDL("add_partitioned_table");
+        Assertions.assertEquals("CREATE TABLE `halis`.`events`(`eventId` STRING, `createdAt` TIMESTAMP)" +
+                " PARTITION BY DATE(createdAt) CLUSTER BY `eventId` OPTIONS(partition_expiration_days=90);", ddl);
+    }
+
+    @Test
+    public void alterPartitionExpiration() throws IOException {
+        String ddl = generateDDL("partition_expiration");
+        Assertions.assertEquals("ALTER TABLE halis.events SET OPTIONS(partition_expiration_days=30.5);", ddl);
+    }
+
+    @Test
+    public void alterPartitionExpirationWithTableAlteration() throws IOException {
+        Database actual = Utils.getDatabase(resourceDirectory.resolve("partition_expiration_with_primary_key"), "actual_model.yaml");
+        Database expected = Utils.getDatabase(resourceDirectory.resolve("partition_expiration_with_primary_key"), "expected_model.yaml");
+        List<Change<?>> changes = new BigQueryChangeFinder().findChanges(expected, actual);
+        ChangeHandler handler = new ChangeHandlerImplementation(new BigQueryDDLGenerator());
+        handler.orderChanges(changes);
+        Assertions.assertTrue(changes.stream().anyMatch(change -> change.getType() == Change.Type.TABLE));
+        Assertions.assertEquals("ALTER TABLE halis.events ADD COLUMN `eventKey` INT64;\r" +
+                "ALTER TABLE halis.events SET OPTIONS(partition_expiration_days=30.5);", handler.createDDLForChanges(changes));
+    }
+
+    @Test
+    public void ignoreUnspecifiedPartitioning() throws IOException {
+        String ddl = generateDDL("partition_unspecified");
+        Assertions.assertEquals("", ddl);
+    }
+
+    @Test
+    public void keepChangedPartitioning() throws IOException {
+        String ddl = generateDDL("partition_changed");
+        Assertions.assertEquals("ALTER TABLE halis.events SET OPTIONS(partition_expiration_days=30.5);", ddl);
+    }
+
+    @Test
+    public void renameColumnWithPreviousName() throws IOException {
+        String ddl = generateDDL("rename_column_with_previous_name");
+        Assertions.assertEquals("ALTER TABLE halis.tableA RENAME COLUMN columnB TO columnC;", ddl);
+    }
+
     private String generateDDL(String testType) throws IOException {
         Database actual = Utils.getDatabase(resourceDirectory.resolve(testType), "actual_model.yaml");
         Database expected = Utils.getDatabase(resourceDirectory.resolve(testType), "expected_model.yaml");
-        List<Change<?>> changes = new DefaultChangeFinder().findChanges(expected, actual);
-        ChangeHandler handler = new ChangeHandlerImplementation(new BigQueryDDLGenerator(), null);
+        List<Change<?>> changes = new BigQueryChangeFinder().findChanges(expected, actual);
+        ChangeHandler handler = new ChangeHandlerImplementation(new BigQueryDDLGenerator());
         return handler.createDDLForChanges(changes);
     }
 }
@@ -0,0 +1,186 @@
+package com.adaptivescale.rosetta.ddl.test;
+
+import com.adaptivescale.rosetta.common.models.Column;
+import com.adaptivescale.rosetta.common.models.ForeignKey;
+import com.adaptivescale.rosetta.common.models.Index;
+import com.adaptivescale.rosetta.common.models.Interleave;
+import com.adaptivescale.rosetta.common.models.Table;
+import com.adaptivescale.rosetta.ddl.change.ChangeDependencyGraph;
+import com.adaptivescale.rosetta.ddl.change.model.Change;
+import com.adaptivescale.rosetta.ddl.change.model.ChangeFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class ChangeDependencyGraphTest {
+
+    @Test
+    public void independentTablesShareALevel() {
+        Table customer = table("CUSTOMER");
+        Table orders = table("ORDERS");
+        Table product = table("PRODUCT");
+
+        ForeignKey foreignKey = new ForeignKey();
+        foreignKey.setName("FK_ORDERS_CUSTOMER");
+        foreignKey.setTableName("ORDERS");
+        foreignKey.setColumnName("CUSTOMER_ID");
+        foreignKey.setPrimaryTableName("CUSTOMER");
+        foreignKey.setPrimaryColumnName("ID");
+
+        List<Change<?>> changes = List.of(
+                ChangeFactory.foreignKeyChange(null, foreignKey, Change.Status.DROP),
+                ChangeFactory.tableChange(null, customer, Change.Status.DROP),
+                ChangeFactory.columnChange(column("NAME"), null, Change.Status.ADD, product),
+                ChangeFactory.columnChange(column("PRICE"), null, Change.Status.ADD, product),
+                ChangeFactory.columnChange(null, column("CUSTOMER_ID"), Change.Status.DROP, orders));
+
+        ChangeDependencyGraph graph = ChangeDependencyGraph.fromOrderedChanges(changes);
+        List<ChangeDependencyGraph.Node> nodes = graph.getNodes();
+
+        Assertions.assertEquals(4, nodes.size());
+        Assertions.assertEquals(2, nodes.get(2).getChanges().size());
+        Assertions.assertTrue(nodes.get(0).getSuccessors().contains(nodes.get(1)));
+        Assertions.assertTrue(nodes.get(0).getSuccessors().contains(nodes.get(3)));
+        Assertions.assertEquals(0, nodes.get(2).getPredecessorCount());
+
+        List<List<ChangeDependencyGraph.Node>> levels = graph.levels();
+        Assertions.assertEquals(2, levels.size());
+        Assertions.assertEquals(List.of(nodes.get(0), nodes.get(2)), levels.get(0));
+        Assertions.assertEquals(List.of(nodes.get(1), nodes.get(3)), levels.get(1));
+    }
+
+    @Test
+    public void dropsForeignKeyBeforeItsTable() {
+        Change<?> dropTable = ChangeFactory.tableChange(null, table("customers"), Change.Status.DROP);
+        Change<?> dropForeignKey = ChangeFactory.foreignKeyChange(null, foreignKey(), Change.Status.DROP);
+
+        Assertions.assertEquals(List.of(dropForeignKey, dropTable),
+                ChangeDependencyGraph.of(List.of(dropTable, dropForeignKey)).getOrderedChanges());
+    }
+
+    @Test
+    public void addsTablesAndColumnsBeforeWhatUsesThem() {
+        Table orders = table("orders");
+        Change<?> addForeignKey = ChangeFactory.foreignKeyChange(foreignKey(), null, Change.Status.ADD);
+        Change<?> addIndex = ChangeFactory.indexChange(index(), null, Change.Status.ADD);
+        Change<?> rebuildPrimaryKey = ChangeFactory.tableChange(orders, table("orders"), Change.Status.ALTER);
+        Change<?> addColumn = ChangeFactory.columnChange(column("customer_id"), null, Change.Status.ADD, orders);
+        Change<?> addTable = ChangeFactory.tableChange(table("customers"), null, Change.Status.ADD);
+
+        List<Change<?>> ordered = ChangeDependencyGraph.of(List.of(addForeignKey, addIndex, rebuildPrimaryKey, addColumn, addTable))
+                .getOrderedChanges();
+        Assertions.assertEquals(List.of(addColumn, addIndex, rebuildPrimaryKey, addTable, addForeignKey), ordered);
+    }
+
+    @Test
+    public void dropsIndexBeforeItsColumn() {
+        Table orders = table("orders");
+        Change<?> dropColumn = ChangeFactory.columnChange(null, column("customer_id"), Change.Status.DROP, orders);
+        Change<?> dropIndex = ChangeFactory.indexChange(null, index(), Change.Status.DROP);
+
+        Assertions.assertEquals(List.of(dropIndex, dropColumn),
+                ChangeDependencyGraph.of(List.of(dropColumn, dropIndex)).getOrderedChanges());
+    }
+
+    @Test
+    public void orderedChangesOfUnrelatedTablesShareALevel() {
+        Table orders = table("orders");
+        Change<?> dropForeignKey = ChangeFactory.foreignKeyChange(null, foreignKey(), Change.Status.DROP);
+        Change<?> dropColumn = ChangeFactory.columnChange(null, column("customer_id"), Change.Status.DROP, orders);
+        Change<?> addTable = ChangeFactory.tableChange(table("invoices"), null, Change.Status.ADD);
+
+        ChangeDependencyGraph graph = ChangeDependencyGraph.of(List.of(dropColumn, addTable, dropForeignKey));
+        Assertions.assertEquals(List.of(dropForeignKey, dropColumn, addTable), graph.getOrderedChanges());
+        List<List<List<Change<?>>>> levels = graph.levels().stream()
+                .map(level -> level.stream().map(ChangeDependencyGraph.Node::getChanges).collect(Collectors.toList()))
+                .collect(Collectors.toList());
+        Assertions.assertEquals(List.of(List.of(List.of(dropForeignKey), List.of(addTable)), List.of(List.of(dropColumn))),
+                levels);
+    }
+
+    @Test
+    public void interleavedTableDependsOnItsParent() {
+        Table child = table("order_lines");
+        child.setInterleave(new Interleave("orders", "CASCADE"));
+        Change<?> addChild = ChangeFactory.tableChange(child, null, Change.Status.ADD);
+        Change<?> addParent = ChangeFactory.tableChange(table("orders"), null, Change.Status.ADD);
+
+        ChangeDependencyGraph graph = ChangeDependencyGraph.of(List.of(addChild, addParent));
+        Assertions.assertEquals(List.of(addParent, addChild), graph.getOrderedChanges());
+        Assertions.assertEquals(2, graph.levels().size());
+    }
+
+    @Test
+    public void ordersLargeChangeSets() {
+        List<Change<?>> changes = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            Table table = table("table_" + i);
+            changes.add(ChangeFactory.columnChange(column("added"), null, Change.Status.ADD, table));
+            changes.add(ChangeFactory.columnChange(null, column("dropped"), Change.Status.DROP, table));
+            changes.add(ChangeFactory.tableChange(table, table("table_" + i), Change.Status.ALTER));
+            changes.add(ChangeFactory.foreignKeyChange(null, foreignKey(), Change.Status.DROP));
+        }
+
+        List<Change<?>> ordered = ChangeDependencyGraph.of(changes).getOrderedChanges();
+        Assertions.assertEquals(changes.size(), ordered.size());
+        Assertions.assertEquals(Change.Type.FOREIGN_KEY, ordered.get(0).getType());
+        Assertions.assertEquals(Change.Status.DROP, ordered.get(5_000).getStatus());
+    }
+
+    @Test
+    public void swappedColumnNamesCanNotBeOrdered() {
+        Table orders = table("orders");
+        Change<?> first = ChangeFactory.columnChange(column("b"), column("a"), Change.Status.RENAME, orders);
+        Change<?> second = ChangeFactory.columnChange(column("a"), column("b"), Change.Status.RENAME, orders);
+
+        Assertions.assertThrows(RuntimeException.class, () -> ChangeDependencyGraph.of(List.of(first, second)));
+    }
+
+    @Test
+    public void sameNamedTablesOfOtherSchemasAreIndependent() {
+        Table sales = table("orders");
+        Table archive = table("orders");
+        archive.setSchema("archive");
+        Change<?> first = ChangeFactory.columnChange(column("b"), column("a"), Change.Status.RENAME, sales);
+        Change<?> second = ChangeFactory.columnChange(column("a"), column("b"), Change.Status.RENAME, archive);
+
+        ChangeDependencyGraph graph = ChangeDependencyGraph.of(List.of(first, second));
+        Assertions.assertEquals(2, graph.getNodes().size());
+        Assertions.assertEquals(1, graph.levels().size());
+    }
+
+    private static Table table(String name) {
+        Table table = new Table();
+        table.setName(name);
+        table.setSchema("public");
+        return table;
+    }
+
+    private static Column column(String name) {
+        Column column = new Column();
+        column.setName(name);
+        column.setTypeName("int4");
+        return column;
+    }
+
+    private static Index index() {
+        Index index = new Index();
+        index.setName("orders_customer_idx");
+        index.setTableName("orders");
+        index.setColumnNames(List.of("customer_id"));
+        return index;
+    }
+
+    private static ForeignKey foreignKey() {
+        ForeignKey foreignKey = new ForeignKey();
+        foreignKey.setName("orders_customer_fk");
+        foreignKey.setTableName("orders");
+        foreignKey.setColumnName("customer_id");
+        foreignKey.setPrimaryTableName("customers");
+        foreignKey.setPrimaryColumnName("id");
+        return foreignKey;
+    }
+}
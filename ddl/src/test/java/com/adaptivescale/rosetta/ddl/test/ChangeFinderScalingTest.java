@@ -0,0 +1,123 @@
+package com.adaptivescale.rosetta.ddl.test;
+
+import com.adaptivescale.rosetta.common.models.Column;
+import com.adaptivescale.rosetta.common.models.Database;
+import com.adaptivescale.rosetta.common.models.ForeignKey;
+import com.adaptivescale.rosetta.common.models.Table;
+import com.adaptivescale.rosetta.ddl.change.ChangeFinder;
+import com.adaptivescale.rosetta.ddl.change.PostgresChangeFinder;
+import com.adaptivescale.rosetta.ddl.change.model.Change;
+import com.adaptivescale.rosetta.ddl.change.model.ColumnChange;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Change detection has to grow about linearly with the size of the model. The table names read while comparing
+ * models of 1 000 and 8 000 tables are counted, eight times the tables may read at most twice the linear share of
+ * names, matching every table against all others would read 64 times as many.
+ */
+public class ChangeFinderScalingTest {
+
+    private static final int COLUMNS = 5;
+    private static final AtomicLong NAME_READS = new AtomicLong();
+
+    @Test
+    public void findsChangesWithLinearLookups() {
+        ChangeFinder changeFinder = new PostgresChangeFinder();
+
+        long small = countNameReads(changeFinder, 1_000);
+        long large = countNameReads(changeFinder, 8_000);
+
+        Assertions.assertTrue(small > 0);
+        double ratio = (double) large / small;
+        Assertions.assertTrue(ratio < 16, String.format("8 000 tables read %.1f times as many names as 1 000", ratio));
+    }
+
+    @Test
+    public void keepsOrderOfTablesWhenComparingInParallel() {
+        Database expected = database(10_000, true);
+        List<Change<?>> changes = new PostgresChangeFinder().findChanges(expected, database(10_000, false));
+
+        List<String> tables = new ArrayList<>();
+        for (Change<?> change : changes) {
+            tables.add(((ColumnChange) change).getTable().getName());
+        }
+        List<String> expectedTables = new ArrayList<>();
+        for (int i = 0; i < 10_000; i += 100) {
+            expectedTables.add("table_" + i);
+        }
+        Assertions.assertEquals(expectedTables, tables);
+    }
+
+    private static long countNameReads(ChangeFinder changeFinder, int tables) {
+        Database expected = database(tables, true);
+        Database actual = database(tables, false);
+        NAME_READS.set(0);
+        List<Change<?>> changes = changeFinder.findChanges(expected, actual);
+        // every hundredth table has a column added
+        Assertions.assertEquals(tables / 100, changes.size());
+        return NAME_READS.get();
+    }
+
+    private static Database database(int tableCount, boolean expected) {
+        List<Table> tables = new ArrayList<>(tableCount);
+        for (int i = 0; i < tableCount; i++) {
+            List<Column> columns = new ArrayList<>();
+            for (int c = 0; c < COLUMNS; c++) {
+                columns.add(column("column_" + c, c == 0));
+            }
+            if (i > 0) {
+                ForeignKey foreignKey = new ForeignKey();
+                foreignKey.setName("table_" + i + "_fk");
+                foreignKey.setSchema("public");
+                foreignKey.setTableName("table_" + i);
+                foreignKey.setColumnName("column_1");
+                foreignKey.setDeleteRule("1");
+                foreignKey.setPrimaryTableSchema("public");
+                foreignKey.setPrimaryTableName("table_" + (i - 1));
+                foreignKey.setPrimaryColumnName("column_0");
+                columns.get(1).setForeignKeys(List.of(foreignKey));
+            }
+            if (expected && i % 100 == 0) {
+                columns.add(column("added", false));
+            }
+
+            Table table = new CountingTable();
+            table.setName("table_" + i);
+            table.setSchema("public");
+            table.setType("TABLE");
+            table.setColumns(columns);
+            tables.add(table);
+        }
+
+        Database database = new Database();
+        database.setDatabaseType("postgres");
+        database.setTables(tables);
+        return database;
+    }
+
+    private static Column column(String name, boolean primaryKey) {
+        Column column = new Column();
+        column.setName(name);
+        column.setTypeName("int4");
+        column.setNullable(!primaryKey);
+        column.setPrimaryKey(primaryKey);
+        column.setPrimaryKeySequenceId(primaryKey ? 1 : 0);
+        return column;
+    }
+
+    /**
+     * Counts how often table names are read, every lookup of a table by key reads its name.
+     */
+    private static class CountingTable extends Table {
+        @Override
+        public String getName() {
+            NAME_READS.incrementAndGet();
+            return super.getName();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.adaptivescale.rosetta.ddl.test;
+
+import com.adaptivescale.rosetta.common.models.Column;
+import com.adaptivescale.rosetta.common.models.ForeignKey;
+import com.adaptivescale.rosetta.common.models.Index;
+import com.adaptivescale.rosetta.common.models.Partition;
+import com.adaptivescale.rosetta.common.models.Table;
+import com.adaptivescale.rosetta.ddl.change.ChangePlanOptimizer;
+import com.adaptivescale.rosetta.ddl.change.model.Change;
+import com.adaptivescale.rosetta.ddl.change.model.ChangeFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class ChangePlanOptimizerTest {
+
+    @Test
+    public void keepsRepeatedDropOnce() {
+        ForeignKey foreignKey = foreignKey();
+        Change<?> dropWithColumn = ChangeFactory.foreignKeyChange(null, foreignKey, Change.Status.DROP);
+        Change<?> dropWithPrimaryKey = ChangeFactory.foreignKeyChange(null, foreignKey, Change.Status.DROP);
+
+        Assertions.assertEquals(List.of(dropWithColumn),
+                ChangePlanOptimizer.optimize(List.of(dropWithColumn, dropWithPrimaryKey)));
+    }
+
+    @Test
+    public void mergesPrimaryKeyRebuildsAfterLastAddedColumn() {
+        Table expected = table("orders");
+        Table actual = table("orders");
+        Change<?> addId = ChangeFactory.columnChange(column("id"), null, Change.Status.ADD, expected);
+        Change<?> firstRebuild = ChangeFactory.tableChange(expected, actual, Change.Status.ALTER);
+        Change<?> addRegion = ChangeFactory.columnChange(column("region"), null, Change.Status.ADD, expected);
+        Change<?> secondRebuild = ChangeFactory.tableChange(expected, actual, Change.Status.ALTER);
+
+        List<Change<?>> optimized = ChangePlanOptimizer.optimize(List.of(addId, firstRebuild, addRegion, secondRebuild));
+        Assertions.assertEquals(3, optimized.size());
+        Assertions.assertSame(addId, optimized.get(0));
+        Assertions.assertSame(addRegion, optimized.get(1));
+        Assertions.assertSame(secondRebuild, optimized.get(2));
+    }
+
+    @Test
+    public void cancelsIndexDroppedAndAddedUnchanged() {
+        Change<?> drop = ChangeFactory.indexChange(null, index("orders_total_idx"), Change.Status.DROP);
+        Change<?> add = ChangeFactory.indexChange(index("orders_total_idx"), null, Change.Status.ADD);
+        Change<?> other = ChangeFactory.indexChange(index("orders_region_idx"), null, Change.Status.ADD);
+
+        Assertions.assertEquals(List.of(other), ChangePlanOptimizer.optimize(List.of(drop, add, other)));
+    }
+
+    @Test
+    public void keepsIndexRecreatedWithAnotherDefinition() {
+        Index changed = index("orders_total_idx");
+        changed.setNonUnique(false);
+        Change<?> drop = ChangeFactory.indexChange(null, index("orders_total_idx"), Change.Status.DROP);
+        Change<?> add = ChangeFactory.indexChange(changed, null, Change.Status.ADD);
+
+        Assertions.assertEquals(List.of(drop, add), ChangePlanOptimizer.optimize(List.of(drop, add)));
+    }
+
+    @Test
+    public void keepsForeignKeyRecreatedAroundPrimaryKeyChange() {
+        Table customers = table("customers");
+        Change<?> drop = ChangeFactory.foreignKeyChange(null, foreignKey(), Change.Status.DROP);
+        Change<?> rebuild = ChangeFactory.tableChange(customers, table("customers"), Change.Status.ALTER);
+        Change<?> add = ChangeFactory.foreignKeyChange(foreignKey(), null, Change.Status.ADD);
+
+        Assertions.assertEquals(List.of(drop, rebuild, add), ChangePlanOptimizer.optimize(List.of(drop, rebuild, add)));
+        Assertions.assertTrue(ChangePlanOptimizer.optimize(List.of(drop, add)).isEmpty());
+    }
+
+    @Test
+    public void keepsEquallyNamedPartitionsOfDifferentTables() {
+        Change<?> orders = ChangeFactory.partitionChange(partition("p2024"), null, Change.Status.ADD, table("orders"));
+        Change<?> invoices = ChangeFactory.partitionChange(partition("p2024"), null, Change.Status.ADD, table("invoices"));
+
+        Assertions.assertEquals(List.of(orders, invoices), ChangePlanOptimizer.optimize(List.of(orders, invoices)));
+    }
+
+    private static Table table(String name) {
+        Table table = new Table();
+        table.setName(name);
+        table.setSchema("public");
+        return table;
+    }
+
+    private static Column column(String name) {
+        Column column = new Column();
+        column.setName(name);
+        column.setTypeName("int4");
+        column.setPrimaryKey(true);
+        return column;
+    }
+
+    private static Index index(String name) {
+        Index index = new Index();
+        index.setName(name);
+        index.setSchema("public");
+        index.setTableName("orders");
+        index.setColumnNames(List.of("total"));
+        index.setNonUnique(true);
+        return index;
+    }
+
+    private static Partition partition(String name) {
+        Partition partition = new Partition();
+        partition.setName(name);
+        partition.setBound("FOR VALUES FROM ('2024-01-01') TO ('2025-01-01')");
+        return partition;
+    }
+
+    private static ForeignKey foreignKey() {
+        ForeignKey foreignKey = new ForeignKey();
+        foreignKey.setName("orders_customer_fk");
+        foreignKey.setSchema("public");
+        foreignKey.setTableName("orders");
+        foreignKey.setColumnName("customer_id");
+        foreignKey.setDeleteRule("1");
+        foreignKey.setPrimaryTableSchema("public");
+        foreignKey.setPrimaryTableName("customers");
+        foreignKey.setPrimaryColumnName("id");
+        return foreignKey;
+    }
+}
@@ -0,0 +1,121 @@
+package com.adaptivescale.rosetta.ddl.test;
+
+import com.adaptivescale.rosetta.common.models.Column;
+import com.adaptivescale.rosetta.common.models.Database;
+import com.adaptivescale.rosetta.common.models.ForeignKey;
+import com.adaptivescale.rosetta.common.models.Index;
+import com.adaptivescale.rosetta.common.models.Table;
+import com.adaptivescale.rosetta.common.models.TableStatistics;
+import com.adaptivescale.rosetta.ddl.change.model.Change;
+import com.adaptivescale.rosetta.ddl.change.model.ChangeFactory;
+import com.adaptivescale.rosetta.ddl.cost.ChangeCost;
+import com.adaptivescale.rosetta.ddl.cost.CostClass;
+import com.adaptivescale.rosetta.ddl.cost.CostEstimator;
+import com.adaptivescale.rosetta.ddl.cost.CostLimit;
+import com.adaptivescale.rosetta.ddl.cost.MySqlCostModel;
+import com.adaptivescale.rosetta.ddl.cost.PostgresCostModel;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+public class CostEstimatorTest {
+
+    private static final long GIGABYTE = 1024L * 1024 * 1024;
+
+    @Test
+    public void ranksRewritesFirst() {
+        Table orders = table("orders", new TableStatistics(20_000_000L, 4 * GIGABYTE));
+        Table customers = table("customers", new TableStatistics(50_000L, null));
+
+        List<Change<?>> changes = List.of(
+                ChangeFactory.columnChange(column("note", "text", true), null, Change.Status.ADD, orders),
+                ChangeFactory.indexChange(index("customers_name_idx", "customers"), null, Change.Status.ADD),
+                ChangeFactory.columnChange(column("total", "numeric", true), column("total", "int4", true),
+                        Change.Status.ALTER, orders));
+
+        List<ChangeCost> costs = new CostEstimator(new PostgresCostModel(), database(orders, customers)).rank(changes);
+
+        Assertions.assertEquals(CostClass.REWRITE, costs.get(0).getCostClass());
+        Assertions.assertEquals("ALTER COLUMN total on public.orders", costs.get(0).describe());
+        Assertions.assertEquals(Duration.ofMillis(4 * GIGABYTE * 1000 / (20L * 1024 * 1024)),
+                costs.get(0).getEstimatedDuration().orElseThrow());
+        // the size of the index is estimated from the row count, the index names no schema
+        Assertions.assertEquals(CostClass.IN_PLACE, costs.get(1).getCostClass());
+        Assertions.assertTrue(costs.get(1).getEstimatedDuration().isPresent());
+        Assertions.assertEquals(Duration.ZERO, costs.get(2).getEstimatedDuration().orElseThrow());
+    }
+
+    @Test
+    public void tableWithoutStatisticsHasUnknownDuration() {
+        Table orders = table("orders", null);
+        Change<?> addIndex = ChangeFactory.indexChange(index("orders_total_idx", "orders"), null, Change.Status.ADD);
+
+        ChangeCost cost = new CostEstimator(new PostgresCostModel(), database(orders)).estimate(addIndex);
+
+        Assertions.assertTrue(cost.getEstimatedDuration().isEmpty());
+        Assertions.assertEquals(List.of("ADD INDEX orders_total_idx on orders is IN_PLACE on a table of unknown size"),
+                CostLimit.parse("1h").violations(List.of(cost)));
+    }
+
+    @Test
+    public void mySqlForeignKeyCopiesTable() {
+        Table orders = table("orders", new TableStatistics(1000L, 65536L));
+        ForeignKey foreignKey = new ForeignKey();
+        foreignKey.setName("orders_customer_fk");
+        foreignKey.setSchema("public");
+        foreignKey.setTableName("orders");
+
+        ChangeCost cost = new CostEstimator(new MySqlCostModel(), database(orders))
+                .estimate(ChangeFactory.foreignKeyChange(foreignKey, null, Change.Status.ADD));
+        Assertions.assertEquals(CostClass.REWRITE, cost.getCostClass());
+    }
+
+    @Test
+    public void limitsByCostClassOrDuration() {
+        Table orders = table("orders", new TableStatistics(null, 40 * GIGABYTE));
+        List<ChangeCost> costs = new CostEstimator(new PostgresCostModel(), database(orders)).estimate(List.of(
+                ChangeFactory.columnChange(column("total", "numeric", true), column("total", "int4", true),
+                        Change.Status.ALTER, orders)));
+
+        Assertions.assertEquals(List.of("ALTER COLUMN total on public.orders is REWRITE"),
+                CostLimit.parse("in-place").violations(costs));
+        Assertions.assertTrue(CostLimit.parse("REWRITE").violations(costs).isEmpty());
+        Assertions.assertEquals(List.of("changes are estimated to take 34m 8s, more than 15m 0s"),
+                CostLimit.parse("15m").violations(costs));
+        Assertions.assertTrue(CostLimit.parse("1h").violations(costs).isEmpty());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> CostLimit.parse("fast"));
+    }
+
+    private static Database database(Table... tables) {
+        Database database = new Database();
+        database.setDatabaseType("postgres");
+        database.setTables(List.of(tables));
+        return database;
+    }
+
+    private static Table table(String name, TableStatistics statistics) {
+        Table table = new Table();
+        table.setName(name);
+        table.setSchema("public");
+        table.setStatistics(statistics);
+        return table;
+    }
+
+    private static Column column(String name, String typeName, boolean nullable) {
+        Column column = new Column();
+        column.setName(name);
+        column.setTypeName(typeName);
+        column.setNullable(nullable);
+        return column;
+    }
+
+    private static Index index(String name, String tableName) {
+        Index index = new Index();
+        index.setName(name);
+        index.setTableName(tableName);
+        index.setColumnNames(List.of("name"));
+        return index;
+    }
+}
@@ -0,0 +1,65 @@
+package com.adaptivescale.rosetta.ddl.test;
+
+import com.adaptivescale.rosetta.ddl.executor.DDLStatementParser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class DDLStatementParserTest {
+
+    @Test
+    public void splitsChangeHandlerOutput() {
+        String ddl = "ALTER TABLE \"FBAL\".\"PLAYER\" ADD COLUMN \"ID\" numeric NOT NULL;\r" +
+                "ALTER TABLE \"FBAL\".\"PLAYER\" ADD PRIMARY KEY (\"ID\");\r\r" +
+                "ALTER TABLE \"FBAL\".\"TEAM\" DROP COLUMN \"NAME\";";
+        List<String> statements = DDLStatementParser.parse(ddl, DDLStatementParser.Dialect.STANDARD);
+        Assertions.assertEquals(3, statements.size());
+        Assertions.assertEquals("ALTER TABLE \"FBAL\".\"PLAYER\" ADD PRIMARY KEY (\"ID\")", statements.get(1));
+    }
+
+    @Test
+    public void ignoresSemicolonsInLiteralsAndComments() {
+        String ddl = "CREATE TABLE `a;b` (`c` varchar(10) DEFAULT 'x;''y');" +
+                "-- comment; not a statement\n" +
+                "/* also; not */ DROP TABLE \"t;1\";";
+        List<String> statements = DDLStatementParser.parse(ddl, DDLStatementParser.Dialect.STANDARD);
+        Assertions.assertEquals(2, statements.size());
+        Assertions.assertEquals("CREATE TABLE `a;b` (`c` varchar(10) DEFAULT 'x;''y')", statements.get(0));
+        Assertions.assertEquals("DROP TABLE \"t;1\"", statements.get(1));
+    }
+
+    @Test
+    public void keepsPostgresDollarQuotedBodies() {
+        String ddl = "CREATE FUNCTION f() RETURNS trigger AS $body$ BEGIN NEW.a := 'x;'; RETURN NEW; END; $body$ LANGUAGE plpgsql;" +
+                "DO $$ BEGIN PERFORM 1; END $$;" +
+                "COMMENT ON TABLE \"t$1\" IS 'price in $';";
+        List<String> statements = DDLStatementParser.parse(ddl, DDLStatementParser.Dialect.POSTGRES);
+        Assertions.assertEquals(List.of(
+                "CREATE FUNCTION f() RETURNS trigger AS $body$ BEGIN NEW.a := 'x;'; RETURN NEW; END; $body$ LANGUAGE plpgsql",
+                "DO $$ BEGIN PERFORM 1; END $$",
+                "COMMENT ON TABLE \"t$1\" IS 'price in $'"), statements);
+    }
+
+    @Test
+    public void keepsPostgresBackslashInLiterals() {
+        String ddl = "COMMENT ON COLUMN \"t\".\"path\" IS 'C:\\';ALTER TABLE \"t\" ADD COLUMN \"x\" int4;";
+        List<String> statements = DDLStatementParser.parse(ddl, DDLStatementParser.Dialect.POSTGRES);
+        Assertions.assertEquals(List.of("COMMENT ON COLUMN \"t\".\"path\" IS 'C:\\'",
+                "ALTER TABLE \"t\" ADD COLUMN \"x\" int4"), statements);
+    }
+
+    @Test
+    public void escapesMySqlQuotesWithBackslash() {
+        String ddl = "ALTER TABLE `t` ADD COLUMN `c` varchar(10) DEFAULT 'it\\'s;' COMMENT \"a\\\";b\";DROP TABLE `$$`;";
+        List<String> statements = DDLStatementParser.parse(ddl, DDLStatementParser.Dialect.MYSQL);
+        Assertions.assertEquals(List.of("ALTER TABLE `t` ADD COLUMN `c` varchar(10) DEFAULT 'it\\'s;' COMMENT \"a\\\";b\"",
+                "DROP TABLE `$$`"), statements);
+    }
+
+    @Test
+    public void emptyScript() {
+        Assertions.assertTrue(DDLStatementParser.parse("\r;\r", DDLStatementParser.Dialect.STANDARD).isEmpty());
+        Assertions.assertTrue(DDLStatementParser.parse(null, DDLStatementParser.Dialect.STANDARD).isEmpty());
+    }
+}
@@ -0,0 +1,121 @@
+package com.adaptivescale.rosetta.ddl.test;
+
+import com.adaptivescale.rosetta.ddl.executor.DDLStatementException;
+import com.adaptivescale.rosetta.ddl.executor.DDLStatementPipeline;
+import com.adaptivescale.rosetta.ddl.executor.DDLStatementResult;
+import com.adaptivescale.rosetta.ddl.executor.StatementThrottle;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+public class DDLStatementPipelineTest {
+
+    @Test
+    public void groupsStatementsIntoRoundTrips() throws SQLException {
+        List<String> sent = new ArrayList<>();
+        List<String> statements = List.of("CREATE TABLE A(X INT)", "CREATE TABLE B(X INT)", "CREATE TABLE C(X INT)");
+
+        List<DDLStatementResult> results = new DDLStatementPipeline(connection(sent)).executeGrouped(statements, 2);
+
+        Assertions.assertEquals(List.of("CREATE TABLE A(X INT);\nCREATE TABLE B(X INT)", "CREATE TABLE C(X INT)"), sent);
+        Assertions.assertEquals(3, results.size());
+        Assertions.assertEquals(3, results.get(2).getIndex());
+    }
+
+    @Test
+    public void fallsBackToSingleStatementsWhenGroupFails() {
+        List<String> sent = new ArrayList<>();
+        List<String> statements = List.of("CREATE TABLE A(X INT)", "FAIL", "CREATE TABLE C(X INT)");
+
+        DDLStatementException exception = Assertions.assertThrows(DDLStatementException.class,
+                () -> new DDLStatementPipeline(connection(sent)).executeGrouped(statements, 3));
+
+        // the first result was read from the group, so only the rest is sent again
+        Assertions.assertEquals(List.of("CREATE TABLE A(X INT);\nFAIL;\nCREATE TABLE C(X INT)", "FAIL"), sent);
+        Assertions.assertEquals(2, exception.getStatementIndex());
+    }
+
+    @Test
+    public void failsGroupWhenNoResultWasRead() {
+        List<String> sent = new ArrayList<>();
+        List<String> statements = List.of("FAIL", "CREATE TABLE B(X INT)", "CREATE TABLE C(X INT)");
+
+        DDLStatementException exception = Assertions.assertThrows(DDLStatementException.class,
+                () -> new DDLStatementPipeline(connection(sent)).executeGrouped(statements, 3));
+
+        // it is unknown what the group applied, so nothing is sent again
+        Assertions.assertEquals(List.of("FAIL;\nCREATE TABLE B(X INT);\nCREATE TABLE C(X INT)"), sent);
+        Assertions.assertEquals(1, exception.getStatementIndex());
+    }
+
+    @Test
+    public void throttlesGroupedAndResentStatements() {
+        List<String> sent = new ArrayList<>();
+        List<String> throttled = new ArrayList<>();
+        StatementThrottle throttle = new StatementThrottle() {
+            @Override
+            public void beforeStatement(String statement) {
+                throttled.add(statement);
+            }
+
+            @Override
+            public long retryDelayMillis(String statement, SQLException failure, int attempt) {
+                return -1;
+            }
+        };
+        List<String> statements = List.of("CREATE TABLE A(X INT)", "FAIL", "CREATE TABLE C(X INT)");
+
+        Assertions.assertThrows(DDLStatementException.class,
+                () -> new DDLStatementPipeline(connection(sent), throttle).executeGrouped(statements, 3));
+
+        Assertions.assertEquals(List.of("CREATE TABLE A(X INT)", "FAIL", "CREATE TABLE C(X INT)", "FAIL"), throttled);
+    }
+
+    /**
+     * Connection executing multi-statement scripts, a statement "FAIL" fails when its result is read.
+     */
+    private static Connection connection(List<String> sent) {
+        List<String> pending = new ArrayList<>();
+        Statement statement = (Statement) Proxy.newProxyInstance(
+                DDLStatementPipelineTest.class.getClassLoader(), new Class[]{Statement.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "execute":
+                        case "executeUpdate":
+                            String script = (String) args[0];
+                            sent.add(script);
+                            pending.clear();
+                            pending.addAll(List.of(script.split(";\n")));
+                            nextResult(pending);
+                            return method.getName().equals("execute") ? Boolean.TRUE : Integer.valueOf(0);
+                        case "getMoreResults":
+                            nextResult(pending);
+                            return Boolean.TRUE;
+                        case "close":
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        return (Connection) Proxy.newProxyInstance(
+                DDLStatementPipelineTest.class.getClassLoader(), new Class[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("createStatement")) {
+                        return statement;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static void nextResult(List<String> pending) throws SQLException {
+        if (pending.remove(0).equals("FAIL")) {
+            throw new SQLException("Statement failed");
+        }
+    }
+}
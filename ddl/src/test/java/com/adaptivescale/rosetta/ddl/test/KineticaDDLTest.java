@@ -18,7 +18,6 @@ package com.adaptivescale.rosetta.ddl.test;
 
 import com.adaptivescale.rosetta.common.models.Database;
 import com.adaptivescale.rosetta.ddl.change.*;
-import com.adaptivescale.rosetta.ddl.change.comparator.KineticaForeignKeyChangeComparator;
 import com.adaptivescale.rosetta.ddl.change.model.Change;
 import com.adaptivescale.rosetta.ddl.targets.kinetica.KineticaDDLGenerator;
 import org.junit.jupiter.api.Assertions;
@@ -149,8 +148,7 @@ public class KineticaDDLTest {
     @Test
     public void alterPrimaryKey() throws IOException {
         String ddl = generateDDL("alter_primary_key");
-        Assertions.assertEquals("\r" +
-                "ALTER TABLE \"PLAYER\" DROP PRIMARY KEY, ADD PRIMARY KEY (\"ID\", \"POSITION_ID\");\r", ddl);
+        Assertions.assertEquals("ALTER TABLE \"PLAYER\" DROP PRIMARY KEY, ADD PRIMARY KEY (\"ID\", \"POSITION_ID\");", ddl);
     }
 
     @Test
@@ -184,12 +182,42 @@ public class KineticaDDLTest {
                 "ALTER TABLE \"TEAMPLAYERS\" ADD CONSTRAINT TEAMPLAYERS_FK FOREIGN KEY (\"PLAYERID\") REFERENCES  \"POSITION\"(\"ID\");\r", ddl);
     }
 
+    @Test
+    public void addReplicatedTable() throws IOException {
+        String ddl = generateDDL("add_replicated_table");
+        Assertions.assertEquals("CREATE REPLICATED TABLE \"Position\"(\"ID\" DECIMAL(10) NOT NULL , \"DESCRIPTION\" VARCHAR, " +
+                "\"Name\" VARCHAR(dict), PRIMARY KEY (\"ID\")) TIER STRATEGY (( ( VRAM 1, RAM 7, PERSIST 5 ) ));", ddl);
+    }
+
+    @Test
+    public void addShardedTable() throws IOException {
+        String ddl = generateDDL("add_sharded_table");
+        Assertions.assertEquals("CREATE TABLE \"TEAMPLAYERS\"(\"TEAMID\" DECIMAL(10), \"PLAYERID\" DECIMAL(10), SHARD KEY (\"TEAMID\"));", ddl);
+    }
+
+    @Test
+    public void alterTierStrategy() throws IOException {
+        String ddl = generateDDL("alter_tier_strategy");
+        Assertions.assertEquals("ALTER TABLE \"TEAM\" SET TIER STRATEGY (( ( VRAM 1, RAM 7, PERSIST 5 ) ));", ddl);
+    }
+
+    @Test
+    public void alterColumnProperties() throws IOException {
+        String ddl = generateDDL("alter_column_properties");
+        Assertions.assertEquals("ALTER TABLE \"TEAM\" MODIFY \"name\" VARCHAR(dict, text_search);", ddl);
+    }
+
+    @Test
+    public void changeShardKey() {
+        Assertions.assertThrows(RuntimeException.class, () -> generateDDL("change_shard_key"));
+    }
+
     private String generateDDL(String testType) throws IOException {
         Database actual = Utils.getDatabase(resourceDirectory.resolve(testType), "actual_model.yaml");
         Database expected = Utils.getDatabase(resourceDirectory.resolve(testType), "expected_model.yaml");
         ChangeFinder kineticaChangeFinder = new KineticaChangeFinder();
         List<Change<?>> changes = kineticaChangeFinder.findChanges(expected, actual);
-        ChangeHandler handler = new ChangeHandlerImplementation(new KineticaDDLGenerator(), new KineticaForeignKeyChangeComparator());
+        ChangeHandler handler = new ChangeHandlerImplementation(new KineticaDDLGenerator());
         return handler.createDDLForChanges(changes);
     }
 }
@@ -1,8 +1,8 @@
 package com.adaptivescale.rosetta.ddl.test;
 
 import com.adaptivescale.rosetta.common.models.Database;
+import com.adaptivescale.rosetta.ddl.ApplyOptions;
 import com.adaptivescale.rosetta.ddl.change.*;
-import com.adaptivescale.rosetta.ddl.change.comparator.MysqlForeignKeyChangeComparator;
 import com.adaptivescale.rosetta.ddl.change.model.Change;
 import com.adaptivescale.rosetta.ddl.targets.mysql.MySqlDDLGenerator;
 import org.junit.jupiter.api.Assertions;
@@ -45,6 +45,13 @@ public class MySqlDDLTest {
         Assertions.assertEquals("ALTER TABLE `Position` ADD COLUMN `DESCRIPTION` varchar(0) NULL;", ddl);
     }
 
+    @Test
+    public void addMultipleColumns() throws IOException {
+        String ddl = generateDDL("add_multiple_columns");
+        Assertions.assertEquals("ALTER TABLE `TEAM` DROP COLUMN `country`;\r" +
+                "ALTER TABLE `Position` ADD COLUMN `DESCRIPTION` varchar(0) NULL, ADD COLUMN `CODE` varchar(0) NULL;", ddl);
+    }
+
     @Test
     public void addColumnWithForeignKey() throws IOException {
         String ddl = generateDDL("add_column_with_foreign_key");
@@ -55,8 +62,7 @@ public class MySqlDDLTest {
     @Test
     public void addColumnAsPrimaryKey() throws IOException {
         String ddl = generateDDL("add_column_as_primary_key");
-        Assertions.assertEquals("ALTER TABLE `PLAYER` ADD COLUMN `ID` numeric NOT NULL;\r" +
-                "ALTER TABLE `PLAYER` ADD PRIMARY KEY (`ID`);", ddl);
+        Assertions.assertEquals("ALTER TABLE `PLAYER` ADD COLUMN `ID` numeric NOT NULL, ADD PRIMARY KEY (`ID`);", ddl);
     }
 
     @Test
@@ -133,8 +139,7 @@ public class MySqlDDLTest {
     @Test
     public void alterPrimaryKey() throws IOException {
         String ddl = generateDDL("alter_primary_key");
-        Assertions.assertEquals("\r" +
-                "ALTER TABLE `PLAYER` DROP PRIMARY KEY, ADD PRIMARY KEY (`ID`, `POSITION_ID`);\r", ddl);
+        Assertions.assertEquals("ALTER TABLE `PLAYER` DROP PRIMARY KEY, ADD PRIMARY KEY (`ID`, `POSITION_ID`);", ddl);
     }
 
     @Test
@@ -168,12 +173,83 @@ public class MySqlDDLTest {
                 "ALTER TABLE `TEAMPLAYERS` ADD CONSTRAINT TEAMPLAYERS_FK FOREIGN KEY (`PLAYERID`) REFERENCES  `POSITION`(`ID`);\r", ddl);
     }
 
+    @Test
+    public void addIndex() throws IOException {
+        String ddl = generateDDL("add_index");
+        Assertions.assertEquals("ALTER TABLE `TEAM` ADD INDEX `TEAM_NAME_IDX` (`name`);", ddl);
+    }
+
+    @Test
+    public void dropIndex() throws IOException {
+        String ddl = generateDDL("drop_index");
+        Assertions.assertEquals("ALTER TABLE `TEAM` DROP INDEX `TEAM_NAME_IDX`;", ddl);
+    }
+
+    @Test
+    public void keepIndicesLeftOutOfModel() throws IOException {
+        String ddl = generateDDL("unspecified_indices");
+        Assertions.assertEquals("", ddl);
+    }
+
+    @Test
+    public void alterIndex() throws IOException {
+        String ddl = generateDDL("alter_index");
+        Assertions.assertEquals("ALTER TABLE `TEAM` DROP INDEX `TEAM_NAME_IDX`;\r" +
+                "ALTER TABLE `TEAM` ADD UNIQUE INDEX `TEAM_NAME_IDX` (`name`);", ddl);
+    }
+
+    @Test
+    public void dropIndexedColumn() throws IOException {
+        String ddl = generateDDL("drop_indexed_column");
+        Assertions.assertEquals("ALTER TABLE `TEAM` DROP COLUMN `country`;", ddl);
+    }
+
+    @Test
+    public void renameIndexedColumn() throws IOException {
+        String ddl = generateDDL("rename_indexed_column");
+        Assertions.assertEquals("ALTER TABLE `TEAM` DROP INDEX `TEAM_COUNTRY_IDX`;\r" +
+                "ALTER TABLE `TEAM` RENAME COLUMN `country` TO `nation`;\r" +
+                "ALTER TABLE `TEAM` ADD INDEX `TEAM_COUNTRY_IDX` (`nation`);", ddl);
+    }
+
+    @Test
+    public void onlineAddColumn() throws IOException {
+        String ddl = generateDDL("add_column", onlineOptions(false));
+        Assertions.assertEquals("ALTER TABLE `Position` ADD COLUMN `DESCRIPTION` varchar(0) NULL, ALGORITHM=INSTANT;", ddl);
+    }
+
+    @Test
+    public void onlineAddColumnAsPrimaryKey() throws IOException {
+        String ddl = generateDDL("add_column_as_primary_key", onlineOptions(false));
+        Assertions.assertEquals("ALTER TABLE `PLAYER` ADD COLUMN `ID` numeric NOT NULL, ADD PRIMARY KEY (`ID`)," +
+                " ALGORITHM=INPLACE, LOCK=NONE;", ddl);
+    }
+
+    @Test
+    public void onlineAlterColumnDataType() throws IOException {
+        Assertions.assertThrows(RuntimeException.class, () -> generateDDL("alter_column_data_type", onlineOptions(false)));
+
+        String ddl = generateDDL("alter_column_data_type", onlineOptions(true));
+        Assertions.assertEquals(generateDDL("alter_column_data_type"), ddl);
+    }
+
+    private ApplyOptions onlineOptions(boolean allowBlockingChanges) {
+        ApplyOptions options = new ApplyOptions();
+        options.setOnline(true);
+        options.setAllowBlockingChanges(allowBlockingChanges);
+        return options;
+    }
+
     private String generateDDL(String testType) throws IOException {
+        return generateDDL(testType, new ApplyOptions());
+    }
+
+    private String generateDDL(String testType, ApplyOptions options) throws IOException {
         Database actual = Utils.getDatabase(resourceDirectory.resolve(testType), "actual_model.yaml");
         Database expected = Utils.getDatabase(resourceDirectory.resolve(testType), "expected_model.yaml");
         MySQLChangeFinder mySQLChangeFinder = new MySQLChangeFinder();
         List<Change<?>> changes = mySQLChangeFinder.findChanges(expected, actual);
-        ChangeHandler handler = new ChangeHandlerImplementation(new MySqlDDLGenerator(), new MysqlForeignKeyChangeComparator());
+        ChangeHandler handler = new ChangeHandlerImplementation(new MySqlDDLGenerator(options));
         return handler.createDDLForChanges(changes);
     }
 }
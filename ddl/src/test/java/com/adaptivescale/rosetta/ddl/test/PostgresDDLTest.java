@@ -1,10 +1,13 @@
 package com.adaptivescale.rosetta.ddl.test;
 
 import com.adaptivescale.rosetta.common.models.Database;
+import com.adaptivescale.rosetta.common.models.Table;
+import com.adaptivescale.rosetta.ddl.ApplyOptions;
 import com.adaptivescale.rosetta.ddl.change.*;
-import com.adaptivescale.rosetta.ddl.change.comparator.MysqlForeignKeyChangeComparator;
-import com.adaptivescale.rosetta.ddl.change.comparator.PostgresForeignKeyChangeComparator;
 import com.adaptivescale.rosetta.ddl.change.model.Change;
+import com.adaptivescale.rosetta.ddl.change.model.IndexChange;
+import com.adaptivescale.rosetta.ddl.executor.DDLStatementParser;
+import com.adaptivescale.rosetta.ddl.executor.PostgresStatementPhases;
 import com.adaptivescale.rosetta.ddl.targets.mysql.MySqlDDLGenerator;
 import com.adaptivescale.rosetta.ddl.targets.postgres.PostgresDDLGenerator;
 import org.junit.jupiter.api.Assertions;
@@ -14,6 +17,7 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.Optional;
 
 public class PostgresDDLTest {
 
@@ -57,8 +61,7 @@ public class PostgresDDLTest {
     @Test
     public void addColumnAsPrimaryKey() throws IOException {
         String ddl = generateDDL("add_column_as_primary_key");
-        Assertions.assertEquals("ALTER TABLE \"PLAYER\" ADD COLUMN \"ID\" numeric NOT NULL ;\r" +
-                "ALTER TABLE \"PLAYER\" ADD PRIMARY KEY (\"ID\");", ddl);
+        Assertions.assertEquals("ALTER TABLE \"PLAYER\" ADD COLUMN \"ID\" numeric NOT NULL , ADD PRIMARY KEY (\"ID\");", ddl);
     }
 
     @Test
@@ -123,7 +126,7 @@ public class PostgresDDLTest {
     public void dropPrimaryKey() throws IOException {
         String ddl = generateDDL("drop_primary_key");
         Assertions.assertEquals("ALTER TABLE \"TEAMPLAYERS\" DROP CONSTRAINT \"TEAMPLAYERS_FK\";\r" +
-                "ALTER TABLE \"PLAYER\" DROP PRIMARY KEY;", ddl);
+                "ALTER TABLE \"PLAYER\" DROP CONSTRAINT \"PLAYER_pkey\";", ddl);
     }
 
     @Test
@@ -135,8 +138,13 @@ public class PostgresDDLTest {
     @Test
     public void alterPrimaryKey() throws IOException {
         String ddl = generateDDL("alter_primary_key");
-        Assertions.assertEquals("\r" +
-                "ALTER TABLE \"PLAYER\" DROP PRIMARY KEY, ADD PRIMARY KEY (\"ID\", \"POSITION_ID\");\r", ddl);
+        Assertions.assertEquals("ALTER TABLE \"PLAYER\" DROP CONSTRAINT \"PLAYER_pkey\", ADD PRIMARY KEY (\"ID\", \"POSITION_ID\");", ddl);
+    }
+
+    @Test
+    public void alterNamedPrimaryKey() throws IOException {
+        String ddl = generateDDL("alter_named_primary_key");
+        Assertions.assertEquals("ALTER TABLE \"PLAYER\" DROP CONSTRAINT \"PLAYER_PK\", ADD PRIMARY KEY (\"ID\", \"POSITION_ID\");", ddl);
     }
 
     @Test
@@ -170,12 +178,202 @@ public class PostgresDDLTest {
                 "ALTER TABLE \"TEAMPLAYERS\" ADD CONSTRAINT TEAMPLAYERS_FK FOREIGN KEY (\"PLAYERID\") REFERENCES  \"POSITION\"(\"ID\");\r", ddl);
     }
 
+    @Test
+    public void addPartitionedTable() throws IOException {
+        String ddl = generateDDL("add_partitioned_table");
+        Assertions.assertEquals("CREATE TABLE \"public\".\"EVENTS\"(\"ID\" int8 NOT NULL , \"CREATED_AT\" timestamp NOT NULL )" +
+                " PARTITION BY RANGE (\"CREATED_AT\");\r" +
+                "CREATE TABLE \"public\".\"EVENTS_2023\" PARTITION OF \"public\".\"EVENTS\"" +
+                " FOR VALUES FROM ('2023-01-01 00:00:00') TO ('2024-01-01 00:00:00');\r" +
+                "CREATE TABLE \"public\".\"EVENTS_DEFAULT\" PARTITION OF \"public\".\"EVENTS\" DEFAULT;", ddl);
+    }
+
+    @Test
+    public void partitionDrift() throws IOException {
+        String ddl = generateDDL("partition_drift");
+        Assertions.assertEquals("DROP TABLE \"public\".\"EVENTS_2022\";\r" +
+                "ALTER TABLE \"public\".\"EVENTS\" DETACH PARTITION \"public\".\"EVENTS_2023\";\r" +
+                "ALTER TABLE \"public\".\"EVENTS\" ATTACH PARTITION \"public\".\"EVENTS_2023\"" +
+                " FOR VALUES FROM ('2023-01-01 00:00:00') TO ('2024-01-01 00:00:00');\r" +
+                "CREATE TABLE \"public\".\"EVENTS_2024\" PARTITION OF \"public\".\"EVENTS\"" +
+                " FOR VALUES FROM ('2024-01-01 00:00:00')  TO ('2025-01-01 00:00:00');", ddl);
+    }
+
+    @Test
+    public void skipPartitionChangesWithoutPartitionSupport() throws IOException {
+        Database actual = Utils.getDatabase(resourceDirectory.resolve("partition_drift"), "actual_model.yaml");
+        Database expected = Utils.getDatabase(resourceDirectory.resolve("partition_drift"), "expected_model.yaml");
+        List<Change<?>> changes = new PostgresChangeFinder().findChanges(expected, actual);
+        Assertions.assertFalse(changes.isEmpty());
+        Assertions.assertEquals("", new ChangeHandlerImplementation(new MySqlDDLGenerator()).createDDLForChanges(changes));
+    }
+
+    @Test
+    public void onlineAddForeignKey() throws IOException {
+        ApplyOptions options = new ApplyOptions();
+        options.setOnline(true);
+        String ddl = generateDDL("add_foreign_key", options);
+        Assertions.assertEquals("ALTER TABLE \"PLAYER\" ADD CONSTRAINT PLAYER_FK FOREIGN KEY (\"POSITION_ID\") " +
+                "REFERENCES  \"Position\"(\"ID\") ON DELETE NO ACTION NOT VALID;\r" +
+                "ALTER TABLE \"PLAYER\" VALIDATE CONSTRAINT PLAYER_FK;\r", ddl);
+    }
+
+    @Test
+    public void addIndex() throws IOException {
+        String ddl = generateDDL("add_index");
+        Assertions.assertEquals("CREATE INDEX \"TEAM_NAME_IDX\" ON \"TEAM\"(\"name\");", ddl);
+    }
+
+    @Test
+    public void dropIndex() throws IOException {
+        String ddl = generateDDL("drop_index");
+        Assertions.assertEquals("DROP INDEX \"TEAM_NAME_IDX\";", ddl);
+    }
+
+    @Test
+    public void keepIndicesLeftOutOfModel() throws IOException {
+        String ddl = generateDDL("unspecified_indices");
+        Assertions.assertEquals("", ddl);
+    }
+
+    @Test
+    public void alterIndex() throws IOException {
+        String ddl = generateDDL("alter_index");
+        Assertions.assertEquals("DROP INDEX \"TEAM_NAME_IDX\";\r" +
+                "CREATE UNIQUE INDEX \"TEAM_NAME_IDX\" ON \"TEAM\"(\"name\");", ddl);
+    }
+
+    @Test
+    public void indexStatisticsAreNotCompared() throws IOException {
+        String ddl = generateDDL("index_statistics");
+        Assertions.assertEquals("", ddl);
+    }
+
+    @Test
+    public void alterIndexIsRebuild() throws IOException {
+        Database actual = Utils.getDatabase(resourceDirectory.resolve("alter_index"), "actual_model.yaml");
+        Database expected = Utils.getDatabase(resourceDirectory.resolve("alter_index"), "expected_model.yaml");
+        List<Change<?>> changes = new PostgresChangeFinder().findChanges(expected, actual);
+        Assertions.assertEquals(2, changes.size());
+        IndexChange rebuild = (IndexChange) changes.stream().filter(change -> change.getStatus() == Change.Status.ADD)
+                .findFirst().orElseThrow();
+        Assertions.assertTrue(rebuild.isRebuild());
+        Assertions.assertEquals(Optional.of(10L), rebuild.getRebuildEntries());
+    }
+
+    @Test
+    public void addBrinIndex() throws IOException {
+        String ddl = generateDDL("add_brin_index");
+        Assertions.assertEquals("CREATE INDEX \"TEAM_ID_BRIN\" ON \"TEAM\" USING brin(\"ID\");", ddl);
+    }
+
+    @Test
+    public void addPartialCoveringIndex() throws IOException {
+        String ddl = generateDDL("add_partial_covering_index");
+        Assertions.assertEquals("CREATE INDEX \"TEAM_NAME_IDX\" ON \"TEAM\"(\"name\" varchar_pattern_ops, (lower(country))) " +
+                "INCLUDE (\"ID\") WHERE country IS NOT NULL;", ddl);
+    }
+
+    @Test
+    public void alterIndexMethod() throws IOException {
+        String ddl = generateDDL("alter_index_method");
+        Assertions.assertEquals("DROP INDEX \"TEAM_NAME_IDX\";\r" +
+                "CREATE INDEX \"TEAM_NAME_IDX\" ON \"TEAM\" USING gist(\"name\");", ddl);
+    }
+
+    @Test
+    public void dropIndexedColumn() throws IOException {
+        String ddl = generateDDL("drop_indexed_column");
+        Assertions.assertEquals("ALTER TABLE \"TEAM\" DROP COLUMN \"country\";", ddl);
+    }
+
+    @Test
+    public void renameColumn() throws IOException {
+        String ddl = generateDDL("rename_column", detectRenames());
+        Assertions.assertEquals("ALTER TABLE \"PLAYER\" RENAME COLUMN \"name\" TO \"full_name\";", ddl);
+    }
+
+    @Test
+    public void renameColumnOnlyWhenAskedTo() throws IOException {
+        String ddl = generateDDL("rename_column");
+        Assertions.assertEquals("ALTER TABLE \"PLAYER\" DROP COLUMN \"name\", ADD COLUMN \"full_name\" varchar(100);", ddl);
+    }
+
+    @Test
+    public void keepSeparateStatementsWhenClausesAreNotCombined() throws IOException {
+        Database actual = Utils.getDatabase(resourceDirectory.resolve("rename_column"), "actual_model.yaml");
+        Database expected = Utils.getDatabase(resourceDirectory.resolve("rename_column"), "expected_model.yaml");
+        List<Change<?>> changes = new PostgresChangeFinder().findChanges(expected, actual);
+        ChangeHandler handler = new ChangeHandlerImplementation(new PostgresDDLGenerator(new ApplyOptions()) {
+            @Override
+            public String combinedAlterTable(Table table, List<Change<?>> changes) {
+                return null;
+            }
+        });
+        Assertions.assertEquals("ALTER TABLE \"PLAYER\" DROP COLUMN \"name\";\r" +
+                "ALTER TABLE \"PLAYER\" ADD COLUMN \"full_name\" varchar(100);", handler.createDDLForChanges(changes));
+    }
+
+    @Test
+    public void renameColumnWithPreviousName() throws IOException {
+        String ddl = generateDDL("rename_column_with_previous_name");
+        Assertions.assertEquals("ALTER TABLE \"Position\" RENAME COLUMN \"Name\" TO \"title\";\r" +
+                "ALTER TABLE \"Position\" ADD COLUMN \"label\" varchar(100);", ddl);
+    }
+
+    @Test
+    public void renameTable() throws IOException {
+        String ddl = generateDDL("rename_table", detectRenames());
+        Assertions.assertEquals("ALTER TABLE \"TEAMPLAYERS\" DROP CONSTRAINT \"TEAMPLAYERS_FK_TEAM\";\r" +
+                "ALTER TABLE \"TEAM\" RENAME TO \"CLUB\";\r" +
+                "ALTER TABLE \"TEAMPLAYERS\" ADD CONSTRAINT TEAMPLAYERS_FK_TEAM FOREIGN KEY (\"TEAMID\") " +
+                "REFERENCES  \"CLUB\"(\"ID\") ON DELETE NO ACTION ;\r", ddl);
+    }
+
+    @Test
+    public void onlineStatementPhases() {
+        Assertions.assertFalse(PostgresStatementPhases.runsOutsideTransaction(
+                "ALTER TABLE \"PLAYER\" ADD CONSTRAINT PLAYER_FK FOREIGN KEY (\"POSITION_ID\") REFERENCES \"Position\"(\"ID\") NOT VALID"));
+        Assertions.assertTrue(PostgresStatementPhases.runsOutsideTransaction(
+                "ALTER TABLE \"PLAYER\" VALIDATE CONSTRAINT PLAYER_FK"));
+        Assertions.assertTrue(PostgresStatementPhases.runsOutsideTransaction(
+                "DROP INDEX CONCURRENTLY IF EXISTS \"public\".\"PLAYER_NAME_IDX\""));
+        Assertions.assertTrue(PostgresStatementPhases.runsOutsideTransaction(
+                "create unique index concurrently \"PLAYER_NAME_IDX\" ON \"public\".\"PLAYER\"(\"NAME\")"));
+        Assertions.assertEquals("DROP INDEX CONCURRENTLY IF EXISTS \"public\".\"PLAYER_NAME_IDX\"",
+                PostgresStatementPhases.dropLeftoverIndex(
+                        "CREATE INDEX CONCURRENTLY \"PLAYER_NAME_IDX\" ON \"public\".\"PLAYER\"(\"NAME\")").orElse(null));
+    }
+
+    @Test
+    public void onlineUniqueIndexBeforeForeignKey() throws IOException {
+        ApplyOptions options = new ApplyOptions();
+        options.setOnline(true);
+        String ddl = generateDDL("add_unique_index_with_foreign_key", options);
+        List<List<String>> phases = PostgresStatementPhases.phases(DDLStatementParser.parse(ddl, DDLStatementParser.Dialect.POSTGRES));
+        Assertions.assertEquals(List.of(
+                List.of("CREATE UNIQUE INDEX CONCURRENTLY \"POSITION_NAME_UQ\" ON \"Position\"(\"Name\")"),
+                List.of("ALTER TABLE \"PLAYER\" ADD CONSTRAINT PLAYER_FK FOREIGN KEY (\"POSITION_ID\") " +
+                        "REFERENCES  \"Position\"(\"Name\") ON DELETE NO ACTION NOT VALID"),
+                List.of("ALTER TABLE \"PLAYER\" VALIDATE CONSTRAINT PLAYER_FK")), phases);
+    }
+
+    private static ApplyOptions detectRenames() {
+        ApplyOptions options = new ApplyOptions();
+        options.setDetectRenames(true);
+        return options;
+    }
+
     private String generateDDL(String testType) throws IOException {
+        return generateDDL(testType, new ApplyOptions());
+    }
+
+    private String generateDDL(String testType, ApplyOptions options) throws IOException {
         Database actual = Utils.getDatabase(resourceDirectory.resolve(testType), "actual_model.yaml");
         Database expected = Utils.getDatabase(resourceDirectory.resolve(testType), "expected_model.yaml");
-        ChangeFinder postgresChangeFinder = new PostgresChangeFinder();
+        ChangeFinder postgresChangeFinder = new PostgresChangeFinder(options);
         List<Change<?>> changes = postgresChangeFinder.findChanges(expected, actual);
-        ChangeHandler handler = new ChangeHandlerImplementation(new PostgresDDLGenerator(), new PostgresForeignKeyChangeComparator());
+        ChangeHandler handler = new ChangeHandlerImplementation(new PostgresDDLGenerator(options));
         return handler.createDDLForChanges(changes);
     }
 }
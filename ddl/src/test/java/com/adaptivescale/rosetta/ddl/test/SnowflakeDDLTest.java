@@ -1,10 +1,12 @@
 package com.adaptivescale.rosetta.ddl.test;
 
 import com.adaptivescale.rosetta.common.models.Database;
+import com.adaptivescale.rosetta.common.models.Index;
 import com.adaptivescale.rosetta.ddl.change.ChangeHandlerImplementation;
-import com.adaptivescale.rosetta.ddl.change.DefaultChangeFinder;
-import com.adaptivescale.rosetta.ddl.change.comparator.SnowflakeChangesComparator;
+import com.adaptivescale.rosetta.ddl.change.SnowflakeChangeFinder;
 import com.adaptivescale.rosetta.ddl.change.model.Change;
+import com.adaptivescale.rosetta.ddl.change.model.ChangeFactory;
+import com.adaptivescale.rosetta.ddl.targets.postgres.PostgresDDLGenerator;
 import com.adaptivescale.rosetta.ddl.targets.snowflake.SnowflakeDDLGenerator;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -12,6 +14,7 @@ import org.junit.jupiter.api.Test;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
 
 public class SnowflakeDDLTest {
@@ -45,6 +48,12 @@ public class SnowflakeDDLTest {
         Assertions.assertEquals("ALTER TABLE \"ROSETTA\".\"PLAYER\" add \"Position\" VARCHAR not null;", ddl);
     }
 
+    @Test
+    public void addMultipleColumns() throws IOException {
+        String ddl = generateDDL("add_multiple_columns");
+        Assertions.assertEquals("ALTER TABLE \"ROSETTA\".\"PLAYER\" add \"Position\" VARCHAR not null, \"Team\" VARCHAR not null;", ddl);
+    }
+
 
     @Test
     public void addColumnWithForeignKey() throws IOException {
@@ -129,12 +138,65 @@ public class SnowflakeDDLTest {
                 "ALTER TABLE \"FBAL\".\"TEAMPLAYERS\" ADD CONSTRAINT \"TEAMPLAYERS_FK_TEAM\" FOREIGN KEY (\"TEAMID\") REFERENCES \"FBAL\".\"TEAM\"(\"ID\") ON DELETE NO ACTION;\r", ddl);
     }
 
+    @Test
+    public void addClusteredTable() throws IOException {
+        String ddl = generateDDL("add_clustered_table");
+        Assertions.assertEquals("CREATE TABLE \"ROSETTA\".\"EVENTS\"(\"CREATED_AT\" TIMESTAMP_NTZ not null, \"REGION\" VARCHAR not null)" +
+                " CLUSTER BY (TO_DATE(\"CREATED_AT\"), \"REGION\");\r" +
+                "ALTER TABLE \"ROSETTA\".\"EVENTS\" ADD SEARCH OPTIMIZATION;", ddl);
+    }
+
+    @Test
+    public void alterClusteringKeyAndSearchOptimization() throws IOException {
+        String ddl = generateDDL("clustering_drift");
+        Assertions.assertEquals("ALTER TABLE \"ROSETTA\".\"PLAYER\" DROP \"Position\";\r" +
+                "ALTER TABLE \"ROSETTA\".\"PLAYER\" CLUSTER BY (\"Name\");\r" +
+                "ALTER TABLE \"ROSETTA\".\"PLAYER\" ADD SEARCH OPTIMIZATION ON SUBSTRING(\"Name\");", ddl);
+    }
+
+    @Test
+    public void dropClusteringKeyAndSearchOptimization() throws IOException {
+        String ddl = generateDDL("drop_clustering");
+        Assertions.assertEquals("ALTER TABLE \"ROSETTA\".\"PLAYER\" DROP CLUSTERING KEY;\r" +
+                "ALTER TABLE \"ROSETTA\".\"PLAYER\" DROP SEARCH OPTIMIZATION;", ddl);
+    }
+
+    @Test
+    public void skipClusteringChangesWithoutClusteringSupport() throws IOException {
+        Database actual = Utils.getDatabase(resourceDirectory.resolve("drop_clustering"), "actual_model.yaml");
+        Database expected = Utils.getDatabase(resourceDirectory.resolve("drop_clustering"), "expected_model.yaml");
+        List<Change<?>> changes = new SnowflakeChangeFinder().findChanges(expected, actual);
+        Assertions.assertEquals(2, changes.size());
+        Assertions.assertEquals("", new ChangeHandlerImplementation(new PostgresDDLGenerator()).createDDLForChanges(changes));
+    }
+
+    @Test
+    public void renameWithPreviousName() throws IOException {
+        String ddl = generateDDL("rename_with_previous_name");
+        Assertions.assertEquals("ALTER TABLE \"ROSETTA\".\"PLAYER\" RENAME TO \"ROSETTA\".\"ATHLETE\";\r" +
+                "ALTER TABLE \"ROSETTA\".\"ATHLETE\" RENAME COLUMN \"Position\" TO \"Role\";", ddl);
+    }
+
+    @Test
+    public void skipIndexChanges() {
+        Index index = new Index();
+        index.setName("PLAYER_NAME_IDX");
+        index.setSchema("ROSETTA");
+        index.setTableName("PLAYER");
+        index.setColumnNames(List.of("Name"));
+        List<Change<?>> changes = new ArrayList<>(List.of(ChangeFactory.indexChange(index, null, Change.Status.ADD),
+                ChangeFactory.indexChange(null, index, Change.Status.DROP)));
+
+        String ddl = new ChangeHandlerImplementation(new SnowflakeDDLGenerator()).createDDLForChanges(changes);
+        Assertions.assertEquals("", ddl);
+    }
+
     private String generateDDL(String testType) throws IOException {
         Database actual = Utils.getDatabase(resourceDirectory.resolve(testType), "actual_model.yaml");
         Database expected = Utils.getDatabase(resourceDirectory.resolve(testType), "expected_model.yaml");
         SnowflakeDDLGenerator snowflakeDDLGenerator = new SnowflakeDDLGenerator();
-        DefaultChangeFinder defaultChangeFinder = new DefaultChangeFinder();
-        List<Change<?>> changes = defaultChangeFinder.findChanges(expected, actual);
-        return new ChangeHandlerImplementation(snowflakeDDLGenerator, new SnowflakeChangesComparator()).createDDLForChanges(changes);
+        SnowflakeChangeFinder snowflakeChangeFinder = new SnowflakeChangeFinder();
+        List<Change<?>> changes = snowflakeChangeFinder.findChanges(expected, actual);
+        return new ChangeHandlerImplementation(snowflakeDDLGenerator).createDDLForChanges(changes);
     }
 }
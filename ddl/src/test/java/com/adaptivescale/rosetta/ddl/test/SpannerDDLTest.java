@@ -0,0 +1,139 @@
+package com.adaptivescale.rosetta.ddl.test;
+
+import com.adaptivescale.rosetta.common.models.Column;
+import com.adaptivescale.rosetta.common.models.Database;
+import com.adaptivescale.rosetta.common.models.Index;
+import com.adaptivescale.rosetta.common.models.IndexStatistics;
+import com.adaptivescale.rosetta.common.models.Table;
+import com.adaptivescale.rosetta.ddl.change.ChangeHandlerImplementation;
+import com.adaptivescale.rosetta.ddl.change.SpannerChangeFinder;
+import com.adaptivescale.rosetta.ddl.change.model.Change;
+import com.adaptivescale.rosetta.ddl.change.model.ChangeFactory;
+import com.adaptivescale.rosetta.ddl.targets.spanner.SpannerDDLGenerator;
+import com.adaptivescale.rosetta.ddl.targets.spanner.SpannerKeyCheck;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SpannerDDLTest {
+
+    private static final Path resourceDirectory = Paths.get("src", "test", "resources", "ddl", "spanner");
+
+    @Test
+    public void addInterleavedTable() throws IOException {
+        String ddl = generateDDL("add_interleaved_table");
+        Assertions.assertEquals("CREATE SEQUENCE IF NOT EXISTS Singers_SingerId_seq OPTIONS (sequence_kind = 'bit_reversed_positive');\r" +
+                "CREATE TABLE Singers(SingerId INT64 NOT NULL DEFAULT (GET_NEXT_SEQUENCE_VALUE(SEQUENCE Singers_SingerId_seq)), " +
+                "Name STRING(MAX)) PRIMARY KEY (SingerId);\r" +
+                "CREATE TABLE Albums(SingerId INT64 NOT NULL , AlbumId INT64 NOT NULL , Title STRING(MAX)) " +
+                "PRIMARY KEY (SingerId, AlbumId), INTERLEAVE IN PARENT Singers ON DELETE CASCADE;", ddl);
+    }
+
+    @Test
+    public void alterInterleaveOnDelete() throws IOException {
+        String ddl = generateDDL("alter_interleave_on_delete");
+        Assertions.assertEquals("ALTER TABLE Albums SET ON DELETE CASCADE;", ddl);
+    }
+
+    @Test
+    public void changeInterleaveParent() {
+        Assertions.assertThrows(RuntimeException.class, () -> generateDDL("change_interleave_parent"));
+    }
+
+    @Test
+    public void dropInterleavedTable() throws IOException {
+        String ddl = generateDDL("drop_interleaved_table");
+        Assertions.assertEquals("DROP TABLE Albums;\rDROP TABLE Singers;", ddl);
+    }
+
+    @Test
+    public void sequentialPrimaryKey() {
+        Column createdAt = new Column();
+        createdAt.setName("CreatedAt");
+        createdAt.setTypeName("TIMESTAMP");
+        createdAt.setPrimaryKey(true);
+        createdAt.setPrimaryKeySequenceId(1);
+
+        Table table = new Table();
+        table.setName("Events");
+        table.setColumns(List.of(createdAt));
+        Assertions.assertTrue(SpannerKeyCheck.hotspotWarning(table).isPresent());
+
+        createdAt.setTypeName("STRING");
+        Assertions.assertTrue(SpannerKeyCheck.hotspotWarning(table).isEmpty());
+    }
+
+    @Test
+    public void indexStatisticsAreNotCompared() {
+        Index expectedIndex = index();
+        expectedIndex.setStatistics(new IndexStatistics(10, null));
+        Index actualIndex = index();
+        actualIndex.setStatistics(new IndexStatistics(250000, 1200));
+
+        List<Change<?>> changes = new SpannerChangeFinder().findChanges(database(expectedIndex), database(actualIndex));
+        Assertions.assertTrue(changes.isEmpty());
+    }
+
+    @Test
+    public void refuseColumnRename() {
+        RuntimeException exception = Assertions.assertThrows(RuntimeException.class,
+                () -> generateDDL("rename_column_with_previous_name"));
+        Assertions.assertEquals("Spanner can not rename column 'Name' of table 'Labels' to 'Title'. " +
+                "Remove its previousName to drop it and add it again.", exception.getMessage());
+    }
+
+    @Test
+    public void failRenameWithoutStatement() {
+        Column name = new Column();
+        name.setName("Name");
+        Column title = new Column();
+        title.setName("Title");
+        Table labels = new Table();
+        labels.setName("Labels");
+        List<Change<?>> changes = new ArrayList<>(List.of(ChangeFactory.columnChange(title, name, Change.Status.RENAME, labels)));
+
+        RuntimeException exception = Assertions.assertThrows(RuntimeException.class,
+                () -> new ChangeHandlerImplementation(new SpannerDDLGenerator()).createDDLForChanges(changes));
+        Assertions.assertEquals("Column 'Name' of table 'Labels' can not be renamed to 'Title' on this target. " +
+                "Remove its previousName to drop it and add it again.", exception.getMessage());
+    }
+
+    private static Index index() {
+        Index index = new Index();
+        index.setName("AlbumsByTitle");
+        index.setTableName("Albums");
+        index.setColumnNames(List.of("Title"));
+        index.setNonUnique(true);
+        return index;
+    }
+
+    private static Database database(Index index) {
+        Column title = new Column();
+        title.setName("Title");
+        title.setTypeName("STRING");
+        title.setNullable(true);
+
+        Table table = new Table();
+        table.setName("Albums");
+        table.setColumns(List.of(title));
+        table.setIndices(List.of(index));
+
+        Database database = new Database();
+        database.setDatabaseType("spanner");
+        database.setTables(List.of(table));
+        return database;
+    }
+
+    private String generateDDL(String testType) throws IOException {
+        Database actual = Utils.getDatabase(resourceDirectory.resolve(testType), "actual_model.yaml");
+        Database expected = Utils.getDatabase(resourceDirectory.resolve(testType), "expected_model.yaml");
+        List<Change<?>> changes = new SpannerChangeFinder().findChanges(expected, actual);
+        return new ChangeHandlerImplementation(new SpannerDDLGenerator())
+                .createDDLForChanges(changes);
+    }
+}
@@ -0,0 +1,31 @@
+package com.adaptivescale.rosetta.ddl.test;
+
+import com.adaptivescale.rosetta.ddl.executor.TokenBucket;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TokenBucketTest {
+
+    @Test
+    public void burstThenPaced() {
+        AtomicLong clock = new AtomicLong();
+        TokenBucket bucket = new TokenBucket(5, 0.5, clock::get);
+
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertEquals(0, bucket.reserve());
+        }
+        // tokens beyond the burst are handed out two seconds apart
+        Assertions.assertEquals(TimeUnit.SECONDS.toNanos(2), bucket.reserve());
+        Assertions.assertEquals(TimeUnit.SECONDS.toNanos(4), bucket.reserve());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(60));
+        // refill is capped at the capacity
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertEquals(0, bucket.reserve());
+        }
+        Assertions.assertEquals(TimeUnit.SECONDS.toNanos(2), bucket.reserve());
+    }
+}
@@ -1,301 +1,159 @@
 package com.adaptivescale.rosetta.diff;
 
+import com.adaptivescale.rosetta.common.IndexUtils;
 import com.adaptivescale.rosetta.common.models.*;
+import com.adaptivescale.rosetta.diff.Difference.Kind;
 
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
-public class DefaultTester implements Diff<List<String>, Database, Database> {
-
-    private static final String TABLE_COLUMNS_CHANGED_FORMAT = "Table Changed: Table '%s' columns changed";
-    private static final String TABLE_REMOVED_FORMAT = "Table Removed: Table '%s'";
-    private static final String TABLE_ADDED_FORMAT = "Table Added: Table '%s'";
-
-    private static final String COLUMN_CHANGED_FORMAT = "Column Changed: Column '%s' in table '%s' changed '%s'. Old value: '%s', new value: '%s'";
-    private static final String COLUMN_REMOVED_FORMAT = "Column Removed: Column '%s' in table '%s'";
-    private static final String COLUMN_ADDED_FORMAT = "Column Added: Column '%s' in table '%s'";
-
-    private static final String COLUMN_FOREIGN_KEY_CHANGED = "Foreign Key Changed: FK '%s' on Column '%s' in table '%s' changed '%s'. Old value: '%s', new value: '%s'";
-    private static final String COLUMN_FOREIGN_KEY_ADDED = "Foreign Key Added: FK '%s'  on Column '%s' in table '%s' is added";
-    private static final String COLUMN_FOREIGN_KEY_REMOVED = "Foreign Key Changed: FK '%s' on Column '%s' in table '%s' is removed";
-
-    private static final String INDEX_CHANGED_FORMAT = "Index Changed: Index '%s'";
-    private static final String INDEX_REMOVED_FORMAT = "Index Removed: Index '%s'";
-    private static final String INDEX_ADDED_FORMAT = "Index Added: Index '%s'";
+/**
+ * Compares the local model with the database. Tables, columns, foreign keys and indices are matched by name through
+ * maps, tables are compared in parallel and their differences kept in the order of the local model.
+ */
+public class DefaultTester implements Diff<List<Difference>, Database, Database> {
+
+    private static final Map<String, Function<Column, Object>> COLUMN_PROPERTIES = new LinkedHashMap<>();
+    private static final Map<String, Function<ForeignKey, Object>> FOREIGN_KEY_PROPERTIES = new LinkedHashMap<>();
+
+    static {
+        COLUMN_PROPERTIES.put("Description", Column::getDescription);
+        COLUMN_PROPERTIES.put("Display Size", Column::getColumnDisplaySize);
+        COLUMN_PROPERTIES.put("Label", Column::getLabel);
+        COLUMN_PROPERTIES.put("Ordinal Position", Column::getOrdinalPosition);
+        COLUMN_PROPERTIES.put("Precision", Column::getPrecision);
+        COLUMN_PROPERTIES.put("Type Name", Column::getTypeName);
+        COLUMN_PROPERTIES.put("Autoincrement", Column::isAutoincrement);
+        COLUMN_PROPERTIES.put("Primary key", Column::isPrimaryKey);
+        COLUMN_PROPERTIES.put("Nullable", Column::isNullable);
+
+        FOREIGN_KEY_PROPERTIES.put("Delete Rule", ForeignKey::getDeleteRule);
+        FOREIGN_KEY_PROPERTIES.put("Primary Key Column Name", ForeignKey::getPrimaryColumnName);
+        FOREIGN_KEY_PROPERTIES.put("Primary Key Table Name", ForeignKey::getPrimaryTableName);
+        FOREIGN_KEY_PROPERTIES.put("Primary Key Schema Name", ForeignKey::getPrimaryTableSchema);
+    }
 
     @Override
-    public List<String> find(Database localValue, Database targetValue) {
+    public List<Difference> find(Database localValue, Database targetValue) {
 
-        List<String> changes = new ArrayList<>();
+        Map<String, Table> targetTables = byName(targetValue.getTables(), Table::getName);
 
         //do we need to check for root properties if are changed
-        for (Table table : localValue.getTables()) {
-            List<String> columnsChangesLogs = new ArrayList<>();
-            Optional<Table> targetTable = getTable(table.getName(), targetValue);
-            if (targetTable.isEmpty()) {
-                //this table is removed
-                changes.add(String.format(TABLE_REMOVED_FORMAT, table.getName()));
-                continue;
-            }
-
-            Collection<Column> columns = table.getColumns();
-            for (Column localColumn : columns) {
-                Optional<Column> targetColumn = getColumn(localColumn.getName(), targetTable.get());
-                if (targetColumn.isEmpty()) {
-                    //this column was removed
-                    columnsChangesLogs.add(String.format(COLUMN_REMOVED_FORMAT, localColumn.getName(), table.getName()));
-                    continue;
-                }
-
-                if (!Objects.equals(localColumn.getDescription(), targetColumn.get().getDescription())) {
-                    String description = String.format(COLUMN_CHANGED_FORMAT, localColumn.getName(),
-                            table.getName(), "Description", localColumn.getDescription(),
-                            targetColumn.get().getDescription());
-                    columnsChangesLogs.add(description);
-                }
-
-                if (!Objects.equals(localColumn.getColumnDisplaySize(), targetColumn.get().getColumnDisplaySize())) {
-                    String result = String.format(COLUMN_CHANGED_FORMAT, localColumn.getName(),
-                            table.getName(), "Display Size", localColumn.getColumnDisplaySize(),
-                            targetColumn.get().getColumnDisplaySize());
-                    columnsChangesLogs.add(result);
-                }
-
-                if (!Objects.equals(localColumn.getLabel(), targetColumn.get().getLabel())) {
-                    String result = String.format(COLUMN_CHANGED_FORMAT, localColumn.getName(),
-                            table.getName(), "Label", localColumn.getLabel(),
-                            targetColumn.get().getLabel());
-                    columnsChangesLogs.add(result);
-                }
-
-                if (!Objects.equals(localColumn.getOrdinalPosition(), targetColumn.get().getOrdinalPosition())) {
-                    String result = String.format(COLUMN_CHANGED_FORMAT, localColumn.getName(),
-                            table.getName(), "Ordinal Position", localColumn.getOrdinalPosition(),
-                            targetColumn.get().getOrdinalPosition());
-                    columnsChangesLogs.add(result);
-                }
-
-                if (!Objects.equals(localColumn.getPrecision(), targetColumn.get().getPrecision())) {
-                    String result = String.format(COLUMN_CHANGED_FORMAT, localColumn.getName(),
-                            table.getName(), "Precision", localColumn.getPrecision(),
-                            targetColumn.get().getPrecision());
-                    columnsChangesLogs.add(result);
-                }
-
-                if (!Objects.equals(localColumn.getTypeName(), targetColumn.get().getTypeName())) {
-                    String result = String.format(COLUMN_CHANGED_FORMAT, localColumn.getName(),
-                            table.getName(), "Type Name", localColumn.getTypeName(),
-                            targetColumn.get().getTypeName());
-                    columnsChangesLogs.add(result);
-                }
-
-                if (!Objects.equals(localColumn.isAutoincrement(), targetColumn.get().isAutoincrement())) {
-                    String result = String.format(COLUMN_CHANGED_FORMAT, localColumn.getName(),
-                            table.getName(), "Autoincrement", localColumn.isAutoincrement(),
-                            targetColumn.get().isAutoincrement());
-                    columnsChangesLogs.add(result);
-                }
+        // tables are compared independently in parallel, their changes are kept in the order of the local model
+        List<Difference> differences = localValue.getTables().parallelStream()
+                .map(table -> findChangesInTable(table, targetTables.get(table.getName())))
+                .flatMap(List::stream)
+                .collect(Collectors.toCollection(ArrayList::new));
 
-                if (!Objects.equals(localColumn.isPrimaryKey(), targetColumn.get().isPrimaryKey())) {
-                    String result = String.format(COLUMN_CHANGED_FORMAT, localColumn.getName(),
-                            table.getName(), "Primary key", localColumn.isPrimaryKey(),
-                            targetColumn.get().isPrimaryKey());
-                    columnsChangesLogs.add(result);
-                }
+        Set<String> localTablesName = localValue.getTables().stream().map(Table::getName).collect(Collectors.toSet());
+        targetValue.getTables().stream()
+                .filter(table -> !localTablesName.contains(table.getName()))
+                .forEach(table -> differences.add(Difference.table(Kind.ADDED, table.getName())));
 
-                if (!Objects.equals(localColumn.isNullable(), targetColumn.get().isNullable())) {
-                    String result = String.format(COLUMN_CHANGED_FORMAT, localColumn.getName(),
-                            table.getName(), "Nullable", localColumn.isNullable(),
-                            targetColumn.get().isNullable());
-                    columnsChangesLogs.add(result);
-                }
+        return differences;
+    }
 
-                columnsChangesLogs.addAll(sameForeignKeys(localColumn.getForeignKeys(), targetColumn.get().getForeignKeys()));
+    private List<Difference> findChangesInTable(Table table, Table targetTable) {
+        List<Difference> differences = new ArrayList<>();
+        if (targetTable == null) {
+            //this table is removed
+            differences.add(Difference.table(Kind.REMOVED, table.getName()));
+            return differences;
+        }
+        Map<String, Column> targetColumns = byName(targetTable.getColumns(), Column::getName);
+
+        Collection<Column> columns = table.getColumns();
+        for (Column localColumn : columns) {
+            Column targetColumn = targetColumns.get(localColumn.getName());
+            if (targetColumn == null) {
+                //this column was removed
+                differences.add(Difference.column(Kind.REMOVED, table.getName(), localColumn.getName()));
+                continue;
             }
 
-            //check what columns are added, by filtering what is not in local model
-            Set<String> localColumnsName = columns.stream().map(Column::getName).collect(Collectors.toSet());
-            List<Column> addedColumns = targetTable
-                    .get()
-                    .getColumns()
-                    .stream()
-                    .filter(column -> !localColumnsName.contains(column.getName()))
-                    .collect(Collectors.toList());
-
-            addedColumns.forEach(column -> columnsChangesLogs.add(String.format(COLUMN_ADDED_FORMAT, column.getName(), table.getName())));
-            if (columnsChangesLogs.size() > 0) {
-                changes.add(String.format(TABLE_COLUMNS_CHANGED_FORMAT, table.getName()));
-                changes.addAll(columnsChangesLogs);
-            }
+            COLUMN_PROPERTIES.forEach((property, value) -> {
+                Object oldValue = value.apply(localColumn);
+                Object newValue = value.apply(targetColumn);
+                if (!Objects.equals(oldValue, newValue)) {
+                    differences.add(Difference.columnChanged(table.getName(), localColumn.getName(), property, oldValue, newValue));
+                }
+            });
 
-            changes.addAll(sameIndices(table.getIndices(), targetTable.get().getIndices()));
+            findChangesInForeignKeys(table.getName(), localColumn.getName(), localColumn.getForeignKeys(),
+                    targetColumn.getForeignKeys(), differences);
         }
 
-        Set<String> localTablesName = localValue.getTables().stream().map(Table::getName).collect(Collectors.toSet());
-        List<Table> tablesAdded = targetValue
-                .getTables()
-                .stream()
-                .filter(table -> !localTablesName.contains(table.getName()))
-                .collect(Collectors.toList());
-        tablesAdded.forEach(table -> changes.add(String.format(TABLE_ADDED_FORMAT, table.getName())));
+        //check what columns are added, by filtering what is not in local model
+        Set<String> localColumnsName = columns.stream().map(Column::getName).collect(Collectors.toSet());
+        targetTable.getColumns().stream()
+                .filter(column -> !localColumnsName.contains(column.getName()))
+                .forEach(column -> differences.add(Difference.column(Kind.ADDED, table.getName(), column.getName())));
 
-        return changes;
+        findChangesInIndices(table.getName(), table.getIndices(), targetTable.getIndices(), differences);
+        return differences;
     }
 
-    private List<String> sameIndices(List<Index> localIndices, List<Index> targetIndices) {
-        List<String> changeLogs = new ArrayList<>();
-
+    private void findChangesInIndices(String table, List<Index> localIndices, List<Index> targetIndices,
+                                      List<Difference> differences) {
         if (localIndices == targetIndices) {
-            return changeLogs;
-        }
-        if (localIndices == null) {
-            localIndices = new ArrayList<>();
-        }
-
-        if (targetIndices == null) {
-            targetIndices = new ArrayList<>();
+            return;
         }
+        localIndices = localIndices == null ? List.of() : localIndices;
+        targetIndices = targetIndices == null ? List.of() : targetIndices;
 
+        Map<String, Index> targetIndicesByName = byName(targetIndices, Index::getName);
         for (Index localIndex : localIndices) {
-            Optional<Index> targetIndex = getIndexByName(targetIndices, localIndex);
-            if (targetIndex.isEmpty()) {
-                // foreign key is removed
-                String change = String.format(INDEX_REMOVED_FORMAT,
-                    localIndex.getName(),
-                    localIndex.getColumnNames(),
-                    localIndex.getTableName());
-                changeLogs.add(change);
-                continue;
-            }
-
-            if (!Objects.equals(localIndex, targetIndex.get())) {
-                String change = String.format(INDEX_CHANGED_FORMAT,
-                        localIndex.getName(),
-                        localIndex.getColumnNames(),
-                        localIndex.getTableName());
-
-                changeLogs.add(change);
+            Index targetIndex = targetIndicesByName.get(localIndex.getName());
+            if (targetIndex == null) {
+                differences.add(Difference.index(Kind.REMOVED, table, localIndex.getName()));
+            } else if (!IndexUtils.sameStructure(localIndex, targetIndex)) {
+                differences.add(Difference.index(Kind.CHANGED, table, localIndex.getName()));
             }
         }
 
         Set<String> localIndicesNames = localIndices.stream().map(Index::getName).collect(Collectors.toSet());
-        targetIndices
-            .stream()
-            .filter(index -> !localIndicesNames.contains(index.getName()))
-            .forEach(index -> {
-                String change = String.format(INDEX_ADDED_FORMAT,
-                        index.getName(),
-                        index.getColumnNames(),
-                        index.getTableName());
-                changeLogs.add(change);
-            });
-
-        return changeLogs;
+        targetIndices.stream()
+                .filter(index -> !localIndicesNames.contains(index.getName()))
+                .forEach(index -> differences.add(Difference.index(Kind.ADDED, table, index.getName())));
     }
 
-    private List<String> sameForeignKeys(List<ForeignKey> localForeignKeys, List<ForeignKey> targetForeignKeys) {
-
-        List<String> changeLogs = new ArrayList<>();
-
+    private void findChangesInForeignKeys(String table, String column, List<ForeignKey> localForeignKeys,
+                                          List<ForeignKey> targetForeignKeys, List<Difference> differences) {
         if (localForeignKeys == targetForeignKeys) {
-            return changeLogs;
-        }
-        if (localForeignKeys == null) {
-            localForeignKeys = new ArrayList<>();
-        }
-
-        if (targetForeignKeys == null) {
-            targetForeignKeys = new ArrayList<>();
+            return;
         }
+        localForeignKeys = localForeignKeys == null ? List.of() : localForeignKeys;
+        targetForeignKeys = targetForeignKeys == null ? List.of() : targetForeignKeys;
 
+        Map<String, ForeignKey> targetForeignKeysByName = byName(targetForeignKeys, ForeignKey::getName);
         for (ForeignKey localForeignKey : localForeignKeys) {
-            Optional<ForeignKey> targetForeignKey = getForeignKeyByName(targetForeignKeys, localForeignKey);
-            if (targetForeignKey.isEmpty()) {
-                // foreign key is removed
-                String change = String.format(COLUMN_FOREIGN_KEY_REMOVED,
-                        localForeignKey.getName(),
-                        localForeignKey.getColumnName(),
-                        localForeignKey.getTableName());
-                changeLogs.add(change);
+            ForeignKey targetForeignKey = targetForeignKeysByName.get(localForeignKey.getName());
+            if (targetForeignKey == null) {
+                differences.add(Difference.foreignKey(Kind.REMOVED, table, column, localForeignKey.getName()));
                 continue;
             }
 
-            if (!Objects.equals(localForeignKey.getDeleteRule(), targetForeignKey.get().getDeleteRule())) {
-                String change = String.format(COLUMN_FOREIGN_KEY_CHANGED,
-                        localForeignKey.getName(),
-                        localForeignKey.getColumnName(),
-                        localForeignKey.getTableName(),
-                        "Delete Rule",
-                        localForeignKey.getDeleteRule(),
-                        targetForeignKey.get().getDeleteRule());
-
-                changeLogs.add(change);
-            }
-
-            if (!Objects.equals(localForeignKey.getPrimaryColumnName(), targetForeignKey.get().getPrimaryColumnName())) {
-                String change = String.format(COLUMN_FOREIGN_KEY_CHANGED,
-                        localForeignKey.getName(),
-                        localForeignKey.getColumnName(),
-                        localForeignKey.getTableName(),
-                        "Primary Key Column Name",
-                        localForeignKey.getPrimaryColumnName(),
-                        targetForeignKey.get().getPrimaryColumnName());
-
-                changeLogs.add(change);
-            }
-
-            if (!Objects.equals(localForeignKey.getPrimaryTableName(), targetForeignKey.get().getPrimaryTableName())) {
-                String change = String.format(COLUMN_FOREIGN_KEY_CHANGED,
-                        localForeignKey.getName(),
-                        localForeignKey.getColumnName(),
-                        localForeignKey.getTableName(),
-                        "Primary Key Table Name", localForeignKey.getPrimaryTableName(),
-                        targetForeignKey.get().getPrimaryTableName());
-
-                changeLogs.add(change);
-            }
-
-            if (!Objects.equals(localForeignKey.getPrimaryTableSchema(), targetForeignKey.get().getPrimaryTableSchema())) {
-                String change = String.format(COLUMN_FOREIGN_KEY_CHANGED,
-                        localForeignKey.getName(),
-                        localForeignKey.getColumnName(),
-                        localForeignKey.getTableName(),
-                        "Primary Key Schema Name",
-                        localForeignKey.getPrimaryTableSchema(),
-                        targetForeignKey.get().getPrimaryTableSchema());
-
-                changeLogs.add(change);
-            }
+            FOREIGN_KEY_PROPERTIES.forEach((property, value) -> {
+                Object oldValue = value.apply(localForeignKey);
+                Object newValue = value.apply(targetForeignKey);
+                if (!Objects.equals(oldValue, newValue)) {
+                    differences.add(Difference.foreignKeyChanged(table, column, localForeignKey.getName(), property,
+                            oldValue, newValue));
+                }
+            });
         }
 
-        Set<String> localFKNames = localForeignKeys.stream().map(ForeignKey::getName).collect(Collectors.toSet());
-        targetForeignKeys
-                .stream()
-                .filter(foreignKey -> !localFKNames.contains(foreignKey.getName()))
-                .forEach(foreignKey -> {
-                    String change = String.format(COLUMN_FOREIGN_KEY_ADDED,
-                            foreignKey.getName(),
-                            foreignKey.getColumnName(),
-                            foreignKey.getTableName());
-                    changeLogs.add(change);
-                });
-
-        return changeLogs;
-    }
-
-    private Optional<ForeignKey> getForeignKeyByName(List<ForeignKey> targetForeignKeys, ForeignKey localForeignKey) {
-        return targetForeignKeys.stream().filter(foreignKey -> Objects.equals(localForeignKey.getName(), foreignKey.getName())).findFirst();
-    }
-
-    private Optional<Index> getIndexByName(List<Index> targetIndices, Index localIndex) {
-        return targetIndices.stream().filter(index -> Objects.equals(localIndex.getName(), index.getName())).findFirst();
-    }
-
-    private Optional<Column> getColumn(String columnName, Table targetTable) {
-        return targetTable.getColumns().stream().filter(targetColumn -> targetColumn.getName().equals(columnName)).findFirst();
+        Set<String> localForeignKeyNames = localForeignKeys.stream().map(ForeignKey::getName).collect(Collectors.toSet());
+        targetForeignKeys.stream()
+                .filter(foreignKey -> !localForeignKeyNames.contains(foreignKey.getName()))
+                .forEach(foreignKey -> differences.add(Difference.foreignKey(Kind.ADDED, table, column, foreignKey.getName())));
     }
 
-    private Optional<Table> getTable(String tableName, Database targetValue) {
-        return targetValue.getTables().stream().filter(targetTable -> targetTable.getName().equals(tableName)).findFirst();
+    // the first object wins if a name is not unique
+    private static <T> Map<String, T> byName(Collection<T> objects, Function<T, String> name) {
+        Map<String, T> byName = new HashMap<>();
+        objects.forEach(object -> byName.putIfAbsent(name.apply(object), object));
+        return byName;
     }
 }
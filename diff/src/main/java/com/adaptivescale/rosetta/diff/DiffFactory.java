@@ -6,7 +6,7 @@ import java.util.List;
 
 public class DiffFactory {
 
-    public static Diff<List<String>,Database, Database> diff(){
+    public static Diff<List<Difference>,Database, Database> diff(){
         return new DefaultTester();
     }
 }
@@ -0,0 +1,35 @@
+package com.adaptivescale.rosetta.diff;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Renders differences as lines of text. Changes to the columns of a table, foreign keys included, are preceded by a
+ * line naming the table.
+ */
+public class DiffText {
+
+    private static final String TABLE_COLUMNS_CHANGED_FORMAT = "Table Changed: Table '%s' columns changed";
+
+    private DiffText() {
+    }
+
+    /**
+     * Formats one line at a time and passes it on, the whole text is never held in memory.
+     */
+    public static void write(List<Difference> differences, Consumer<String> lines) {
+        String tableWithHeader = null;
+        for (Difference difference : differences) {
+            boolean columnChange = difference.getObjectType() == Difference.ObjectType.COLUMN
+                    || difference.getObjectType() == Difference.ObjectType.FOREIGN_KEY;
+            if (!columnChange) {
+                tableWithHeader = null;
+            } else if (!Objects.equals(tableWithHeader, difference.getTable())) {
+                tableWithHeader = difference.getTable();
+                lines.accept(String.format(TABLE_COLUMNS_CHANGED_FORMAT, tableWithHeader));
+            }
+            lines.accept(difference.toString());
+        }
+    }
+}
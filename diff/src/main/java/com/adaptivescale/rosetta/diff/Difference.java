@@ -0,0 +1,171 @@
+package com.adaptivescale.rosetta.diff;
+
+import java.util.StringJoiner;
+
+/**
+ * One difference between the local model and the database: what kind of object differs, where it is and, for a
+ * changed property, both values. The message is only formatted when the difference is rendered.
+ */
+public class Difference {
+
+    private static final String TABLE_REMOVED_FORMAT = "Table Removed: Table '%s'";
+    private static final String TABLE_ADDED_FORMAT = "Table Added: Table '%s'";
+
+    private static final String COLUMN_CHANGED_FORMAT = "Column Changed: Column '%s' in table '%s' changed '%s'. Old value: '%s', new value: '%s'";
+    private static final String COLUMN_REMOVED_FORMAT = "Column Removed: Column '%s' in table '%s'";
+    private static final String COLUMN_ADDED_FORMAT = "Column Added: Column '%s' in table '%s'";
+
+    private static final String COLUMN_FOREIGN_KEY_CHANGED = "Foreign Key Changed: FK '%s' on Column '%s' in table '%s' changed '%s'. Old value: '%s', new value: '%s'";
+    private static final String COLUMN_FOREIGN_KEY_ADDED = "Foreign Key Added: FK '%s'  on Column '%s' in table '%s' is added";
+    private static final String COLUMN_FOREIGN_KEY_REMOVED = "Foreign Key Changed: FK '%s' on Column '%s' in table '%s' is removed";
+
+    private static final String INDEX_CHANGED_FORMAT = "Index Changed: Index '%s'";
+    private static final String INDEX_REMOVED_FORMAT = "Index Removed: Index '%s'";
+    private static final String INDEX_ADDED_FORMAT = "Index Added: Index '%s'";
+
+    public enum Kind {
+        ADDED,
+        REMOVED,
+        CHANGED
+    }
+
+    public enum ObjectType {
+        TABLE,
+        COLUMN,
+        FOREIGN_KEY,
+        INDEX
+    }
+
+    private final Kind kind;
+    private final ObjectType objectType;
+    private final String table;
+    private final String column;
+    private final String name;
+    private final String property;
+    private final Object oldValue;
+    private final Object newValue;
+
+    private Difference(Kind kind, ObjectType objectType, String table, String column, String name, String property,
+                       Object oldValue, Object newValue) {
+        this.kind = kind;
+        this.objectType = objectType;
+        this.table = table;
+        this.column = column;
+        this.name = name;
+        this.property = property;
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+    }
+
+    public static Difference table(Kind kind, String table) {
+        return new Difference(kind, ObjectType.TABLE, table, null, null, null, null, null);
+    }
+
+    public static Difference column(Kind kind, String table, String column) {
+        return new Difference(kind, ObjectType.COLUMN, table, column, null, null, null, null);
+    }
+
+    public static Difference columnChanged(String table, String column, String property, Object oldValue, Object newValue) {
+        return new Difference(Kind.CHANGED, ObjectType.COLUMN, table, column, null, property, oldValue, newValue);
+    }
+
+    public static Difference foreignKey(Kind kind, String table, String column, String name) {
+        return new Difference(kind, ObjectType.FOREIGN_KEY, table, column, name, null, null, null);
+    }
+
+    public static Difference foreignKeyChanged(String table, String column, String name, String property,
+                                               Object oldValue, Object newValue) {
+        return new Difference(Kind.CHANGED, ObjectType.FOREIGN_KEY, table, column, name, property, oldValue, newValue);
+    }
+
+    public static Difference index(Kind kind, String table, String name) {
+        return new Difference(kind, ObjectType.INDEX, table, null, name, null, null, null);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public ObjectType getObjectType() {
+        return objectType;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    /**
+     * @return column of a column or foreign key difference, otherwise null
+     */
+    public String getColumn() {
+        return column;
+    }
+
+    /**
+     * @return name of the foreign key or index, otherwise null
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return changed property, null unless the kind is {@link Kind#CHANGED} and a single property differs
+     */
+    public String getProperty() {
+        return property;
+    }
+
+    /**
+     * @return value in the local model
+     */
+    public Object getOldValue() {
+        return oldValue;
+    }
+
+    /**
+     * @return value in the database
+     */
+    public Object getNewValue() {
+        return newValue;
+    }
+
+    /**
+     * @return table, column and name of the object that differs, joined by dots
+     */
+    public String getPath() {
+        StringJoiner path = new StringJoiner(".");
+        path.add(table);
+        if (column != null) {
+            path.add(column);
+        }
+        if (name != null) {
+            path.add(name);
+        }
+        return path.toString();
+    }
+
+    @Override
+    public String toString() {
+        switch (objectType) {
+            case TABLE:
+                return String.format(kind == Kind.ADDED ? TABLE_ADDED_FORMAT : TABLE_REMOVED_FORMAT, table);
+            case COLUMN:
+                if (kind == Kind.CHANGED) {
+                    return String.format(COLUMN_CHANGED_FORMAT, column, table, property, oldValue, newValue);
+                }
+                return String.format(kind == Kind.ADDED ? COLUMN_ADDED_FORMAT : COLUMN_REMOVED_FORMAT, column, table);
+            case FOREIGN_KEY:
+                if (kind == Kind.CHANGED) {
+                    return String.format(COLUMN_FOREIGN_KEY_CHANGED, name, column, table, property, oldValue, newValue);
+                }
+                return String.format(kind == Kind.ADDED ? COLUMN_FOREIGN_KEY_ADDED : COLUMN_FOREIGN_KEY_REMOVED,
+                        name, column, table);
+            case INDEX:
+            default:
+                if (kind == Kind.CHANGED) {
+                    return String.format(INDEX_CHANGED_FORMAT, name);
+                }
+                return String.format(kind == Kind.ADDED ? INDEX_ADDED_FORMAT : INDEX_REMOVED_FORMAT, name);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.adaptivescale.rosetta.diff.test;
+
+import com.adaptivescale.rosetta.common.models.Column;
+import com.adaptivescale.rosetta.common.models.Database;
+import com.adaptivescale.rosetta.common.models.ForeignKey;
+import com.adaptivescale.rosetta.common.models.Table;
+import com.adaptivescale.rosetta.diff.DefaultTester;
+import com.adaptivescale.rosetta.diff.DiffText;
+import com.adaptivescale.rosetta.diff.Difference;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class DefaultTesterTest {
+
+    @Test
+    public void findsStructuredDifferences() {
+        Column localId = column("actor_id", 1, true);
+        Column targetId = column("actor_id", 5, false);
+        ForeignKey foreignKey = new ForeignKey();
+        foreignKey.setName("actor_film_fk");
+        foreignKey.setDeleteRule("1");
+        localId.setForeignKeys(List.of(foreignKey));
+
+        Database local = database(table("actor", localId, column("name", 0, true)), table("film"));
+        Database target = database(table("actor", targetId), table("address"));
+
+        List<Difference> differences = new DefaultTester().find(local, target);
+
+        Difference precision = differences.get(0);
+        Assertions.assertEquals(Difference.Kind.CHANGED, precision.getKind());
+        Assertions.assertEquals("actor.actor_id", precision.getPath());
+        Assertions.assertEquals("Precision", precision.getProperty());
+        Assertions.assertEquals(1, precision.getOldValue());
+        Assertions.assertEquals(5, precision.getNewValue());
+
+        List<String> lines = new ArrayList<>();
+        DiffText.write(differences, lines::add);
+        Assertions.assertEquals(List.of(
+                "Table Changed: Table 'actor' columns changed",
+                "Column Changed: Column 'actor_id' in table 'actor' changed 'Precision'. Old value: '1', new value: '5'",
+                "Column Changed: Column 'actor_id' in table 'actor' changed 'Nullable'. Old value: 'true', new value: 'false'",
+                "Foreign Key Changed: FK 'actor_film_fk' on Column 'actor_id' in table 'actor' is removed",
+                "Column Removed: Column 'name' in table 'actor'",
+                "Table Removed: Table 'film'",
+                "Table Added: Table 'address'"), lines);
+    }
+
+    @Test
+    public void comparesWideTables() {
+        Column[] columns = new Column[100_000];
+        Column[] changedColumns = new Column[100_000];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = column("column_" + i, 10, true);
+            changedColumns[i] = column("column_" + i, i % 1000 == 0 ? 20 : 10, true);
+        }
+
+        List<Difference> differences = new DefaultTester().find(database(table("wide", columns)),
+                database(table("wide", changedColumns)));
+        Assertions.assertEquals(100, differences.size());
+    }
+
+    private static Database database(Table... tables) {
+        Database database = new Database();
+        database.setTables(List.of(tables));
+        return database;
+    }
+
+    private static Table table(String name, Column... columns) {
+        Table table = new Table();
+        table.setName(name);
+        table.setColumns(List.of(columns));
+        return table;
+    }
+
+    private static Column column(String name, int precision, boolean nullable) {
+        Column column = new Column();
+        column.setName(name);
+        column.setTypeName("int4");
+        column.setPrecision(precision);
+        column.setNullable(nullable);
+        return column;
+    }
+}
@@ -0,0 +1,125 @@
+package com.adataptivescale.rosetta.source.core;
+
+import com.adaptivescale.rosetta.common.annotations.RosettaModule;
+import com.adaptivescale.rosetta.common.models.Table;
+import com.adaptivescale.rosetta.common.models.TableStatistics;
+import com.adaptivescale.rosetta.common.models.input.Connection;
+import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Extracts partitioning, clustering and partition expiration of BigQuery tables from the INFORMATION_SCHEMA views
+ * of every dataset, and their sizes from the __TABLES__ meta table.
+ */
+@Slf4j
+@RosettaModule(
+        name = "bigquery",
+        type = RosettaModuleTypes.TABLE_EXTRACTOR
+)
+public class BigQueryTablesExtractor extends TablesExtractor {
+
+    // the partitioning expression is only available in the DDL, where every clause starts on a line of its own
+    private static final Pattern PARTITION_BY = Pattern.compile("^PARTITION BY (.+)$", Pattern.MULTILINE);
+
+    private static final String TABLES = "SELECT table_name, ddl FROM %s.INFORMATION_SCHEMA.TABLES";
+
+    private static final String CLUSTERING_COLUMNS = "SELECT table_name, column_name FROM %s.INFORMATION_SCHEMA.COLUMNS " +
+            "WHERE clustering_ordinal_position IS NOT NULL ORDER BY table_name, clustering_ordinal_position";
+
+    private static final String PARTITION_EXPIRATION = "SELECT table_name, option_value FROM %s.INFORMATION_SCHEMA.TABLE_OPTIONS " +
+            "WHERE option_name = 'partition_expiration_days'";
+
+    private static final String TABLE_SIZES = "SELECT table_id, row_count, size_bytes FROM %s.__TABLES__";
+
+    @Override
+    public Collection<Table> extract(Connection target, java.sql.Connection connection) throws SQLException {
+        Collection<Table> tables = super.extract(target, connection);
+
+        Set<String> datasets = tables.stream().map(Table::getSchema).collect(Collectors.toCollection(LinkedHashSet::new));
+        try (Statement statement = connection.createStatement()) {
+            for (String dataset : datasets) {
+                Map<String, Table> tablesByName = tables.stream()
+                        .filter(table -> dataset.equals(table.getSchema()))
+                        .collect(Collectors.toMap(Table::getName, Function.identity()));
+                String qualifiedDataset = qualify(target.getDatabaseName(), dataset);
+
+                try (ResultSet resultSet = statement.executeQuery(String.format(TABLES, qualifiedDataset))) {
+                    while (resultSet.next()) {
+                        Table table = tablesByName.get(resultSet.getString("table_name"));
+                        if (table != null) {
+                            table.setPartitionBy(partitionBy(resultSet.getString("ddl")));
+                        }
+                    }
+                }
+
+                try (ResultSet resultSet = statement.executeQuery(String.format(CLUSTERING_COLUMNS, qualifiedDataset))) {
+                    while (resultSet.next()) {
+                        Table table = tablesByName.get(resultSet.getString("table_name"));
+                        if (table == null) {
+                            continue;
+                        }
+                        if (table.getClusterBy() == null) {
+                            table.setClusterBy(new ArrayList<>());
+                        }
+                        table.getClusterBy().add(resultSet.getString("column_name"));
+                    }
+                }
+
+                try (ResultSet resultSet = statement.executeQuery(String.format(TABLE_SIZES, qualifiedDataset))) {
+                    while (resultSet.next()) {
+                        Table table = tablesByName.get(resultSet.getString("table_id"));
+                        if (table != null) {
+                            table.setStatistics(TableStatistics.of(resultSet, "row_count", "size_bytes"));
+                        }
+                    }
+                }
+
+                try (ResultSet resultSet = statement.executeQuery(String.format(PARTITION_EXPIRATION, qualifiedDataset))) {
+                    while (resultSet.next()) {
+                        Table table = tablesByName.get(resultSet.getString("table_name"));
+                        if (table != null) {
+                            table.setPartitionExpirationDays(Double.valueOf(resultSet.getString("option_value")));
+                        }
+                    }
+                }
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * @param ddl table definition as shown in INFORMATION_SCHEMA.TABLES
+     * @return expression after PARTITION BY, null if the table is not partitioned
+     */
+    static String partitionBy(String ddl) {
+        if (ddl == null) {
+            return null;
+        }
+        Matcher matcher = PARTITION_BY.matcher(ddl);
+        if (!matcher.find()) {
+            return null;
+        }
+        String expression = matcher.group(1).trim();
+        return expression.endsWith(";") ? expression.substring(0, expression.length() - 1).trim() : expression;
+    }
+
+    private static String qualify(String project, String dataset) {
+        if (project == null || project.isBlank()) {
+            return "`" + dataset + "`";
+        }
+        return "`" + project + "`.`" + dataset + "`";
+    }
+}
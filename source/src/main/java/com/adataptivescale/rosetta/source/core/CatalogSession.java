@@ -0,0 +1,112 @@
+package com.adataptivescale.rosetta.source.core;
+
+import com.adaptivescale.rosetta.common.HashUtils;
+import com.adaptivescale.rosetta.common.JDBCDriverProvider;
+import com.adaptivescale.rosetta.common.JDBCUtils;
+import com.adaptivescale.rosetta.common.models.Table;
+import com.adaptivescale.rosetta.common.models.input.Connection;
+import com.adataptivescale.rosetta.source.core.interfaces.ColumnExtractor;
+import com.adataptivescale.rosetta.source.core.interfaces.SignatureSource;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Driver;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Keeps one connection open for repeated reads of the same schema. A signature of every table is read with one
+ * {@link java.sql.DatabaseMetaData#getTables} and one {@link java.sql.DatabaseMetaData#getColumns} call for the whole
+ * schema, tables are only extracted when asked for. The tables are listed the same way as for extraction, so tables
+ * the dialect leaves out, such as Postgres partitions, have no signature. The signature covers the table type and its
+ * columns, changes to keys and indices alone do not change it.
+ */
+@Slf4j
+public class CatalogSession implements SignatureSource {
+    private final Connection connection;
+    private final TablesExtractor tablesExtractor;
+    private final ColumnExtractor<java.sql.Connection, Collection<Table>> columnsExtractor;
+    private final JDBCDriverProvider driverProvider;
+    private java.sql.Connection connect;
+
+    CatalogSession(Connection connection, TablesExtractor tablesExtractor,
+                   ColumnExtractor<java.sql.Connection, Collection<Table>> columnsExtractor, JDBCDriverProvider driverProvider) {
+        this.connection = connection;
+        this.tablesExtractor = tablesExtractor;
+        this.columnsExtractor = columnsExtractor;
+        this.driverProvider = driverProvider;
+    }
+
+    /**
+     * @return signature of every table by table name, in the order the tables are listed
+     */
+    @Override
+    public Map<String, String> signatures() throws Exception {
+        java.sql.Connection connect = connect();
+        Map<String, StringBuilder> descriptions = new LinkedHashMap<>();
+        for (Table table : tablesExtractor.list(connection, connect)) {
+            descriptions.putIfAbsent(table.getName(), new StringBuilder(String.valueOf(table.getType())));
+        }
+
+        try (ResultSet resultSet = connect.getMetaData().getColumns(connection.getDatabaseName(),
+                connection.getSchemaName(), null, null)) {
+            while (resultSet.next()) {
+                StringBuilder description = descriptions.get(resultSet.getString("TABLE_NAME"));
+                if (description == null) {
+                    // a view or a table that is not extracted
+                    continue;
+                }
+                description.append('|').append(resultSet.getString("COLUMN_NAME"))
+                        .append(' ').append(resultSet.getString("TYPE_NAME"))
+                        .append(' ').append(resultSet.getInt("COLUMN_SIZE"))
+                        .append(' ').append(resultSet.getInt("DECIMAL_DIGITS"))
+                        .append(' ').append(resultSet.getString("IS_NULLABLE"))
+                        .append(' ').append(resultSet.getString("COLUMN_DEF"));
+            }
+        }
+
+        Map<String, String> signatures = new LinkedHashMap<>();
+        descriptions.forEach((table, description) -> signatures.put(table, HashUtils.sha256(description.toString())));
+        return signatures;
+    }
+
+    /**
+     * Extracts the given tables with their columns, keys and indices. Tables that do not exist are left out.
+     */
+    @Override
+    public Collection<Table> extract(Collection<String> tables) throws Exception {
+        // an empty table list extracts every table
+        if (tables.isEmpty()) {
+            return new ArrayList<>();
+        }
+        java.sql.Connection connect = connect();
+        Collection<Table> extracted = tablesExtractor.extract(connection.withTables(tables), connect);
+        columnsExtractor.extract(connect, extracted);
+        return extracted;
+    }
+
+    /**
+     * Closes the connection, a later call connects again.
+     */
+    @Override
+    public void close() {
+        if (connect == null) {
+            return;
+        }
+        try {
+            connect.close();
+        } catch (SQLException e) {
+            log.debug("Closing connection failed: {}", e.getMessage());
+        }
+        connect = null;
+    }
+
+    private java.sql.Connection connect() throws SQLException {
+        if (connect == null || connect.isClosed()) {
+            Driver driver = driverProvider.getDriver(connection);
+            Properties properties = JDBCUtils.setJDBCAuth(connection);
+            connect = driver.connect(connection.getUrl(), properties);
+        }
+        return connect;
+    }
+}
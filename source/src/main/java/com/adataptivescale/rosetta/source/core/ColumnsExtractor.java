@@ -3,6 +3,7 @@ package com.adataptivescale.rosetta.source.core;
 import com.adaptivescale.rosetta.common.models.Column;
 import com.adaptivescale.rosetta.common.models.ForeignKey;
 import com.adaptivescale.rosetta.common.models.Index;
+import com.adaptivescale.rosetta.common.models.IndexStatistics;
 import com.adaptivescale.rosetta.common.models.Table;
 import com.adaptivescale.rosetta.common.models.input.Connection;
 import com.adataptivescale.rosetta.source.common.QueryHelper;
@@ -110,7 +111,7 @@ public class ColumnsExtractor implements ColumnExtractor<java.sql.Connection, Co
             index.addColumn(exportedKeys.getString("COLUMN_NAME"));
             index.setIndexQualifier(exportedKeys.getString("INDEX_QUALIFIER"));
             index.setType(exportedKeys.getShort("TYPE"));
-            index.setCardinality(exportedKeys.getInt("CARDINALITY"));
+            index.setStatistics(new IndexStatistics(exportedKeys.getInt("CARDINALITY"), exportedKeys.getInt("PAGES")));
             index.setFilterCondition(exportedKeys.getString("FILTER_CONDITION"));
             index.setNonUnique(exportedKeys.getBoolean("NON_UNIQUE"));
             index.setAscOrDesc(exportedKeys.getString("ASC_OR_DESC"));
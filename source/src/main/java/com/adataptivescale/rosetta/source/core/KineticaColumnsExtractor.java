@@ -2,11 +2,23 @@ package com.adataptivescale.rosetta.source.core;
 
 import com.adaptivescale.rosetta.common.annotations.RosettaModule;
 import com.adaptivescale.rosetta.common.models.Column;
+import com.adaptivescale.rosetta.common.models.Table;
 import com.adaptivescale.rosetta.common.models.input.Connection;
 import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @RosettaModule(
         name = "kinetica",
@@ -14,10 +26,37 @@ import java.sql.SQLException;
 )
 public class KineticaColumnsExtractor extends ColumnsExtractor {
 
+    private static final Pattern REPLICATED = Pattern.compile("^\\s*CREATE\\s+(OR\\s+REPLACE\\s+)?REPLICATED\\s+TABLE",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern SHARD_KEY = Pattern.compile("SHARD\\s+KEY\\s*\\(([^)]*)\\)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern TIER_STRATEGY = Pattern.compile("TIER\\s+STRATEGY\\s*\\((.*)\\)\\s*;?\\s*$",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    // a column definition with its size and properties, e.g. "name" VARCHAR (32, dict) NOT NULL
+    private static final Pattern COLUMN = Pattern.compile("^\\s*\"?([^\"\\s]+)\"?\\s+\\w+\\s*\\(([^)]*)\\)", Pattern.MULTILINE);
+    // expressed by the primary key and shard key of the table
+    private static final Set<String> KEY_PROPERTIES = Set.of("primary_key", "shard_key");
+
     public KineticaColumnsExtractor(Connection connection) {
         super(connection);
     }
 
+    @Override
+    public void extract(java.sql.Connection connection, Collection<Table> tables) throws Exception {
+        super.extract(connection, tables);
+
+        // distribution, tiering and column properties are only shown in the DDL of the table
+        try (Statement statement = connection.createStatement()) {
+            for (Table table : tables) {
+                String showCreateTable = String.format("SHOW CREATE TABLE \"%s\".\"%s\"", table.getSchema(), table.getName());
+                try (ResultSet resultSet = statement.executeQuery(showCreateTable)) {
+                    if (resultSet.next()) {
+                        applyDDL(table, ddl(resultSet));
+                    }
+                }
+            }
+        }
+    }
+
     @Override
     protected void extract(ResultSet resultSet, Column column) throws SQLException {
         column.setName(resultSet.getString("COLUMN_NAME"));
@@ -27,4 +66,63 @@ public class KineticaColumnsExtractor extends ColumnsExtractor {
         column.setScale(resultSet.getInt("DECIMAL_DIGITS"));
         column.setPrecision(resultSet.getInt("COLUMN_SIZE"));
     }
+
+    private static String ddl(ResultSet resultSet) throws SQLException {
+        for (int i = 1; i <= resultSet.getMetaData().getColumnCount(); i++) {
+            String value = resultSet.getString(i);
+            if (value != null && value.trim().toUpperCase().startsWith("CREATE")) {
+                return value;
+            }
+        }
+        return "";
+    }
+
+    static void applyDDL(Table table, String ddl) {
+        if (REPLICATED.matcher(ddl).find()) {
+            table.setReplicated(true);
+        }
+
+        Matcher shardKey = SHARD_KEY.matcher(ddl);
+        if (shardKey.find()) {
+            table.setShardKey(names(shardKey.group(1)));
+        }
+
+        Matcher tierStrategy = TIER_STRATEGY.matcher(ddl);
+        if (tierStrategy.find()) {
+            table.setTierStrategy(tierStrategy.group(1).trim().replaceAll("\\s+", " "));
+        }
+
+        Map<String, Column> columns = table.getColumns() == null ? Map.of() : table.getColumns().stream()
+                .collect(Collectors.toMap(Column::getName, Function.identity(), (a, b) -> a));
+        List<String> shardKeyColumns = new ArrayList<>();
+        Matcher column = COLUMN.matcher(ddl);
+        while (column.find()) {
+            Column target = columns.get(column.group(1));
+            if (target == null) {
+                continue;
+            }
+            List<String> arguments = names(column.group(2));
+            if (arguments.stream().anyMatch(argument -> argument.equalsIgnoreCase("shard_key"))) {
+                shardKeyColumns.add(target.getName());
+            }
+            List<String> properties = arguments.stream()
+                    .filter(argument -> !argument.matches("\\d+") && !KEY_PROPERTIES.contains(argument.toLowerCase()))
+                    .map(String::toLowerCase)
+                    .collect(Collectors.toList());
+            if (!properties.isEmpty()) {
+                target.setProperties(properties);
+            }
+        }
+
+        if (table.getShardKey() == null && !shardKeyColumns.isEmpty()) {
+            table.setShardKey(shardKeyColumns);
+        }
+    }
+
+    private static List<String> names(String list) {
+        return Arrays.stream(list.split(","))
+                .map(name -> name.trim().replace("\"", ""))
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toList());
+    }
 }
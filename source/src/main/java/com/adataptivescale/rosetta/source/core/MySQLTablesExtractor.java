@@ -0,0 +1,50 @@
+package com.adataptivescale.rosetta.source.core;
+
+import com.adaptivescale.rosetta.common.annotations.RosettaModule;
+import com.adaptivescale.rosetta.common.models.Table;
+import com.adaptivescale.rosetta.common.models.TableStatistics;
+import com.adaptivescale.rosetta.common.models.input.Connection;
+import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Extracts the estimated row count and size of MySQL tables from information_schema.TABLES.
+ */
+@RosettaModule(
+        name = "mysql",
+        type = RosettaModuleTypes.TABLE_EXTRACTOR
+)
+public class MySQLTablesExtractor extends TablesExtractor {
+
+    // TABLE_ROWS is an estimate for InnoDB, DATA_LENGTH and INDEX_LENGTH are allocated bytes
+    private static final String TABLE_SIZES = "SELECT TABLE_SCHEMA, TABLE_NAME, TABLE_ROWS, " +
+            "DATA_LENGTH + INDEX_LENGTH AS TOTAL_BYTES FROM information_schema.TABLES WHERE TABLE_TYPE = 'BASE TABLE'";
+
+    @Override
+    public Collection<Table> extract(Connection target, java.sql.Connection connection) throws SQLException {
+        Collection<Table> tables = super.extract(target, connection);
+        Map<String, Table> tablesByName = new HashMap<>();
+        tables.forEach(table -> tablesByName.put(key(table.getSchema(), table.getName()), table));
+
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(TABLE_SIZES)) {
+            while (resultSet.next()) {
+                Table table = tablesByName.get(key(resultSet.getString("TABLE_SCHEMA"), resultSet.getString("TABLE_NAME")));
+                if (table != null) {
+                    table.setStatistics(TableStatistics.of(resultSet, "TABLE_ROWS", "TOTAL_BYTES"));
+                }
+            }
+        }
+        return tables;
+    }
+
+    private static String key(String schema, String name) {
+        return schema + "." + name;
+    }
+}
@@ -0,0 +1,116 @@
+package com.adataptivescale.rosetta.source.core;
+
+import com.adaptivescale.rosetta.common.annotations.RosettaModule;
+import com.adaptivescale.rosetta.common.models.Index;
+import com.adaptivescale.rosetta.common.models.Table;
+import com.adaptivescale.rosetta.common.models.input.Connection;
+import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Extracts the parts of an index the JDBC metadata leaves out: the access method, expressions, included columns,
+ * non default operator classes and the predicate of a partial index.
+ */
+@RosettaModule(
+        name = "postgres",
+        type = RosettaModuleTypes.COLUMN_EXTRACTOR
+)
+public class PostgresColumnsExtractor extends ColumnsExtractor {
+
+    // one row per index column, key columns first and included columns after them
+    private static final String INDEX_COLUMNS = "SELECT n.nspname AS table_schema, t.relname AS table_name, " +
+            "i.relname AS index_name, am.amname AS method, pg_get_expr(ix.indpred, ix.indrelid) AS predicate, " +
+            "k.position > ix.indnkeyatts AS included, ix.indkey[k.position - 1] = 0 AS is_expression, " +
+            "pg_get_indexdef(ix.indexrelid, k.position, true) AS definition, " +
+            "CASE WHEN oc.opcdefault THEN NULL ELSE oc.opcname END AS operator_class " +
+            "FROM pg_index ix " +
+            "JOIN pg_class i ON i.oid = ix.indexrelid " +
+            "JOIN pg_class t ON t.oid = ix.indrelid " +
+            "JOIN pg_namespace n ON n.oid = t.relnamespace " +
+            "JOIN pg_am am ON am.oid = i.relam " +
+            "CROSS JOIN LATERAL generate_series(1, ix.indnatts) AS k(position) " +
+            "LEFT JOIN pg_opclass oc ON oc.oid = ix.indclass[k.position - 1] " +
+            "WHERE n.nspname NOT IN ('pg_catalog', 'information_schema') " +
+            "ORDER BY n.nspname, t.relname, i.relname, k.position";
+
+    public PostgresColumnsExtractor(Connection connection) {
+        super(connection);
+    }
+
+    @Override
+    public void extract(java.sql.Connection connection, Collection<Table> tables) throws Exception {
+        super.extract(connection, tables);
+
+        Map<String, Index> indicesByName = new HashMap<>();
+        for (Table table : tables) {
+            if (table.getIndices() != null) {
+                table.getIndices().forEach(index -> indicesByName.put(key(table.getSchema(), table.getName(), index.getName()), index));
+            }
+        }
+
+        Map<String, IndexDefinition> definitions = new LinkedHashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(INDEX_COLUMNS)) {
+            while (resultSet.next()) {
+                String key = key(resultSet.getString("table_schema"), resultSet.getString("table_name"),
+                        resultSet.getString("index_name"));
+                if (indicesByName.containsKey(key)) {
+                    definitions.computeIfAbsent(key, name -> new IndexDefinition()).add(resultSet);
+                }
+            }
+        }
+        definitions.forEach((key, definition) -> definition.applyTo(indicesByName.get(key)));
+    }
+
+    private static String key(String schema, String table, String index) {
+        return schema + "." + table + "." + index;
+    }
+
+    private static class IndexDefinition {
+        private String method;
+        private String predicate;
+        private final List<String> keyItems = new ArrayList<>();
+        private final List<String> includeColumns = new ArrayList<>();
+        private final Map<String, String> operatorClasses = new LinkedHashMap<>();
+
+        private void add(ResultSet resultSet) throws SQLException {
+            method = resultSet.getString("method");
+            predicate = resultSet.getString("predicate");
+            String definition = resultSet.getString("definition");
+            if (resultSet.getBoolean("included")) {
+                includeColumns.add(unquote(definition));
+                return;
+            }
+            String item = resultSet.getBoolean("is_expression") ? "(" + definition + ")" : unquote(definition);
+            keyItems.add(item);
+            String operatorClass = resultSet.getString("operator_class");
+            if (operatorClass != null) {
+                operatorClasses.put(item, operatorClass);
+            }
+        }
+
+        private void applyTo(Index index) {
+            index.setMethod("btree".equals(method) ? null : method);
+            index.setColumnNames(keyItems);
+            index.setIncludeColumns(includeColumns.isEmpty() ? null : includeColumns);
+            index.setOperatorClasses(operatorClasses.isEmpty() ? null : operatorClasses);
+            index.setFilterCondition(predicate);
+        }
+
+        private static String unquote(String column) {
+            if (column.length() > 1 && column.startsWith("\"") && column.endsWith("\"")) {
+                return column.substring(1, column.length() - 1).replace("\"\"", "\"");
+            }
+            return column;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.adataptivescale.rosetta.source.core;
+
+import com.adaptivescale.rosetta.common.annotations.RosettaModule;
+import com.adaptivescale.rosetta.common.models.Partition;
+import com.adaptivescale.rosetta.common.models.Partitioning;
+import com.adaptivescale.rosetta.common.models.Table;
+import com.adaptivescale.rosetta.common.models.TableStatistics;
+import com.adaptivescale.rosetta.common.models.input.Connection;
+import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Extracts declarative partitioning from pg_partitioned_table and pg_inherits. Partitions are not listed as tables
+ * of their own, they are listed in the {@link Partitioning} of their table and share its columns. The estimated row
+ * count and size of every table are taken from pg_class.
+ */
+@Slf4j
+@RosettaModule(
+        name = "postgres",
+        type = RosettaModuleTypes.TABLE_EXTRACTOR
+)
+public class PostgresTablesExtractor extends TablesExtractor {
+
+    private static final String PARTITIONED_TABLES = "SELECT n.nspname AS table_schema, c.relname AS table_name, " +
+            "pg_get_partkeydef(c.oid) AS partition_key " +
+            "FROM pg_partitioned_table p " +
+            "JOIN pg_class c ON c.oid = p.partrelid " +
+            "JOIN pg_namespace n ON n.oid = c.relnamespace";
+
+    private static final String PARTITIONS = "SELECT n.nspname AS table_schema, parent.relname AS table_name, " +
+            "child.relname AS partition_name, pg_get_expr(child.relpartbound, child.oid) AS partition_bound " +
+            "FROM pg_inherits i " +
+            "JOIN pg_class parent ON parent.oid = i.inhparent " +
+            "JOIN pg_namespace n ON n.oid = parent.relnamespace " +
+            "JOIN pg_class child ON child.oid = i.inhrelid " +
+            "WHERE child.relispartition " +
+            "ORDER BY n.nspname, parent.relname, child.relname";
+
+    private static final String PARTITION_TABLES = "SELECT n.nspname AS table_schema, c.relname AS table_name, " +
+            "c.relkind = 'p' AS partitioned " +
+            "FROM pg_class c " +
+            "JOIN pg_namespace n ON n.oid = c.relnamespace " +
+            "WHERE c.relispartition";
+
+    // reltuples is -1 for a table that was never vacuumed or analyzed
+    private static final String TABLE_SIZES = "SELECT n.nspname AS table_schema, c.relname AS table_name, " +
+            "CASE WHEN c.reltuples < 0 THEN NULL ELSE c.reltuples::bigint END AS row_count, " +
+            "pg_total_relation_size(c.oid) AS total_bytes " +
+            "FROM pg_class c " +
+            "JOIN pg_namespace n ON n.oid = c.relnamespace " +
+            "WHERE c.relkind IN ('r', 'p')";
+
+    @Override
+    public Collection<Table> extract(Connection target, java.sql.Connection connection) throws SQLException {
+        Collection<Table> tables = super.extract(target, connection);
+        Map<String, Table> tablesByName = new HashMap<>();
+        tables.forEach(table -> tablesByName.put(key(table.getSchema(), table.getName()), table));
+
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet resultSet = statement.executeQuery(PARTITIONED_TABLES)) {
+                while (resultSet.next()) {
+                    Table table = tablesByName.get(key(resultSet.getString("table_schema"), resultSet.getString("table_name")));
+                    if (table != null) {
+                        table.setPartitioning(partitioning(resultSet.getString("partition_key")));
+                    }
+                }
+            }
+
+            try (ResultSet resultSet = statement.executeQuery(TABLE_SIZES)) {
+                while (resultSet.next()) {
+                    Table table = tablesByName.get(key(resultSet.getString("table_schema"), resultSet.getString("table_name")));
+                    if (table != null) {
+                        table.setStatistics(TableStatistics.of(resultSet, "row_count", "total_bytes"));
+                    }
+                }
+            }
+
+            try (ResultSet resultSet = statement.executeQuery(PARTITIONS)) {
+                while (resultSet.next()) {
+                    Table table = tablesByName.get(key(resultSet.getString("table_schema"), resultSet.getString("table_name")));
+                    if (table == null || table.getPartitioning() == null) {
+                        continue;
+                    }
+                    Partition partition = new Partition();
+                    partition.setName(resultSet.getString("partition_name"));
+                    partition.setBound(resultSet.getString("partition_bound"));
+                    table.getPartitioning().getPartitions().add(partition);
+                }
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * Lists the tables without their partitions, so that every caller of the listing sees the same tables.
+     */
+    @Override
+    public Collection<Table> list(Connection target, java.sql.Connection connection) throws SQLException {
+        Collection<Table> tables = super.list(target, connection);
+        Set<String> partitionKeys = new HashSet<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(PARTITION_TABLES)) {
+            while (resultSet.next()) {
+                String schema = resultSet.getString("table_schema");
+                String name = resultSet.getString("table_name");
+                partitionKeys.add(key(schema, name));
+                // partitions that are partitioned themselves are removed as well, their partitions are not modelled.
+                // the listing is repeated by watch, so this is not logged as a warning
+                if (resultSet.getBoolean("partitioned")) {
+                    log.debug("Partitioning of partition {}.{} is not extracted.", schema, name);
+                }
+            }
+        }
+        return tables.stream()
+                .filter(table -> !partitionKeys.contains(key(table.getSchema(), table.getName())))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    protected String[] tableTypes() {
+        return new String[]{"TABLE", "PARTITIONED TABLE"};
+    }
+
+    /**
+     * @param partitionKey definition as returned by pg_get_partkeydef, e.g. RANGE (created_at, (lower(region)))
+     */
+    static Partitioning partitioning(String partitionKey) {
+        int open = partitionKey.indexOf('(');
+        Partitioning partitioning = new Partitioning();
+        partitioning.setStrategy(partitionKey.substring(0, open).trim());
+        partitioning.setColumns(splitKey(partitionKey.substring(open + 1, partitionKey.lastIndexOf(')'))));
+        return partitioning;
+    }
+
+    // splits on commas outside of parentheses and quotes, quoted column names are unquoted
+    private static List<String> splitKey(String key) {
+        List<String> columns = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        int depth = 0;
+        boolean quoted = false;
+        for (char c : key.toCharArray()) {
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (!quoted && c == '(') {
+                depth++;
+            } else if (!quoted && c == ')') {
+                depth--;
+            } else if (!quoted && depth == 0 && c == ',') {
+                columns.add(unquote(current.toString().trim()));
+                current.setLength(0);
+                continue;
+            }
+            current.append(c);
+        }
+        columns.add(unquote(current.toString().trim()));
+        return columns;
+    }
+
+    private static String unquote(String column) {
+        if (column.length() > 1 && column.startsWith("\"") && column.endsWith("\"")) {
+            return column.substring(1, column.length() - 1).replace("\"\"", "\"");
+        }
+        return column;
+    }
+
+    private static String key(String schema, String name) {
+        return schema + "." + name;
+    }
+}
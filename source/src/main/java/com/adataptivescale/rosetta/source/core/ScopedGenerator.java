@@ -0,0 +1,63 @@
+package com.adataptivescale.rosetta.source.core;
+
+import com.adaptivescale.rosetta.common.JDBCDriverProvider;
+import com.adaptivescale.rosetta.common.JDBCUtils;
+import com.adaptivescale.rosetta.common.models.Database;
+import com.adaptivescale.rosetta.common.models.Table;
+import com.adaptivescale.rosetta.common.models.input.Connection;
+import com.adataptivescale.rosetta.source.core.interfaces.ColumnExtractor;
+import com.adataptivescale.rosetta.source.core.interfaces.Generator;
+
+import java.sql.Driver;
+import java.util.*;
+
+/**
+ * Extracts only the tables in scope, usually the tables of the local model. Every other table is only listed, with
+ * the same {@link java.sql.DatabaseMetaData#getTables} call, and kept without columns so that a diff can still report
+ * it as added.
+ */
+public class ScopedGenerator implements Generator<Database, Connection> {
+    private final TablesExtractor tablesExtractor;
+    private final ColumnExtractor<java.sql.Connection, Collection<Table>> columnsExtractor;
+    private final JDBCDriverProvider driverProvider;
+    private final Set<String> scope;
+
+    ScopedGenerator(TablesExtractor tablesExtractor, ColumnExtractor<java.sql.Connection, Collection<Table>> columnsExtractor,
+                    JDBCDriverProvider driverProvider, Collection<String> scope) {
+        this.tablesExtractor = tablesExtractor;
+        this.columnsExtractor = columnsExtractor;
+        this.driverProvider = driverProvider;
+        this.scope = new HashSet<>(scope);
+    }
+
+    @Override
+    public Database generate(Connection connection) throws Exception {
+        Driver driver = driverProvider.getDriver(connection);
+        Properties properties = JDBCUtils.setJDBCAuth(connection);
+        java.sql.Connection connect = driver.connect(connection.getUrl(), properties);
+
+        Collection<Table> listedTables = tablesExtractor.list(connection, connect);
+        List<String> tablesInScope = new ArrayList<>();
+        listedTables.stream().map(Table::getName).filter(scope::contains).forEach(tablesInScope::add);
+
+        // an empty table list extracts every table, so nothing is extracted when no table in scope exists
+        Map<String, Table> extractedTables = new HashMap<>();
+        if (!tablesInScope.isEmpty()) {
+            Collection<Table> tables = tablesExtractor.extract(connection.withTables(tablesInScope), connect);
+            columnsExtractor.extract(connect, tables);
+            tables.forEach(table -> extractedTables.putIfAbsent(table.getName(), table));
+        }
+
+        List<Table> tables = new ArrayList<>();
+        for (Table listedTable : listedTables) {
+            tables.add(extractedTables.getOrDefault(listedTable.getName(), listedTable));
+        }
+
+        Database database = new Database();
+        database.setName(connect.getMetaData().getDatabaseProductName());
+        database.setTables(tables);
+        database.setDatabaseType(connection.getDbType());
+        connect.close();
+        return database;
+    }
+}
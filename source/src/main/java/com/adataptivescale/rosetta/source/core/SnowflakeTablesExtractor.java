@@ -0,0 +1,132 @@
+package com.adataptivescale.rosetta.source.core;
+
+import com.adaptivescale.rosetta.common.annotations.RosettaModule;
+import com.adaptivescale.rosetta.common.models.SearchOptimization;
+import com.adaptivescale.rosetta.common.models.Table;
+import com.adaptivescale.rosetta.common.models.TableStatistics;
+import com.adaptivescale.rosetta.common.models.input.Connection;
+import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Extracts clustering keys, search optimization and sizes of Snowflake tables from SHOW TABLES and DESCRIBE SEARCH
+ * OPTIMIZATION.
+ */
+@RosettaModule(
+        name = "snowflake",
+        type = RosettaModuleTypes.TABLE_EXTRACTOR
+)
+public class SnowflakeTablesExtractor extends TablesExtractor {
+
+    @Override
+    public Collection<Table> extract(Connection target, java.sql.Connection connection) throws SQLException {
+        Collection<Table> tables = super.extract(target, connection);
+        Map<String, Table> tablesByName = new HashMap<>();
+        tables.forEach(table -> tablesByName.put(key(table.getSchema(), table.getName()), table));
+        Set<String> schemas = new LinkedHashSet<>();
+        tables.forEach(table -> schemas.add(table.getSchema()));
+
+        try (Statement statement = connection.createStatement()) {
+            for (String schema : schemas) {
+                String showTables = String.format("SHOW TABLES IN SCHEMA %s", qualify(target.getDatabaseName(), schema));
+                try (ResultSet resultSet = statement.executeQuery(showTables)) {
+                    while (resultSet.next()) {
+                        Table table = tablesByName.get(key(resultSet.getString("schema_name"), resultSet.getString("name")));
+                        if (table == null) {
+                            continue;
+                        }
+                        table.setClusterBy(clusterBy(resultSet.getString("cluster_by")));
+                        table.setStatistics(TableStatistics.of(resultSet, "rows", "bytes"));
+                        if ("ON".equalsIgnoreCase(resultSet.getString("search_optimization"))) {
+                            table.setSearchOptimization(new SearchOptimization());
+                        }
+                    }
+                }
+            }
+
+            for (Table table : tables) {
+                if (table.getSearchOptimization() != null) {
+                    table.getSearchOptimization().setMethods(searchMethods(statement, target, table));
+                }
+            }
+        }
+        return tables;
+    }
+
+    private static List<String> searchMethods(Statement statement, Connection target, Table table) throws SQLException {
+        String describe = String.format("DESCRIBE SEARCH OPTIMIZATION ON %s.\"%s\"",
+                qualify(target.getDatabaseName(), table.getSchema()), table.getName());
+        List<String> methods = new ArrayList<>();
+        try (ResultSet resultSet = statement.executeQuery(describe)) {
+            while (resultSet.next()) {
+                methods.add(resultSet.getString("method") + "(" + resultSet.getString("target") + ")");
+            }
+        }
+        // optimization added without ON is modelled without methods
+        if (methods.size() == 1 && methods.get(0).equalsIgnoreCase("EQUALITY(*)")) {
+            return new ArrayList<>();
+        }
+        return methods;
+    }
+
+    /**
+     * @param clusterBy clustering key as shown by SHOW TABLES, e.g. LINEAR("ID", TO_DATE(CREATED_AT))
+     * @return key expressions, null if the table has no clustering key
+     */
+    static List<String> clusterBy(String clusterBy) {
+        if (clusterBy == null || clusterBy.isBlank()) {
+            return null;
+        }
+        String key = clusterBy.trim();
+        if (key.toUpperCase().startsWith("LINEAR(") && key.endsWith(")")) {
+            key = key.substring("LINEAR(".length(), key.length() - 1);
+        }
+
+        // splits on commas outside of parentheses and quotes
+        List<String> expressions = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        int depth = 0;
+        char quote = 0;
+        for (char c : key.toCharArray()) {
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (depth == 0 && c == ',') {
+                expressions.add(current.toString().trim());
+                current.setLength(0);
+                continue;
+            }
+            current.append(c);
+        }
+        expressions.add(current.toString().trim());
+        return expressions;
+    }
+
+    private static String qualify(String database, String schema) {
+        if (database == null || database.isBlank()) {
+            return "\"" + schema + "\"";
+        }
+        return "\"" + database + "\".\"" + schema + "\"";
+    }
+
+    private static String key(String schema, String name) {
+        return schema + "." + name;
+    }
+}
@@ -10,6 +10,7 @@ import com.adataptivescale.rosetta.source.core.interfaces.Generator;
 import lombok.extern.slf4j.Slf4j;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.Collection;
 import java.util.Optional;
 
 @Slf4j
@@ -52,4 +53,20 @@ public class SourceGeneratorFactory {
         ColumnsExtractor columnsExtractor = loadColumnExtractor(connection);
         return new DefaultGenerator(tablesExtractor, columnsExtractor, driverProvider);
     }
+
+    /**
+     * @param tables names of the tables to extract, every other table is only listed by name
+     */
+    public static Generator<Database, Connection> scopedSourceGenerator(Connection connection, Collection<String> tables) {
+        return new ScopedGenerator(loadTableExtractor(connection), loadColumnExtractor(connection),
+                new DriverManagerDriverProvider(), tables);
+    }
+
+    /**
+     * @return session keeping one connection open until it is closed
+     */
+    public static CatalogSession catalogSession(Connection connection) {
+        return new CatalogSession(connection, loadTableExtractor(connection), loadColumnExtractor(connection),
+                new DriverManagerDriverProvider());
+    }
 }
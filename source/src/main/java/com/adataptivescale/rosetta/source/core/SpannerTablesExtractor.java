@@ -0,0 +1,46 @@
+package com.adataptivescale.rosetta.source.core;
+
+import com.adaptivescale.rosetta.common.annotations.RosettaModule;
+import com.adaptivescale.rosetta.common.models.Interleave;
+import com.adaptivescale.rosetta.common.models.Table;
+import com.adaptivescale.rosetta.common.models.input.Connection;
+import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Extracts the parent of interleaved Spanner tables from INFORMATION_SCHEMA.TABLES.
+ */
+@RosettaModule(
+        name = "spanner",
+        type = RosettaModuleTypes.TABLE_EXTRACTOR
+)
+public class SpannerTablesExtractor extends TablesExtractor {
+
+    private static final String INTERLEAVED_TABLES = "SELECT TABLE_NAME, PARENT_TABLE_NAME, ON_DELETE_ACTION " +
+            "FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = '' AND PARENT_TABLE_NAME IS NOT NULL";
+
+    @Override
+    public Collection<Table> extract(Connection target, java.sql.Connection connection) throws SQLException {
+        Collection<Table> tables = super.extract(target, connection);
+        Map<String, Table> tablesByName = tables.stream().collect(Collectors.toMap(Table::getName, Function.identity()));
+
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(INTERLEAVED_TABLES)) {
+            while (resultSet.next()) {
+                Table table = tablesByName.get(resultSet.getString("TABLE_NAME"));
+                if (table != null) {
+                    table.setInterleave(new Interleave(resultSet.getString("PARENT_TABLE_NAME"),
+                            resultSet.getString("ON_DELETE_ACTION")));
+                }
+            }
+        }
+        return tables;
+    }
+}
@@ -9,18 +9,30 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
 
 public class TablesExtractor implements TableExtractor<Collection<Table>, Connection, java.sql.Connection> {
     @Override
     public Collection<Table> extract(Connection target, java.sql.Connection connection) throws SQLException {
+        return list(target, connection);
+    }
+
+    /**
+     * Lists the tables of the connection, or only its configured tables, without reading anything else about them.
+     *
+     * @return tables with their name, type and schema
+     */
+    public Collection<Table> list(Connection target, java.sql.Connection connection) throws SQLException {
         DatabaseMetaData metaData = connection.getMetaData();
-        ResultSet resultSet = metaData.getTables(target.getDatabaseName(), target.getSchemaName(), null, new String[]{"TABLE"});
+        ResultSet resultSet = metaData.getTables(target.getDatabaseName(), target.getSchemaName(), null, tableTypes());
 
         Collection<Table> tables = new ArrayList<>();
+        Set<String> included = new HashSet<>(target.getTables());
 
         while (resultSet.next()) {
-            if (!target.getTables().isEmpty() &&
-                !target.getTables().contains(resultSet.getString("TABLE_NAME"))) continue;
+            if (!included.isEmpty() &&
+                !included.contains(resultSet.getString("TABLE_NAME"))) continue;
 
             Table table = new Table();
             table.setName(resultSet.getString("TABLE_NAME"));
@@ -39,4 +51,11 @@ public class TablesExtractor implements TableExtractor<Collection<Table>, Connec
         }
         return tables;
     }
+
+    /**
+     * @return table types as reported by {@link DatabaseMetaData#getTables} that are extracted
+     */
+    protected String[] tableTypes() {
+        return new String[]{"TABLE"};
+    }
 }
@@ -0,0 +1,28 @@
+package com.adataptivescale.rosetta.source.core.interfaces;
+
+import com.adaptivescale.rosetta.common.models.Table;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Reads cheap signatures of the tables of a schema, so that only the tables whose signature changed are extracted.
+ */
+public interface SignatureSource extends AutoCloseable {
+
+    /**
+     * @return signature of every table by table name
+     */
+    Map<String, String> signatures() throws Exception;
+
+    /**
+     * Extracts the given tables. Tables that do not exist are left out.
+     */
+    Collection<Table> extract(Collection<String> tables) throws Exception;
+
+    /**
+     * Releases the resources held, a later call acquires them again.
+     */
+    @Override
+    void close();
+}
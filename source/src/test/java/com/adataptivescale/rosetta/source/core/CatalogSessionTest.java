@@ -0,0 +1,66 @@
+package com.adataptivescale.rosetta.source.core;
+
+import com.adaptivescale.rosetta.common.models.Table;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class CatalogSessionTest {
+
+    @Test
+    public void signsTablesListedForExtraction() throws Exception {
+        FakeCatalog catalog = ScopedGeneratorTest.partitionedCatalog()
+                .column("orders", "id", "int4")
+                .column("orders_2023", "id", "int4")
+                .column("customers", "id", "int4");
+
+        try (CatalogSession session = session(catalog)) {
+            Assertions.assertEquals(List.of("orders", "customers"), List.copyOf(session.signatures().keySet()));
+        }
+    }
+
+    @Test
+    public void changesSignatureOfChangedTableOnly() throws Exception {
+        FakeCatalog catalog = ScopedGeneratorTest.partitionedCatalog()
+                .column("orders", "id", "int4")
+                .column("customers", "id", "int4");
+
+        try (CatalogSession session = session(catalog)) {
+            Map<String, String> before = session.signatures();
+            catalog.removeColumns("customers");
+            catalog.column("customers", "id", "int8");
+            Map<String, String> after = session.signatures();
+
+            Assertions.assertEquals(before.get("orders"), after.get("orders"));
+            Assertions.assertNotEquals(before.get("customers"), after.get("customers"));
+            Assertions.assertEquals(1, catalog.connects());
+        }
+    }
+
+    @Test
+    public void extractsOnlyGivenTablesAndConnectsAgainAfterClose() throws Exception {
+        FakeCatalog catalog = ScopedGeneratorTest.partitionedCatalog();
+
+        try (CatalogSession session = session(catalog)) {
+            Assertions.assertEquals(List.of(), List.copyOf(session.extract(List.of())));
+            Assertions.assertEquals(0, catalog.connects());
+
+            List<String> extracted = session.extract(List.of("customers")).stream()
+                    .map(Table::getName).collect(Collectors.toList());
+            Assertions.assertEquals(List.of("customers"), extracted);
+
+            session.close();
+            session.signatures();
+            Assertions.assertEquals(2, catalog.connects());
+        }
+    }
+
+    private static CatalogSession session(FakeCatalog catalog) {
+        return new CatalogSession(ScopedGeneratorTest.connection(), new PostgresTablesExtractor(),
+                (connect, tables) -> {
+                }, connection -> catalog.driver());
+    }
+}
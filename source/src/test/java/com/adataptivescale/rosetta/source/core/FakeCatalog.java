@@ -0,0 +1,164 @@
+package com.adataptivescale.rosetta.source.core;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.Driver;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC connection answering catalog calls and queries from rows set up by a test. A query is answered by the rows of
+ * the first registered fragment it contains, or by no rows.
+ */
+class FakeCatalog {
+
+    private final List<Map<String, Object>> tables = new ArrayList<>();
+    private final List<Map<String, Object>> columns = new ArrayList<>();
+    private final Map<String, List<Map<String, Object>>> queries = new LinkedHashMap<>();
+    private final List<String> executed = new ArrayList<>();
+    private int connects;
+
+    FakeCatalog table(String schema, String name, String type) {
+        tables.add(row("TABLE_CAT", null, "TABLE_SCHEM", schema, "TABLE_NAME", name, "TABLE_TYPE", type));
+        return this;
+    }
+
+    FakeCatalog column(String table, String name, String type) {
+        columns.add(row("TABLE_NAME", table, "COLUMN_NAME", name, "TYPE_NAME", type, "COLUMN_SIZE", 0,
+                "DECIMAL_DIGITS", 0, "IS_NULLABLE", "YES", "COLUMN_DEF", null));
+        return this;
+    }
+
+    FakeCatalog query(String fragment, Map<String, Object> row) {
+        queries.computeIfAbsent(fragment, key -> new ArrayList<>()).add(row);
+        return this;
+    }
+
+    void removeColumns(String table) {
+        columns.removeIf(column -> table.equals(column.get("TABLE_NAME")));
+    }
+
+    /**
+     * @return queries executed with a statement, in order
+     */
+    List<String> executed() {
+        return executed;
+    }
+
+    int connects() {
+        return connects;
+    }
+
+    Driver driver() {
+        return proxy(Driver.class, (proxy, method, args) -> {
+            if (method.getName().equals("connect")) {
+                connects++;
+                return connection();
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    Connection connection() {
+        DatabaseMetaData metaData = proxy(DatabaseMetaData.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getTables":
+                    return resultSet(tables);
+                case "getColumns":
+                    return resultSet(columns);
+                case "getDatabaseProductName":
+                    return "PostgreSQL";
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+        Statement statement = proxy(Statement.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "executeQuery":
+                    String sql = (String) args[0];
+                    executed.add(sql);
+                    return resultSet(queries.entrySet().stream()
+                            .filter(query -> sql.contains(query.getKey()))
+                            .map(Map.Entry::getValue)
+                            .findFirst()
+                            .orElse(List.of()));
+                case "close":
+                    return null;
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+        boolean[] closed = {false};
+        return proxy(Connection.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getMetaData":
+                    return metaData;
+                case "createStatement":
+                    return statement;
+                case "isClosed":
+                    return closed[0];
+                case "close":
+                    closed[0] = true;
+                    return null;
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    static Map<String, Object> row(Object... keysAndValues) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            row.put((String) keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return row;
+    }
+
+    private static ResultSet resultSet(List<Map<String, Object>> rows) {
+        Iterator<Map<String, Object>> iterator = new ArrayList<>(rows).iterator();
+        Object[] state = {null, false, false};
+        return proxy(ResultSet.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "next":
+                    state[0] = iterator.hasNext() ? iterator.next() : null;
+                    return state[0] != null;
+                case "getString":
+                    return read(state, args[0]) == null ? null : String.valueOf(read(state, args[0]));
+                case "getInt":
+                    return read(state, args[0]) == null ? 0 : ((Number) read(state, args[0])).intValue();
+                case "getLong":
+                    return read(state, args[0]) == null ? 0L : ((Number) read(state, args[0])).longValue();
+                case "getBoolean":
+                    return Boolean.TRUE.equals(read(state, args[0]));
+                case "wasNull":
+                    return state[1];
+                case "isClosed":
+                    return state[2];
+                case "close":
+                    state[2] = true;
+                    return null;
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    // reads a column of the current row and remembers whether it was null
+    @SuppressWarnings("unchecked")
+    private static Object read(Object[] state, Object column) {
+        Object value = ((Map<String, Object>) state[0]).get((String) column);
+        state[1] = value == null;
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, java.lang.reflect.InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(FakeCatalog.class.getClassLoader(), new Class[]{type}, handler);
+    }
+}
@@ -0,0 +1,98 @@
+package com.adataptivescale.rosetta.source.core;
+
+import com.adaptivescale.rosetta.common.models.Column;
+import com.adaptivescale.rosetta.common.models.Database;
+import com.adaptivescale.rosetta.common.models.Partition;
+import com.adaptivescale.rosetta.common.models.Table;
+import com.adaptivescale.rosetta.common.models.input.Connection;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class ScopedGeneratorTest {
+
+    @Test
+    public void leavesOutPartitionsOfTablesOutsideTheScope() throws Exception {
+        FakeCatalog catalog = partitionedCatalog();
+        List<String> extracted = new ArrayList<>();
+
+        Database database = generator(catalog, extracted, List.of("customers")).generate(connection());
+
+        Assertions.assertEquals(List.of("orders", "customers"), names(database));
+        Assertions.assertEquals(List.of("customers"), extracted);
+        Table orders = table(database, "orders");
+        Assertions.assertNull(orders.getColumns());
+        Assertions.assertNull(orders.getPartitioning());
+    }
+
+    @Test
+    public void extractsPartitionedTablesInScope() throws Exception {
+        FakeCatalog catalog = partitionedCatalog();
+        List<String> extracted = new ArrayList<>();
+
+        Database database = generator(catalog, extracted, List.of("orders", "orders_2024")).generate(connection());
+
+        // a partition in scope is not extracted as a table of its own
+        Assertions.assertEquals(List.of("orders", "customers"), names(database));
+        Assertions.assertEquals(List.of("orders"), extracted);
+        Table orders = table(database, "orders");
+        Assertions.assertEquals("RANGE", orders.getPartitioning().getStrategy());
+        Assertions.assertEquals(List.of("created_at"), orders.getPartitioning().getColumns());
+        Assertions.assertEquals(List.of("orders_2023", "orders_2024"), orders.getPartitioning().getPartitions().stream()
+                .map(Partition::getName).collect(Collectors.toList()));
+        Assertions.assertNull(table(database, "customers").getColumns());
+    }
+
+    static FakeCatalog partitionedCatalog() {
+        return new FakeCatalog()
+                .table("public", "orders", "PARTITIONED TABLE")
+                .table("public", "orders_2023", "TABLE")
+                .table("public", "orders_2024", "TABLE")
+                .table("public", "customers", "TABLE")
+                .query("pg_partitioned_table", row("orders", "partition_key", "RANGE (created_at)"))
+                .query("pg_inherits", row("orders", "partition_name", "orders_2023",
+                        "partition_bound", "FOR VALUES FROM ('2023-01-01') TO ('2024-01-01')"))
+                .query("pg_inherits", row("orders", "partition_name", "orders_2024",
+                        "partition_bound", "FOR VALUES FROM ('2024-01-01') TO ('2025-01-01')"))
+                .query("c.relispartition", row("orders_2023", "partitioned", false))
+                .query("c.relispartition", row("orders_2024", "partitioned", false));
+    }
+
+    static Connection connection() {
+        Connection connection = new Connection();
+        connection.setName("postgres");
+        connection.setDbType("postgres");
+        connection.setSchemaName("public");
+        connection.setUrl("jdbc:postgresql://localhost/shop");
+        return connection;
+    }
+
+    private static ScopedGenerator generator(FakeCatalog catalog, List<String> extracted, List<String> scope) {
+        return new ScopedGenerator(new PostgresTablesExtractor(), (connect, tables) -> tables.forEach(table -> {
+            extracted.add(table.getName());
+            Column column = new Column();
+            column.setName("id");
+            column.setTypeName("int4");
+            table.setColumns(List.of(column));
+        }), connection -> catalog.driver(), scope);
+    }
+
+    private static Map<String, Object> row(String table, Object... keysAndValues) {
+        Map<String, Object> row = FakeCatalog.row(keysAndValues);
+        row.put("table_schema", "public");
+        row.put("table_name", table);
+        return row;
+    }
+
+    private static List<String> names(Database database) {
+        return database.getTables().stream().map(Table::getName).collect(Collectors.toList());
+    }
+
+    private static Table table(Database database, String name) {
+        return database.getTables().stream().filter(table -> table.getName().equals(name)).findFirst().orElseThrow();
+    }
+}
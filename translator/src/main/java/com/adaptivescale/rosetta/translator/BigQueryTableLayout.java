@@ -0,0 +1,92 @@
+package com.adaptivescale.rosetta.translator;
+
+import com.adaptivescale.rosetta.common.models.Column;
+import com.adaptivescale.rosetta.common.models.Index;
+import com.adaptivescale.rosetta.common.models.Partitioning;
+import com.adaptivescale.rosetta.common.models.Table;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Derives BigQuery partitioning and clustering of a translated table from the layout of its source table. A single
+ * column RANGE partition key on a date or timestamp column becomes daily partitioning; clustering is taken from the
+ * source clustering, a LIST or HASH partition key or the first index, in that order. Keys without a BigQuery
+ * equivalent are left out.
+ */
+class BigQueryTableLayout {
+
+    static final String TARGET = "bigquery";
+
+    private static final int MAX_CLUSTERING_COLUMNS = 4;
+    private static final Set<String> CLUSTERING_TYPES = Set.of("STRING", "INT64", "NUMERIC", "BIGNUMERIC", "BOOL",
+            "DATE", "DATETIME", "TIMESTAMP", "GEOGRAPHY");
+
+    private BigQueryTableLayout() {
+    }
+
+    /**
+     * @param source table in the source model
+     * @param target translated table, its columns have BigQuery types
+     */
+    static void derive(Table source, Table target) {
+        Map<String, Column> columns = target.getColumns().stream()
+                .collect(Collectors.toMap(Column::getName, Function.identity(), (a, b) -> a));
+
+        Partitioning partitioning = source.getPartitioning();
+        if (partitioning != null && "RANGE".equalsIgnoreCase(partitioning.getStrategy())) {
+            target.setPartitionBy(partitionBy(partitioning, columns));
+        }
+
+        List<String> clusterBy = clusteringCandidates(source).stream()
+                .filter(name -> columns.containsKey(name)
+                        && CLUSTERING_TYPES.contains(columns.get(name).getTypeName().toUpperCase()))
+                .distinct()
+                .limit(MAX_CLUSTERING_COLUMNS)
+                .collect(Collectors.toList());
+        if (!clusterBy.isEmpty()) {
+            target.setClusterBy(clusterBy);
+        }
+    }
+
+    private static String partitionBy(Partitioning partitioning, Map<String, Column> columns) {
+        if (partitioning.getColumns() == null || partitioning.getColumns().size() != 1) {
+            return null;
+        }
+        Column column = columns.get(partitioning.getColumns().get(0));
+        if (column == null) {
+            return null;
+        }
+        switch (column.getTypeName().toUpperCase()) {
+            case "DATE":
+                return column.getName();
+            case "TIMESTAMP":
+            case "DATETIME":
+                return "DATE(" + column.getName() + ")";
+            default:
+                // integer range partitioning needs bounds that can not be derived from the source key
+                return null;
+        }
+    }
+
+    private static List<String> clusteringCandidates(Table source) {
+        if (source.getClusterBy() != null && !source.getClusterBy().isEmpty()) {
+            return source.getClusterBy();
+        }
+        Partitioning partitioning = source.getPartitioning();
+        if (partitioning != null && !"RANGE".equalsIgnoreCase(partitioning.getStrategy())
+                && partitioning.getColumns() != null && !partitioning.getColumns().isEmpty()) {
+            return partitioning.getColumns();
+        }
+        return Optional.ofNullable(source.getIndices()).stream()
+                .flatMap(Collection::stream)
+                .findFirst()
+                .map(Index::getColumnNames)
+                .orElse(List.of());
+    }
+}
@@ -15,22 +15,38 @@ public class DefaultTranslator implements Translator<Database, Database> {
 
     private final TranslateInfo translateInfo;
     private final String targetDatabaseName;
+    private final boolean deriveLayout;
 
     public DefaultTranslator(TranslateInfo translateInfo, String targetDatabaseName) {
+        this(translateInfo, targetDatabaseName, false);
+    }
+
+    /**
+     * @param deriveLayout derive partitioning and clustering of BigQuery tables, interleaving of Spanner tables or
+     *                     shard keys of Kinetica tables from the source tables
+     */
+    public DefaultTranslator(TranslateInfo translateInfo, String targetDatabaseName, boolean deriveLayout) {
         this.translateInfo = translateInfo;
         this.targetDatabaseName = targetDatabaseName;
+        this.deriveLayout = deriveLayout;
     }
 
     @Override
     public Database translate(Database input) {
         Database result = new Database();
         result.setName(input.getDatabaseProductName());
-        result.setTables(input.getTables().stream().map(this::translateTable).collect(Collectors.toList()));
+        IndexTranslation indexTranslation = new IndexTranslation(targetDatabaseName);
+        result.setTables(input.getTables().stream()
+                .map(table -> translateTable(table, indexTranslation))
+                .collect(Collectors.toList()));
+        if (deriveLayout && SpannerInterleaving.TARGET.equals(targetDatabaseName)) {
+            SpannerInterleaving.derive(result.getTables());
+        }
         result.setDatabaseType(targetDatabaseName);
         return result;
     }
 
-    private Table translateTable(Table table) {
+    private Table translateTable(Table table, IndexTranslation indexTranslation) {
         Table newTable = new Table();
         newTable.setName(table.getName());
         newTable.setType(table.getType());
@@ -40,6 +56,13 @@ public class DefaultTranslator implements Translator<Database, Database> {
                 .stream()
                 .map(this::translateColumn)
                 .collect(Collectors.toList()));
+        newTable.setIndices(indexTranslation.translate(table, newTable));
+        if (deriveLayout && BigQueryTableLayout.TARGET.equals(targetDatabaseName)) {
+            BigQueryTableLayout.derive(table, newTable);
+        }
+        if (deriveLayout && KineticaDistribution.TARGET.equals(targetDatabaseName)) {
+            KineticaDistribution.derive(newTable);
+        }
         return newTable;
     }
 
@@ -0,0 +1,92 @@
+package com.adaptivescale.rosetta.translator;
+
+import com.adaptivescale.rosetta.common.IndexUtils;
+import com.adaptivescale.rosetta.common.models.Column;
+import com.adaptivescale.rosetta.common.models.Index;
+import com.adaptivescale.rosetta.common.models.Table;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Carries secondary indices of the source tables over to the target. Kinds of indices the target can not express are
+ * mapped to the closest one or left out:
+ * <ul>
+ *     <li>BigQuery and Snowflake have no secondary indices, all are left out</li>
+ *     <li>expression indices are left out, their columns are not columns of the table</li>
+ *     <li>indices of another access method than B-tree, such as BRIN or GIN, are left out unless the target is Postgres,
+ *     a B-tree on the same columns does not serve the same queries</li>
+ *     <li>included columns and operator classes are kept for Postgres only</li>
+ *     <li>partial indices lose their predicate, which is written in the SQL of the source, partial unique indices
+ *     are left out since uniqueness of all rows is a stronger constraint</li>
+ *     <li>index names have to be unique per schema in Postgres and Spanner, a repeated name is prefixed with the
+ *     table name</li>
+ * </ul>
+ */
+class IndexTranslation {
+
+    private static final Set<String> TARGETS_WITHOUT_INDICES = Set.of("bigquery", "snowflake");
+    private static final Set<String> TARGETS_WITH_SCHEMA_WIDE_NAMES = Set.of("postgres", "spanner");
+    private static final String TARGET_WITH_ACCESS_METHODS = "postgres";
+
+    private final String targetDatabaseName;
+    private final Set<String> usedNames = new HashSet<>();
+
+    IndexTranslation(String targetDatabaseName) {
+        this.targetDatabaseName = targetDatabaseName;
+    }
+
+    /**
+     * @param source table in the source model
+     * @param target translated table
+     * @return indices of the translated table, null if there are none
+     */
+    List<Index> translate(Table source, Table target) {
+        if (source.getIndices() == null || TARGETS_WITHOUT_INDICES.contains(targetDatabaseName)) {
+            return null;
+        }
+
+        Set<String> columns = source.getColumns().stream().map(Column::getName).collect(Collectors.toSet());
+        List<Index> result = new ArrayList<>();
+        for (Index index : IndexUtils.secondaryIndices(source)) {
+            if (!columns.containsAll(index.getColumnNames())) {
+                continue;
+            }
+            if (IndexUtils.isPartial(index) && IndexUtils.isUnique(index)) {
+                continue;
+            }
+            boolean accessMethods = TARGET_WITH_ACCESS_METHODS.equals(targetDatabaseName);
+            if (!accessMethods && !"btree".equals(IndexUtils.method(index))) {
+                continue;
+            }
+
+            Index translated = new Index();
+            translated.setName(uniqueName(index.getName(), target));
+            translated.setSchema(target.getSchema());
+            translated.setTableName(target.getName());
+            translated.setColumnNames(new ArrayList<>(index.getColumnNames()));
+            translated.setNonUnique(index.getNonUnique());
+            translated.setType(index.getType());
+            translated.setAscOrDesc(index.getAscOrDesc());
+            if (accessMethods) {
+                translated.setMethod(index.getMethod());
+                translated.setIncludeColumns(index.getIncludeColumns());
+                translated.setOperatorClasses(index.getOperatorClasses());
+            }
+            result.add(translated);
+        }
+        return result.isEmpty() ? null : result;
+    }
+
+    private String uniqueName(String name, Table target) {
+        if (!TARGETS_WITH_SCHEMA_WIDE_NAMES.contains(targetDatabaseName)) {
+            return name;
+        }
+        String uniqueName = usedNames.contains(target.getSchema() + "." + name) ? target.getName() + "_" + name : name;
+        usedNames.add(target.getSchema() + "." + uniqueName);
+        return uniqueName;
+    }
+}
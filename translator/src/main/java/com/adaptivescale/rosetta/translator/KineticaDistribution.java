@@ -0,0 +1,61 @@
+package com.adaptivescale.rosetta.translator;
+
+import com.adaptivescale.rosetta.common.models.Column;
+import com.adaptivescale.rosetta.common.models.ForeignKey;
+import com.adaptivescale.rosetta.common.models.Table;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Derives the Kinetica shard key of a translated table from its join keys. Kinetica joins sharded tables locally only
+ * when both are sharded on the join columns, and a table is sharded by its primary key by default. A table is
+ * therefore sharded on a foreign key to another table, which lines it up with the primary key sharding of that table.
+ * The shard key has to be part of the primary key, so with a primary key only foreign keys within it are used.
+ * Replication is not derived, it depends on the size of the table.
+ */
+class KineticaDistribution {
+
+    static final String TARGET = "kinetica";
+
+    private KineticaDistribution() {
+    }
+
+    /**
+     * @param target translated table
+     */
+    static void derive(Table target) {
+        List<String> primaryKey = target.getColumns().stream()
+                .filter(Column::isPrimaryKey)
+                .sorted(Comparator.comparingInt(Column::getPrimaryKeySequenceId))
+                .map(Column::getName)
+                .collect(Collectors.toList());
+
+        for (List<String> foreignKey : foreignKeyColumns(target)) {
+            if (primaryKey.isEmpty() || (primaryKey.containsAll(foreignKey) && !primaryKey.equals(foreignKey))) {
+                target.setShardKey(foreignKey);
+                return;
+            }
+        }
+    }
+
+    private static List<List<String>> foreignKeyColumns(Table table) {
+        Map<String, List<String>> columnsByForeignKey = new LinkedHashMap<>();
+        for (Column column : table.getColumns()) {
+            if (column.getForeignKeys() == null) {
+                continue;
+            }
+            for (ForeignKey foreignKey : column.getForeignKeys()) {
+                // a foreign key to the table itself does not line up with another table
+                if (!table.getName().equals(foreignKey.getPrimaryTableName())) {
+                    columnsByForeignKey.computeIfAbsent(foreignKey.getName(), name -> new ArrayList<>()).add(column.getName());
+                }
+            }
+        }
+        return new ArrayList<>(columnsByForeignKey.values());
+    }
+}
@@ -0,0 +1,128 @@
+package com.adaptivescale.rosetta.translator;
+
+import com.adaptivescale.rosetta.common.models.Column;
+import com.adaptivescale.rosetta.common.models.ForeignKey;
+import com.adaptivescale.rosetta.common.models.Interleave;
+import com.adaptivescale.rosetta.common.models.Table;
+
+import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Derives Spanner interleaving from foreign keys. A table is interleaved in the table its foreign key references when
+ * the referenced primary key, with the same column names, is a prefix of its own longer primary key. With several
+ * candidates the parent with the longest primary key wins. The foreign key is left out, interleaving already keeps
+ * child rows from outliving their parent row.
+ */
+class SpannerInterleaving {
+
+    static final String TARGET = "spanner";
+
+    private SpannerInterleaving() {
+    }
+
+    /**
+     * @param tables translated tables
+     */
+    static void derive(Collection<Table> tables) {
+        Map<String, Table> tablesByName = tables.stream()
+                .collect(Collectors.toMap(Table::getName, Function.identity(), (a, b) -> a));
+
+        for (Table table : tables) {
+            List<String> primaryKey = primaryKey(table);
+            ParentCandidate parent = null;
+            for (List<ForeignKey> foreignKey : foreignKeys(table)) {
+                ParentCandidate candidate = candidate(foreignKey, primaryKey, tablesByName);
+                if (candidate != null && (parent == null || candidate.primaryKeySize > parent.primaryKeySize)) {
+                    parent = candidate;
+                }
+            }
+            if (parent != null) {
+                table.setInterleave(new Interleave(parent.tableName, parent.cascade ? Interleave.CASCADE : Interleave.NO_ACTION));
+                removeForeignKey(table, parent.foreignKeyName);
+            }
+        }
+    }
+
+    private static ParentCandidate candidate(List<ForeignKey> foreignKey, List<String> primaryKey,
+                                             Map<String, Table> tablesByName) {
+        String parentName = foreignKey.get(0).getPrimaryTableName();
+        Table parent = tablesByName.get(parentName);
+        if (parent == null || Objects.equals(parentName, foreignKey.get(0).getTableName())) {
+            return null;
+        }
+        List<String> parentKey = primaryKey(parent);
+        if (parentKey.isEmpty() || parentKey.size() >= primaryKey.size()
+                || !primaryKey.subList(0, parentKey.size()).equals(parentKey)) {
+            return null;
+        }
+
+        // every column of the foreign key references the parent key column of the same name
+        boolean sameColumns = foreignKey.size() == parentKey.size() && foreignKey.stream()
+                .allMatch(key -> Objects.equals(parentName, key.getPrimaryTableName())
+                        && Objects.equals(key.getColumnName(), key.getPrimaryColumnName())
+                        && parentKey.contains(key.getColumnName()));
+        if (!sameColumns) {
+            return null;
+        }
+
+        boolean cascade = foreignKey.stream().allMatch(key -> String.valueOf(DatabaseMetaData.importedKeyCascade)
+                .equals(key.getDeleteRule()));
+        return new ParentCandidate(parentName, foreignKey.get(0).getName(), parentKey.size(), cascade);
+    }
+
+    private static Collection<List<ForeignKey>> foreignKeys(Table table) {
+        Map<String, List<ForeignKey>> foreignKeysByName = new LinkedHashMap<>();
+        for (Column column : table.getColumns()) {
+            if (column.getForeignKeys() == null) {
+                continue;
+            }
+            for (ForeignKey foreignKey : column.getForeignKeys()) {
+                foreignKeysByName.computeIfAbsent(foreignKey.getName(), name -> new ArrayList<>()).add(foreignKey);
+            }
+        }
+        return foreignKeysByName.values();
+    }
+
+    private static void removeForeignKey(Table table, String foreignKeyName) {
+        for (Column column : table.getColumns()) {
+            if (column.getForeignKeys() == null) {
+                continue;
+            }
+            List<ForeignKey> remaining = column.getForeignKeys().stream()
+                    .filter(foreignKey -> !Objects.equals(foreignKeyName, foreignKey.getName()))
+                    .collect(Collectors.toList());
+            column.setForeignKeys(remaining.isEmpty() ? null : remaining);
+        }
+    }
+
+    private static List<String> primaryKey(Table table) {
+        return table.getColumns().stream()
+                .filter(Column::isPrimaryKey)
+                .sorted(Comparator.comparingInt(Column::getPrimaryKeySequenceId))
+                .map(Column::getName)
+                .collect(Collectors.toList());
+    }
+
+    private static class ParentCandidate {
+        private final String tableName;
+        private final String foreignKeyName;
+        private final int primaryKeySize;
+        private final boolean cascade;
+
+        private ParentCandidate(String tableName, String foreignKeyName, int primaryKeySize, boolean cascade) {
+            this.tableName = tableName;
+            this.foreignKeyName = foreignKeyName;
+            this.primaryKeySize = primaryKeySize;
+            this.cascade = cascade;
+        }
+    }
+}
@@ -10,9 +10,17 @@ import java.io.InputStream;
 public class TranslatorFactory {
 
    public static Translator<Database, Database> translator(String sourceDBName, String targetDBName) throws IOException {
+        return translator(sourceDBName, targetDBName, false);
+    }
+
+    /**
+     * @param deriveLayout derive partitioning, clustering, interleaving or shard keys from the source tables, see {@link DefaultTranslator}
+     */
+    public static Translator<Database, Database> translator(String sourceDBName, String targetDBName,
+                                                            boolean deriveLayout) throws IOException {
         String resourceName = String.format("translations/%s_%s.json", sourceDBName, targetDBName);
         InputStream resourceAsStream = TranslatorFactory.class.getClassLoader().getResourceAsStream(resourceName);
         TranslateInfo translateInfo = new ObjectMapper().readValue(resourceAsStream, TranslateInfo.class);
-        return new DefaultTranslator(translateInfo, targetDBName);
+        return new DefaultTranslator(translateInfo, targetDBName, deriveLayout);
     }
 }
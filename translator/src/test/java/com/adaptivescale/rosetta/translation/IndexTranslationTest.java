@@ -0,0 +1,94 @@
+package com.adaptivescale.rosetta.translation;
+
+import com.adaptivescale.rosetta.common.models.Column;
+import com.adaptivescale.rosetta.common.models.Database;
+import com.adaptivescale.rosetta.common.models.Index;
+import com.adaptivescale.rosetta.common.models.Table;
+import com.adaptivescale.rosetta.translator.TranslatorFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class IndexTranslationTest {
+
+    @Test
+    public void carriesSecondaryIndicesToPostgres() throws Exception {
+        Database database = database(List.of(table("orders", "int", "varchar"), table("invoices", "int", "varchar")));
+
+        List<Table> tables = new ArrayList<>(TranslatorFactory.translator("mysql", "postgres").translate(database).getTables());
+
+        Assertions.assertEquals(List.of("customer_idx"), indexNames(tables.get(0)));
+        // index names are unique per schema in Postgres
+        Assertions.assertEquals(List.of("invoices_customer_idx"), indexNames(tables.get(1)));
+        Index index = tables.get(1).getIndices().get(0);
+        Assertions.assertEquals("invoices", index.getTableName());
+        Assertions.assertEquals(List.of("customer"), index.getColumnNames());
+        Assertions.assertNull(index.getCardinality());
+    }
+
+    @Test
+    public void leavesOutIndicesForSnowflake() throws Exception {
+        Database database = database(List.of(table("orders", "INT", "VARCHAR")));
+
+        Table table = TranslatorFactory.translator("mysql", "snowflake").translate(database).getTables().iterator().next();
+
+        Assertions.assertNull(table.getIndices());
+    }
+
+    @Test
+    public void leavesOutGinIndicesForMySql() throws Exception {
+        Table source = table("orders", "integer", "varchar");
+        Index gin = index("customer_gin", "customer", true);
+        gin.setMethod("gin");
+        source.setIndices(List.of(index("orders_pkey", "id", false), gin, index("customer_idx", "customer", true)));
+        Database database = database(List.of(source));
+        database.setDatabaseType("postgres");
+
+        Table table = TranslatorFactory.translator("postgres", "mysql").translate(database).getTables().iterator().next();
+
+        Assertions.assertEquals(List.of("customer_idx"), indexNames(table));
+    }
+
+    private static List<String> indexNames(Table table) {
+        return table.getIndices().stream().map(Index::getName).collect(Collectors.toList());
+    }
+
+    private static Database database(List<Table> tables) {
+        Database database = new Database();
+        database.setTables(tables);
+        database.setDatabaseType("mysql");
+        return database;
+    }
+
+    private static Table table(String name, String idType, String customerType) {
+        Column id = column("id", idType);
+        id.setPrimaryKey(true);
+        id.setPrimaryKeySequenceId(1);
+
+        Table table = new Table();
+        table.setName(name);
+        table.setType("TABLE");
+        table.setColumns(List.of(id, column("customer", customerType)));
+        table.setIndices(List.of(index("PRIMARY", "id", false), index("customer_idx", "customer", true)));
+        return table;
+    }
+
+    private static Index index(String name, String column, boolean nonUnique) {
+        Index index = new Index();
+        index.setName(name);
+        index.setColumnNames(List.of(column));
+        index.setNonUnique(nonUnique);
+        index.setCardinality(12);
+        return index;
+    }
+
+    private static Column column(String name, String typeName) {
+        Column column = new Column();
+        column.setName(name);
+        column.setTypeName(typeName);
+        return column;
+    }
+}
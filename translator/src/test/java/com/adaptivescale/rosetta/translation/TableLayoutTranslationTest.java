@@ -0,0 +1,136 @@
+package com.adaptivescale.rosetta.translation;
+
+import com.adaptivescale.rosetta.common.models.Column;
+import com.adaptivescale.rosetta.common.models.Database;
+import com.adaptivescale.rosetta.common.models.ForeignKey;
+import com.adaptivescale.rosetta.common.models.Index;
+import com.adaptivescale.rosetta.common.models.Interleave;
+import com.adaptivescale.rosetta.common.models.Partitioning;
+import com.adaptivescale.rosetta.common.models.Table;
+import com.adaptivescale.rosetta.translator.TranslatorFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class TableLayoutTranslationTest {
+
+    @Test
+    public void derivesBigQueryPartitioningAndClustering() throws Exception {
+        Table translated = translate(true);
+
+        Assertions.assertEquals("DATE(created_at)", translated.getPartitionBy());
+        Assertions.assertEquals(List.of("region"), translated.getClusterBy());
+    }
+
+    @Test
+    public void keepsTablesUnpartitionedByDefault() throws Exception {
+        Table translated = translate(false);
+
+        Assertions.assertNull(translated.getPartitionBy());
+        Assertions.assertNull(translated.getClusterBy());
+    }
+
+    @Test
+    public void derivesSpannerInterleavingFromForeignKey() throws Exception {
+        Column singerId = column("singer_id", "int8");
+        singerId.setPrimaryKey(true);
+        singerId.setPrimaryKeySequenceId(1);
+        Table singers = new Table();
+        singers.setName("singers");
+        singers.setType("TABLE");
+        singers.setColumns(List.of(singerId, column("name", "varchar")));
+
+        ForeignKey foreignKey = new ForeignKey();
+        foreignKey.setName("albums_singer_fk");
+        foreignKey.setTableName("albums");
+        foreignKey.setColumnName("singer_id");
+        foreignKey.setPrimaryTableName("singers");
+        foreignKey.setPrimaryColumnName("singer_id");
+        foreignKey.setDeleteRule("0");
+        Column albumSinger = column("singer_id", "int8");
+        albumSinger.setPrimaryKey(true);
+        albumSinger.setPrimaryKeySequenceId(1);
+        albumSinger.setForeignKeys(List.of(foreignKey));
+        Column albumId = column("album_id", "int8");
+        albumId.setPrimaryKey(true);
+        albumId.setPrimaryKeySequenceId(2);
+        Table albums = new Table();
+        albums.setName("albums");
+        albums.setType("TABLE");
+        albums.setColumns(List.of(albumSinger, albumId));
+
+        Database database = new Database();
+        database.setTables(List.of(albums, singers));
+        database.setDatabaseType("postgres");
+
+        Table translated = TranslatorFactory.translator("postgres", "spanner", true).translate(database)
+                .getTables().iterator().next();
+
+        Assertions.assertEquals(new Interleave("singers", Interleave.CASCADE), translated.getInterleave());
+        Assertions.assertTrue(translated.getColumns().stream().allMatch(column -> column.getForeignKeys() == null));
+    }
+
+    @Test
+    public void derivesKineticaShardKeyFromForeignKey() throws Exception {
+        ForeignKey foreignKey = new ForeignKey();
+        foreignKey.setName("order_lines_order_fk");
+        foreignKey.setTableName("order_lines");
+        foreignKey.setColumnName("order_id");
+        foreignKey.setPrimaryTableName("orders");
+        foreignKey.setPrimaryColumnName("id");
+        Column orderId = column("order_id", "int4");
+        orderId.setPrimaryKey(true);
+        orderId.setPrimaryKeySequenceId(1);
+        orderId.setForeignKeys(List.of(foreignKey));
+        Column line = column("line", "int4");
+        line.setPrimaryKey(true);
+        line.setPrimaryKeySequenceId(2);
+        Table orderLines = new Table();
+        orderLines.setName("order_lines");
+        orderLines.setType("TABLE");
+        orderLines.setColumns(List.of(orderId, line, column("product", "varchar")));
+
+        Database database = new Database();
+        database.setTables(List.of(orderLines));
+        database.setDatabaseType("postgres");
+
+        Table translated = TranslatorFactory.translator("postgres", "kinetica", true).translate(database)
+                .getTables().iterator().next();
+
+        Assertions.assertEquals(List.of("order_id"), translated.getShardKey());
+    }
+
+    private static Table translate(boolean deriveLayout) throws Exception {
+        Partitioning partitioning = new Partitioning();
+        partitioning.setStrategy("RANGE");
+        partitioning.setColumns(List.of("created_at"));
+
+        Index index = new Index();
+        index.setName("events_region_idx");
+        index.setColumnNames(List.of("region", "amount"));
+
+        Table table = new Table();
+        table.setName("events");
+        table.setSchema("public");
+        table.setType("TABLE");
+        table.setColumns(List.of(column("created_at", "timestamp"), column("region", "varchar"),
+                column("amount", "double precision")));
+        table.setPartitioning(partitioning);
+        table.setIndices(List.of(index));
+
+        Database database = new Database();
+        database.setTables(List.of(table));
+        database.setDatabaseType("postgres");
+
+        Database result = TranslatorFactory.translator("postgres", "bigquery", deriveLayout).translate(database);
+        return result.getTables().iterator().next();
+    }
+
+    private static Column column(String name, String typeName) {
+        Column column = new Column();
+        column.setName(name);
+        column.setTypeName(typeName);
+        return column;
+    }
+}